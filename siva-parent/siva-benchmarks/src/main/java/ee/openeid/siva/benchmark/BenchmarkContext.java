@@ -0,0 +1,79 @@
+/*
+ * Copyright 2019 Riigi Infosüsteemide Amet
+ *
+ * Licensed under the EUPL, Version 1.1 or – as soon they will be approved by
+ * the European Commission - subsequent versions of the EUPL (the "Licence");
+ * You may not use this work except in compliance with the Licence.
+ * You may obtain a copy of the Licence at:
+ *
+ * https://joinup.ec.europa.eu/software/page/eupl
+ *
+ * Unless required by applicable law or agreed to in writing, software distributed under the Licence is
+ * distributed on an "AS IS" basis,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the Licence for the specific language governing permissions and limitations under the Licence.
+ */
+
+
+package ee.openeid.siva.benchmark;
+
+import ee.openeid.siva.validation.document.ValidationDocument;
+import org.apache.commons.io.IOUtils;
+import org.springframework.boot.Banner;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.context.ConfigurableApplicationContext;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.UncheckedIOException;
+
+/**
+ * Application context shared by all benchmarks of a forked JVM. The TSL is loaded from the local DSS cache,
+ * run once with -Dsiva.tsl.loader.loadFromCache=false to populate it.
+ */
+public final class BenchmarkContext {
+
+    private static final String TEST_FILES_LOCATION = "test-files/";
+
+    private static ConfigurableApplicationContext applicationContext;
+
+    private BenchmarkContext() {
+    }
+
+    public static synchronized ConfigurableApplicationContext getApplicationContext() {
+        if (applicationContext == null) {
+            applicationContext = new SpringApplicationBuilder(BenchmarkConfiguration.class)
+                    .web(false)
+                    .bannerMode(Banner.Mode.OFF)
+                    .properties("siva.tsl.loader.loadFromCache=true")
+                    .run();
+        }
+        return applicationContext;
+    }
+
+    public static <T> T getBean(Class<T> beanClass) {
+        return getApplicationContext().getBean(beanClass);
+    }
+
+    public static <T> T getBean(String name, Class<T> beanClass) {
+        return getApplicationContext().getBean(name, beanClass);
+    }
+
+    public static byte[] readTestFile(String fileName) {
+        try (InputStream inputStream = BenchmarkContext.class.getClassLoader().getResourceAsStream(TEST_FILES_LOCATION + fileName)) {
+            if (inputStream == null) {
+                throw new IllegalArgumentException("Benchmark test file not found: " + fileName);
+            }
+            return IOUtils.toByteArray(inputStream);
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    public static ValidationDocument createValidationDocument(String fileName) {
+        ValidationDocument validationDocument = new ValidationDocument();
+        validationDocument.setName(fileName);
+        validationDocument.setBytes(readTestFile(fileName));
+        return validationDocument;
+    }
+}
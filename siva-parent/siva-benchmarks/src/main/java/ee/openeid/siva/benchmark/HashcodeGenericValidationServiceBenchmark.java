@@ -0,0 +1,85 @@
+/*
+ * Copyright 2019 Riigi Infosüsteemide Amet
+ *
+ * Licensed under the EUPL, Version 1.1 or – as soon they will be approved by
+ * the European Commission - subsequent versions of the EUPL (the "Licence");
+ * You may not use this work except in compliance with the Licence.
+ * You may obtain a copy of the Licence at:
+ *
+ * https://joinup.ec.europa.eu/software/page/eupl
+ *
+ * Unless required by applicable law or agreed to in writing, software distributed under the Licence is
+ * distributed on an "AS IS" basis,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the Licence for the specific language governing permissions and limitations under the Licence.
+ */
+
+
+package ee.openeid.siva.benchmark;
+
+import ee.openeid.siva.validation.document.Datafile;
+import ee.openeid.siva.validation.document.ValidationDocument;
+import ee.openeid.siva.validation.document.report.Reports;
+import ee.openeid.validation.service.generic.HashcodeGenericValidationService;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Hashcode validation of requests with a growing number of signature files, which are validated in parallel.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 10)
+@Measurement(iterations = 5, time = 10)
+@Fork(1)
+public class HashcodeGenericValidationServiceBenchmark {
+
+    private static final String SIGNATURE_FILE = "signatures.xml";
+
+    @Param({"1", "4", "16"})
+    public int signatureFiles;
+
+    private HashcodeGenericValidationService validationService;
+    private List<ValidationDocument> validationDocuments;
+
+    @Setup
+    public void setUp() {
+        validationService = BenchmarkContext.getBean(HashcodeGenericValidationService.class);
+        byte[] signature = BenchmarkContext.readTestFile(SIGNATURE_FILE);
+        validationDocuments = new ArrayList<>(signatureFiles);
+        for (int i = 0; i < signatureFiles; i++) {
+            ValidationDocument validationDocument = new ValidationDocument();
+            validationDocument.setBytes(signature);
+            validationDocument.setDatafiles(Collections.singletonList(createDatafile()));
+            validationDocuments.add(validationDocument);
+        }
+    }
+
+    @Benchmark
+    public Reports validate() {
+        return validationService.validate(validationDocuments);
+    }
+
+    private static Datafile createDatafile() {
+        Datafile datafile = new Datafile();
+        datafile.setFilename("test.pdf");
+        datafile.setHash("LvhnsrgBZBK9kTQ8asbPtcsjuEhBo9s3QDdCcIxlMmo=");
+        datafile.setHashAlgo("SHA256");
+        return datafile;
+    }
+}
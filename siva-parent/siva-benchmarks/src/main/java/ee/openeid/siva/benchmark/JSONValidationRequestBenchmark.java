@@ -0,0 +1,70 @@
+/*
+ * Copyright 2019 Riigi Infosüsteemide Amet
+ *
+ * Licensed under the EUPL, Version 1.1 or – as soon they will be approved by
+ * the European Commission - subsequent versions of the EUPL (the "Licence");
+ * You may not use this work except in compliance with the Licence.
+ * You may obtain a copy of the Licence at:
+ *
+ * https://joinup.ec.europa.eu/software/page/eupl
+ *
+ * Unless required by applicable law or agreed to in writing, software distributed under the Licence is
+ * distributed on an "AS IS" basis,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the Licence for the specific language governing permissions and limitations under the Licence.
+ */
+
+
+package ee.openeid.siva.benchmark;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import ee.openeid.siva.webapp.request.JSONValidationRequest;
+import org.apache.commons.codec.binary.Base64;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Binding of /validate request bodies with a large Base64 document. Run with "-prof gc" to see the bytes
+ * allocated per request (gc.alloc.rate.norm).
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 10)
+@Measurement(iterations = 5, time = 10)
+@Fork(value = 1, jvmArgsAppend = "-Xmx1g")
+public class JSONValidationRequestBenchmark {
+
+    @Param({"10485760"})
+    public int documentSize;
+
+    private final ObjectMapper objectMapper = new ObjectMapper();
+    private byte[] requestBody;
+
+    @Setup
+    public void setUp() {
+        byte[] document = new byte[documentSize];
+        new Random(documentSize).nextBytes(document);
+        requestBody = ("{\"filename\":\"document.pdf\",\"signaturePolicy\":\"POLv4\",\"document\":\""
+                + Base64.encodeBase64String(document) + "\"}").getBytes(StandardCharsets.UTF_8);
+    }
+
+    @Benchmark
+    public JSONValidationRequest readRequest() throws IOException {
+        return objectMapper.readValue(requestBody, JSONValidationRequest.class);
+    }
+}
@@ -0,0 +1,133 @@
+/*
+ * Copyright 2019 Riigi Infosüsteemide Amet
+ *
+ * Licensed under the EUPL, Version 1.1 or – as soon they will be approved by
+ * the European Commission - subsequent versions of the EUPL (the "Licence");
+ * You may not use this work except in compliance with the Licence.
+ * You may obtain a copy of the Licence at:
+ *
+ * https://joinup.ec.europa.eu/software/page/eupl
+ *
+ * Unless required by applicable law or agreed to in writing, software distributed under the Licence is
+ * distributed on an "AS IS" basis,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the Licence for the specific language governing permissions and limitations under the Licence.
+ */
+
+
+package ee.openeid.siva.benchmark;
+
+import ee.openeid.validation.service.timemark.signature.policy.BDOCConfigurationService;
+import org.apache.commons.io.IOUtils;
+import org.digidoc4j.Configuration;
+import org.digidoc4j.ContainerBuilder;
+import org.digidoc4j.ValidationResult;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.zip.CRC32;
+import java.util.zip.ZipEntry;
+import java.util.zip.ZipInputStream;
+import java.util.zip.ZipOutputStream;
+
+/**
+ * DigiDoc4J validation of a BDOC container with a growing number of signatures, validated by one thread or
+ * concurrently on a thread pool (siva.bdoc.parallelSignatureValidation). The container is synthetic: the signatures
+ * of a two signature test container are repeated.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 10)
+@Measurement(iterations = 5, time = 10)
+@Fork(1)
+public class ParallelSignatureValidationBenchmark {
+
+    private static final String SOURCE_CONTAINER = "Valid_IDCard_MobID_signatures.bdoc";
+    private static final String SIGNATURE_ENTRY_PREFIX = "META-INF/signatures";
+
+    @Param({"1", "10", "50", "100"})
+    public int signatureCount;
+
+    @Param({"1", "8"})
+    public int threads;
+
+    private byte[] container;
+    private Configuration configuration;
+    private ExecutorService executor;
+
+    @Setup
+    public void setUp() throws IOException {
+        container = createContainer(BenchmarkContext.readTestFile(SOURCE_CONTAINER), signatureCount);
+        executor = Executors.newFixedThreadPool(threads);
+        configuration = BenchmarkContext.getBean(BDOCConfigurationService.class).loadPolicyConfiguration(null).getConfiguration().copy();
+        configuration.setThreadExecutor(executor);
+    }
+
+    @TearDown
+    public void tearDown() {
+        executor.shutdown();
+    }
+
+    @Benchmark
+    public ValidationResult validateContainer() {
+        return ContainerBuilder.aContainer()
+                .fromStream(new ByteArrayInputStream(container))
+                .withConfiguration(configuration)
+                .build()
+                .validate();
+    }
+
+    private static byte[] createContainer(byte[] sourceContainer, int signatureCount) throws IOException {
+        List<byte[]> signatures = new ArrayList<>();
+        ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+        try (ZipInputStream in = new ZipInputStream(new ByteArrayInputStream(sourceContainer));
+             ZipOutputStream out = new ZipOutputStream(bytes)) {
+            ZipEntry entry;
+            while ((entry = in.getNextEntry()) != null) {
+                byte[] content = IOUtils.toByteArray(in);
+                if (entry.getName().startsWith(SIGNATURE_ENTRY_PREFIX)) {
+                    signatures.add(content);
+                } else {
+                    writeEntry(out, entry.getName(), content, entry.getMethod());
+                }
+            }
+            for (int i = 0; i < signatureCount; i++) {
+                writeEntry(out, SIGNATURE_ENTRY_PREFIX + i + ".xml", signatures.get(i % signatures.size()), ZipEntry.DEFLATED);
+            }
+        }
+        return bytes.toByteArray();
+    }
+
+    private static void writeEntry(ZipOutputStream out, String name, byte[] content, int method) throws IOException {
+        ZipEntry entry = new ZipEntry(name);
+        entry.setMethod(method);
+        if (method == ZipEntry.STORED) {
+            CRC32 crc = new CRC32();
+            crc.update(content);
+            entry.setSize(content.length);
+            entry.setCrc(crc.getValue());
+        }
+        out.putNextEntry(entry);
+        out.write(content);
+        out.closeEntry();
+    }
+}
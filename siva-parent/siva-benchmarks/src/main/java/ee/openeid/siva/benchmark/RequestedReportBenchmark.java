@@ -0,0 +1,80 @@
+/*
+ * Copyright 2019 Riigi Infosüsteemide Amet
+ *
+ * Licensed under the EUPL, Version 1.1 or – as soon they will be approved by
+ * the European Commission - subsequent versions of the EUPL (the "Licence");
+ * You may not use this work except in compliance with the Licence.
+ * You may obtain a copy of the Licence at:
+ *
+ * https://joinup.ec.europa.eu/software/page/eupl
+ *
+ * Unless required by applicable law or agreed to in writing, software distributed under the Licence is
+ * distributed on an "AS IS" basis,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the Licence for the specific language governing permissions and limitations under the Licence.
+ */
+
+package ee.openeid.siva.benchmark;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import ee.openeid.siva.validation.document.ValidationDocument;
+import ee.openeid.siva.validation.document.report.Reports;
+import ee.openeid.siva.validation.document.report.RequestedReport;
+import ee.openeid.validation.service.generic.GenericValidationService;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Validation with each requested report, run with {@code -prof gc} to compare the memory allocated per
+ * request. {@code ALL} is a request without a requested report, for which all reports are built. The reports are
+ * also serialized as a whole, the way the X-Road validation service returns them to the proxy.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 10)
+@Measurement(iterations = 5, time = 10)
+@Fork(1)
+public class RequestedReportBenchmark {
+
+    private static final String ALL_REPORTS = "ALL";
+
+    @Param({"hellopades-pades-lt-sha256-sign.pdf", "ValidLiveSignature.asice"})
+    public String document;
+
+    @Param({"SIMPLE", "DETAILED", "DIAGNOSTIC", ALL_REPORTS})
+    public String requestedReport;
+
+    private final ObjectMapper objectMapper = new ObjectMapper();
+    private GenericValidationService validationService;
+    private ValidationDocument validationDocument;
+
+    @Setup
+    public void setUp() {
+        validationService = BenchmarkContext.getBean("genericValidationService", GenericValidationService.class);
+        validationDocument = BenchmarkContext.createValidationDocument(document);
+        validationDocument.setRequestedReport(ALL_REPORTS.equals(requestedReport) ? null : RequestedReport.valueOf(requestedReport));
+    }
+
+    @Benchmark
+    public Reports validateDocument() {
+        return validationService.validateDocument(validationDocument);
+    }
+
+    @Benchmark
+    public byte[] validateAndSerializeReports() throws JsonProcessingException {
+        return objectMapper.writeValueAsBytes(validationService.validateDocument(validationDocument));
+    }
+}
@@ -0,0 +1,99 @@
+/*
+ * Copyright 2019 Riigi Infosüsteemide Amet
+ *
+ * Licensed under the EUPL, Version 1.1 or – as soon they will be approved by
+ * the European Commission - subsequent versions of the EUPL (the "Licence");
+ * You may not use this work except in compliance with the Licence.
+ * You may obtain a copy of the Licence at:
+ *
+ * https://joinup.ec.europa.eu/software/page/eupl
+ *
+ * Unless required by applicable law or agreed to in writing, software distributed under the Licence is
+ * distributed on an "AS IS" basis,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the Licence for the specific language governing permissions and limitations under the Licence.
+ */
+
+
+package ee.openeid.siva.benchmark;
+
+import com.fasterxml.jackson.annotation.JsonInclude;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import ee.openeid.siva.validation.document.report.Reports;
+import ee.openeid.siva.webapp.response.ValidationResponse;
+import ee.openeid.siva.webapp.soap.response.ValidationReport;
+import ee.openeid.siva.webapp.soap.transformer.ValidationReportSoapResponseTransformer;
+import ee.openeid.validation.service.generic.GenericValidationService;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.http.converter.json.Jackson2ObjectMapperBuilder;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Transformation of validation reports into SOAP response objects and JSON response bodies.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 5)
+@Measurement(iterations = 5, time = 5)
+@Fork(1)
+public class ResponseTransformerBenchmark {
+
+    @Param({"hellopades-pades-lt-sha256-sign.pdf", "ValidLiveSignature.asice"})
+    public String document;
+
+    private final ValidationReportSoapResponseTransformer soapResponseTransformer = new ValidationReportSoapResponseTransformer();
+    private ObjectMapper objectMapper;
+    private Reports reports;
+
+    @Setup
+    public void setUp() {
+        GenericValidationService validationService = BenchmarkContext.getBean("genericValidationService", GenericValidationService.class);
+        reports = validationService.validateDocument(BenchmarkContext.createValidationDocument(document));
+        objectMapper = new Jackson2ObjectMapperBuilder()
+                .serializationInclusion(JsonInclude.Include.NON_EMPTY)
+                .build();
+    }
+
+    @Benchmark
+    public ValidationReport soapSimpleReport() {
+        return soapResponseTransformer.toSoapResponse(reports.getSimpleReport());
+    }
+
+    @Benchmark
+    public ValidationReport soapDetailedReport() {
+        return soapResponseTransformer.toSoapResponse(reports.getDetailedReport());
+    }
+
+    @Benchmark
+    public ValidationReport soapDiagnosticReport() {
+        return soapResponseTransformer.toSoapResponse(reports.getDiagnosticReport());
+    }
+
+    @Benchmark
+    public byte[] jsonSimpleReport() throws JsonProcessingException {
+        return objectMapper.writeValueAsBytes(new ValidationResponse(reports.getSimpleReport()));
+    }
+
+    @Benchmark
+    public byte[] jsonDetailedReport() throws JsonProcessingException {
+        return objectMapper.writeValueAsBytes(new ValidationResponse(reports.getDetailedReport()));
+    }
+
+    @Benchmark
+    public byte[] jsonDiagnosticReport() throws JsonProcessingException {
+        return objectMapper.writeValueAsBytes(new ValidationResponse(reports.getDiagnosticReport()));
+    }
+}
@@ -0,0 +1,95 @@
+/*
+ * Copyright 2019 Riigi Infosüsteemide Amet
+ *
+ * Licensed under the EUPL, Version 1.1 or – as soon they will be approved by
+ * the European Commission - subsequent versions of the EUPL (the "Licence");
+ * You may not use this work except in compliance with the Licence.
+ * You may obtain a copy of the Licence at:
+ *
+ * https://joinup.ec.europa.eu/software/page/eupl
+ *
+ * Unless required by applicable law or agreed to in writing, software distributed under the Licence is
+ * distributed on an "AS IS" basis,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the Licence for the specific language governing permissions and limitations under the Licence.
+ */
+
+
+package ee.openeid.siva.benchmark;
+
+import ee.openeid.siva.validation.security.SecureSAXParsers;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Threads;
+import org.openjdk.jmh.annotations.Warmup;
+import org.xml.sax.InputSource;
+import org.xml.sax.helpers.DefaultHandler;
+
+import javax.xml.parsers.SAXParser;
+import javax.xml.parsers.SAXParserFactory;
+import java.io.ByteArrayInputStream;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Contention of the hardened SAX parsing used by the hashcode and DDOC validation paths with 1, 8 and 32 threads.
+ * {@code synchronizedFactory} reproduces the former shared factory guarded by a global lock.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 5)
+@Measurement(iterations = 5, time = 5)
+@Fork(1)
+public abstract class SecureSAXParsersBenchmark {
+
+    private static final String SIGNATURE_FILE = "signatures.xml";
+
+    private final byte[] document = BenchmarkContext.readTestFile(SIGNATURE_FILE);
+    private final DefaultHandler handler = new DefaultHandler();
+    private SAXParserFactory synchronizedFactory;
+
+    @Benchmark
+    public void synchronizedFactory() throws Exception {
+        newSynchronizedParser().parse(new ByteArrayInputStream(document), handler);
+    }
+
+    @Benchmark
+    public void createParser() throws Exception {
+        SecureSAXParsers.createParser().parse(new ByteArrayInputStream(document), handler);
+    }
+
+    @Benchmark
+    public void threadConfinedParser() throws Exception {
+        SecureSAXParsers.parse(new InputSource(new ByteArrayInputStream(document)), handler);
+    }
+
+    private synchronized SAXParser newSynchronizedParser() throws Exception {
+        if (synchronizedFactory == null) {
+            synchronizedFactory = SAXParserFactory.newInstance();
+            synchronizedFactory.setFeature("http://apache.org/xml/features/disallow-doctype-decl", true);
+            synchronizedFactory.setFeature("http://xml.org/sax/features/external-general-entities", false);
+            synchronizedFactory.setFeature("http://xml.org/sax/features/external-parameter-entities", false);
+            synchronizedFactory.setFeature("http://apache.org/xml/features/nonvalidating/load-external-dtd", false);
+            synchronizedFactory.setXIncludeAware(false);
+        }
+        return synchronizedFactory.newSAXParser();
+    }
+
+    @Threads(1)
+    public static class SingleThread extends SecureSAXParsersBenchmark {
+    }
+
+    @Threads(8)
+    public static class EightThreads extends SecureSAXParsersBenchmark {
+    }
+
+    @Threads(32)
+    public static class ThirtyTwoThreads extends SecureSAXParsersBenchmark {
+    }
+}
@@ -0,0 +1,127 @@
+/*
+ * Copyright 2019 Riigi Infosüsteemide Amet
+ *
+ * Licensed under the EUPL, Version 1.1 or – as soon they will be approved by
+ * the European Commission - subsequent versions of the EUPL (the "Licence");
+ * You may not use this work except in compliance with the Licence.
+ * You may obtain a copy of the Licence at:
+ *
+ * https://joinup.ec.europa.eu/software/page/eupl
+ *
+ * Unless required by applicable law or agreed to in writing, software distributed under the Licence is
+ * distributed on an "AS IS" basis,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the Licence for the specific language governing permissions and limitations under the Licence.
+ */
+
+package ee.openeid.siva.benchmark;
+
+import ee.openeid.siva.signature.SignableDocument;
+import ee.openeid.siva.signature.SignatureService;
+import ee.openeid.siva.validation.configuration.ReportConfigurationProperties;
+import ee.openeid.siva.validation.document.report.Reports;
+import ee.openeid.siva.webapp.soap.interceptor.AbstractRequestValidationInterceptor;
+import ee.openeid.siva.webapp.soap.interceptor.ReportSignatureInterceptor;
+import ee.openeid.siva.webapp.soap.response.ValidateDocumentResponse;
+import ee.openeid.siva.webapp.soap.transformer.ValidationReportSoapResponseTransformer;
+import ee.openeid.validation.service.generic.GenericValidationService;
+import org.apache.cxf.binding.soap.SoapMessage;
+import org.apache.cxf.message.Exchange;
+import org.apache.cxf.message.ExchangeImpl;
+import org.apache.cxf.message.MessageImpl;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import javax.xml.bind.JAXBContext;
+import javax.xml.bind.JAXBElement;
+import javax.xml.bind.JAXBException;
+import javax.xml.bind.Marshaller;
+import javax.xml.namespace.QName;
+import javax.xml.soap.MessageFactory;
+import javax.xml.soap.SOAPConstants;
+import javax.xml.soap.SOAPException;
+import javax.xml.soap.SOAPMessage;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Signing of the SOAP detailed report response. The signature service returns a fixed signature, so the measured
+ * time is the serialization of the validation report and the handling of the SOAP message, not the remote
+ * OCSP and time-stamp requests of a real signature.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 5)
+@Measurement(iterations = 5, time = 5)
+@Fork(1)
+public class SoapReportSignatureBenchmark {
+
+    private static final QName VALIDATE_DOCUMENT_RESPONSE = new QName("http://soap.webapp.siva.openeid.ee/", "ValidateDocumentResponse");
+    private static final byte[] SIGNATURE = new byte[512];
+
+    @Param({"hellopades-pades-lt-sha256-sign.pdf", "ValidLiveSignature.asice"})
+    public String document;
+
+    private final ReportSignatureInterceptor reportSignatureInterceptor = new ReportSignatureInterceptor();
+    private MessageFactory messageFactory;
+    private Marshaller marshaller;
+    private JAXBElement<ValidateDocumentResponse> response;
+    private SoapMessage message;
+
+    @Setup
+    public void setUp() throws JAXBException, SOAPException {
+        GenericValidationService validationService = BenchmarkContext.getBean("genericValidationService", GenericValidationService.class);
+        Reports reports = validationService.validateDocument(BenchmarkContext.createValidationDocument(document));
+
+        ValidateDocumentResponse validateDocumentResponse = new ValidateDocumentResponse();
+        validateDocumentResponse.setValidationReport(new ValidationReportSoapResponseTransformer().toSoapResponse(reports.getDetailedReport()));
+        response = new JAXBElement<>(VALIDATE_DOCUMENT_RESPONSE, ValidateDocumentResponse.class, validateDocumentResponse);
+        marshaller = JAXBContext.newInstance(ValidateDocumentResponse.class).createMarshaller();
+        messageFactory = MessageFactory.newInstance(SOAPConstants.SOAP_1_1_PROTOCOL);
+
+        reportSignatureInterceptor.setProperties(new ReportConfigurationProperties(true));
+        reportSignatureInterceptor.setSignatureService(new FixedSignatureService());
+    }
+
+    @Setup(Level.Invocation)
+    public void createResponseMessage() throws JAXBException, SOAPException {
+        SOAPMessage soapMessage = messageFactory.createMessage();
+        marshaller.marshal(response, soapMessage.getSOAPBody());
+
+        Exchange exchange = new ExchangeImpl();
+        exchange.put(AbstractRequestValidationInterceptor.REPORT_TYPE_KEY, "Detailed");
+        message = new SoapMessage(new MessageImpl());
+        message.setExchange(exchange);
+        message.setContent(SOAPMessage.class, soapMessage);
+    }
+
+    @Benchmark
+    public SoapMessage signDetailedReport() {
+        reportSignatureInterceptor.handleMessage(message);
+        return message;
+    }
+
+    private static class FixedSignatureService implements SignatureService {
+
+        @Override
+        public byte[] getSignature(byte[] dataToSign, String dataName, String mimeTypeString) {
+            return SIGNATURE;
+        }
+
+        @Override
+        public byte[] getSignature(List<SignableDocument> documents) {
+            return SIGNATURE;
+        }
+    }
+}
@@ -0,0 +1,92 @@
+/*
+ * Copyright 2019 Riigi Infosüsteemide Amet
+ *
+ * Licensed under the EUPL, Version 1.1 or – as soon they will be approved by
+ * the European Commission - subsequent versions of the EUPL (the "Licence");
+ * You may not use this work except in compliance with the Licence.
+ * You may obtain a copy of the Licence at:
+ *
+ * https://joinup.ec.europa.eu/software/page/eupl
+ *
+ * Unless required by applicable law or agreed to in writing, software distributed under the Licence is
+ * distributed on an "AS IS" basis,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the Licence for the specific language governing permissions and limitations under the Licence.
+ */
+
+
+package ee.openeid.siva.benchmark;
+
+import ee.openeid.siva.validation.document.ValidationDocument;
+import ee.openeid.siva.validation.document.report.Reports;
+import ee.openeid.validation.service.timemark.TimemarkContainerValidationService;
+import ee.openeid.validation.service.timemark.report.AsicContainerValidationReportBuilder;
+import ee.openeid.validation.service.timemark.report.DDOCContainerValidationReportBuilder;
+import ee.openeid.validation.service.timemark.signature.policy.BDOCConfigurationService;
+import ee.openeid.validation.service.timemark.signature.policy.PolicyConfigurationWrapper;
+import org.digidoc4j.Container;
+import org.digidoc4j.ContainerBuilder;
+import org.digidoc4j.exceptions.DigiDoc4JException;
+import org.digidoc4j.impl.ddoc.DDocContainer;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.io.ByteArrayInputStream;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * DigiDoc4J validation of BDOC-TM and DDOC containers, measured as throughput to follow the per-request
+ * configuration cost. The small-2sig BDOC-TM and DDOC are the ones used by the load tests.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 10)
+@Measurement(iterations = 5, time = 10)
+@Fork(1)
+public class TimemarkContainerValidationServiceBenchmark {
+
+    @Param({"Valid_IDCard_MobID_signatures.bdoc", "igasugust1.3.ddoc", "small-2sig/BDOC-TM.bdoc", "small-2sig/DDOC.ddoc"})
+    public String document;
+
+    private TimemarkContainerValidationService validationService;
+    private ValidationDocument validationDocument;
+    private PolicyConfigurationWrapper policyConfiguration;
+    private Container validatedContainer;
+    private List<DigiDoc4JException> containerErrors;
+
+    @Setup
+    public void setUp() {
+        validationService = BenchmarkContext.getBean(TimemarkContainerValidationService.class);
+        validationDocument = BenchmarkContext.createValidationDocument(document);
+        policyConfiguration = BenchmarkContext.getBean(BDOCConfigurationService.class).loadPolicyConfiguration(null);
+        validatedContainer = ContainerBuilder.aContainer()
+                .fromStream(new ByteArrayInputStream(validationDocument.getBytes()))
+                .withConfiguration(policyConfiguration.getConfiguration())
+                .build();
+        containerErrors = validatedContainer.validate().getErrors();
+    }
+
+    @Benchmark
+    public Reports validateDocument() {
+        return validationService.validateDocument(validationDocument);
+    }
+
+    @Benchmark
+    public Reports buildReport() {
+        if (validatedContainer instanceof DDocContainer) {
+            return new DDOCContainerValidationReportBuilder(validatedContainer, validationDocument, policyConfiguration.getPolicy(), containerErrors, false).build();
+        }
+        return new AsicContainerValidationReportBuilder(validatedContainer, validationDocument, policyConfiguration.getPolicy(), containerErrors, false).build();
+    }
+}
@@ -0,0 +1,74 @@
+/*
+ * Copyright 2019 Riigi Infosüsteemide Amet
+ *
+ * Licensed under the EUPL, Version 1.1 or – as soon they will be approved by
+ * the European Commission - subsequent versions of the EUPL (the "Licence");
+ * You may not use this work except in compliance with the Licence.
+ * You may obtain a copy of the Licence at:
+ *
+ * https://joinup.ec.europa.eu/software/page/eupl
+ *
+ * Unless required by applicable law or agreed to in writing, software distributed under the Licence is
+ * distributed on an "AS IS" basis,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the Licence for the specific language governing permissions and limitations under the Licence.
+ */
+
+package ee.openeid.siva.benchmark;
+
+import ee.openeid.siva.validation.document.ValidationDocument;
+import ee.openeid.siva.validation.document.ValidationLevel;
+import ee.openeid.siva.validation.document.report.Reports;
+import ee.openeid.siva.validation.service.signature.policy.ConstraintLoadingSignaturePolicyService;
+import ee.openeid.validation.service.generic.GenericValidationService;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.Arrays;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Validation latency with each DSS validation level. All levels are allowed for the default policy of the
+ * forked JVM, whatever the configured allowed validation levels.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 10)
+@Measurement(iterations = 5, time = 10)
+@Fork(1)
+public class ValidationLevelBenchmark {
+
+    @Param({"hellopades-pades-lt-sha256-sign.pdf", "ValidLiveSignature.asice"})
+    public String document;
+
+    @Param({"BASIC_SIGNATURES", "TIMESTAMPS", "LONG_TERM_DATA", "ARCHIVAL_DATA"})
+    public ValidationLevel validationLevel;
+
+    private GenericValidationService validationService;
+    private ValidationDocument validationDocument;
+
+    @Setup
+    public void setUp() {
+        BenchmarkContext.getBean("GenericPolicyService", ConstraintLoadingSignaturePolicyService.class)
+                .getPolicy(null)
+                .setAllowedValidationLevels(Arrays.asList(ValidationLevel.values()));
+        validationService = BenchmarkContext.getBean("genericValidationService", GenericValidationService.class);
+        validationDocument = BenchmarkContext.createValidationDocument(document);
+        validationDocument.setValidationLevel(validationLevel);
+    }
+
+    @Benchmark
+    public Reports validateDocument() {
+        return validationService.validateDocument(validationDocument);
+    }
+}
@@ -0,0 +1,84 @@
+/*
+ * Copyright 2019 Riigi Infosüsteemide Amet
+ *
+ * Licensed under the EUPL, Version 1.1 or – as soon they will be approved by
+ * the European Commission - subsequent versions of the EUPL (the "Licence");
+ * You may not use this work except in compliance with the Licence.
+ * You may obtain a copy of the Licence at:
+ *
+ * https://joinup.ec.europa.eu/software/page/eupl
+ *
+ * Unless required by applicable law or agreed to in writing, software distributed under the Licence is
+ * distributed on an "AS IS" basis,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the Licence for the specific language governing permissions and limitations under the Licence.
+ */
+
+
+package ee.openeid.validation.service.generic;
+
+import ee.openeid.siva.benchmark.BenchmarkContext;
+import ee.openeid.siva.validation.document.ValidationDocument;
+import ee.openeid.siva.validation.document.report.Reports;
+import ee.openeid.siva.validation.service.signature.policy.ConstraintLoadingSignaturePolicyService;
+import ee.openeid.siva.validation.service.signature.policy.properties.ConstraintDefinedPolicy;
+import ee.openeid.validation.service.generic.validator.report.GenericValidationReportBuilder;
+import eu.europa.esig.dss.validation.SignedDocumentValidator;
+import eu.europa.esig.dss.validation.executor.ValidationLevel;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Generic (DSS) validation of PDF and ASiC-E documents. Placed in the service package to measure validator
+ * setup apart from signature verification.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 10)
+@Measurement(iterations = 5, time = 10)
+@Fork(1)
+public class GenericValidationServiceBenchmark {
+
+    @Param({"hellopades-pades-lt-sha256-sign.pdf", "ValidLiveSignature.asice"})
+    public String document;
+
+    private GenericValidationService validationService;
+    private ValidationDocument validationDocument;
+    private ConstraintDefinedPolicy policy;
+    private eu.europa.esig.dss.validation.reports.Reports dssReports;
+
+    @Setup
+    public void setUp() {
+        validationService = BenchmarkContext.getBean("genericValidationService", GenericValidationService.class);
+        validationDocument = BenchmarkContext.createValidationDocument(document);
+        policy = BenchmarkContext.getBean("GenericPolicyService", ConstraintLoadingSignaturePolicyService.class).getPolicy(null);
+        dssReports = validationService.createValidatorFromDocument(validationDocument).validateDocument(policy.getDssPolicy());
+    }
+
+    @Benchmark
+    public Reports validateDocument() {
+        return validationService.validateDocument(validationDocument);
+    }
+
+    @Benchmark
+    public SignedDocumentValidator createValidator() {
+        return validationService.createValidatorFromDocument(validationDocument);
+    }
+
+    @Benchmark
+    public Reports buildReport() {
+        return new GenericValidationReportBuilder(dssReports, ValidationLevel.ARCHIVAL_DATA, validationDocument, policy, false).build();
+    }
+}
@@ -0,0 +1,158 @@
+/*
+ * Copyright 2019 Riigi Infosüsteemide Amet
+ *
+ * Licensed under the EUPL, Version 1.1 or – as soon they will be approved by
+ * the European Commission - subsequent versions of the EUPL (the "Licence");
+ * You may not use this work except in compliance with the Licence.
+ * You may obtain a copy of the Licence at:
+ *
+ * https://joinup.ec.europa.eu/software/page/eupl
+ *
+ * Unless required by applicable law or agreed to in writing, software distributed under the Licence is
+ * distributed on an "AS IS" basis,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the Licence for the specific language governing permissions and limitations under the Licence.
+ */
+
+package ee.openeid.validation.service.timemark.report;
+
+import ee.openeid.siva.validation.document.ValidationDocument;
+import ee.openeid.siva.validation.document.report.Reports;
+import ee.openeid.siva.validation.document.report.SignatureScope;
+import ee.openeid.siva.validation.document.report.ValidationWarning;
+import ee.openeid.siva.validation.service.signature.policy.properties.ValidationPolicy;
+import org.digidoc4j.Container;
+import org.digidoc4j.Signature;
+import org.digidoc4j.SignatureProfile;
+import org.digidoc4j.ValidationResult;
+import org.digidoc4j.X509Cert;
+import org.digidoc4j.exceptions.DigiDoc4JException;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Date;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+import static org.mockito.Matchers.any;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+import static org.mockito.Mockito.withSettings;
+
+/**
+ * Timemark report building for containers with many signatures. No sample container has more than a few
+ * signatures, so the signatures are stubbed: every {@code validateSignature()} call consumes a fixed amount of
+ * CPU, and every signature error is also reported as a container error, as DigiDoc4J does for BDOC containers.
+ * Placed in the report package to extend the package-private report builder.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 5)
+@Measurement(iterations = 5, time = 5)
+@Fork(1)
+public class TimemarkReportBuilderBenchmark {
+
+    private static final int ERRORS_PER_SIGNATURE = 5;
+    private static final long VALIDATION_CPU_TOKENS = 10_000;
+
+    @Param({"10", "60"})
+    public int signatureCount;
+
+    private final List<DigiDoc4JException> containerErrors = new ArrayList<>();
+    private Container container;
+    private ValidationDocument validationDocument;
+    private ValidationPolicy validationPolicy;
+
+    @Setup
+    public void setUp() {
+        List<Signature> signatures = new ArrayList<>();
+        for (int i = 0; i < signatureCount; i++) {
+            signatures.add(stubSignature("S" + i));
+        }
+        container = mock(Container.class, withSettings().stubOnly());
+        when(container.getSignatures()).thenAnswer(invocation -> new ArrayList<>(signatures));
+        when(container.getDataFiles()).thenReturn(Collections.emptyList());
+
+        validationDocument = new ValidationDocument();
+        validationDocument.setName("container.bdoc");
+        validationDocument.setBytes(new byte[]{1});
+        validationPolicy = new ValidationPolicy();
+        validationPolicy.setName("POLv3");
+    }
+
+    @Benchmark
+    public Reports buildReport() {
+        return new StubbedReportBuilder(container, validationDocument, validationPolicy, containerErrors).build();
+    }
+
+    private Signature stubSignature(String id) {
+        List<DigiDoc4JException> errors = new ArrayList<>();
+        for (int i = 0; i < ERRORS_PER_SIGNATURE; i++) {
+            errors.add(new DigiDoc4JException(id + " error " + i));
+        }
+        containerErrors.addAll(errors);
+
+        ValidationResult validationResult = mock(ValidationResult.class, withSettings().stubOnly());
+        when(validationResult.isValid()).thenReturn(false);
+        when(validationResult.getErrors()).thenReturn(errors);
+        when(validationResult.getWarnings()).thenReturn(Collections.emptyList());
+
+        X509Cert signingCertificate = mock(X509Cert.class, withSettings().stubOnly());
+        when(signingCertificate.getSubjectName(any(X509Cert.SubjectName.class))).thenReturn("\"SIGNER," + id + "\"");
+
+        Signature signature = mock(Signature.class, withSettings().stubOnly());
+        when(signature.getId()).thenReturn(id);
+        when(signature.getProfile()).thenReturn(SignatureProfile.LT_TM);
+        when(signature.getSigningCertificate()).thenReturn(signingCertificate);
+        when(signature.getClaimedSigningTime()).thenReturn(new Date());
+        when(signature.validateSignature()).thenAnswer(invocation -> {
+            Blackhole.consumeCPU(VALIDATION_CPU_TOKENS);
+            return validationResult;
+        });
+        return signature;
+    }
+
+    private static class StubbedReportBuilder extends TimemarkContainerValidationReportBuilder {
+
+        StubbedReportBuilder(Container container, ValidationDocument validationDocument, ValidationPolicy validationPolicy, List<DigiDoc4JException> containerErrors) {
+            super(container, validationDocument, validationPolicy, containerErrors, false);
+        }
+
+        @Override
+        void addExtraValidationWarnings(List<ValidationWarning> validationWarnings) {
+        }
+
+        @Override
+        List<ValidationWarning> getValidationWarningsForUnsignedDataFiles() {
+            return new ArrayList<>();
+        }
+
+        @Override
+        List<SignatureScope> getSignatureScopes(Signature signature, List<String> dataFilenames) {
+            return new ArrayList<>();
+        }
+
+        @Override
+        String getSignatureForm() {
+            return BDOC_SIGNATURE_FORM;
+        }
+
+        @Override
+        String getSignatureFormat(SignatureProfile profile) {
+            return XADES_FORMAT_PREFIX + profile.name();
+        }
+    }
+}
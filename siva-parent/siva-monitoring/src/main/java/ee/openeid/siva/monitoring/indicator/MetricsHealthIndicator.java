@@ -0,0 +1,41 @@
+/*
+ * Copyright 2019 Riigi Infosüsteemide Amet
+ *
+ * Licensed under the EUPL, Version 1.1 or – as soon they will be approved by
+ * the European Commission - subsequent versions of the EUPL (the "Licence");
+ * You may not use this work except in compliance with the Licence.
+ * You may obtain a copy of the Licence at:
+ *
+ * https://joinup.ec.europa.eu/software/page/eupl
+ *
+ * Unless required by applicable law or agreed to in writing, software distributed under the Licence is
+ * distributed on an "AS IS" basis,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the Licence for the specific language governing permissions and limitations under the Licence.
+ */
+
+package ee.openeid.siva.monitoring.indicator;
+
+import org.springframework.boot.actuate.health.AbstractHealthIndicator;
+import org.springframework.boot.actuate.health.Health;
+
+import java.util.Map;
+import java.util.function.Supplier;
+
+/**
+ * Publishes internal component metrics (counters, gauges) as health details. The component is always reported as up.
+ */
+public class MetricsHealthIndicator extends AbstractHealthIndicator {
+
+    private final Supplier<Map<String, Object>> metrics;
+
+    public MetricsHealthIndicator(Supplier<Map<String, Object>> metrics) {
+        this.metrics = metrics;
+    }
+
+    @Override
+    protected void doHealthCheck(Health.Builder builder) {
+        builder.up();
+        metrics.get().forEach(builder::withDetail);
+    }
+}
@@ -0,0 +1,53 @@
+/*
+ * Copyright 2019 Riigi Infosüsteemide Amet
+ *
+ * Licensed under the EUPL, Version 1.1 or – as soon they will be approved by
+ * the European Commission - subsequent versions of the EUPL (the "Licence");
+ * You may not use this work except in compliance with the Licence.
+ * You may obtain a copy of the Licence at:
+ *
+ * https://joinup.ec.europa.eu/software/page/eupl
+ *
+ * Unless required by applicable law or agreed to in writing, software distributed under the Licence is
+ * distributed on an "AS IS" basis,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the Licence for the specific language governing permissions and limitations under the Licence.
+ */
+
+package ee.openeid.siva.monitoring.indicator;
+
+import org.junit.Test;
+import org.springframework.boot.actuate.health.Health;
+import org.springframework.boot.actuate.health.Status;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+import static org.junit.Assert.assertEquals;
+
+public class MetricsHealthIndicatorTest {
+
+    @Test
+    public void metricsArePublishedAsHealthDetails() {
+        Map<String, Object> metrics = new LinkedHashMap<>();
+        metrics.put("hitCount", 5L);
+        metrics.put("missCount", 2L);
+
+        Health health = new MetricsHealthIndicator(() -> metrics).health();
+
+        assertEquals(Status.UP, health.getStatus());
+        assertEquals(5L, health.getDetails().get("hitCount"));
+        assertEquals(2L, health.getDetails().get("missCount"));
+    }
+
+    @Test
+    public void metricsAreReadOnEveryHealthCheck() {
+        Map<String, Object> metrics = new LinkedHashMap<>();
+        MetricsHealthIndicator indicator = new MetricsHealthIndicator(() -> metrics);
+
+        metrics.put("size", 1L);
+        assertEquals(1L, indicator.health().getDetails().get("size"));
+        metrics.put("size", 2L);
+        assertEquals(2L, indicator.health().getDetails().get("size"));
+    }
+}
@@ -20,30 +20,37 @@ import ee.openeid.siva.signature.configuration.Pkcs11Properties;
 import ee.openeid.siva.signature.configuration.Pkcs12Properties;
 import ee.openeid.siva.signature.configuration.SignatureServiceConfigurationProperties;
 import ee.openeid.siva.signature.exception.SignatureServiceException;
+import ee.openeid.siva.signature.ocsp.CachingOcspSource;
 import ee.openeid.siva.signature.ocsp.SkOcspSource;
+import ee.openeid.siva.signature.token.SignatureTokenPool;
+import ee.openeid.siva.signature.token.SignatureTokenPool.PooledSignatureToken;
 import ee.openeid.siva.signature.tsp.SKTimestampDataLoader;
+import ee.openeid.tsl.TSLLoader;
 import eu.europa.esig.dss.*;
 import eu.europa.esig.dss.asic.ASiCWithXAdESSignatureParameters;
 import eu.europa.esig.dss.asic.signature.ASiCWithXAdESService;
 import eu.europa.esig.dss.client.tsp.OnlineTSPSource;
-import eu.europa.esig.dss.token.AbstractSignatureTokenConnection;
 import eu.europa.esig.dss.token.DSSPrivateKeyEntry;
 import eu.europa.esig.dss.token.Pkcs11SignatureToken;
 import eu.europa.esig.dss.token.Pkcs12SignatureToken;
-import eu.europa.esig.dss.tsl.TrustedListsCertificateSource;
 import eu.europa.esig.dss.validation.CommonCertificateVerifier;
 import eu.europa.esig.dss.x509.ocsp.OCSPSource;
 import eu.europa.esig.dss.x509.tsp.TSPSource;
 import org.apache.commons.io.IOUtils;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Qualifier;
 import org.springframework.stereotype.Service;
 
+import javax.annotation.PreDestroy;
 import java.io.FileInputStream;
 import java.io.FileNotFoundException;
 import java.io.IOException;
 import java.io.InputStream;
 import java.security.KeyStore;
 import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.stream.Collectors;
 
 @Service
 public class AsiceWithXadesSignatureService implements SignatureService {
@@ -54,20 +61,109 @@ public class AsiceWithXadesSignatureService implements SignatureService {
     private SignatureServiceConfigurationProperties properties;
 
     @Autowired
-    private TrustedListsCertificateSource trustedListSource;
+    @Qualifier("tslLoader")
+    private TSLLoader tslLoader;
+
+    private volatile SigningContext signingContext;
 
     @Override
     public byte[] getSignature(byte[] dataToSign, String dataName, String mimeTypeString) throws IOException {
+        return getSignature(Collections.singletonList(new SignableDocument(dataToSign, dataName, mimeTypeString)));
+    }
+
+    /**
+     * The signature token is held only for computing the signature value, the timestamp and OCSP requests of
+     * {@code signDocument} run after it has been returned to the pool.
+     */
+    @Override
+    public byte[] getSignature(List<SignableDocument> documents) throws IOException {
+        if (documents == null || documents.isEmpty()) {
+            throw new SignatureServiceException("No documents to sign!");
+        }
+        SigningContext context = getSigningContext();
+        List<DSSDocument> documentsToBeSigned = documents.stream()
+                .map(AsiceWithXadesSignatureService::createDocument)
+                .collect(Collectors.toList());
+
+        ASiCWithXAdESService service = createService(context);
+        ASiCWithXAdESSignatureParameters parameters;
+        SignatureValue signatureValue;
+        PooledSignatureToken signatureToken = context.tokenPool.acquire();
+        try {
+            parameters = createParameters(context.signatureLevel, signatureToken.getPrivateKeyEntry());
+            ToBeSigned toBeSigned = service.getDataToSign(documentsToBeSigned, parameters);
+            signatureValue = signatureToken.getConnection().sign(toBeSigned, parameters.getDigestAlgorithm(), signatureToken.getPrivateKeyEntry());
+        } catch (RuntimeException e) {
+            context.tokenPool.invalidate(signatureToken);
+            throw e;
+        }
+        context.tokenPool.release(signatureToken);
+
+        DSSDocument signedDocument = service.signDocument(documentsToBeSigned, parameters, signatureValue);
+        return IOUtils.toByteArray(signedDocument.openStream());
+    }
+
+    public SignatureServiceConfigurationProperties getProperties() {
+        return properties;
+    }
+
+    public void setProperties(SignatureServiceConfigurationProperties signatureServiceConfigurationProperties) {
+        properties = signatureServiceConfigurationProperties;
+    }
+
+    public void setTslLoader(TSLLoader tslLoader) {
+        this.tslLoader = tslLoader;
+    }
+
+    @PreDestroy
+    public synchronized void close() {
+        if (signingContext != null) {
+            signingContext.tokenPool.close();
+            signingContext = null;
+        }
+    }
+
+    private SigningContext getSigningContext() {
+        SigningContext context = signingContext;
+        if (context == null) {
+            synchronized (this) {
+                context = signingContext;
+                if (context == null) {
+                    context = createSigningContext();
+                    signingContext = context;
+                }
+            }
+        }
+        return context;
+    }
+
+    private SigningContext createSigningContext() {
         if (properties == null) {
             throw new SignatureServiceException("Signature configuration properties not set!");
         }
+        SignatureLevel signatureLevel = getSingatureLevel(properties.getSignatureLevel());
+        SignatureTokenPool tokenPool = getSignatureTokenPool(properties);
 
-        AbstractSignatureTokenConnection signatureToken = getSignatureToken(properties);
+        return new SigningContext(signatureLevel, tokenPool, getOcspSource(properties.getOcspUrl()), getTspSource(properties.getTspUrl()));
+    }
 
-        DSSPrivateKeyEntry privateKeyEntry = signatureToken.getKeys().get(0);
+    /**
+     * DSS stores the revocation data found while signing into the certificate verifier, so the verifier and the
+     * service are created for every signature on top of the shared OCSP and TSP sources. The trusted certificates
+     * are looked up per signature, so that a signature is always verified against the latest loaded TSL.
+     */
+    private ASiCWithXAdESService createService(SigningContext context) {
+        CommonCertificateVerifier commonCertificateVerifier = new CommonCertificateVerifier();
+        commonCertificateVerifier.setOcspSource(context.ocspSource);
+        commonCertificateVerifier.setTrustedCertSource(tslLoader.getTrustedListSource());
 
+        ASiCWithXAdESService service = new ASiCWithXAdESService(commonCertificateVerifier);
+        service.setTspSource(context.tspSource);
+        return service;
+    }
+
+    private static ASiCWithXAdESSignatureParameters createParameters(SignatureLevel signatureLevel, DSSPrivateKeyEntry privateKeyEntry) {
         ASiCWithXAdESSignatureParameters parameters = new ASiCWithXAdESSignatureParameters();
-        SignatureLevel signatureLevel = getSingatureLevel(properties.getSignatureLevel());
         parameters.setSignatureLevel(signatureLevel);
         parameters.setSignaturePackaging(SignaturePackaging.DETACHED);
         parameters.aSiC().setContainerType(ASiCContainerType.ASiC_E);
@@ -75,44 +171,28 @@ public class AsiceWithXadesSignatureService implements SignatureService {
         parameters.aSiC().setMimeType(MimeType.ASICE.getMimeTypeString());
         parameters.setSigningCertificate(privateKeyEntry.getCertificate());
         parameters.setEncryptionAlgorithm(privateKeyEntry.getEncryptionAlgorithm());
+        return parameters;
+    }
 
-        CommonCertificateVerifier commonCertificateVerifier = new CommonCertificateVerifier();
-        OCSPSource ocspSource = getOcspSource(properties.getOcspUrl());
-        commonCertificateVerifier.setOcspSource(ocspSource);
-        commonCertificateVerifier.setTrustedCertSource(trustedListSource);
-
-        ASiCWithXAdESService service = new ASiCWithXAdESService(commonCertificateVerifier);
-        TSPSource tspSource = getTspSource(properties.getTspUrl());
-        service.setTspSource(tspSource);
-
-        DSSDocument documentToBeSigned = new InMemoryDocument(dataToSign, dataName);
+    private static DSSDocument createDocument(SignableDocument document) {
+        DSSDocument documentToBeSigned = new InMemoryDocument(document.getBytes(), document.getName());
         MimeType mimeType = new MimeType();
-        mimeType.setMimeTypeString(mimeTypeString);
+        mimeType.setMimeTypeString(document.getMimeType());
         documentToBeSigned.setMimeType(mimeType);
-
-        ToBeSigned toBeSigned = service.getDataToSign(documentToBeSigned, parameters);
-        SignatureValue signatureValue = signatureToken.sign(toBeSigned, parameters.getDigestAlgorithm(), privateKeyEntry);
-        DSSDocument signedDocument = service.signDocument(documentToBeSigned, parameters, signatureValue);
-
-        return IOUtils.toByteArray(signedDocument.openStream());
-    }
-
-    public SignatureServiceConfigurationProperties getProperties() {
-        return properties;
-    }
-
-    public void setProperties(SignatureServiceConfigurationProperties signatureServiceConfigurationProperties) {
-        properties = signatureServiceConfigurationProperties;
+        return documentToBeSigned;
     }
 
-    private AbstractSignatureTokenConnection getSignatureToken(SignatureServiceConfigurationProperties configurationProperties) {
+    private SignatureTokenPool getSignatureTokenPool(SignatureServiceConfigurationProperties configurationProperties) {
         Pkcs11Properties pkcs11Properties = configurationProperties.getPkcs11();
         Pkcs12Properties pkcs12Properties = configurationProperties.getPkcs12();
         if (pkcs11Properties != null) {
-            return new Pkcs11SignatureToken(pkcs11Properties.getPath(), new KeyStore.PasswordProtection(pkcs11Properties.getPassword().toCharArray()), pkcs11Properties.getSlotIndex());
+            return SignatureTokenPool.exclusive(
+                    () -> new Pkcs11SignatureToken(pkcs11Properties.getPath(), new KeyStore.PasswordProtection(pkcs11Properties.getPassword().toCharArray()), pkcs11Properties.getSlotIndex()),
+                    pkcs11Properties.getSessionPoolSize(),
+                    configurationProperties.getTokenAcquireTimeoutInMillis());
         } else if (pkcs12Properties != null) {
             InputStream p12InputStream = getKeystoreInputStream(pkcs12Properties.getPath());
-            return new Pkcs12SignatureToken(p12InputStream, new KeyStore.PasswordProtection(pkcs12Properties.getPassword().toCharArray()));
+            return SignatureTokenPool.shared(new Pkcs12SignatureToken(p12InputStream, new KeyStore.PasswordProtection(pkcs12Properties.getPassword().toCharArray())));
         } else {
             throw new SignatureServiceException("Either Pkcs11 or Pkcs12 must be configured! Currently there is none configured..");
         }
@@ -143,7 +223,7 @@ public class AsiceWithXadesSignatureService implements SignatureService {
     }
 
     private OCSPSource getOcspSource(String ocspSourceUrl) {
-        return new SkOcspSource(ocspSourceUrl);
+        return new CachingOcspSource(new SkOcspSource(ocspSourceUrl), properties.getOcspCacheMaxAgeInSeconds() * 1000);
     }
 
     private TSPSource getTspSource(String tspSourceUrl) {
@@ -152,4 +232,19 @@ public class AsiceWithXadesSignatureService implements SignatureService {
         tspSource.setDataLoader(dataLoader);
         return tspSource;
     }
+
+    private static class SigningContext {
+
+        private final SignatureLevel signatureLevel;
+        private final SignatureTokenPool tokenPool;
+        private final OCSPSource ocspSource;
+        private final TSPSource tspSource;
+
+        SigningContext(SignatureLevel signatureLevel, SignatureTokenPool tokenPool, OCSPSource ocspSource, TSPSource tspSource) {
+            this.signatureLevel = signatureLevel;
+            this.tokenPool = tokenPool;
+            this.ocspSource = ocspSource;
+            this.tspSource = tspSource;
+        }
+    }
 }
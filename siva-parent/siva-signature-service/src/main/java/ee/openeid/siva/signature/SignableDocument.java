@@ -1,5 +1,5 @@
 /*
- * Copyright 2017 Riigi Infosüsteemide Amet
+ * Copyright 2019 Riigi Infosüsteemide Amet
  *
  * Licensed under the EUPL, Version 1.1 or – as soon they will be approved by
  * the European Commission - subsequent versions of the EUPL (the "Licence");
@@ -14,10 +14,16 @@
  * See the Licence for the specific language governing permissions and limitations under the Licence.
  */
 
-package ee.openeid.validation.service.timemark.signature.policy;
 
-public class BdocPolicyFileCreationException extends RuntimeException {
-    public BdocPolicyFileCreationException(Exception e) {
-        super(e);
-    }
+package ee.openeid.siva.signature;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+
+@Data
+@AllArgsConstructor
+public class SignableDocument {
+    private byte[] bytes;
+    private String name;
+    private String mimeType;
 }
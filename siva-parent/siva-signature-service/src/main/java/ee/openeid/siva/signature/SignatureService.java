@@ -17,9 +17,15 @@
 package ee.openeid.siva.signature;
 
 import java.io.IOException;
+import java.util.List;
 
 public interface SignatureService {
 
     byte[] getSignature(byte[] dataToSign, String dataName, String mimeTypeString) throws IOException;
 
+    /**
+     * Signs all documents with a single signature, so the whole batch shares one timestamp and one OCSP response.
+     */
+    byte[] getSignature(List<SignableDocument> documents) throws IOException;
+
 }
@@ -27,4 +27,6 @@ public class SignatureServiceConfigurationProperties {
     private String ocspUrl;
     private Pkcs11Properties pkcs11;
     private Pkcs12Properties pkcs12;
+    private long tokenAcquireTimeoutInMillis = 10000;
+    private long ocspCacheMaxAgeInSeconds = 0;
 }
@@ -0,0 +1,103 @@
+/*
+ * Copyright 2019 Riigi Infosüsteemide Amet
+ *
+ * Licensed under the EUPL, Version 1.1 or – as soon they will be approved by
+ * the European Commission - subsequent versions of the EUPL (the "Licence");
+ * You may not use this work except in compliance with the Licence.
+ * You may obtain a copy of the Licence at:
+ *
+ * https://joinup.ec.europa.eu/software/page/eupl
+ *
+ * Unless required by applicable law or agreed to in writing, software distributed under the Licence is
+ * distributed on an "AS IS" basis,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the Licence for the specific language governing permissions and limitations under the Licence.
+ */
+
+
+package ee.openeid.siva.signature.ocsp;
+
+import eu.europa.esig.dss.DSSRevocationUtils;
+import eu.europa.esig.dss.x509.CertificateToken;
+import eu.europa.esig.dss.x509.ocsp.OCSPSource;
+import eu.europa.esig.dss.x509.ocsp.OCSPToken;
+import org.bouncycastle.cert.ocsp.SingleResp;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.time.Clock;
+import java.util.Date;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+
+/**
+ * Reuses OCSP responses until their nextUpdate time. Responses without nextUpdate are kept for the
+ * configured maximum age, zero disables caching of such responses.
+ */
+public class CachingOcspSource implements OCSPSource {
+
+    private static final Logger LOGGER = LoggerFactory.getLogger(CachingOcspSource.class);
+
+    private final OCSPSource delegate;
+    private final long maxAgeInMillis;
+    private final Clock clock;
+    private final ConcurrentMap<String, CachedResponse> responses = new ConcurrentHashMap<>();
+
+    public CachingOcspSource(OCSPSource delegate, long maxAgeInMillis) {
+        this(delegate, maxAgeInMillis, Clock.systemUTC());
+    }
+
+    CachingOcspSource(OCSPSource delegate, long maxAgeInMillis, Clock clock) {
+        this.delegate = delegate;
+        this.maxAgeInMillis = maxAgeInMillis;
+        this.clock = clock;
+    }
+
+    @Override
+    public OCSPToken getRevocationToken(CertificateToken certificateToken, CertificateToken issuerCertificateToken) {
+        String key = certificateToken.getDSSIdAsString() + ":" + issuerCertificateToken.getDSSIdAsString();
+        long now = clock.millis();
+        CachedResponse cached = responses.get(key);
+        if (cached != null && now < cached.expiresAt) {
+            LOGGER.debug("Using cached OCSP response for {}", certificateToken.getDSSIdAsString());
+            return cached.token;
+        }
+
+        OCSPToken token = delegate.getRevocationToken(certificateToken, issuerCertificateToken);
+        long expiresAt = token == null ? now : getExpiryTime(token, now);
+        if (expiresAt > now) {
+            responses.put(key, new CachedResponse(token, expiresAt));
+        } else {
+            responses.remove(key);
+        }
+        return token;
+    }
+
+    public int getSize() {
+        return responses.size();
+    }
+
+    private long getExpiryTime(OCSPToken token, long now) {
+        if (token.getBasicOCSPResp() == null || token.getCertId() == null) {
+            return now;
+        }
+        for (SingleResp singleResp : token.getBasicOCSPResp().getResponses()) {
+            if (DSSRevocationUtils.matches(token.getCertId(), singleResp)) {
+                Date nextUpdate = singleResp.getNextUpdate();
+                return nextUpdate != null ? nextUpdate.getTime() : now + maxAgeInMillis;
+            }
+        }
+        return now;
+    }
+
+    private static class CachedResponse {
+
+        private final OCSPToken token;
+        private final long expiresAt;
+
+        CachedResponse(OCSPToken token, long expiresAt) {
+            this.token = token;
+            this.expiresAt = expiresAt;
+        }
+    }
+}
@@ -0,0 +1,189 @@
+/*
+ * Copyright 2019 Riigi Infosüsteemide Amet
+ *
+ * Licensed under the EUPL, Version 1.1 or – as soon they will be approved by
+ * the European Commission - subsequent versions of the EUPL (the "Licence");
+ * You may not use this work except in compliance with the Licence.
+ * You may obtain a copy of the Licence at:
+ *
+ * https://joinup.ec.europa.eu/software/page/eupl
+ *
+ * Unless required by applicable law or agreed to in writing, software distributed under the Licence is
+ * distributed on an "AS IS" basis,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the Licence for the specific language governing permissions and limitations under the Licence.
+ */
+
+
+package ee.openeid.siva.signature.token;
+
+import ee.openeid.siva.signature.exception.SignatureServiceException;
+import eu.europa.esig.dss.token.AbstractSignatureTokenConnection;
+import eu.europa.esig.dss.token.DSSPrivateKeyEntry;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.io.Closeable;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Supplier;
+
+/**
+ * Keeps signature tokens open together with their first key entry so that the keystore is read only once.
+ * An exclusive pool hands every token to one caller at a time (PKCS#11 sessions), a shared pool hands the
+ * same token to all callers (PKCS#12 keystores). A session that failed to sign is closed and replaced with a
+ * new one from the connection factory.
+ */
+public class SignatureTokenPool implements Closeable {
+
+    private static final Logger LOGGER = LoggerFactory.getLogger(SignatureTokenPool.class);
+
+    private final List<PooledSignatureToken> tokens;
+    private final BlockingQueue<PooledSignatureToken> idleTokens;
+    private final Supplier<AbstractSignatureTokenConnection> connectionFactory;
+    private final long acquireTimeoutInMillis;
+
+    private SignatureTokenPool(List<PooledSignatureToken> tokens, BlockingQueue<PooledSignatureToken> idleTokens,
+                               Supplier<AbstractSignatureTokenConnection> connectionFactory, long acquireTimeoutInMillis) {
+        this.tokens = tokens;
+        this.idleTokens = idleTokens;
+        this.connectionFactory = connectionFactory;
+        this.acquireTimeoutInMillis = acquireTimeoutInMillis;
+    }
+
+    public static SignatureTokenPool shared(AbstractSignatureTokenConnection connection) {
+        PooledSignatureToken token = openToken(connection);
+        return new SignatureTokenPool(Collections.singletonList(token), null, null, 0);
+    }
+
+    public static SignatureTokenPool exclusive(Supplier<AbstractSignatureTokenConnection> connectionFactory, int size, long acquireTimeoutInMillis) {
+        if (size < 1) {
+            throw new SignatureServiceException("Signature token pool size must be at least 1, was " + size);
+        }
+        List<PooledSignatureToken> tokens = new ArrayList<>(size);
+        try {
+            for (int i = 0; i < size; i++) {
+                tokens.add(openToken(connectionFactory.get()));
+            }
+        } catch (RuntimeException e) {
+            tokens.forEach(PooledSignatureToken::close);
+            throw e;
+        }
+        LOGGER.info("Opened {} signature token session(s)", size);
+        return new SignatureTokenPool(Collections.synchronizedList(tokens), new ArrayBlockingQueue<>(size, false, tokens), connectionFactory, acquireTimeoutInMillis);
+    }
+
+    public PooledSignatureToken acquire() {
+        if (idleTokens == null) {
+            return tokens.get(0);
+        }
+        try {
+            PooledSignatureToken token = idleTokens.poll(acquireTimeoutInMillis, TimeUnit.MILLISECONDS);
+            if (token == null) {
+                throw new SignatureServiceException("No signature token available within " + acquireTimeoutInMillis + " ms");
+            }
+            return token.isClosed() ? reopen(token) : token;
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new SignatureServiceException("Interrupted while waiting for signature token", e);
+        }
+    }
+
+    public void release(PooledSignatureToken token) {
+        if (idleTokens != null) {
+            idleTokens.offer(token);
+        }
+    }
+
+    /**
+     * Closes a session that failed to sign instead of returning it to the pool. A new session is opened in its
+     * place when the slot is acquired next.
+     */
+    public void invalidate(PooledSignatureToken token) {
+        if (idleTokens == null) {
+            return;
+        }
+        LOGGER.warn("Closing failed signature token session");
+        token.close();
+        idleTokens.offer(token);
+    }
+
+    public int getSize() {
+        return tokens.size();
+    }
+
+    public int getAvailableCount() {
+        return idleTokens == null ? tokens.size() : idleTokens.size();
+    }
+
+    @Override
+    public void close() {
+        synchronized (tokens) {
+            tokens.forEach(PooledSignatureToken::close);
+        }
+    }
+
+    private PooledSignatureToken reopen(PooledSignatureToken closedToken) {
+        PooledSignatureToken token;
+        try {
+            token = openToken(connectionFactory.get());
+        } catch (RuntimeException e) {
+            idleTokens.offer(closedToken);
+            throw e;
+        }
+        synchronized (tokens) {
+            tokens.set(tokens.indexOf(closedToken), token);
+        }
+        LOGGER.info("Replaced failed signature token session");
+        return token;
+    }
+
+    private static PooledSignatureToken openToken(AbstractSignatureTokenConnection connection) {
+        try {
+            return new PooledSignatureToken(connection, connection.getKeys().get(0));
+        } catch (RuntimeException e) {
+            connection.close();
+            throw e;
+        }
+    }
+
+    public static class PooledSignatureToken {
+
+        private final AbstractSignatureTokenConnection connection;
+        private final DSSPrivateKeyEntry privateKeyEntry;
+        private volatile boolean closed;
+
+        PooledSignatureToken(AbstractSignatureTokenConnection connection, DSSPrivateKeyEntry privateKeyEntry) {
+            this.connection = connection;
+            this.privateKeyEntry = privateKeyEntry;
+        }
+
+        public AbstractSignatureTokenConnection getConnection() {
+            return connection;
+        }
+
+        public DSSPrivateKeyEntry getPrivateKeyEntry() {
+            return privateKeyEntry;
+        }
+
+        boolean isClosed() {
+            return closed;
+        }
+
+        private void close() {
+            if (closed) {
+                return;
+            }
+            closed = true;
+            try {
+                connection.close();
+            } catch (RuntimeException e) {
+                LOGGER.warn("Failed to close signature token: {}", e.getMessage());
+            }
+        }
+    }
+}
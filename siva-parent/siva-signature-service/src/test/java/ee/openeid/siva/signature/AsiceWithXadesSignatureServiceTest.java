@@ -19,26 +19,51 @@ package ee.openeid.siva.signature;
 import ee.openeid.siva.signature.configuration.Pkcs12Properties;
 import ee.openeid.siva.signature.configuration.SignatureServiceConfigurationProperties;
 import ee.openeid.siva.signature.exception.SignatureServiceException;
+import ee.openeid.tsl.TSLLoader;
 import eu.europa.esig.dss.DSSException;
+import eu.europa.esig.dss.tsl.TrustedListsCertificateSource;
+import com.sun.net.httpserver.HttpServer;
+import org.junit.After;
 import org.junit.Before;
 import org.junit.Rule;
 import org.junit.Test;
 import org.junit.rules.ExpectedException;
+import org.junit.rules.TemporaryFolder;
 
+import java.io.ByteArrayInputStream;
+import java.io.File;
 import java.io.IOException;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.zip.ZipEntry;
+import java.util.zip.ZipInputStream;
 
+import static org.junit.Assert.assertEquals;
 import static org.junit.Assert.assertNotNull;
+import static org.junit.Assert.assertTrue;
 
 public class AsiceWithXadesSignatureServiceTest {
 
     @Rule
     public ExpectedException expectedException = ExpectedException.none();
 
+    @Rule
+    public TemporaryFolder temporaryFolder = new TemporaryFolder();
+
     AsiceWithXadesSignatureService asiceSignatureService;
 
     @Before
     public void setUp() {
         asiceSignatureService = new AsiceWithXadesSignatureService();
+        StubTSLLoader tslLoader = new StubTSLLoader();
+        tslLoader.activeSource = new TrustedListsCertificateSource();
+        asiceSignatureService.setTslLoader(tslLoader);
         SignatureServiceConfigurationProperties properties = new SignatureServiceConfigurationProperties();
         properties.setSignatureLevel("XAdES_BASELINE_B");
         properties.setTspUrl("http://demo.sk.ee/tsa");
@@ -50,6 +75,11 @@ public class AsiceWithXadesSignatureServiceTest {
         asiceSignatureService.setProperties(properties);
     }
 
+    @After
+    public void tearDown() {
+        asiceSignatureService.close();
+    }
+
     @Test
     public void AsiceSignatureServiceNotConfiguredWithProperties_shouldThrowException() throws IOException {
         expectedException.expect(SignatureServiceException.class);
@@ -101,4 +131,149 @@ public class AsiceWithXadesSignatureServiceTest {
         assertNotNull(signature);
     }
 
-} 
+    @Test
+    public void AsiceSignatureServiceCalledRepeatedly_shouldReuseOpenedSignatureToken() throws Exception {
+        useGeneratedKeystore();
+
+        assertNotNull(asiceSignatureService.getSignature("Hello".getBytes(), "hello.txt", "application/text"));
+
+        asiceSignatureService.getProperties().getPkcs12().setPath("classpath:invalid.p12");
+        assertNotNull(asiceSignatureService.getSignature("Hello again".getBytes(), "hello.txt", "application/text"));
+    }
+
+    @Test
+    public void AsiceSignatureServiceConfiguredWithXadesBaselineProfileT_shouldRequestTimestampForEverySignature() throws Exception {
+        useGeneratedKeystore();
+
+        AtomicInteger timestampRequests = new AtomicInteger();
+        HttpServer timestampServer = SignatureServiceTestUtils.startTimestampServer(timestampRequests);
+        try {
+            asiceSignatureService.getProperties().setSignatureLevel("XAdES_BASELINE_T");
+            asiceSignatureService.getProperties().setTspUrl(SignatureServiceTestUtils.getTimestampServerUrl(timestampServer));
+
+            assertNotNull(asiceSignatureService.getSignature("Hello".getBytes(), "hello.txt", "application/text"));
+            assertEquals(1, timestampRequests.get());
+
+            assertNotNull(asiceSignatureService.getSignature("Hello again".getBytes(), "hello.txt", "application/text"));
+            assertEquals(2, timestampRequests.get());
+        } finally {
+            timestampServer.stop(0);
+        }
+    }
+
+    @Test
+    public void AsiceSignatureServiceCalledWithBatch_shouldSignAllDocumentsWithSingleSignature() throws Exception {
+        useGeneratedKeystore();
+
+        byte[] signature = asiceSignatureService.getSignature(Arrays.asList(
+                new SignableDocument("{\"a\":1}".getBytes(), "report1.json", "application/json"),
+                new SignableDocument("{\"b\":2}".getBytes(), "report2.json", "application/json")));
+
+        List<String> entryNames = getEntryNames(signature);
+        assertTrue(entryNames.contains("report1.json"));
+        assertTrue(entryNames.contains("report2.json"));
+        assertEquals(1, entryNames.stream().filter(name -> name.startsWith("META-INF/signatures")).count());
+    }
+
+    @Test
+    public void AsiceSignatureServiceCalledWithEmptyBatch_shouldThrowException() throws IOException {
+        expectedException.expect(SignatureServiceException.class);
+        expectedException.expectMessage("No documents to sign!");
+
+        asiceSignatureService.getSignature(Collections.emptyList());
+    }
+
+    @Test
+    public void AsiceSignatureServiceConfiguredWithXadesBaselineProfileT_shouldRequestOneTimestampPerBatch() throws Exception {
+        useGeneratedKeystore();
+
+        AtomicInteger timestampRequests = new AtomicInteger();
+        HttpServer timestampServer = SignatureServiceTestUtils.startTimestampServer(timestampRequests);
+        try {
+            asiceSignatureService.getProperties().setSignatureLevel("XAdES_BASELINE_T");
+            asiceSignatureService.getProperties().setTspUrl(SignatureServiceTestUtils.getTimestampServerUrl(timestampServer));
+
+            List<SignableDocument> documents = new ArrayList<>();
+            for (int i = 0; i < 5; i++) {
+                documents.add(new SignableDocument(("report " + i).getBytes(), "report" + i + ".json", "application/json"));
+            }
+            byte[] signature = asiceSignatureService.getSignature(documents);
+
+            assertEquals(1, timestampRequests.get());
+            List<String> entryNames = getEntryNames(signature);
+            for (int i = 0; i < 5; i++) {
+                assertTrue(entryNames.contains("report" + i + ".json"));
+            }
+            assertEquals(1, entryNames.stream().filter(name -> name.startsWith("META-INF/signatures")).count());
+        } finally {
+            timestampServer.stop(0);
+        }
+    }
+
+    @Test
+    public void AsiceSignatureServiceCalledConcurrently_shouldSignEveryDocument() throws Exception {
+        useGeneratedKeystore();
+
+        ExecutorService executor = Executors.newFixedThreadPool(4);
+        try {
+            List<Future<byte[]>> signatures = new ArrayList<>();
+            for (int i = 0; i < 16; i++) {
+                String dataName = "report" + i + ".json";
+                signatures.add(executor.submit(() -> asiceSignatureService.getSignature(("report " + dataName).getBytes(), dataName, "application/json")));
+            }
+            for (int i = 0; i < signatures.size(); i++) {
+                List<String> entryNames = getEntryNames(signatures.get(i).get());
+                assertTrue(entryNames.contains("report" + i + ".json"));
+                assertEquals(1, entryNames.stream().filter(name -> name.startsWith("META-INF/signatures")).count());
+            }
+        } finally {
+            executor.shutdownNow();
+        }
+    }
+
+    @Test
+    public void AsiceSignatureServiceAfterTslRefresh_shouldSignWithRefreshedTrustedListSource() throws Exception {
+        useGeneratedKeystore();
+        StubTSLLoader tslLoader = new StubTSLLoader();
+        asiceSignatureService.setTslLoader(tslLoader);
+
+        TrustedListsCertificateSource firstGeneration = new TrustedListsCertificateSource();
+        tslLoader.activeSource = firstGeneration;
+        assertNotNull(asiceSignatureService.getSignature("Hello".getBytes(), "hello.txt", "application/text"));
+
+        TrustedListsCertificateSource refreshedGeneration = new TrustedListsCertificateSource();
+        tslLoader.activeSource = refreshedGeneration;
+        assertNotNull(asiceSignatureService.getSignature("Hello again".getBytes(), "hello.txt", "application/text"));
+
+        assertEquals(Arrays.asList(firstGeneration, refreshedGeneration), tslLoader.usedSources);
+    }
+
+    private void useGeneratedKeystore() throws Exception {
+        File keystore = temporaryFolder.newFile("signer.p12");
+        SignatureServiceTestUtils.createPkcs12Keystore(keystore, "password");
+        asiceSignatureService.getProperties().getPkcs12().setPath(keystore.getAbsolutePath());
+    }
+
+    private static List<String> getEntryNames(byte[] container) throws IOException {
+        List<String> entryNames = new ArrayList<>();
+        try (ZipInputStream zipInputStream = new ZipInputStream(new ByteArrayInputStream(container))) {
+            ZipEntry entry;
+            while ((entry = zipInputStream.getNextEntry()) != null) {
+                entryNames.add(entry.getName());
+            }
+        }
+        return entryNames;
+    }
+
+    private static class StubTSLLoader extends TSLLoader {
+
+        private final List<TrustedListsCertificateSource> usedSources = new ArrayList<>();
+        private volatile TrustedListsCertificateSource activeSource;
+
+        @Override
+        public TrustedListsCertificateSource getTrustedListSource() {
+            usedSources.add(activeSource);
+            return activeSource;
+        }
+    }
+}
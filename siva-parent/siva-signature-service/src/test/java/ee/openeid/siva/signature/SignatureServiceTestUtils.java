@@ -0,0 +1,137 @@
+/*
+ * Copyright 2019 Riigi Infosüsteemide Amet
+ *
+ * Licensed under the EUPL, Version 1.1 or – as soon they will be approved by
+ * the European Commission - subsequent versions of the EUPL (the "Licence");
+ * You may not use this work except in compliance with the Licence.
+ * You may obtain a copy of the Licence at:
+ *
+ * https://joinup.ec.europa.eu/software/page/eupl
+ *
+ * Unless required by applicable law or agreed to in writing, software distributed under the Licence is
+ * distributed on an "AS IS" basis,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the Licence for the specific language governing permissions and limitations under the Licence.
+ */
+
+
+package ee.openeid.siva.signature;
+
+import com.sun.net.httpserver.HttpServer;
+import org.apache.commons.io.IOUtils;
+import org.bouncycastle.asn1.ASN1ObjectIdentifier;
+import org.bouncycastle.asn1.oiw.OIWObjectIdentifiers;
+import org.bouncycastle.asn1.x500.X500Name;
+import org.bouncycastle.asn1.x509.AlgorithmIdentifier;
+import org.bouncycastle.asn1.x509.BasicConstraints;
+import org.bouncycastle.asn1.x509.ExtendedKeyUsage;
+import org.bouncycastle.asn1.x509.Extension;
+import org.bouncycastle.asn1.x509.KeyPurposeId;
+import org.bouncycastle.cert.X509CertificateHolder;
+import org.bouncycastle.cert.jcajce.JcaCertStore;
+import org.bouncycastle.cert.jcajce.JcaX509CertificateConverter;
+import org.bouncycastle.cert.jcajce.JcaX509v3CertificateBuilder;
+import org.bouncycastle.cms.jcajce.JcaSimpleSignerInfoGeneratorBuilder;
+import org.bouncycastle.operator.ContentSigner;
+import org.bouncycastle.operator.jcajce.JcaContentSignerBuilder;
+import org.bouncycastle.operator.jcajce.JcaDigestCalculatorProviderBuilder;
+import org.bouncycastle.tsp.TSPAlgorithms;
+import org.bouncycastle.tsp.TimeStampRequest;
+import org.bouncycastle.tsp.TimeStampResponse;
+import org.bouncycastle.tsp.TimeStampResponseGenerator;
+import org.bouncycastle.tsp.TimeStampTokenGenerator;
+
+import java.io.File;
+import java.io.FileOutputStream;
+import java.io.OutputStream;
+import java.math.BigInteger;
+import java.net.InetSocketAddress;
+import java.security.KeyPair;
+import java.security.KeyPairGenerator;
+import java.security.KeyStore;
+import java.security.cert.Certificate;
+import java.security.cert.X509Certificate;
+import java.util.Collections;
+import java.util.Date;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+public final class SignatureServiceTestUtils {
+
+    private static final AtomicLong SERIAL_NUMBER = new AtomicLong(System.currentTimeMillis());
+
+    private SignatureServiceTestUtils() {
+    }
+
+    public static KeyPair generateKeyPair() throws Exception {
+        KeyPairGenerator generator = KeyPairGenerator.getInstance("RSA");
+        generator.initialize(2048);
+        return generator.generateKeyPair();
+    }
+
+    public static X509Certificate createCertificate(String subjectName, KeyPair subjectKeyPair, String issuerName, KeyPair issuerKeyPair,
+                                             KeyPurposeId extendedKeyUsage) throws Exception {
+        Date notBefore = new Date(System.currentTimeMillis() - 60000);
+        Date notAfter = new Date(System.currentTimeMillis() + 3600000);
+        JcaX509v3CertificateBuilder builder = new JcaX509v3CertificateBuilder(new X500Name("CN=" + issuerName),
+                BigInteger.valueOf(SERIAL_NUMBER.incrementAndGet()), notBefore, notAfter, new X500Name("CN=" + subjectName), subjectKeyPair.getPublic());
+        builder.addExtension(Extension.basicConstraints, true, new BasicConstraints(extendedKeyUsage == null));
+        if (extendedKeyUsage != null) {
+            builder.addExtension(Extension.extendedKeyUsage, true, new ExtendedKeyUsage(extendedKeyUsage));
+        }
+        ContentSigner signer = new JcaContentSignerBuilder("SHA256withRSA").build(issuerKeyPair.getPrivate());
+        return new JcaX509CertificateConverter().getCertificate(builder.build(signer));
+    }
+
+    /**
+     * Writes a PKCS#12 keystore with a freshly generated signing key and a currently valid certificate.
+     */
+    public static void createPkcs12Keystore(File file, String password) throws Exception {
+        KeyPair keyPair = generateKeyPair();
+        X509Certificate certificate = createCertificate("Test signer", keyPair, "Test signer", keyPair, KeyPurposeId.id_kp_emailProtection);
+        KeyStore keyStore = KeyStore.getInstance("PKCS12");
+        keyStore.load(null, null);
+        keyStore.setKeyEntry("signer", keyPair.getPrivate(), password.toCharArray(), new Certificate[]{certificate});
+        try (OutputStream out = new FileOutputStream(file)) {
+            keyStore.store(out, password.toCharArray());
+        }
+    }
+
+    /**
+     * Starts a local time-stamping authority which counts the requests it has answered.
+     */
+    public static HttpServer startTimestampServer(AtomicInteger requestCount) throws Exception {
+        KeyPair keyPair = generateKeyPair();
+        X509Certificate certificate = createCertificate("Test TSA", keyPair, "Test TSA", keyPair, KeyPurposeId.id_kp_timeStamping);
+        TimeStampTokenGenerator tokenGenerator = new TimeStampTokenGenerator(
+                new JcaSimpleSignerInfoGeneratorBuilder().build("SHA256withRSA", keyPair.getPrivate(), certificate),
+                new JcaDigestCalculatorProviderBuilder().build().get(new AlgorithmIdentifier(OIWObjectIdentifiers.idSHA1)),
+                new ASN1ObjectIdentifier("1.2.3.4"));
+        tokenGenerator.addCertificates(new JcaCertStore(Collections.singletonList(new X509CertificateHolder(certificate.getEncoded()))));
+        TimeStampResponseGenerator responseGenerator = new TimeStampResponseGenerator(tokenGenerator, TSPAlgorithms.ALLOWED);
+
+        HttpServer server = HttpServer.create(new InetSocketAddress("localhost", 0), 0);
+        server.createContext("/tsa", exchange -> {
+            try {
+                TimeStampRequest request = new TimeStampRequest(IOUtils.toByteArray(exchange.getRequestBody()));
+                TimeStampResponse response = responseGenerator.generate(request, BigInteger.valueOf(requestCount.incrementAndGet()), new Date());
+                byte[] responseBytes = response.getEncoded();
+                exchange.getResponseHeaders().add("Content-Type", "application/timestamp-reply");
+                exchange.sendResponseHeaders(200, responseBytes.length);
+                try (OutputStream out = exchange.getResponseBody()) {
+                    out.write(responseBytes);
+                }
+            } catch (Exception e) {
+                exchange.sendResponseHeaders(500, -1);
+            } finally {
+                exchange.close();
+            }
+        });
+        server.start();
+        return server;
+    }
+
+    public static String getTimestampServerUrl(HttpServer server) {
+        return "http://localhost:" + server.getAddress().getPort() + "/tsa";
+    }
+}
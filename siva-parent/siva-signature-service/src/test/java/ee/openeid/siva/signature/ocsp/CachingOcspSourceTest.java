@@ -0,0 +1,174 @@
+/*
+ * Copyright 2019 Riigi Infosüsteemide Amet
+ *
+ * Licensed under the EUPL, Version 1.1 or – as soon they will be approved by
+ * the European Commission - subsequent versions of the EUPL (the "Licence");
+ * You may not use this work except in compliance with the Licence.
+ * You may obtain a copy of the Licence at:
+ *
+ * https://joinup.ec.europa.eu/software/page/eupl
+ *
+ * Unless required by applicable law or agreed to in writing, software distributed under the Licence is
+ * distributed on an "AS IS" basis,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the Licence for the specific language governing permissions and limitations under the Licence.
+ */
+
+
+package ee.openeid.siva.signature.ocsp;
+
+import ee.openeid.siva.signature.SignatureServiceTestUtils;
+import eu.europa.esig.dss.DSSRevocationUtils;
+import eu.europa.esig.dss.x509.CertificateToken;
+import eu.europa.esig.dss.x509.ocsp.OCSPSource;
+import eu.europa.esig.dss.x509.ocsp.OCSPToken;
+import org.bouncycastle.asn1.x500.X500Name;
+import org.bouncycastle.cert.X509CertificateHolder;
+import org.bouncycastle.cert.ocsp.BasicOCSPRespBuilder;
+import org.bouncycastle.cert.ocsp.CertificateID;
+import org.bouncycastle.cert.ocsp.CertificateStatus;
+import org.bouncycastle.cert.ocsp.RespID;
+import org.bouncycastle.operator.jcajce.JcaContentSignerBuilder;
+import org.junit.Before;
+import org.junit.Test;
+
+import java.security.KeyPair;
+import java.time.Clock;
+import java.time.Instant;
+import java.time.ZoneId;
+import java.time.ZoneOffset;
+import java.util.Date;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertSame;
+
+public class CachingOcspSourceTest {
+
+    private static final long START_TIME = 1_500_000_000_000L;
+
+    private MutableClock clock;
+    private CertificateToken certificateToken;
+    private CertificateToken issuerCertificateToken;
+    private KeyPair issuerKeyPair;
+
+    @Before
+    public void setUp() throws Exception {
+        clock = new MutableClock(START_TIME);
+        issuerKeyPair = SignatureServiceTestUtils.generateKeyPair();
+        KeyPair subjectKeyPair = SignatureServiceTestUtils.generateKeyPair();
+        issuerCertificateToken = new CertificateToken(SignatureServiceTestUtils.createCertificate("Test CA", issuerKeyPair, "Test CA", issuerKeyPair, null));
+        certificateToken = new CertificateToken(SignatureServiceTestUtils.createCertificate("Test signer", subjectKeyPair, "Test CA", issuerKeyPair, null));
+    }
+
+    @Test
+    public void responseWithNextUpdate_isCachedUntilNextUpdate() throws Exception {
+        CountingOcspSource delegate = new CountingOcspSource(createToken(new Date(START_TIME + 60000)));
+        CachingOcspSource ocspSource = new CachingOcspSource(delegate, 0, clock);
+
+        OCSPToken first = ocspSource.getRevocationToken(certificateToken, issuerCertificateToken);
+        clock.millis = START_TIME + 59999;
+        OCSPToken second = ocspSource.getRevocationToken(certificateToken, issuerCertificateToken);
+
+        assertSame(first, second);
+        assertEquals(1, delegate.calls.get());
+
+        clock.millis = START_TIME + 60000;
+        ocspSource.getRevocationToken(certificateToken, issuerCertificateToken);
+        assertEquals(2, delegate.calls.get());
+    }
+
+    @Test
+    public void responseWithoutNextUpdate_isNotCachedWhenMaxAgeIsZero() throws Exception {
+        CountingOcspSource delegate = new CountingOcspSource(createToken(null));
+        CachingOcspSource ocspSource = new CachingOcspSource(delegate, 0, clock);
+
+        ocspSource.getRevocationToken(certificateToken, issuerCertificateToken);
+        ocspSource.getRevocationToken(certificateToken, issuerCertificateToken);
+
+        assertEquals(2, delegate.calls.get());
+        assertEquals(0, ocspSource.getSize());
+    }
+
+    @Test
+    public void responseWithoutNextUpdate_isCachedForMaxAge() throws Exception {
+        CountingOcspSource delegate = new CountingOcspSource(createToken(null));
+        CachingOcspSource ocspSource = new CachingOcspSource(delegate, 30000, clock);
+
+        ocspSource.getRevocationToken(certificateToken, issuerCertificateToken);
+        clock.millis = START_TIME + 29999;
+        ocspSource.getRevocationToken(certificateToken, issuerCertificateToken);
+        assertEquals(1, delegate.calls.get());
+
+        clock.millis = START_TIME + 30000;
+        ocspSource.getRevocationToken(certificateToken, issuerCertificateToken);
+        assertEquals(2, delegate.calls.get());
+    }
+
+    @Test
+    public void missingResponse_isNotCached() {
+        CountingOcspSource delegate = new CountingOcspSource(null);
+        CachingOcspSource ocspSource = new CachingOcspSource(delegate, 30000, clock);
+
+        assertNull(ocspSource.getRevocationToken(certificateToken, issuerCertificateToken));
+        assertNull(ocspSource.getRevocationToken(certificateToken, issuerCertificateToken));
+        assertEquals(2, delegate.calls.get());
+    }
+
+    private OCSPToken createToken(Date nextUpdate) throws Exception {
+        CertificateID certId = DSSRevocationUtils.getOCSPCertificateID(certificateToken, issuerCertificateToken);
+        BasicOCSPRespBuilder builder = new BasicOCSPRespBuilder(new RespID(new X500Name("CN=Test OCSP")));
+        builder.addResponse(certId, CertificateStatus.GOOD, new Date(START_TIME), nextUpdate, null);
+        OCSPToken token = new OCSPToken();
+        token.setCertId(certId);
+        token.setBasicOCSPResp(builder.build(new JcaContentSignerBuilder("SHA256withRSA").build(issuerKeyPair.getPrivate()),
+                new X509CertificateHolder[0], new Date(START_TIME)));
+        return token;
+    }
+
+    private static class CountingOcspSource implements OCSPSource {
+
+        private final OCSPToken token;
+        private final AtomicInteger calls = new AtomicInteger();
+
+        CountingOcspSource(OCSPToken token) {
+            this.token = token;
+        }
+
+        @Override
+        public OCSPToken getRevocationToken(CertificateToken certificateToken, CertificateToken issuerCertificateToken) {
+            calls.incrementAndGet();
+            return token;
+        }
+    }
+
+    private static class MutableClock extends Clock {
+
+        private volatile long millis;
+
+        MutableClock(long millis) {
+            this.millis = millis;
+        }
+
+        @Override
+        public ZoneId getZone() {
+            return ZoneOffset.UTC;
+        }
+
+        @Override
+        public Clock withZone(ZoneId zone) {
+            return this;
+        }
+
+        @Override
+        public long millis() {
+            return millis;
+        }
+
+        @Override
+        public Instant instant() {
+            return Instant.ofEpochMilli(millis);
+        }
+    }
+}
@@ -0,0 +1,123 @@
+/*
+ * Copyright 2019 Riigi Infosüsteemide Amet
+ *
+ * Licensed under the EUPL, Version 1.1 or – as soon they will be approved by
+ * the European Commission - subsequent versions of the EUPL (the "Licence");
+ * You may not use this work except in compliance with the Licence.
+ * You may obtain a copy of the Licence at:
+ *
+ * https://joinup.ec.europa.eu/software/page/eupl
+ *
+ * Unless required by applicable law or agreed to in writing, software distributed under the Licence is
+ * distributed on an "AS IS" basis,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the Licence for the specific language governing permissions and limitations under the Licence.
+ */
+
+package ee.openeid.siva.signature.token;
+
+import ee.openeid.siva.signature.SignatureServiceTestUtils;
+import ee.openeid.siva.signature.token.SignatureTokenPool.PooledSignatureToken;
+import eu.europa.esig.dss.token.Pkcs12SignatureToken;
+import org.junit.Before;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+
+import java.io.File;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.security.KeyStore;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNotSame;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.assertTrue;
+import static org.junit.Assert.fail;
+
+public class SignatureTokenPoolTest {
+
+    @Rule
+    public TemporaryFolder temporaryFolder = new TemporaryFolder();
+
+    private final List<ClosingPkcs12SignatureToken> openedConnections = new ArrayList<>();
+    private File keystore;
+
+    @Before
+    public void setUp() throws Exception {
+        keystore = temporaryFolder.newFile("signer.p12");
+        SignatureServiceTestUtils.createPkcs12Keystore(keystore, "password");
+    }
+
+    @Test
+    public void releasedTokenIsReused() {
+        SignatureTokenPool pool = SignatureTokenPool.exclusive(this::openConnection, 1, 100);
+
+        PooledSignatureToken token = pool.acquire();
+        pool.release(token);
+
+        assertSame(token, pool.acquire());
+        assertEquals(1, openedConnections.size());
+    }
+
+    @Test
+    public void invalidatedTokenIsClosedAndReplacedFromConnectionFactory() {
+        SignatureTokenPool pool = SignatureTokenPool.exclusive(this::openConnection, 1, 100);
+
+        PooledSignatureToken failedToken = pool.acquire();
+        pool.invalidate(failedToken);
+        assertTrue(openedConnections.get(0).closed);
+
+        PooledSignatureToken replacement = pool.acquire();
+        assertNotSame(failedToken, replacement);
+        assertSame(openedConnections.get(1), replacement.getConnection());
+        assertFalse(openedConnections.get(1).closed);
+        assertEquals(1, pool.getSize());
+
+        pool.close();
+        assertTrue(openedConnections.get(1).closed);
+    }
+
+    @Test
+    public void invalidatedTokenSlotIsKeptWhenReplacementFails() {
+        SignatureTokenPool pool = SignatureTokenPool.exclusive(this::openConnection, 1, 100);
+        pool.invalidate(pool.acquire());
+
+        keystore.delete();
+        try {
+            pool.acquire();
+            fail("Replacement session should not open without a keystore");
+        } catch (UncheckedIOException e) {
+            // keystore is gone, the slot goes back to the pool
+        }
+        assertEquals(1, pool.getAvailableCount());
+    }
+
+    private ClosingPkcs12SignatureToken openConnection() {
+        try {
+            ClosingPkcs12SignatureToken connection = new ClosingPkcs12SignatureToken(keystore);
+            openedConnections.add(connection);
+            return connection;
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    private static class ClosingPkcs12SignatureToken extends Pkcs12SignatureToken {
+
+        private boolean closed;
+
+        ClosingPkcs12SignatureToken(File keystore) throws IOException {
+            super(keystore, new KeyStore.PasswordProtection("password".toCharArray()));
+        }
+
+        @Override
+        public void close() {
+            closed = true;
+            super.close();
+        }
+    }
+}
@@ -19,7 +19,7 @@ package ee.openeid.siva.statistics;
 import com.fasterxml.jackson.core.JsonProcessingException;
 import com.fasterxml.jackson.databind.ObjectMapper;
 import com.fasterxml.jackson.databind.ObjectWriter;
-import ee.openeid.siva.statistics.googleanalytics.GoogleAnalyticsMeasurementProtocolClient;
+import ee.openeid.siva.statistics.googleanalytics.GoogleAnalyticsMeasurementProtocolPublisher;
 import ee.openeid.siva.statistics.model.SimpleSignatureReport;
 import ee.openeid.siva.statistics.model.SimpleValidationReport;
 import ee.openeid.siva.validation.document.report.SignatureValidationData;
@@ -44,9 +44,10 @@ import static ee.openeid.siva.statistics.SignatureFormToContainerTypeTransormer.
 public class StatisticsService {
 
     private static final Logger LOGGER = LoggerFactory.getLogger(StatisticsService.class);
+    private static final ObjectWriter JSON_WRITER = new ObjectMapper().writer().withDefaultPrettyPrinter();
 
     private HttpServletRequest httpRequest;
-    private GoogleAnalyticsMeasurementProtocolClient googleAnalyticsMeasurementProtocolClient;
+    private GoogleAnalyticsMeasurementProtocolPublisher googleAnalyticsMeasurementProtocolPublisher;
 
     public void publishValidationStatistic(long validationDurationInNanos, ValidationConclusion validationConclusion) {
         SimpleValidationReport simpleValidationReport = createValidationResult(validationDurationInNanos, validationConclusion);
@@ -55,7 +56,7 @@ public class StatisticsService {
         } catch (JsonProcessingException e) {
             LOGGER.error("Error generating json: {}", e.getMessage(), e);
         }
-        googleAnalyticsMeasurementProtocolClient.sendStatisticalData(simpleValidationReport);
+        googleAnalyticsMeasurementProtocolPublisher.publish(simpleValidationReport);
     }
 
     private SimpleValidationReport createValidationResult(long validationDurationInNanos, ValidationConclusion report) {
@@ -91,8 +92,7 @@ public class StatisticsService {
         Map<String, SimpleValidationReport> stats = new HashMap<>();
         stats.put("stats", simpleValidationReport);
 
-        ObjectWriter ow = new ObjectMapper().writer().withDefaultPrettyPrinter();
-        return ow.writeValueAsString(stats);
+        return JSON_WRITER.writeValueAsString(stats);
     }
 
     private String getUserIdentifier() {
@@ -101,8 +101,8 @@ public class StatisticsService {
     }
 
     @Autowired
-    public void setGoogleAnalyticsMeasurementClient(GoogleAnalyticsMeasurementProtocolClient googleAnalyticsMeasurementProtocolClient) {
-        this.googleAnalyticsMeasurementProtocolClient = googleAnalyticsMeasurementProtocolClient;
+    public void setGoogleAnalyticsMeasurementPublisher(GoogleAnalyticsMeasurementProtocolPublisher googleAnalyticsMeasurementProtocolPublisher) {
+        this.googleAnalyticsMeasurementProtocolPublisher = googleAnalyticsMeasurementProtocolPublisher;
     }
 
     @Autowired
@@ -23,10 +23,11 @@ import org.apache.commons.lang3.StringUtils;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.beans.factory.annotation.Autowired;
-import org.springframework.boot.web.client.RestTemplateBuilder;
+import org.springframework.beans.factory.annotation.Qualifier;
 import org.springframework.http.HttpEntity;
 import org.springframework.stereotype.Component;
 import org.springframework.web.client.HttpStatusCodeException;
+import org.springframework.web.client.RestClientException;
 import org.springframework.web.client.RestTemplate;
 import org.springframework.web.util.UriUtils;
 
@@ -43,28 +44,43 @@ public class GoogleAnalyticsMeasurementProtocolClient {
 
     private static final Logger LOGGER = LoggerFactory.getLogger(GoogleAnalyticsMeasurementProtocolClient.class);
 
-    private RestTemplate restTemplate = new RestTemplateBuilder().build();
+    /**
+     * Maximum number of hits in one Measurement Protocol batch request.
+     */
+    public static final int MAX_BATCH_SIZE = 20;
+
+    private RestTemplate restTemplate;
 
     private GoogleAnalyticsMeasurementProtocolProperties properties;
 
-    public void sendStatisticalData(SimpleValidationReport simpleValidationReport) {
-        if (!properties.isEnabled()) {
-            return;
-        }
+    /**
+     * Sends the events as one batch request.
+     *
+     * @return whether the request succeeded
+     */
+    public boolean sendEvents(List<String> events) {
         try {
-            HttpEntity<String> entity = new HttpEntity<>(composeBatchRequestBody(simpleValidationReport));
+            HttpEntity<String> entity = new HttpEntity<>(composeBatchRequestBody(events));
             restTemplate.postForObject(properties.getUrl(), entity, byte[].class);
+            return true;
         } catch (UnsupportedEncodingException e) {
             LOGGER.error("Error on URI-encoding request body: {}", e.getMessage(), e);
         } catch (HttpStatusCodeException e) {
             LOGGER.error("Batch request failed with status code: {}", e.getStatusCode(), e);
+        } catch (RestClientException e) {
+            LOGGER.error("Batch request failed: {}", e.getMessage(), e);
         }
+        return false;
     }
 
-    private String composeBatchRequestBody(SimpleValidationReport report) throws UnsupportedEncodingException {
+    public List<String> composeEvents(SimpleValidationReport report) {
         List<String> events = new ArrayList<>();
         events.addAll(getContainerEvents(report));
         report.getSimpleSignatureReports().forEach(sigReport -> events.add(createSignatureEvent(sigReport, report.getContainerType(), report.getUserIdentifier())));
+        return events;
+    }
+
+    private String composeBatchRequestBody(List<String> events) throws UnsupportedEncodingException {
         StringBuilder requestBodyBuilder = new StringBuilder();
         for (String event : events) {
             String encodedEvent = UriUtils.encodeFragment(event, "UTF-8");
@@ -115,6 +131,8 @@ public class GoogleAnalyticsMeasurementProtocolClient {
         this.properties = properties;
     }
 
+    @Autowired
+    @Qualifier("googleAnalyticsRestTemplate")
     public void setRestTemplate(RestTemplate restTemplate) {
         this.restTemplate = restTemplate;
     }
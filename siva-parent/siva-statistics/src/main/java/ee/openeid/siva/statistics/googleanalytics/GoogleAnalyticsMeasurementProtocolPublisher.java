@@ -0,0 +1,174 @@
+/*
+ * Copyright 2019 Riigi Infosüsteemide Amet
+ *
+ * Licensed under the EUPL, Version 1.1 or – as soon they will be approved by
+ * the European Commission - subsequent versions of the EUPL (the "Licence");
+ * You may not use this work except in compliance with the Licence.
+ * You may obtain a copy of the Licence at:
+ *
+ * https://joinup.ec.europa.eu/software/page/eupl
+ *
+ * Unless required by applicable law or agreed to in writing, software distributed under the Licence is
+ * distributed on an "AS IS" basis,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the Licence for the specific language governing permissions and limitations under the Licence.
+ */
+
+
+package ee.openeid.siva.statistics.googleanalytics;
+
+import ee.openeid.siva.statistics.googleanalytics.configuration.properties.GoogleAnalyticsMeasurementProtocolProperties;
+import ee.openeid.siva.statistics.model.SimpleValidationReport;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Component;
+
+import javax.annotation.PostConstruct;
+import javax.annotation.PreDestroy;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Publishes validation statistics to Google Analytics off the request thread. Reports are put into a bounded queue
+ * and dropped when the queue is full. A single background thread turns them into events and sends them in batches,
+ * when a batch is full or when the flush interval has passed.
+ */
+@Component
+public class GoogleAnalyticsMeasurementProtocolPublisher {
+
+    private static final Logger LOGGER = LoggerFactory.getLogger(GoogleAnalyticsMeasurementProtocolPublisher.class);
+    private static final long SHUTDOWN_TIMEOUT_IN_MILLIS = 10000;
+
+    private GoogleAnalyticsMeasurementProtocolClient client;
+    private GoogleAnalyticsMeasurementProtocolProperties properties;
+    private BlockingQueue<SimpleValidationReport> queue;
+    private Thread publisherThread;
+
+    private final AtomicLong droppedCount = new AtomicLong();
+    private final AtomicLong flushCount = new AtomicLong();
+    private final AtomicLong failedFlushCount = new AtomicLong();
+    private volatile long lastFlushLatencyInMillis;
+
+    @PostConstruct
+    public void init() {
+        queue = new ArrayBlockingQueue<>(properties.getQueueCapacity());
+        if (properties.isEnabled()) {
+            publisherThread = new Thread(this::publishEvents, "statistics-publisher");
+            publisherThread.setDaemon(true);
+            publisherThread.start();
+        }
+    }
+
+    @PreDestroy
+    public void shutdown() throws InterruptedException {
+        if (publisherThread != null) {
+            publisherThread.interrupt();
+            publisherThread.join(SHUTDOWN_TIMEOUT_IN_MILLIS);
+        }
+    }
+
+    /**
+     * Queues the report for publishing without blocking. The report is dropped when the queue is full.
+     */
+    public void publish(SimpleValidationReport simpleValidationReport) {
+        if (!properties.isEnabled()) {
+            return;
+        }
+        if (!queue.offer(simpleValidationReport)) {
+            droppedCount.incrementAndGet();
+            LOGGER.debug("Statistics queue is full, validation report dropped");
+        }
+    }
+
+    void publishEvents() {
+        long flushIntervalInNanos = TimeUnit.MILLISECONDS.toNanos(properties.getFlushIntervalInMillis());
+        List<String> events = new ArrayList<>();
+        long nextFlush = System.nanoTime() + flushIntervalInNanos;
+        try {
+            while (!Thread.currentThread().isInterrupted()) {
+                SimpleValidationReport report = queue.poll(Math.max(0, nextFlush - System.nanoTime()), TimeUnit.NANOSECONDS);
+                if (report != null) {
+                    events.addAll(client.composeEvents(report));
+                    flushFullBatches(events);
+                }
+                if (System.nanoTime() - nextFlush >= 0) {
+                    flush(events);
+                    nextFlush = System.nanoTime() + flushIntervalInNanos;
+                }
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+
+        List<SimpleValidationReport> remainingReports = new ArrayList<>();
+        queue.drainTo(remainingReports);
+        remainingReports.forEach(report -> events.addAll(client.composeEvents(report)));
+        flushFullBatches(events);
+        flush(events);
+    }
+
+    private void flushFullBatches(List<String> events) {
+        int batchSize = getBatchSize();
+        while (events.size() >= batchSize) {
+            List<String> batch = events.subList(0, batchSize);
+            flush(batch);
+        }
+    }
+
+    private void flush(List<String> events) {
+        if (events.isEmpty()) {
+            return;
+        }
+        long flushStartTime = System.nanoTime();
+        try {
+            if (!client.sendEvents(events)) {
+                failedFlushCount.incrementAndGet();
+            }
+        } catch (RuntimeException e) {
+            failedFlushCount.incrementAndGet();
+            LOGGER.error("Error publishing statistics: {}", e.getMessage(), e);
+        }
+        lastFlushLatencyInMillis = TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - flushStartTime);
+        flushCount.incrementAndGet();
+        events.clear();
+    }
+
+    private int getBatchSize() {
+        return Math.max(1, Math.min(properties.getBatchSize(), GoogleAnalyticsMeasurementProtocolClient.MAX_BATCH_SIZE));
+    }
+
+    public int getQueueSize() {
+        return queue.size();
+    }
+
+    public long getDroppedCount() {
+        return droppedCount.get();
+    }
+
+    public long getFlushCount() {
+        return flushCount.get();
+    }
+
+    public long getFailedFlushCount() {
+        return failedFlushCount.get();
+    }
+
+    public long getLastFlushLatencyInMillis() {
+        return lastFlushLatencyInMillis;
+    }
+
+    @Autowired
+    public void setClient(GoogleAnalyticsMeasurementProtocolClient client) {
+        this.client = client;
+    }
+
+    @Autowired
+    public void setProperties(GoogleAnalyticsMeasurementProtocolProperties properties) {
+        this.properties = properties;
+    }
+}
@@ -27,5 +27,10 @@ public class GoogleAnalyticsMeasurementProtocolProperties {
     private String url = "http://www.google-analytics.com/batch";
     private String trackingId = "UA-83206619-1";
     private String dataSourceName = "SiVa";
+    private int queueCapacity = 1000;
+    private int batchSize = 20;
+    private long flushIntervalInMillis = 5000;
+    private int connectTimeoutInMillis = 2000;
+    private int readTimeoutInMillis = 5000;
 
 }
@@ -25,11 +25,8 @@ import org.junit.Before;
 import org.junit.Test;
 import org.junit.runner.RunWith;
 import org.mockito.BDDMockito;
-import org.mockito.Matchers;
-import org.mockito.Mockito;
 import org.powermock.core.classloader.annotations.PrepareForTest;
 import org.powermock.modules.junit4.PowerMockRunner;
-import org.springframework.http.HttpEntity;
 import org.springframework.http.HttpMethod;
 import org.springframework.test.web.client.MockRestServiceServer;
 import org.springframework.web.client.RestTemplate;
@@ -40,9 +37,12 @@ import java.util.ArrayList;
 import java.util.UUID;
 import java.util.concurrent.TimeUnit;
 
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
 import static org.powermock.api.mockito.PowerMockito.mock;
 import static org.powermock.api.mockito.PowerMockito.mockStatic;
 import static org.springframework.test.web.client.match.MockRestRequestMatchers.*;
+import static org.springframework.test.web.client.response.MockRestResponseCreators.withServerError;
 import static org.springframework.test.web.client.response.MockRestResponseCreators.withSuccess;
 
 
@@ -77,25 +77,16 @@ public class GoogleAnalyticsMeasurementProtocolClientTest {
     }
 
     @Test
-    public void checkIfRequestIsNotSentWhenDisabled() throws Exception {
-        long validationDurationinMillis = 1000L;
-        int validSignaturesCount = 1;
-        int totalSignatureCount = 1;
-        String indication = "TOTAL_PASSED";
-        String subindication = "";
-        String countryCode = "EE";
-        String signatureFormat = "FORMAT";
+    public void checkIfFailedRequestIsReported() throws Exception {
+        SimpleValidationReport report = createDummySimpleValidationReport(TimeUnit.MILLISECONDS.toNanos(1000L), 1, 1, "N/A");
+        addSimpleSignatureReport(report, "TOTAL_PASSED", "", "EE", "FORMAT");
 
-        SimpleValidationReport report = createDummySimpleValidationReport(TimeUnit.MILLISECONDS.toNanos(validationDurationinMillis), validSignaturesCount, totalSignatureCount, "N/A");
-        addSimpleSignatureReport(report, indication, subindication, countryCode, signatureFormat);
-
-        properties.setEnabled(false);
-
-        RestTemplate restTemplateMock = mock(RestTemplate.class);
-        gaClient.setRestTemplate(restTemplateMock);
-        Mockito.verify(restTemplateMock, Mockito.never()).postForObject(Matchers.any(String.class), Matchers.any(HttpEntity.class), Matchers.any());
+        mockServer.expect(requestTo(properties.getUrl()))
+                .andExpect(method(HttpMethod.POST))
+                .andRespond(withServerError());
 
-        gaClient.sendStatisticalData(report);
+        assertFalse(gaClient.sendEvents(gaClient.composeEvents(report)));
+        mockServer.verify();
     }
 
     @Test
@@ -118,8 +109,8 @@ public class GoogleAnalyticsMeasurementProtocolClientTest {
                 .andExpect(content().string(getExpectedHttpRequestBody(report, "N/A")))
                 .andRespond(withSuccess());
 
-
-        gaClient.sendStatisticalData(report);
+        assertTrue(gaClient.sendEvents(gaClient.composeEvents(report)));
+        mockServer.verify();
     }
 
     @Test
@@ -150,7 +141,8 @@ public class GoogleAnalyticsMeasurementProtocolClientTest {
                 .andExpect(content().string(getExpectedHttpRequestBody(report, xAuthenticatedUser)))
                 .andRespond(withSuccess());
 
-        gaClient.sendStatisticalData(report);
+        assertTrue(gaClient.sendEvents(gaClient.composeEvents(report)));
+        mockServer.verify();
     }
 
     private SimpleValidationReport createDummySimpleValidationReport(long duration, int validSignaturesCount, int totalSignaturesCount, String xAuthenticatedUser) {
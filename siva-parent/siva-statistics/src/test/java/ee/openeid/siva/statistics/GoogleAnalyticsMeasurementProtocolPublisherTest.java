@@ -0,0 +1,196 @@
+/*
+ * Copyright 2019 Riigi Infosüsteemide Amet
+ *
+ * Licensed under the EUPL, Version 1.1 or – as soon they will be approved by
+ * the European Commission - subsequent versions of the EUPL (the "Licence");
+ * You may not use this work except in compliance with the Licence.
+ * You may obtain a copy of the Licence at:
+ *
+ * https://joinup.ec.europa.eu/software/page/eupl
+ *
+ * Unless required by applicable law or agreed to in writing, software distributed under the Licence is
+ * distributed on an "AS IS" basis,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the Licence for the specific language governing permissions and limitations under the Licence.
+ */
+
+
+package ee.openeid.siva.statistics;
+
+import ee.openeid.siva.statistics.googleanalytics.GoogleAnalyticsMeasurementProtocolClient;
+import ee.openeid.siva.statistics.googleanalytics.GoogleAnalyticsMeasurementProtocolPublisher;
+import ee.openeid.siva.statistics.googleanalytics.configuration.properties.GoogleAnalyticsMeasurementProtocolProperties;
+import ee.openeid.siva.statistics.model.SimpleSignatureReport;
+import ee.openeid.siva.statistics.model.SimpleValidationReport;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+public class GoogleAnalyticsMeasurementProtocolPublisherTest {
+
+    private GoogleAnalyticsMeasurementProtocolPublisher publisher = new GoogleAnalyticsMeasurementProtocolPublisher();
+
+    private GoogleAnalyticsMeasurementProtocolProperties properties = new GoogleAnalyticsMeasurementProtocolProperties();
+
+    private RecordingClient client = new RecordingClient();
+
+    @Before
+    public void setUp() {
+        properties.setEnabled(true);
+        publisher.setProperties(properties);
+        publisher.setClient(client);
+    }
+
+    @After
+    public void tearDown() throws InterruptedException {
+        publisher.shutdown();
+    }
+
+    @Test
+    public void reportsAreNotQueuedWhenDisabled() {
+        properties.setEnabled(false);
+        publisher.init();
+
+        publisher.publish(report(1));
+
+        assertEquals(0, publisher.getQueueSize());
+    }
+
+    @Test
+    public void reportsAreDroppedWhenQueueIsFull() {
+        properties.setEnabled(false);
+        properties.setQueueCapacity(2);
+        publisher.init();
+        properties.setEnabled(true);
+
+        for (int i = 0; i < 5; i++) {
+            publisher.publish(report(1));
+        }
+
+        assertEquals(2, publisher.getQueueSize());
+        assertEquals(3, publisher.getDroppedCount());
+    }
+
+    @Test
+    public void eventsAreSentInFullBatches() throws InterruptedException {
+        properties.setBatchSize(10);
+        properties.setFlushIntervalInMillis(TimeUnit.MINUTES.toMillis(1));
+        publisher.init();
+
+        for (int i = 0; i < 5; i++) {
+            publisher.publish(report(1));
+        }
+
+        waitUntil(() -> publisher.getFlushCount() == 2);
+        assertEquals(Arrays.asList(10, 10), batchSizes());
+        assertEquals(2, publisher.getFlushCount());
+    }
+
+    @Test
+    public void batchSizeIsLimitedByMeasurementProtocol() throws InterruptedException {
+        properties.setBatchSize(100);
+        properties.setFlushIntervalInMillis(TimeUnit.MINUTES.toMillis(1));
+        publisher.init();
+
+        for (int i = 0; i < 10; i++) {
+            publisher.publish(report(1));
+        }
+
+        waitUntil(() -> publisher.getFlushCount() == 2);
+        assertEquals(Arrays.asList(20, 20), batchSizes());
+    }
+
+    @Test
+    public void partialBatchIsSentAfterFlushInterval() throws InterruptedException {
+        properties.setFlushIntervalInMillis(50);
+        publisher.init();
+
+        publisher.publish(report(2));
+
+        waitUntil(() -> publisher.getFlushCount() == 1);
+        assertEquals(Collections.singletonList(5), batchSizes());
+    }
+
+    @Test
+    public void queuedEventsAreSentOnShutdown() throws InterruptedException {
+        properties.setFlushIntervalInMillis(TimeUnit.MINUTES.toMillis(1));
+        publisher.init();
+
+        publisher.publish(report(1));
+        publisher.shutdown();
+
+        assertEquals(Collections.singletonList(4), batchSizes());
+    }
+
+    @Test
+    public void failedFlushesAreCounted() throws InterruptedException {
+        client.succeed = false;
+        properties.setFlushIntervalInMillis(10);
+        publisher.init();
+
+        publisher.publish(report(1));
+
+        waitUntil(() -> publisher.getFlushCount() == 1);
+        assertEquals(1, publisher.getFailedFlushCount());
+    }
+
+    private List<Integer> batchSizes() {
+        List<Integer> batchSizes = new ArrayList<>();
+        client.batches.forEach(batch -> batchSizes.add(batch.size()));
+        return batchSizes;
+    }
+
+    private void waitUntil(Condition condition) throws InterruptedException {
+        long deadline = System.currentTimeMillis() + 5000;
+        while (!condition.isMet()) {
+            assertTrue("Timed out waiting for statistics to be published", System.currentTimeMillis() < deadline);
+            Thread.sleep(5);
+        }
+    }
+
+    private SimpleValidationReport report(int signatureCount) {
+        SimpleValidationReport report = new SimpleValidationReport();
+        report.setSignatureCount(signatureCount);
+        report.setValidSignatureCount(signatureCount);
+        report.setSimpleSignatureReports(new ArrayList<>());
+        for (int i = 0; i < signatureCount; i++) {
+            report.getSimpleSignatureReports().add(new SimpleSignatureReport());
+        }
+        return report;
+    }
+
+    private interface Condition {
+        boolean isMet();
+    }
+
+    private static class RecordingClient extends GoogleAnalyticsMeasurementProtocolClient {
+
+        private final List<List<String>> batches = new CopyOnWriteArrayList<>();
+        private volatile boolean succeed = true;
+
+        @Override
+        public List<String> composeEvents(SimpleValidationReport report) {
+            List<String> events = new ArrayList<>();
+            for (int i = 0; i < 3 + report.getSimpleSignatureReports().size(); i++) {
+                events.add("event" + i);
+            }
+            return events;
+        }
+
+        @Override
+        public boolean sendEvents(List<String> events) {
+            batches.add(new ArrayList<>(events));
+            return succeed;
+        }
+    }
+}
@@ -304,7 +304,7 @@ public class ValidationRequestIT extends SiVaRestTests {
                 .then()
                 .statusCode(HttpStatus.BAD_REQUEST.value())
                 .body("requestErrors[0].key", Matchers.is(DOCUMENT))
-                .body("requestErrors[0].message", Matchers.containsString(DOCUMENT_MALFORMED_OR_NOT_MATCHING_DOCUMENT_TYPE));
+                .body("requestErrors[0].message", Matchers.containsString(INVALID_BASE_64));
     }
 
     /**
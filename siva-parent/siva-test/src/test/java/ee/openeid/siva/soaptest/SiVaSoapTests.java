@@ -24,6 +24,7 @@ import ee.openeid.siva.webapp.request.SignatureFile;
 import ee.openeid.siva.webapp.soap.DataFilesReport;
 import ee.openeid.siva.webapp.soap.response.ValidateDocumentResponse;
 import ee.openeid.siva.webapp.soap.response.ValidationReport;
+import ee.openeid.siva.webapp.soap.transformer.DataHandlerUtils;
 import io.restassured.response.Response;
 import io.restassured.response.ValidatableResponse;
 import org.apache.commons.codec.binary.Base64;
@@ -31,6 +32,7 @@ import org.w3c.dom.Document;
 import org.w3c.dom.Element;
 import org.w3c.dom.Node;
 
+import javax.activation.DataHandler;
 import javax.xml.bind.JAXBContext;
 import javax.xml.bind.JAXBElement;
 import javax.xml.bind.Unmarshaller;
@@ -355,6 +357,10 @@ public abstract class SiVaSoapTests extends SiVaIntegrationTestsBase {
         }
     }
 
+    protected static String base64(DataHandler dataHandler) {
+        return Base64.encodeBase64String(DataHandlerUtils.toByteArray(dataHandler));
+    }
+
     protected static void isSimpleReport(ValidatableResponse response) {
         response.body(SOAP_VALIDATION_CONCLUSION_PREFIX, notNullValue())
                 .body(SOAP_DETAILED_DATA_PREFIX, emptyIterable())
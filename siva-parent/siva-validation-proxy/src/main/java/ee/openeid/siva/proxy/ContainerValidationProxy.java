@@ -1,26 +1,25 @@
 package ee.openeid.siva.proxy;
 
+import ee.openeid.siva.proxy.cache.ValidationResultCache;
 import ee.openeid.siva.proxy.document.DocumentType;
 import ee.openeid.siva.proxy.document.ProxyDocument;
 import ee.openeid.siva.proxy.http.RESTProxyService;
 import ee.openeid.siva.validation.document.ValidationDocument;
+import ee.openeid.siva.validation.document.ValidationLevel;
+import ee.openeid.siva.validation.document.ZipContainer;
 import ee.openeid.siva.validation.document.report.*;
 import ee.openeid.siva.validation.exception.MalformedDocumentException;
 import ee.openeid.siva.validation.service.ValidationService;
+import ee.openeid.siva.validation.service.signature.policy.InvalidValidationLevelException;
 import ee.openeid.validation.service.timemark.report.TimemarkContainerValidationReportBuilder;
 import ee.openeid.validation.service.timestamptoken.TimeStampTokenValidationService;
-import eu.europa.esig.dss.InMemoryDocument;
 import org.apache.commons.io.FilenameUtils;
 import org.apache.commons.lang3.StringUtils;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.stereotype.Service;
 
-import java.io.ByteArrayInputStream;
-import java.io.IOException;
 import java.util.ArrayList;
 import java.util.List;
-import java.util.zip.ZipEntry;
-import java.util.zip.ZipInputStream;
 
 @Service
 public class ContainerValidationProxy extends ValidationProxy {
@@ -38,16 +37,26 @@ public class ContainerValidationProxy extends ValidationProxy {
     private static final String DOCUMENT_FORMAT_NOT_RECOGNIZED = "Document format not recognized/handled";
 
     private RESTProxyService restProxyService;
+    private ValidationResultCache validationResultCache;
 
     @Override
     public SimpleReport validateRequest(ProxyRequest proxyRequest) {
+        return validationResultCache.get((ProxyDocument) proxyRequest, () -> validateDocument(proxyRequest));
+    }
+
+    private SimpleReport validateDocument(ProxyRequest proxyRequest) {
         Reports reports;
         SimpleReport report;
         if (isDocumentTypeXRoad(proxyRequest)) {
+            requireDefaultValidationLevel((ProxyDocument) proxyRequest);
             reports = restProxyService.validate(createValidationDocument(proxyRequest));
             report = chooseReport(reports, proxyRequest.getReportType());
         } else {
-            ValidationService validationService = getServiceForType(proxyRequest);
+            String validatorName = constructValidatorName(proxyRequest);
+            if (!(GENERIC_SERVICE + SERVICE_BEAN_NAME_POSTFIX).equals(validatorName)) {
+                requireDefaultValidationLevel((ProxyDocument) proxyRequest);
+            }
+            ValidationService validationService = getService(validatorName);
             reports = validate(validationService, proxyRequest);
             report = chooseReport(reports, proxyRequest.getReportType());
             if (validationService instanceof TimeStampTokenValidationService && TimeStampTokenValidationData.Indication.TOTAL_PASSED == report.getValidationConclusion().getTimeStampTokens().get(0).getIndication()) {
@@ -57,6 +66,17 @@ public class ContainerValidationProxy extends ValidationProxy {
         return report;
     }
 
+    /**
+     * Only DSS based (generic) validation can use a lower validation level, other validation services always validate
+     * on the default level.
+     */
+    private void requireDefaultValidationLevel(ProxyDocument proxyDocument) {
+        ValidationLevel validationLevel = proxyDocument.getValidationLevel();
+        if (validationLevel != null && validationLevel != ValidationLevel.ARCHIVAL_DATA) {
+            throw new InvalidValidationLevelException(validationLevel, proxyDocument.getName());
+        }
+    }
+
     SimpleReport generateDataFileReport(ProxyRequest proxyRequest, SimpleReport report) {
         ProxyDocument proxyDocument = (ProxyDocument) proxyRequest;
         ProxyDocument dataFileProxyDocument = generateDataFileProxyDocument(proxyDocument);
@@ -85,7 +105,7 @@ public class ContainerValidationProxy extends ValidationProxy {
             return TIMEMARK_CONTAINER_SERVICE + SERVICE_BEAN_NAME_POSTFIX;
 
         } else if (extension.equals(ASICS_EXTENSION) || extension.equals(SCS_FILE_TYPE) || extension.equals(ZIP_FILE_TYPE)) {
-            return decideAsicsValidatorService(proxyDocument.getBytes(), extension);
+            return decideAsicsValidatorService(proxyDocument, extension);
         }
         return GENERIC_SERVICE + SERVICE_BEAN_NAME_POSTFIX;
     }
@@ -96,6 +116,11 @@ public class ContainerValidationProxy extends ValidationProxy {
         validationDocument.setName(proxyDocument.getName());
         validationDocument.setBytes(proxyDocument.getBytes());
         validationDocument.setSignaturePolicy(proxyDocument.getSignaturePolicy());
+        validationDocument.setZipContainer(proxyDocument.getZipContainer());
+        validationDocument.setValidationLevel(proxyDocument.getValidationLevel());
+        if (proxyDocument.getReportType() != null) {
+            validationDocument.setRequestedReport(proxyDocument.getReportType().getRequestedReport());
+        }
         return validationDocument;
     }
 
@@ -111,10 +136,12 @@ public class ContainerValidationProxy extends ValidationProxy {
 
     private ProxyDocument generateDataFileProxyDocument(ProxyDocument proxyDocument) {
         ProxyDocument dataFileDocument = new ProxyDocument();
-        InMemoryDocument inMemoryDocument = getDataFile(proxyDocument.getBytes());
-        dataFileDocument.setName(inMemoryDocument.getName());
+        ZipContainer.Entry dataFile = getDataFile(proxyDocument);
+        dataFileDocument.setName(dataFile.getName());
         dataFileDocument.setSignaturePolicy(proxyDocument.getSignaturePolicy());
-        dataFileDocument.setBytes(inMemoryDocument.getBytes());
+        dataFileDocument.setReportType(proxyDocument.getReportType());
+        dataFileDocument.setValidationLevel(proxyDocument.getValidationLevel());
+        dataFileDocument.setBytes(dataFile.getBytes());
         return dataFileDocument;
     }
 
@@ -122,18 +149,14 @@ public class ContainerValidationProxy extends ValidationProxy {
         return validationService.validateDocument(createValidationDocument(proxyRequest));
     }
 
-    private InMemoryDocument getDataFile(byte[] proxyDocument) {
-        try (ZipInputStream zipStream = new ZipInputStream(new ByteArrayInputStream(proxyDocument))) {
-            ZipEntry entry;
-            while ((entry = zipStream.getNextEntry()) != null) {
-                if (!entry.getName().startsWith(META_INF_FOLDER) && !entry.getName().equalsIgnoreCase(MIME_TYPE_FILE_NAME)) {
-                    return new InMemoryDocument(zipStream, entry.getName());
-                }
-            }
-        } catch (IOException e) {
-            throw new RuntimeException(e);
-        }
-        throw new IllegalArgumentException("Invalid document");
+    private ZipContainer.Entry getDataFile(ProxyDocument proxyDocument) {
+        ZipContainer zipContainer = proxyDocument.getZipContainer() != null
+                ? proxyDocument.getZipContainer()
+                : ZipContainer.read(proxyDocument.getBytes());
+        return zipContainer.getEntries().stream()
+                .filter(entry -> !entry.getName().startsWith(META_INF_FOLDER) && !entry.getName().equalsIgnoreCase(MIME_TYPE_FILE_NAME))
+                .findFirst()
+                .orElseThrow(() -> new IllegalArgumentException("Invalid document"));
     }
 
     private boolean isDocumentTypeXRoad(ProxyRequest proxyRequest) {
@@ -141,31 +164,33 @@ public class ContainerValidationProxy extends ValidationProxy {
         return proxyDocument.getDocumentType() != null && proxyDocument.getDocumentType() == DocumentType.XROAD;
     }
 
-    private String decideAsicsValidatorService(byte[] document, String extension) {
-        try (ZipInputStream zipStream = new ZipInputStream(new ByteArrayInputStream(document))) {
-            ZipEntry entry;
-            boolean isAsicsMimeType = false;
-            boolean isTimeStampExtension = false;
-            while ((entry = zipStream.getNextEntry()) != null) {
-                if (isAsicsMimeType(entry, zipStream)) {
-                    isAsicsMimeType = true;
-                } else if (entry.getName().toUpperCase().endsWith(TIMESTAMP_EXTENSION)) {
-                    isTimeStampExtension = true;
-                }
+    private String decideAsicsValidatorService(ProxyDocument proxyDocument, String extension) {
+        ZipContainer zipContainer;
+        try {
+            zipContainer = ZipContainer.read(proxyDocument.getBytes());
+        } catch (MalformedDocumentException e) {
+            return GENERIC_SERVICE + SERVICE_BEAN_NAME_POSTFIX;
+        }
+        proxyDocument.setZipContainer(zipContainer);
+
+        boolean isAsicsMimeType = false;
+        boolean isTimeStampExtension = false;
+        for (ZipContainer.Entry entry : zipContainer.getEntries()) {
+            if (isAsicsMimeType(entry)) {
+                isAsicsMimeType = true;
+            } else if (entry.getName().toUpperCase().endsWith(TIMESTAMP_EXTENSION)) {
+                isTimeStampExtension = true;
             }
+        }
 
-            if (extension.equals(ZIP_FILE_TYPE)) {
-                if (isAsicsMimeType && isTimeStampExtension) {
-                    return TIMESTAMP_TOKEN_SERVICE + SERVICE_BEAN_NAME_POSTFIX;
-                }
-            } else {
-                if (isTimeStampExtension) {
-                    return TIMESTAMP_TOKEN_SERVICE + SERVICE_BEAN_NAME_POSTFIX;
-                }
+        if (extension.equals(ZIP_FILE_TYPE)) {
+            if (isAsicsMimeType && isTimeStampExtension) {
+                return TIMESTAMP_TOKEN_SERVICE + SERVICE_BEAN_NAME_POSTFIX;
+            }
+        } else {
+            if (isTimeStampExtension) {
+                return TIMESTAMP_TOKEN_SERVICE + SERVICE_BEAN_NAME_POSTFIX;
             }
-
-        } catch (IOException e) {
-            throw new RuntimeException(e);
         }
         return GENERIC_SERVICE + SERVICE_BEAN_NAME_POSTFIX;
     }
@@ -179,12 +204,17 @@ public class ContainerValidationProxy extends ValidationProxy {
         validationConclusion.setValidationWarnings(newList);
     }
 
-    private boolean isAsicsMimeType(ZipEntry entry, ZipInputStream zipStream) {
-        return entry.getName().equals(MIME_TYPE_FILE_NAME) && ASICS_MIME_TYPE.equals(new String(new InMemoryDocument(zipStream, entry.getName()).getBytes()));
+    private boolean isAsicsMimeType(ZipContainer.Entry entry) {
+        return entry.getName().equals(MIME_TYPE_FILE_NAME) && ASICS_MIME_TYPE.equals(new String(entry.getBytes()));
     }
 
     @Autowired
     public void setRestProxyService(RESTProxyService restProxyService) {
         this.restProxyService = restProxyService;
     }
+
+    @Autowired
+    public void setValidationResultCache(ValidationResultCache validationResultCache) {
+        this.validationResultCache = validationResultCache;
+    }
 }
@@ -21,6 +21,7 @@ import ee.openeid.siva.proxy.document.ReportType;
 import ee.openeid.siva.validation.document.SignatureFile;
 import ee.openeid.siva.validation.document.ValidationDocument;
 import ee.openeid.siva.validation.document.report.Reports;
+import ee.openeid.siva.validation.document.report.RequestedReport;
 import ee.openeid.siva.validation.document.report.SimpleReport;
 import ee.openeid.siva.validation.service.ValidationService;
 import ee.openeid.validation.service.generic.HashcodeGenericValidationService;
@@ -59,6 +60,7 @@ public class HashcodeValidationProxy extends ValidationProxy {
         validationDocument.setSignaturePolicy(signaturePolicy);
         validationDocument.setBytes(signatureFile.getSignature());
         validationDocument.setDatafiles(signatureFile.getDatafiles());
+        validationDocument.setRequestedReport(RequestedReport.SIMPLE);
         return validationDocument;
     }
 }
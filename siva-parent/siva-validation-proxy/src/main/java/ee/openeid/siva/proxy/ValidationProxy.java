@@ -62,7 +62,10 @@ public abstract class ValidationProxy {
     }
 
     ValidationService getServiceForType(ProxyRequest proxyRequest) {
-        String validatorName = constructValidatorName(proxyRequest);
+        return getService(constructValidatorName(proxyRequest));
+    }
+
+    ValidationService getService(String validatorName) {
         LOGGER.info("Validation service: {}", validatorName);
         try {
             return (ValidationService) applicationContext.getBean(validatorName);
@@ -0,0 +1,196 @@
+/*
+ * Copyright 2019 Riigi Infosüsteemide Amet
+ *
+ * Licensed under the EUPL, Version 1.1 or – as soon they will be approved by
+ * the European Commission - subsequent versions of the EUPL (the "Licence");
+ * You may not use this work except in compliance with the Licence.
+ * You may obtain a copy of the Licence at:
+ *
+ * https://joinup.ec.europa.eu/software/page/eupl
+ *
+ * Unless required by applicable law or agreed to in writing, software distributed under the Licence is
+ * distributed on an "AS IS" basis,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the Licence for the specific language governing permissions and limitations under the Licence.
+ */
+
+package ee.openeid.siva.proxy.cache;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import ee.openeid.siva.proxy.configuration.ValidationResultCacheProperties;
+import ee.openeid.siva.proxy.document.DocumentType;
+import ee.openeid.siva.proxy.document.ProxyDocument;
+import ee.openeid.siva.proxy.document.ReportType;
+import ee.openeid.siva.validation.document.ValidationLevel;
+import ee.openeid.siva.validation.document.report.DetailedReport;
+import ee.openeid.siva.validation.document.report.DiagnosticReport;
+import ee.openeid.siva.validation.document.report.SimpleReport;
+import ee.openeid.siva.validation.document.report.ValidationConclusion;
+import ee.openeid.siva.validation.document.report.builder.ReportBuilderUtils;
+import ee.openeid.siva.validation.service.signature.policy.ConstraintLoadingSignaturePolicyService;
+import ee.openeid.tsl.TSLLoader;
+import lombok.Value;
+import org.apache.commons.codec.digest.DigestUtils;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.stereotype.Component;
+
+import javax.annotation.PostConstruct;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Supplier;
+
+/**
+ * Caches validation reports by the content of the validated document. Cached reports are bound to the trusted
+ * certificates and signature policies generations they were produced with and are returned with a fresh validation time.
+ */
+@Component
+public class ValidationResultCache {
+    private static final Logger LOGGER = LoggerFactory.getLogger(ValidationResultCache.class);
+
+    private final AtomicLong trustedCertificatesGeneration = new AtomicLong();
+    private final AtomicLong signaturePoliciesGeneration = new AtomicLong();
+    private ValidationResultCacheProperties properties;
+    private TSLLoader tslLoader;
+    private List<ConstraintLoadingSignaturePolicyService> signaturePolicyServices = Collections.emptyList();
+    private Cache<CacheKey, SimpleReport> cache;
+
+    @PostConstruct
+    public void init() {
+        cache = Caffeine.newBuilder()
+                .maximumSize(properties.getMaximumSize())
+                .expireAfterWrite(properties.getTimeToLiveInSeconds(), TimeUnit.SECONDS)
+                .recordStats()
+                .build();
+        if (properties.isEnabled()) {
+            trustedCertificatesGeneration.set(tslLoader.getGeneration());
+            signaturePoliciesGeneration.set(getSignaturePoliciesGeneration());
+            LOGGER.info("Validation result cache enabled with maximum size {} and time to live {}s",
+                    properties.getMaximumSize(), properties.getTimeToLiveInSeconds());
+        }
+    }
+
+    public SimpleReport get(ProxyDocument proxyDocument, Supplier<SimpleReport> validation) {
+        if (!properties.isEnabled()) {
+            return validation.get();
+        }
+        CacheKey key = createKey(proxyDocument, currentTrustedCertificatesGeneration(), currentSignaturePoliciesGeneration());
+        SimpleReport cachedReport = cache.getIfPresent(key);
+        if (cachedReport != null) {
+            return copyWithValidationTime(cachedReport, ReportBuilderUtils.getValidationTime());
+        }
+        SimpleReport report = validation.get();
+        cache.put(key, copyWithValidationTime(report, report.getValidationConclusion().getValidationTime()));
+        return report;
+    }
+
+    public void invalidateAll() {
+        cache.invalidateAll();
+    }
+
+    public long getHitCount() {
+        return cache.stats().hitCount();
+    }
+
+    public long getMissCount() {
+        return cache.stats().missCount();
+    }
+
+    public long getSize() {
+        return cache.estimatedSize();
+    }
+
+    private long currentTrustedCertificatesGeneration() {
+        long generation = tslLoader.getGeneration();
+        if (trustedCertificatesGeneration.getAndSet(generation) != generation) {
+            LOGGER.info("Trusted certificates have been reloaded, invalidating validation result cache");
+            invalidateAll();
+        }
+        return generation;
+    }
+
+    private long currentSignaturePoliciesGeneration() {
+        long generation = getSignaturePoliciesGeneration();
+        if (signaturePoliciesGeneration.getAndSet(generation) != generation) {
+            LOGGER.info("Signature policies have been reloaded, invalidating validation result cache");
+            invalidateAll();
+        }
+        return generation;
+    }
+
+    private long getSignaturePoliciesGeneration() {
+        return signaturePolicyServices.stream().mapToLong(ConstraintLoadingSignaturePolicyService::getGeneration).sum();
+    }
+
+    private static CacheKey createKey(ProxyDocument proxyDocument, long trustedCertificatesGeneration, long signaturePoliciesGeneration) {
+        return new CacheKey(
+                DigestUtils.sha256Hex(proxyDocument.getBytes()),
+                proxyDocument.getName(),
+                proxyDocument.getDocumentType(),
+                proxyDocument.getSignaturePolicy(),
+                proxyDocument.getReportType(),
+                proxyDocument.getValidationLevel(),
+                trustedCertificatesGeneration,
+                signaturePoliciesGeneration
+        );
+    }
+
+    private static SimpleReport copyWithValidationTime(SimpleReport report, String validationTime) {
+        ValidationConclusion validationConclusion = copyOf(report.getValidationConclusion());
+        validationConclusion.setValidationTime(validationTime);
+        if (report instanceof DetailedReport) {
+            return new DetailedReport(validationConclusion, ((DetailedReport) report).getValidationProcess());
+        } else if (report instanceof DiagnosticReport) {
+            return new DiagnosticReport(validationConclusion, ((DiagnosticReport) report).getDiagnosticData());
+        }
+        return new SimpleReport(validationConclusion);
+    }
+
+    private static ValidationConclusion copyOf(ValidationConclusion validationConclusion) {
+        ValidationConclusion copy = new ValidationConclusion();
+        copy.setPolicy(validationConclusion.getPolicy());
+        copy.setValidationTime(validationConclusion.getValidationTime());
+        copy.setSignatureForm(validationConclusion.getSignatureForm());
+        copy.setValidationWarnings(validationConclusion.getValidationWarnings());
+        copy.setValidatedDocument(validationConclusion.getValidatedDocument());
+        copy.setValidationLevel(validationConclusion.getValidationLevel());
+        copy.setSignatures(validationConclusion.getSignatures());
+        copy.setValidSignaturesCount(validationConclusion.getValidSignaturesCount());
+        copy.setSignaturesCount(validationConclusion.getSignaturesCount());
+        copy.setTimeStampTokens(validationConclusion.getTimeStampTokens());
+        return copy;
+    }
+
+    @Autowired
+    public void setProperties(ValidationResultCacheProperties properties) {
+        this.properties = properties;
+    }
+
+    @Autowired
+    @Qualifier("tslLoader")
+    public void setTslLoader(TSLLoader tslLoader) {
+        this.tslLoader = tslLoader;
+    }
+
+    @Autowired(required = false)
+    public void setSignaturePolicyServices(List<ConstraintLoadingSignaturePolicyService> signaturePolicyServices) {
+        this.signaturePolicyServices = signaturePolicyServices;
+    }
+
+    @Value
+    private static class CacheKey {
+        String documentHash;
+        String name;
+        DocumentType documentType;
+        String signaturePolicy;
+        ReportType reportType;
+        ValidationLevel validationLevel;
+        long trustedCertificatesGeneration;
+        long signaturePoliciesGeneration;
+    }
+}
@@ -18,13 +18,17 @@ package ee.openeid.siva.proxy.document;
 
 import ee.openeid.siva.proxy.ProxyRequest;
 import ee.openeid.siva.validation.document.Datafile;
+import ee.openeid.siva.validation.document.ValidationLevel;
+import ee.openeid.siva.validation.document.ZipContainer;
 import lombok.Data;
 import lombok.EqualsAndHashCode;
+import lombok.ToString;
 
 import java.util.List;
 
 @Data
-@EqualsAndHashCode(callSuper=true)
+@EqualsAndHashCode(callSuper=true, exclude = "zipContainer")
+@ToString(exclude = "zipContainer")
 public class ProxyDocument extends ProxyRequest {
 
     private byte[] bytes;
@@ -34,4 +38,8 @@ public class ProxyDocument extends ProxyRequest {
     protected DocumentType documentType;
 
     private List<Datafile> datafiles;
+
+    private ValidationLevel validationLevel;
+
+    private ZipContainer zipContainer;
 }
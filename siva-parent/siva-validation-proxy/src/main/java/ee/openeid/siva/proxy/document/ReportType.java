@@ -17,6 +17,7 @@
 package ee.openeid.siva.proxy.document;
 
 import ee.openeid.siva.proxy.document.typeresolver.UnsupportedTypeException;
+import ee.openeid.siva.validation.document.report.RequestedReport;
 
 import java.util.Optional;
 
@@ -24,20 +25,30 @@ import static java.util.Arrays.stream;
 
 public enum ReportType {
 
-    SIMPLE("Simple"),
-    DETAILED("Detailed"),
-    DIAGNOSTIC("Diagnostic"),
+    SIMPLE("Simple", RequestedReport.SIMPLE),
+    DETAILED("Detailed", RequestedReport.DETAILED),
+    DIAGNOSTIC("Diagnostic", RequestedReport.DIAGNOSTIC),
     ;
 
     private String value;
+    private RequestedReport requestedReport;
 
-    ReportType(String value) {
+    ReportType(String value, RequestedReport requestedReport) {
         this.value = value;
+        this.requestedReport = requestedReport;
     }
 
     public String getValue() {
         return value;
     }
+
+    /**
+     * @return the report the validation services are asked to build for this report type
+     */
+    public RequestedReport getRequestedReport() {
+        return requestedReport;
+    }
+
     public static ReportType reportTypeFromString(String type) {
         Optional<ReportType> reportType = stream(ReportType.class.getEnumConstants())
                 .filter(dt -> dt.name().equalsIgnoreCase(type))
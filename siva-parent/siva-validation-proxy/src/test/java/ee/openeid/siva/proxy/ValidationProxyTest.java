@@ -16,6 +16,8 @@
 
 package ee.openeid.siva.proxy;
 
+import ee.openeid.siva.proxy.cache.ValidationResultCache;
+import ee.openeid.siva.proxy.configuration.ValidationResultCacheProperties;
 import ee.openeid.siva.proxy.document.DocumentType;
 import ee.openeid.siva.proxy.document.ProxyDocument;
 import ee.openeid.siva.proxy.document.ReportType;
@@ -24,6 +26,7 @@ import ee.openeid.siva.proxy.http.RESTProxyService;
 import ee.openeid.siva.statistics.StatisticsService;
 import ee.openeid.siva.validation.configuration.ReportConfigurationProperties;
 import ee.openeid.siva.validation.document.ValidationDocument;
+import ee.openeid.siva.validation.document.ValidationLevel;
 import ee.openeid.siva.validation.document.report.DetailedReport;
 import ee.openeid.siva.validation.document.report.DiagnosticReport;
 import ee.openeid.siva.validation.document.report.Error;
@@ -39,13 +42,16 @@ import ee.openeid.siva.validation.document.report.ValidationWarning;
 import ee.openeid.siva.validation.exception.DocumentRequirementsException;
 import ee.openeid.siva.validation.service.ValidationService;
 import ee.openeid.siva.validation.service.signature.policy.ConstraintLoadingSignaturePolicyService;
+import ee.openeid.siva.validation.service.signature.policy.InvalidValidationLevelException;
 import ee.openeid.siva.validation.service.signature.policy.SignaturePolicyService;
 import ee.openeid.siva.validation.service.signature.policy.properties.ValidationPolicy;
+import ee.openeid.tsl.TSLLoader;
 import ee.openeid.validation.service.generic.GenericValidationService;
 import ee.openeid.validation.service.generic.configuration.GenericSignaturePolicyProperties;
 import ee.openeid.validation.service.timemark.report.TimemarkContainerValidationReportBuilder;
 import ee.openeid.validation.service.timestamptoken.TimeStampTokenValidationService;
 import ee.openeid.validation.service.timestamptoken.configuration.TimeStampTokenSignaturePolicyProperties;
+import eu.europa.esig.dss.tsl.TrustedListsCertificateSource;
 import org.assertj.core.api.Assertions;
 import org.junit.Assert;
 import org.junit.Before;
@@ -67,11 +73,13 @@ import java.util.Collections;
 import java.util.List;
 
 import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNull;
 import static org.junit.Assert.assertTrue;
 import static org.mockito.Matchers.any;
 import static org.mockito.Matchers.anyString;
 import static org.mockito.Mockito.mock;
 import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.verifyZeroInteractions;
 import static org.mockito.Mockito.when;
 
 @RunWith(SpringJUnit4ClassRunner.class)
@@ -108,6 +116,11 @@ public class ValidationProxyTest {
         statisticsService = mock(StatisticsService.class);
         validationProxy.setStatisticsService(statisticsService);
 
+        ValidationResultCache validationResultCache = new ValidationResultCache();
+        validationResultCache.setProperties(new ValidationResultCacheProperties());
+        validationResultCache.init();
+        validationProxy.setValidationResultCache(validationResultCache);
+
         validationServiceSpy = new ValidationServiceSpy();
     }
 
@@ -167,6 +180,66 @@ public class ValidationProxyTest {
         assertSimpleReport(report);
     }
 
+    @Test
+    public void proxyDocumentWithPDFDocumentTypeIsValidatedOnRequestedValidationLevel() throws Exception {
+        when(applicationContext.getBean(GENERIC_VALIDATION_SERVICE_BEAN)).thenReturn(validationServiceSpy);
+
+        ProxyDocument proxyDocument = mockProxyDocumentWithDocument(DocumentType.PDF);
+        proxyDocument.setValidationLevel(ValidationLevel.TIMESTAMPS);
+        SimpleReport report = validationProxy.validate(proxyDocument);
+        assertSimpleReport(report);
+        assertEquals(ValidationLevel.TIMESTAMPS, validationServiceSpy.validationDocument.getValidationLevel());
+    }
+
+    @Test
+    public void proxyDocumentWithBDOCDocumentTypeAndDefaultValidationLevelShouldReturnValidationReport() throws Exception {
+        when(applicationContext.getBean(TIMEMARK_CONTAINER_VALIDATION_SERVICE_BEAN)).thenReturn(validationServiceSpy);
+
+        ProxyDocument proxyDocument = mockProxyDocumentWithDocument(DocumentType.BDOC);
+        proxyDocument.setValidationLevel(ValidationLevel.ARCHIVAL_DATA);
+        SimpleReport report = validationProxy.validate(proxyDocument);
+        assertSimpleReport(report);
+    }
+
+    @Test
+    public void proxyDocumentWithBDOCDocumentTypeAndLowerValidationLevelIsRejected() throws Exception {
+        exception.expect(InvalidValidationLevelException.class);
+        exception.expectMessage("Validation level TIMESTAMPS is not supported for document: document.BDOC; Allowed validation levels: [ARCHIVAL_DATA]");
+
+        ProxyDocument proxyDocument = mockProxyDocumentWithDocument(DocumentType.BDOC);
+        proxyDocument.setValidationLevel(ValidationLevel.TIMESTAMPS);
+        try {
+            validationProxy.validate(proxyDocument);
+        } finally {
+            verifyZeroInteractions(applicationContext);
+        }
+    }
+
+    @Test
+    public void proxyDocumentWithXroadDocumentTypeAndLowerValidationLevelIsRejected() throws Exception {
+        exception.expect(InvalidValidationLevelException.class);
+        exception.expectMessage("Validation level BASIC_SIGNATURES is not supported for document: document.XROAD");
+
+        ProxyDocument proxyDocument = mockProxyDocumentWithDocument(DocumentType.XROAD);
+        proxyDocument.setValidationLevel(ValidationLevel.BASIC_SIGNATURES);
+        try {
+            validationProxy.validate(proxyDocument);
+        } finally {
+            verifyZeroInteractions(restProxyService);
+        }
+    }
+
+    @Test
+    public void proxyDocumentWithTimeStampTokenAndLowerValidationLevelIsRejected() throws Exception {
+        exception.expect(InvalidValidationLevelException.class);
+        exception.expectMessage("Validation level LONG_TERM_DATA is not supported for document: document.asics");
+
+        ProxyDocument proxyDocument = mockProxyDocumentWithExtension("asics");
+        proxyDocument.setBytes(buildValidationDocument("timestamptoken-ddoc.asics"));
+        proxyDocument.setValidationLevel(ValidationLevel.LONG_TERM_DATA);
+        validationProxy.validate(proxyDocument);
+    }
+
     @Test
     public void proxyDocumentWithAsicsExtensionShouldReturnValidationReport() throws Exception {
 
@@ -211,8 +284,9 @@ public class ValidationProxyTest {
 
     @Test
     public void proxyDocumentAsicsWithRandomDataFile() throws Exception {
+        GenericValidationService genericValidationService = getGenericValidationService();
         when(applicationContext.getBean(TIMESTAMP_TOKEN_VALIDATION_SERVICE_BEAN)).thenReturn(getTimeStampValidationService());
-        when(applicationContext.getBean(GENERIC_VALIDATION_SERVICE_BEAN)).thenReturn(getGenericValidationService());
+        when(applicationContext.getBean(GENERIC_VALIDATION_SERVICE_BEAN)).thenReturn(genericValidationService);
         ProxyDocument proxyDocument = mockProxyDocumentWithExtension("asics");
         proxyDocument.setBytes(buildValidationDocument("TXTinsideAsics.asics"));
         SimpleReport report = validationProxy.validate(proxyDocument);
@@ -272,6 +346,15 @@ public class ValidationProxyTest {
         }
     }
 
+    @Test
+    public void requestedReportIsPassedToValidationService() {
+        for (ReportType reportType : ReportType.values()) {
+            ValidationDocument validationDocument = validationProxy.createValidationDocument(mockProxyDocumentWithDocument(DocumentType.BDOC, reportType));
+            assertEquals(reportType.name(), validationDocument.getRequestedReport().name());
+        }
+        assertNull(validationProxy.createValidationDocument(mockProxyDocumentWithDocument(DocumentType.BDOC, null)).getRequestedReport());
+    }
+
     private void mockValidationServices() {
         Reports mockReports = mockReports();
         ValidationService validationServiceMock = mock(ValidationService.class);
@@ -297,6 +380,9 @@ public class ValidationProxyTest {
 
     private GenericValidationService getGenericValidationService() {
         GenericValidationService validationService = new GenericValidationService();
+        TSLLoader tslLoader = mock(TSLLoader.class);
+        when(tslLoader.getTrustedListSource()).thenReturn(new TrustedListsCertificateSource());
+        validationService.setTslLoader(tslLoader);
         GenericSignaturePolicyProperties policyProperties = new GenericSignaturePolicyProperties();
         policyProperties.initPolicySettings();
         ConstraintLoadingSignaturePolicyService signaturePolicyService = new ConstraintLoadingSignaturePolicyService(policyProperties);
@@ -346,9 +432,11 @@ public class ValidationProxyTest {
     private class ValidationServiceSpy implements ValidationService {
 
         Reports reports;
+        ValidationDocument validationDocument;
 
         @Override
         public Reports validateDocument(ValidationDocument validationDocument) {
+            this.validationDocument = validationDocument;
             reports = createDummyReports();
             return reports;
         }
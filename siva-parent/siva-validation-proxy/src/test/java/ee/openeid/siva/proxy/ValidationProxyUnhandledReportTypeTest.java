@@ -16,9 +16,12 @@
 
 package ee.openeid.siva.proxy;
 
+import ee.openeid.siva.proxy.cache.ValidationResultCache;
+import ee.openeid.siva.proxy.configuration.ValidationResultCacheProperties;
 import ee.openeid.siva.proxy.document.ProxyDocument;
 import ee.openeid.siva.proxy.document.ReportType;
 import ee.openeid.siva.validation.service.ValidationService;
+import org.junit.Before;
 import org.junit.Rule;
 import org.junit.Test;
 import org.junit.rules.ExpectedException;
@@ -53,6 +56,14 @@ public class ValidationProxyUnhandledReportTypeTest {
     @Mock
     private ValidationService validationService;
 
+    @Before
+    public void setUp() {
+        ValidationResultCache validationResultCache = new ValidationResultCache();
+        validationResultCache.setProperties(new ValidationResultCacheProperties());
+        validationResultCache.init();
+        validationProxy.setValidationResultCache(validationResultCache);
+    }
+
     @Test
     @PrepareForTest(ReportType.class)
     public void unhandledReportTypeThrowsIllegalArgumentException() {
@@ -0,0 +1,177 @@
+/*
+ * Copyright 2019 Riigi Infosüsteemide Amet
+ *
+ * Licensed under the EUPL, Version 1.1 or – as soon they will be approved by
+ * the European Commission - subsequent versions of the EUPL (the "Licence");
+ * You may not use this work except in compliance with the Licence.
+ * You may obtain a copy of the Licence at:
+ *
+ * https://joinup.ec.europa.eu/software/page/eupl
+ *
+ * Unless required by applicable law or agreed to in writing, software distributed under the Licence is
+ * distributed on an "AS IS" basis,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the Licence for the specific language governing permissions and limitations under the Licence.
+ */
+
+package ee.openeid.siva.proxy.cache;
+
+import ee.openeid.siva.proxy.configuration.ValidationResultCacheProperties;
+import ee.openeid.siva.proxy.document.ProxyDocument;
+import ee.openeid.siva.proxy.document.ReportType;
+import ee.openeid.siva.validation.document.ValidationLevel;
+import ee.openeid.siva.validation.document.report.DetailedReport;
+import ee.openeid.siva.validation.document.report.SimpleReport;
+import ee.openeid.siva.validation.document.report.ValidationConclusion;
+import ee.openeid.siva.validation.service.signature.policy.ConstraintLoadingSignaturePolicyService;
+import ee.openeid.tsl.TSLLoader;
+import org.junit.Before;
+import org.junit.Test;
+
+import java.nio.charset.StandardCharsets;
+import java.util.Collections;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Supplier;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNotEquals;
+import static org.junit.Assert.assertNotSame;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.assertTrue;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+public class ValidationResultCacheTest {
+    private static final String VALIDATION_TIME = "2019-01-01T00:00:00Z";
+
+    private ValidationResultCache validationResultCache;
+    private ValidationResultCacheProperties properties;
+    private TSLLoader tslLoader;
+    private ConstraintLoadingSignaturePolicyService signaturePolicyService;
+    private AtomicInteger validationCount;
+
+    @Before
+    public void setUp() {
+        properties = new ValidationResultCacheProperties();
+        properties.setEnabled(true);
+        tslLoader = mock(TSLLoader.class);
+        when(tslLoader.getGeneration()).thenReturn(1L);
+        signaturePolicyService = mock(ConstraintLoadingSignaturePolicyService.class);
+        validationCount = new AtomicInteger();
+
+        validationResultCache = new ValidationResultCache();
+        validationResultCache.setProperties(properties);
+        validationResultCache.setTslLoader(tslLoader);
+        validationResultCache.setSignaturePolicyServices(Collections.singletonList(signaturePolicyService));
+        validationResultCache.init();
+    }
+
+    @Test
+    public void whenCacheIsDisabledThenEveryRequestIsValidated() {
+        properties.setEnabled(false);
+        ProxyDocument document = createDocument("content", ReportType.SIMPLE);
+
+        validationResultCache.get(document, validation(new SimpleReport(createValidationConclusion())));
+        validationResultCache.get(document, validation(new SimpleReport(createValidationConclusion())));
+
+        assertEquals(2, validationCount.get());
+        assertEquals(0, validationResultCache.getSize());
+    }
+
+    @Test
+    public void sameDocumentIsValidatedOnlyOnce() {
+        SimpleReport report = new SimpleReport(createValidationConclusion());
+
+        SimpleReport firstReport = validationResultCache.get(createDocument("content", ReportType.SIMPLE), validation(report));
+        SimpleReport secondReport = validationResultCache.get(createDocument("content", ReportType.SIMPLE), validation(report));
+
+        assertEquals(1, validationCount.get());
+        assertSame(report, firstReport);
+        assertNotSame(report, secondReport);
+        assertEquals(report.getValidationConclusion().getSignatures(), secondReport.getValidationConclusion().getSignatures());
+        assertEquals(1, validationResultCache.getHitCount());
+        assertEquals(1, validationResultCache.getMissCount());
+    }
+
+    @Test
+    public void cachedReportHasFreshValidationTime() {
+        validationResultCache.get(createDocument("content", ReportType.SIMPLE), validation(new SimpleReport(createValidationConclusion())));
+        SimpleReport cachedReport = validationResultCache.get(createDocument("content", ReportType.SIMPLE), validation(null));
+
+        assertNotEquals(VALIDATION_TIME, cachedReport.getValidationConclusion().getValidationTime());
+    }
+
+    @Test
+    public void cachedReportKeepsReportType() {
+        DetailedReport report = new DetailedReport(createValidationConclusion(), new eu.europa.esig.dss.jaxb.detailedreport.DetailedReport());
+
+        validationResultCache.get(createDocument("content", ReportType.DETAILED), validation(report));
+        SimpleReport cachedReport = validationResultCache.get(createDocument("content", ReportType.DETAILED), validation(null));
+
+        assertTrue(cachedReport instanceof DetailedReport);
+        assertSame(report.getValidationProcess(), ((DetailedReport) cachedReport).getValidationProcess());
+    }
+
+    @Test
+    public void differentContentOrReportTypeIsValidatedSeparately() {
+        validationResultCache.get(createDocument("content", ReportType.SIMPLE), validation(new SimpleReport(createValidationConclusion())));
+        validationResultCache.get(createDocument("other content", ReportType.SIMPLE), validation(new SimpleReport(createValidationConclusion())));
+        validationResultCache.get(createDocument("content", ReportType.DIAGNOSTIC), validation(new SimpleReport(createValidationConclusion())));
+
+        assertEquals(3, validationCount.get());
+    }
+
+    @Test
+    public void differentValidationLevelIsValidatedSeparately() {
+        ProxyDocument document = createDocument("content", ReportType.SIMPLE);
+        validationResultCache.get(document, validation(new SimpleReport(createValidationConclusion())));
+        document.setValidationLevel(ValidationLevel.BASIC_SIGNATURES);
+        validationResultCache.get(document, validation(new SimpleReport(createValidationConclusion())));
+
+        assertEquals(2, validationCount.get());
+    }
+
+    @Test
+    public void reloadedTrustedCertificatesInvalidateCache() {
+        validationResultCache.get(createDocument("content", ReportType.SIMPLE), validation(new SimpleReport(createValidationConclusion())));
+        when(tslLoader.getGeneration()).thenReturn(2L);
+        validationResultCache.get(createDocument("content", ReportType.SIMPLE), validation(new SimpleReport(createValidationConclusion())));
+
+        assertEquals(2, validationCount.get());
+        assertEquals(1, validationResultCache.getSize());
+    }
+
+    @Test
+    public void reloadedSignaturePoliciesInvalidateCache() {
+        validationResultCache.get(createDocument("content", ReportType.SIMPLE), validation(new SimpleReport(createValidationConclusion())));
+        when(signaturePolicyService.getGeneration()).thenReturn(1L);
+        validationResultCache.get(createDocument("content", ReportType.SIMPLE), validation(new SimpleReport(createValidationConclusion())));
+
+        assertEquals(2, validationCount.get());
+        assertEquals(1, validationResultCache.getSize());
+    }
+
+    private Supplier<SimpleReport> validation(SimpleReport report) {
+        return () -> {
+            validationCount.incrementAndGet();
+            return report;
+        };
+    }
+
+    private static ProxyDocument createDocument(String content, ReportType reportType) {
+        ProxyDocument proxyDocument = new ProxyDocument();
+        proxyDocument.setName("document.bdoc");
+        proxyDocument.setBytes(content.getBytes(StandardCharsets.UTF_8));
+        proxyDocument.setSignaturePolicy("POLv4");
+        proxyDocument.setReportType(reportType);
+        return proxyDocument;
+    }
+
+    private static ValidationConclusion createValidationConclusion() {
+        ValidationConclusion validationConclusion = new ValidationConclusion();
+        validationConclusion.setValidationTime(VALIDATION_TIME);
+        validationConclusion.setSignaturesCount(1);
+        validationConclusion.setValidSignaturesCount(1);
+        return validationConclusion;
+    }
+}
@@ -18,9 +18,13 @@ package ee.openeid.siva;
 
 import com.fasterxml.jackson.annotation.JsonInclude;
 import ee.openeid.siva.monitoring.configuration.MonitoringConfiguration;
+import ee.openeid.siva.monitoring.indicator.MetricsHealthIndicator;
 import ee.openeid.siva.monitoring.indicator.UrlHealthIndicator;
+import ee.openeid.siva.proxy.cache.ValidationResultCache;
 import ee.openeid.siva.proxy.configuration.ProxyConfigurationProperties;
+import ee.openeid.siva.statistics.googleanalytics.GoogleAnalyticsMeasurementProtocolPublisher;
 import ee.openeid.siva.validation.configuration.ReportConfigurationProperties;
+import ee.openeid.siva.webapp.configuration.SoapAttachmentConfigurationProperties;
 import ee.openeid.siva.webapp.configuration.WsdlServiceConfigurationProperties;
 import ee.openeid.siva.webapp.soap.DataFilesWebService;
 import ee.openeid.siva.webapp.soap.HashcodeValidationWebService;
@@ -28,12 +32,15 @@ import ee.openeid.siva.webapp.soap.ValidationWebService;
 import ee.openeid.siva.webapp.soap.impl.DataFilesWebServiceImpl;
 import ee.openeid.siva.webapp.soap.impl.HashcodeValidationWebServiceImpl;
 import ee.openeid.siva.webapp.soap.impl.ValidationWebServiceImpl;
+import ee.openeid.siva.webapp.soap.interceptor.MtomResponseInterceptor;
 import ee.openeid.siva.webapp.soap.interceptor.ReportSignatureInterceptor;
 import ee.openeid.siva.webapp.soap.interceptor.SoapRequestHashcodeValidationInterceptor;
 import ee.openeid.siva.webapp.soap.interceptor.SoapRequestValidationInterceptor;
 import ee.openeid.siva.webapp.soap.interceptor.SoapResponseHeaderInterceptor;
+import ee.openeid.tsl.TSLLoader;
 import org.apache.commons.lang3.StringUtils;
 import org.apache.cxf.Bus;
+import org.apache.cxf.attachment.AttachmentDeserializer;
 import org.apache.cxf.binding.soap.interceptor.AbstractSoapInterceptor;
 import org.apache.cxf.binding.soap.saaj.SAAJOutInterceptor;
 import org.apache.cxf.bus.spring.SpringBus;
@@ -54,10 +61,13 @@ import javax.xml.namespace.QName;
 import javax.xml.ws.Endpoint;
 import java.net.URISyntaxException;
 import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
 import java.util.List;
+import java.util.Map;
 
 @SpringBootConfiguration
-@EnableConfigurationProperties({ReportConfigurationProperties.class, ProxyConfigurationProperties.class, WsdlServiceConfigurationProperties.class})
+@EnableConfigurationProperties({ReportConfigurationProperties.class, ProxyConfigurationProperties.class, WsdlServiceConfigurationProperties.class, SoapAttachmentConfigurationProperties.class})
 public class ServletConfiguration extends MonitoringConfiguration {
 
     private static final String VALIDATION_WEB_SERVICE_ENDPOINT = "/validationWebService";
@@ -68,6 +78,7 @@ public class ServletConfiguration extends MonitoringConfiguration {
 
     private ProxyConfigurationProperties proxyProperties;
     private WsdlServiceConfigurationProperties wsdlConfProperties;
+    private SoapAttachmentConfigurationProperties attachmentProperties;
 
     @Autowired
     @Qualifier("SoapReportSignatureInterceptor")
@@ -112,6 +123,43 @@ public class ServletConfiguration extends MonitoringConfiguration {
         return builder;
     }
 
+    @Bean
+    public MetricsHealthIndicator validationResultCacheHealthIndicator(ValidationResultCache validationResultCache) {
+        return new MetricsHealthIndicator(() -> {
+            Map<String, Object> metrics = new LinkedHashMap<>();
+            metrics.put("hitCount", validationResultCache.getHitCount());
+            metrics.put("missCount", validationResultCache.getMissCount());
+            metrics.put("size", validationResultCache.getSize());
+            return metrics;
+        });
+    }
+
+    @Bean
+    public MetricsHealthIndicator tslHealthIndicator(@Qualifier("tslLoader") TSLLoader tslLoader) {
+        return new MetricsHealthIndicator(() -> {
+            Map<String, Object> metrics = new LinkedHashMap<>();
+            metrics.put("activeGeneration", tslLoader.getGeneration());
+            metrics.put("generationAgeInMillis", tslLoader.getGenerationAge());
+            metrics.put("trustedCertificateCount", tslLoader.getTrustedCertificateCount());
+            metrics.put("lastRefreshDurationInMillis", tslLoader.getLastRefreshDuration());
+            metrics.put("lastRefreshFailed", tslLoader.isLastRefreshFailed());
+            return metrics;
+        });
+    }
+
+    @Bean
+    public MetricsHealthIndicator statisticsPublisherHealthIndicator(GoogleAnalyticsMeasurementProtocolPublisher statisticsPublisher) {
+        return new MetricsHealthIndicator(() -> {
+            Map<String, Object> metrics = new LinkedHashMap<>();
+            metrics.put("queueSize", statisticsPublisher.getQueueSize());
+            metrics.put("droppedCount", statisticsPublisher.getDroppedCount());
+            metrics.put("flushCount", statisticsPublisher.getFlushCount());
+            metrics.put("failedFlushCount", statisticsPublisher.getFailedFlushCount());
+            metrics.put("lastFlushLatencyInMillis", statisticsPublisher.getLastFlushLatencyInMillis());
+            return metrics;
+        });
+    }
+
     @Bean
     public Endpoint validationXRoadEndpoint(SpringBus springBus, ValidationWebService validationWebService) {
         return constructValidationEndpoint(springBus, validationWebService, "XRoadValidationWebService", "XRoad");
@@ -146,6 +194,7 @@ public class ServletConfiguration extends MonitoringConfiguration {
         EndpointImpl endpoint = new EndpointImpl(springBus, validationWebService);
         endpoint.setWsdlLocation("wsdl/siva.wsdl");
         endpoint.setServiceName(new QName(SIVA_SERVICE_NAMESPACE, serviceName));
+        endpoint.setProperties(attachmentEndpointProperties());
         endpoint.getOutInterceptors().addAll(commonEndpointOutInterceptors());
         endpoint.getInInterceptors().add(new SoapRequestValidationInterceptor());
         publishEndpoint(endpoint, VALIDATION_WEB_SERVICE_ENDPOINT, endpointPathExtra);
@@ -166,6 +215,10 @@ public class ServletConfiguration extends MonitoringConfiguration {
         EndpointImpl endpoint = new EndpointImpl(springBus, validationWebService);
         endpoint.setWsdlLocation("wsdl/siva-datafiles.wsdl");
         endpoint.setServiceName(new QName(SIVA_SERVICE_NAMESPACE, serviceName));
+        endpoint.setProperties(attachmentEndpointProperties());
+        if (attachmentProperties.isMtomEnabled()) {
+            endpoint.getOutInterceptors().add(new MtomResponseInterceptor());
+        }
         publishEndpoint(endpoint, DATAFILES_ENDPOINT, endpointPathExtra);
         return endpoint;
     }
@@ -203,6 +256,18 @@ public class ServletConfiguration extends MonitoringConfiguration {
         }};
     }
 
+    /**
+     * MTOM attachments of the requests larger than the memory threshold are cached on disk while the request is read.
+     */
+    private Map<String, Object> attachmentEndpointProperties() {
+        Map<String, Object> properties = new HashMap<>();
+        properties.put(AttachmentDeserializer.ATTACHMENT_MEMORY_THRESHOLD, attachmentProperties.getMemoryThreshold());
+        if (StringUtils.isNotBlank(attachmentProperties.getDirectory())) {
+            properties.put(AttachmentDeserializer.ATTACHMENT_DIRECTORY, attachmentProperties.getDirectory());
+        }
+        return properties;
+    }
+
     private List<AbstractSoapInterceptor> commonEndpointOutInterceptors() {
         List<AbstractSoapInterceptor> outInterceptors = new ArrayList<>();
         outInterceptors.add(new SoapResponseHeaderInterceptor());
@@ -220,4 +285,9 @@ public class ServletConfiguration extends MonitoringConfiguration {
     public void setWsdlConfProperties(WsdlServiceConfigurationProperties wsdlConfProperties) {
         this.wsdlConfProperties = wsdlConfProperties;
     }
+
+    @Autowired
+    public void setAttachmentProperties(SoapAttachmentConfigurationProperties attachmentProperties) {
+        this.attachmentProperties = attachmentProperties;
+    }
 }
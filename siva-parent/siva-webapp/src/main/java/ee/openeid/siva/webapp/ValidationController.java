@@ -21,15 +21,21 @@ import ee.openeid.siva.proxy.HashcodeValidationProxy;
 import ee.openeid.siva.proxy.document.ProxyHashcodeDataSet;
 import ee.openeid.siva.webapp.request.JSONHashcodeValidationRequest;
 import ee.openeid.siva.webapp.request.JSONValidationRequest;
+import ee.openeid.siva.webapp.request.MultipartHashcodeValidationRequest;
+import ee.openeid.siva.webapp.request.MultipartValidationRequest;
 import ee.openeid.siva.webapp.response.ValidationResponse;
 import ee.openeid.siva.webapp.transformer.HashcodeValidationRequestToProxyDocumentTransformer;
 import ee.openeid.siva.webapp.transformer.ValidationRequestToProxyDocumentTransformer;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.http.MediaType;
+import org.springframework.web.bind.WebDataBinder;
+import org.springframework.web.bind.annotation.InitBinder;
+import org.springframework.web.bind.annotation.ModelAttribute;
 import org.springframework.web.bind.annotation.RequestBody;
 import org.springframework.web.bind.annotation.RequestMapping;
 import org.springframework.web.bind.annotation.RequestMethod;
 import org.springframework.web.bind.annotation.RestController;
+import org.springframework.web.multipart.support.ByteArrayMultipartFileEditor;
 
 import javax.validation.Valid;
 
@@ -46,12 +52,28 @@ public class ValidationController {
         return new ValidationResponse(containerValidationProxy.validate(transformer.transform(validationRequest)));
     }
 
+    @RequestMapping(value = "/validate", produces = MediaType.APPLICATION_JSON_VALUE, consumes = MediaType.MULTIPART_FORM_DATA_VALUE, method = RequestMethod.POST)
+    public ValidationResponse validateMultipart(@Valid @ModelAttribute MultipartValidationRequest validationRequest) {
+        return new ValidationResponse(containerValidationProxy.validate(transformer.transform(validationRequest)));
+    }
+
     @RequestMapping(value = "/validateHashcode", produces = MediaType.APPLICATION_JSON_VALUE, method = RequestMethod.POST)
     public ValidationResponse validateHashcode(@Valid @RequestBody JSONHashcodeValidationRequest validationRequest) {
         ProxyHashcodeDataSet proxyDocument = hashRequestTransformer.transform(validationRequest);
         return new ValidationResponse(hashcodeValidationProxy.validate(proxyDocument));
     }
 
+    @RequestMapping(value = "/validateHashcode", produces = MediaType.APPLICATION_JSON_VALUE, consumes = MediaType.MULTIPART_FORM_DATA_VALUE, method = RequestMethod.POST)
+    public ValidationResponse validateHashcodeMultipart(@Valid @ModelAttribute MultipartHashcodeValidationRequest validationRequest) {
+        ProxyHashcodeDataSet proxyDocument = hashRequestTransformer.transform(validationRequest);
+        return new ValidationResponse(hashcodeValidationProxy.validate(proxyDocument));
+    }
+
+    @InitBinder
+    public void initBinder(WebDataBinder binder) {
+        binder.registerCustomEditor(byte[].class, new ByteArrayMultipartFileEditor());
+    }
+
     @Autowired
     public void setContainerValidationProxy(ContainerValidationProxy containerValidationProxy) {
         this.containerValidationProxy = containerValidationProxy;
@@ -23,17 +23,24 @@ import ee.openeid.siva.validation.exception.MalformedDocumentException;
 import ee.openeid.siva.validation.exception.MalformedSignatureFileException;
 import ee.openeid.siva.validation.exception.ValidationServiceException;
 import ee.openeid.siva.validation.service.signature.policy.InvalidPolicyException;
+import ee.openeid.siva.validation.service.signature.policy.InvalidValidationLevelException;
+import ee.openeid.siva.webapp.request.deserializer.InvalidBase64Exception;
 import ee.openeid.siva.webapp.response.erroneus.RequestValidationError;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.context.MessageSource;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
+import org.springframework.http.converter.HttpMessageNotReadableException;
+import org.springframework.validation.BindException;
 import org.springframework.validation.BindingResult;
 import org.springframework.web.bind.MethodArgumentNotValidException;
 import org.springframework.web.bind.annotation.ExceptionHandler;
 import org.springframework.web.bind.annotation.ResponseStatus;
 import org.springframework.web.bind.annotation.RestControllerAdvice;
 
+import javax.servlet.http.HttpServletResponse;
+import java.io.IOException;
+
 @RestControllerAdvice
 public class ValidationExceptionHandler {
 
@@ -42,9 +49,30 @@ public class ValidationExceptionHandler {
     @ExceptionHandler(MethodArgumentNotValidException.class)
     @ResponseStatus(value = HttpStatus.BAD_REQUEST)
     public RequestValidationError invalidRequest(MethodArgumentNotValidException exception) {
+        return fieldErrors(exception.getBindingResult());
+    }
+
+    @ExceptionHandler(BindException.class)
+    @ResponseStatus(value = HttpStatus.BAD_REQUEST)
+    public RequestValidationError invalidMultipartRequest(BindException exception) {
+        return fieldErrors(exception.getBindingResult());
+    }
+
+    @ExceptionHandler(HttpMessageNotReadableException.class)
+    @ResponseStatus(value = HttpStatus.BAD_REQUEST)
+    public RequestValidationError handleHttpMessageNotReadableException(HttpMessageNotReadableException exception, HttpServletResponse response) throws IOException {
+        if (exception.getCause() instanceof InvalidBase64Exception) {
+            return handleInvalidBase64Exception((InvalidBase64Exception) exception.getCause());
+        }
+        response.sendError(HttpServletResponse.SC_BAD_REQUEST);
+        return null;
+    }
+
+    @ExceptionHandler(InvalidBase64Exception.class)
+    @ResponseStatus(value = HttpStatus.BAD_REQUEST)
+    public RequestValidationError handleInvalidBase64Exception(InvalidBase64Exception exception) {
         RequestValidationError requestValidationError = new RequestValidationError();
-        BindingResult bindingResult = exception.getBindingResult();
-        bindingResult.getFieldErrors().forEach(br -> requestValidationError.addFieldError(br.getField(), br.getDefaultMessage()));
+        requestValidationError.addFieldError("document", getMessage("validation.error.message.base64"));
         return requestValidationError;
     }
 
@@ -88,6 +116,14 @@ public class ValidationExceptionHandler {
         return requestValidationError;
     }
 
+    @ExceptionHandler(InvalidValidationLevelException.class)
+    @ResponseStatus(value = HttpStatus.BAD_REQUEST)
+    public RequestValidationError handleInvalidValidationLevelException(InvalidValidationLevelException e) {
+        RequestValidationError requestValidationError = new RequestValidationError();
+        requestValidationError.addFieldError("validationLevel", e.getMessage());
+        return requestValidationError;
+    }
+
     @ExceptionHandler(RESTValidationProxyRequestException.class)
     public ResponseEntity<RequestValidationError> handleRESTValidationProxyException(RESTValidationProxyRequestException e) {
         RequestValidationError requestValidationError = new RequestValidationError();
@@ -101,6 +137,12 @@ public class ValidationExceptionHandler {
     }
 
 
+    private RequestValidationError fieldErrors(BindingResult bindingResult) {
+        RequestValidationError requestValidationError = new RequestValidationError();
+        bindingResult.getFieldErrors().forEach(br -> requestValidationError.addFieldError(br.getField(), br.getDefaultMessage()));
+        return requestValidationError;
+    }
+
     private String getMessage(String key) {
         return messageSource.getMessage(key, null, null);
     }
@@ -19,6 +19,7 @@ package ee.openeid.siva.webapp.interceptor;
 import com.fasterxml.jackson.databind.ObjectMapper;
 import ee.openeid.siva.signature.SignatureService;
 import ee.openeid.siva.validation.document.report.DetailedReport;
+import ee.openeid.siva.webapp.response.SignedValidationResponse;
 import ee.openeid.siva.webapp.response.ValidationResponse;
 import ee.openeid.siva.validation.configuration.ReportConfigurationProperties;
 import org.apache.commons.codec.binary.Base64;
@@ -35,6 +36,7 @@ import org.springframework.web.servlet.mvc.method.annotation.ResponseBodyAdvice;
 
 /**
  * Alters the response by creating a signature from the existing response's body and adding the signature into the body.
+ * The signed report is written into the body in the same serialized form that was signed.
  */
 @RestControllerAdvice
 public class ReportSignatureInterceptor implements ResponseBodyAdvice<Object> {
@@ -62,11 +64,10 @@ public class ReportSignatureInterceptor implements ResponseBodyAdvice<Object> {
                 if (responseObject instanceof ValidationResponse && ((ValidationResponse) responseObject).getValidationReport() instanceof DetailedReport) {
                     LOGGER.debug("Starting to create report signature");
                     ValidationResponse validationResponse = (ValidationResponse) responseObject;
-                    String validationReportJsonString = jacksonObjectMapper.writeValueAsString(validationResponse.getValidationReport());
-                    byte[] reportSignatureBytes = signatureService.getSignature(validationReportJsonString.getBytes(), "validationReport.json", "application/json");
-                    validationResponse.setValidationReportSignature(Base64.encodeBase64String(reportSignatureBytes));
+                    byte[] validationReportJson = jacksonObjectMapper.writeValueAsBytes(validationResponse.getValidationReport());
+                    byte[] reportSignatureBytes = signatureService.getSignature(validationReportJson, "validationReport.json", "application/json");
                     LOGGER.debug("Finished creating report signature");
-                    return validationResponse;
+                    return new SignedValidationResponse(validationReportJson, Base64.encodeBase64String(reportSignatureBytes));
                 }
             } catch (Exception e) {
                 LOGGER.error("Error producing report signature", e);
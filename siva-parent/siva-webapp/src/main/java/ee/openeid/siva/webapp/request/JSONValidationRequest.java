@@ -16,14 +16,17 @@
 
 package ee.openeid.siva.webapp.request;
 
+import com.fasterxml.jackson.databind.annotation.JsonDeserialize;
+import ee.openeid.siva.webapp.request.deserializer.Base64DocumentDeserializer;
 import ee.openeid.siva.webapp.request.validation.annotations.*;
 import lombok.Data;
 
 @Data
 public class JSONValidationRequest implements ValidationRequest {
 
-    @ValidBase64String
-    private String document;
+    @ValidBase64Document
+    @JsonDeserialize(using = Base64DocumentDeserializer.class)
+    private byte[] document;
 
     @ValidFilename
     private String filename;
@@ -36,4 +39,7 @@ public class JSONValidationRequest implements ValidationRequest {
 
     @ValidReportType
     private String reportType;
+
+    @ValidValidationLevel
+    private String validationLevel;
 }
@@ -0,0 +1,49 @@
+/*
+ * Copyright 2019 Riigi Infosüsteemide Amet
+ *
+ * Licensed under the EUPL, Version 1.1 or – as soon they will be approved by
+ * the European Commission - subsequent versions of the EUPL (the "Licence");
+ * You may not use this work except in compliance with the Licence.
+ * You may obtain a copy of the Licence at:
+ *
+ * https://joinup.ec.europa.eu/software/page/eupl
+ *
+ * Unless required by applicable law or agreed to in writing, software distributed under the Licence is
+ * distributed on an "AS IS" basis,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the Licence for the specific language governing permissions and limitations under the Licence.
+ */
+
+package ee.openeid.siva.webapp.request.deserializer;
+
+import com.fasterxml.jackson.core.Base64Variant;
+import com.fasterxml.jackson.core.Base64Variants;
+import com.fasterxml.jackson.core.JsonParseException;
+import com.fasterxml.jackson.core.JsonParser;
+import com.fasterxml.jackson.core.JsonToken;
+import com.fasterxml.jackson.databind.DeserializationContext;
+import com.fasterxml.jackson.databind.JsonDeserializer;
+
+import java.io.IOException;
+
+/**
+ * Decodes Base64 JSON string straight from the request stream, without materializing it as a {@link String}.
+ * Illegal characters fail the decoding with {@link InvalidBase64Exception}.
+ */
+public class Base64DocumentDeserializer extends JsonDeserializer<byte[]> {
+
+    private static final Base64Variant BASE64_OPTIONAL_PADDING = new Base64Variant(Base64Variants.MIME_NO_LINEFEEDS,
+            "MIME-NO-LINEFEEDS-OPTIONAL-PADDING", false, Base64Variants.MIME_NO_LINEFEEDS.getPaddingChar(), Integer.MAX_VALUE);
+
+    @Override
+    public byte[] deserialize(JsonParser parser, DeserializationContext context) throws IOException {
+        if (parser.getCurrentToken() != JsonToken.VALUE_STRING) {
+            return (byte[]) context.handleUnexpectedToken(byte[].class, parser);
+        }
+        try {
+            return parser.getBinaryValue(BASE64_OPTIONAL_PADDING);
+        } catch (JsonParseException e) {
+            throw new InvalidBase64Exception(parser, e.getOriginalMessage(), e);
+        }
+    }
+}
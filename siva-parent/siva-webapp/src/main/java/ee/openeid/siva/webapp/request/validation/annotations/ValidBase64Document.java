@@ -0,0 +1,42 @@
+/*
+ * Copyright 2019 Riigi Infosüsteemide Amet
+ *
+ * Licensed under the EUPL, Version 1.1 or – as soon they will be approved by
+ * the European Commission - subsequent versions of the EUPL (the "Licence");
+ * You may not use this work except in compliance with the Licence.
+ * You may obtain a copy of the Licence at:
+ *
+ * https://joinup.ec.europa.eu/software/page/eupl
+ *
+ * Unless required by applicable law or agreed to in writing, software distributed under the Licence is
+ * distributed on an "AS IS" basis,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the Licence for the specific language governing permissions and limitations under the Licence.
+ */
+
+package ee.openeid.siva.webapp.request.validation.annotations;
+
+import ee.openeid.siva.webapp.request.validation.validators.ValidBase64DocumentConstraintValidator;
+import org.hibernate.validator.constraints.NotEmpty;
+
+import javax.validation.Constraint;
+import javax.validation.Payload;
+import java.lang.annotation.ElementType;
+import java.lang.annotation.Retention;
+import java.lang.annotation.RetentionPolicy;
+import java.lang.annotation.Target;
+
+/**
+ * Constraint for documents decoded by {@link ee.openeid.siva.webapp.request.deserializer.Base64DocumentDeserializer}.
+ * Base64 alphabet is enforced already while decoding, this constraint rejects missing and empty documents.
+ */
+@NotEmpty
+@Target(ElementType.FIELD)
+@Retention(RetentionPolicy.RUNTIME)
+@Constraint(validatedBy = ValidBase64DocumentConstraintValidator.class)
+public @interface ValidBase64Document {
+
+    String message() default "{validation.error.message.base64}";
+    Class<?>[] groups() default {};
+    Class<? extends Payload>[] payload() default {};
+}
@@ -0,0 +1,162 @@
+/*
+ * Copyright 2019 Riigi Infosüsteemide Amet
+ *
+ * Licensed under the EUPL, Version 1.1 or – as soon they will be approved by
+ * the European Commission - subsequent versions of the EUPL (the "Licence");
+ * You may not use this work except in compliance with the Licence.
+ * You may obtain a copy of the Licence at:
+ *
+ * https://joinup.ec.europa.eu/software/page/eupl
+ *
+ * Unless required by applicable law or agreed to in writing, software distributed under the Licence is
+ * distributed on an "AS IS" basis,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the Licence for the specific language governing permissions and limitations under the Licence.
+ */
+
+package ee.openeid.siva.webapp.response;
+
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.core.SerializableString;
+import com.fasterxml.jackson.core.io.SerializedString;
+import com.fasterxml.jackson.databind.JsonSerializable;
+import com.fasterxml.jackson.databind.SerializerProvider;
+import com.fasterxml.jackson.databind.jsontype.TypeSerializer;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+
+/**
+ * Validation response with a signed validation report. The report is kept in the serialized form that was signed
+ * and is written into the response body as is, so the report is serialized only once and the signed bytes are
+ * exactly the bytes sent to the client.
+ */
+public class SignedValidationResponse implements JsonSerializable {
+
+    private final byte[] validationReport;
+
+    private final String validationReportSignature;
+
+    public SignedValidationResponse(byte[] validationReport, String validationReportSignature) {
+        this.validationReport = validationReport;
+        this.validationReportSignature = validationReportSignature;
+    }
+
+    public byte[] getValidationReport() {
+        return validationReport;
+    }
+
+    public String getValidationReportSignature() {
+        return validationReportSignature;
+    }
+
+    @Override
+    public void serialize(JsonGenerator generator, SerializerProvider serializers) throws IOException {
+        generator.writeStartObject();
+        generator.writeFieldName("validationReport");
+        generator.writeRawValue(new RawJson(validationReport));
+        generator.writeStringField("validationReportSignature", validationReportSignature);
+        generator.writeEndObject();
+    }
+
+    @Override
+    public void serializeWithType(JsonGenerator generator, SerializerProvider serializers, TypeSerializer typeSerializer) throws IOException {
+        serialize(generator, serializers);
+    }
+
+    /**
+     * UTF-8 encoded JSON, which byte based generators copy to the output without decoding it into characters.
+     */
+    private static class RawJson implements SerializableString {
+
+        private final byte[] json;
+        private SerializedString value;
+
+        RawJson(byte[] json) {
+            this.json = json;
+        }
+
+        @Override
+        public String getValue() {
+            return asSerializedString().getValue();
+        }
+
+        @Override
+        public int charLength() {
+            return asSerializedString().charLength();
+        }
+
+        @Override
+        public char[] asQuotedChars() {
+            return asSerializedString().asQuotedChars();
+        }
+
+        @Override
+        public byte[] asUnquotedUTF8() {
+            return json;
+        }
+
+        @Override
+        public byte[] asQuotedUTF8() {
+            return asSerializedString().asQuotedUTF8();
+        }
+
+        @Override
+        public int appendQuotedUTF8(byte[] buffer, int offset) {
+            return asSerializedString().appendQuotedUTF8(buffer, offset);
+        }
+
+        @Override
+        public int appendQuoted(char[] buffer, int offset) {
+            return asSerializedString().appendQuoted(buffer, offset);
+        }
+
+        @Override
+        public int appendUnquotedUTF8(byte[] buffer, int offset) {
+            if (offset + json.length > buffer.length) {
+                return -1;
+            }
+            System.arraycopy(json, 0, buffer, offset, json.length);
+            return json.length;
+        }
+
+        @Override
+        public int appendUnquoted(char[] buffer, int offset) {
+            return asSerializedString().appendUnquoted(buffer, offset);
+        }
+
+        @Override
+        public int writeQuotedUTF8(OutputStream out) throws IOException {
+            return asSerializedString().writeQuotedUTF8(out);
+        }
+
+        @Override
+        public int writeUnquotedUTF8(OutputStream out) throws IOException {
+            out.write(json);
+            return json.length;
+        }
+
+        @Override
+        public int putQuotedUTF8(ByteBuffer buffer) {
+            return asSerializedString().putQuotedUTF8(buffer);
+        }
+
+        @Override
+        public int putUnquotedUTF8(ByteBuffer buffer) {
+            if (json.length > buffer.remaining()) {
+                return -1;
+            }
+            buffer.put(json);
+            return json.length;
+        }
+
+        private SerializedString asSerializedString() {
+            if (value == null) {
+                value = new SerializedString(new String(json, StandardCharsets.UTF_8));
+            }
+            return value;
+        }
+    }
+}
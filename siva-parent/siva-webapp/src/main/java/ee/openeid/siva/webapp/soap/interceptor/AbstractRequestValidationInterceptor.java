@@ -18,25 +18,29 @@ package ee.openeid.siva.webapp.soap.interceptor;
 
 import org.apache.cxf.binding.soap.SoapMessage;
 import org.apache.cxf.binding.soap.interceptor.AbstractSoapInterceptor;
-import org.apache.cxf.binding.soap.interceptor.SoapInterceptor;
-import org.apache.cxf.binding.soap.saaj.SAAJInInterceptor;
 import org.apache.cxf.interceptor.Fault;
+import org.apache.cxf.message.Exchange;
 import org.apache.cxf.phase.Phase;
 import org.springframework.context.support.ReloadableResourceBundleMessageSource;
-import org.w3c.dom.Node;
-import org.w3c.dom.NodeList;
 
 import javax.xml.namespace.QName;
-import javax.xml.soap.SOAPBody;
-import javax.xml.soap.SOAPException;
-import javax.xml.soap.SOAPMessage;
+import javax.xml.stream.XMLStreamReader;
 
+/**
+ * Validates the SOAP request body while it is being unmarshalled. The body reader of the message is wrapped
+ * with {@link RequestValidatingXMLStreamReader}, which passes the request elements to the
+ * {@link RequestValidator} of the request.
+ */
 public abstract class AbstractRequestValidationInterceptor extends AbstractSoapInterceptor {
 
+    /**
+     * Exchange key of the requested report type, as it was passed to the web service.
+     */
+    public static final String REPORT_TYPE_KEY = AbstractRequestValidationInterceptor.class.getName() + ".reportType";
+
     private static final int ERROR_CODE = 400;
 
     final ReloadableResourceBundleMessageSource messageSource = new ReloadableResourceBundleMessageSource();
-    private final SoapInterceptor saajIn = new SAAJInInterceptor();
 
     public AbstractRequestValidationInterceptor() {
         super(Phase.POST_PROTOCOL);
@@ -45,49 +49,14 @@ public abstract class AbstractRequestValidationInterceptor extends AbstractSoapI
 
     @Override
     public void handleMessage(SoapMessage message) {
-        saajIn.handleMessage(message);
-        SOAPMessage soapMessage = message.getContent(SOAPMessage.class);
-        try {
-            if (soapMessage == null) {
-                throw new SOAPException();
-            }
-            SOAPBody body = soapMessage.getSOAPPart().getEnvelope().getBody();
-
-            validateRequestBody(body);
-        } catch (SOAPException e) {
-            throwFault(messageSource.getMessage("validation.error.message.invalidRequest", null, null));
-        }
-    }
-
-    abstract void validateRequestBody(SOAPBody body);
-
-    String getElementValueFromBody(SOAPBody body, String elementName, String parentNodeName) {
-        Node elementNode = body.getElementsByTagName(elementName).item(0);
-        if (elementNode == null || !elementNode.getParentNode().getLocalName().equals(parentNodeName)) {
-            return null;
-        }
-        return elementNode.getNodeValue() == null ? elementNode.getTextContent() : elementNode.getNodeValue();
-    }
-
-    String getElementValueFromBody(SOAPBody body, String elementName) {
-        NodeList nodeList = body.getElementsByTagName(elementName);
-        if (nodeList == null) {
-            return null;
-        }
-        Node elementNode = nodeList.item(0);
-        if (elementNode == null) {
-            return null;
+        XMLStreamReader reader = message.getContent(XMLStreamReader.class);
+        if (reader == null) {
+            throwFault(errorMessage("validation.error.message.invalidRequest"));
         }
-        return elementNode.getNodeValue() == null ? elementNode.getTextContent() : elementNode.getNodeValue();
+        message.setContent(XMLStreamReader.class, new RequestValidatingXMLStreamReader(reader, createRequestValidator(message.getExchange())));
     }
 
-    void changeElementValue(Node elementNode, String newValue) {
-        if (elementNode.getNodeValue() == null) {
-            elementNode.setTextContent(newValue);
-        } else {
-            elementNode.setNodeValue(newValue);
-        }
-    }
+    abstract RequestValidator createRequestValidator(Exchange exchange);
 
     String errorMessage(String errorMessageReference) {
         return messageSource.getMessage(errorMessageReference, null, null);
@@ -99,4 +68,42 @@ public abstract class AbstractRequestValidationInterceptor extends AbstractSoapI
         fault.setStatusCode(ERROR_CODE);
         throw fault;
     }
+
+    /**
+     * Validation state of a single request.
+     */
+    abstract class RequestValidator {
+
+        private final Exchange exchange;
+
+        RequestValidator(Exchange exchange) {
+            this.exchange = exchange;
+        }
+
+        /**
+         * Called for every request element, returns the value to collect from the element text or
+         * <code>null</code> if the element text is not needed.
+         */
+        ElementValue startElement(ElementPath path) {
+            return null;
+        }
+
+        /**
+         * Called at the end of the elements which value was collected.
+         */
+        void endElement(ElementPath path, ElementValue value) {
+        }
+
+        /**
+         * Called after the whole request body has been read.
+         */
+        void endRequest() {
+        }
+
+        void putReportType(String reportType) {
+            if (exchange != null) {
+                exchange.put(REPORT_TYPE_KEY, reportType);
+            }
+        }
+    }
 }
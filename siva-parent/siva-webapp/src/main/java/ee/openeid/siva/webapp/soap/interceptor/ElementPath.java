@@ -0,0 +1,61 @@
+/*
+ * Copyright 2019 Riigi Infosüsteemide Amet
+ *
+ * Licensed under the EUPL, Version 1.1 or – as soon they will be approved by
+ * the European Commission - subsequent versions of the EUPL (the "Licence");
+ * You may not use this work except in compliance with the Licence.
+ * You may obtain a copy of the Licence at:
+ *
+ * https://joinup.ec.europa.eu/software/page/eupl
+ *
+ * Unless required by applicable law or agreed to in writing, software distributed under the Licence is
+ * distributed on an "AS IS" basis,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the Licence for the specific language governing permissions and limitations under the Licence.
+ */
+
+package ee.openeid.siva.webapp.soap.interceptor;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Local names of the elements enclosing the current position of the request body reader,
+ * starting from the first element of the SOAP body.
+ */
+class ElementPath {
+
+    private final List<String> localNames = new ArrayList<>();
+
+    void push(String localName) {
+        localNames.add(localName);
+    }
+
+    void pop() {
+        localNames.remove(localNames.size() - 1);
+    }
+
+    int getDepth() {
+        return localNames.size();
+    }
+
+    String getLocalName() {
+        return localNames.get(localNames.size() - 1);
+    }
+
+    /**
+     * Checks whether the path ends with the given local names, <code>null</code> matches any element.
+     */
+    boolean endsWith(String... names) {
+        int offset = localNames.size() - names.length;
+        if (offset < 0) {
+            return false;
+        }
+        for (int i = 0; i < names.length; i++) {
+            if (names[i] != null && !names[i].equals(localNames.get(offset + i))) {
+                return false;
+            }
+        }
+        return true;
+    }
+}
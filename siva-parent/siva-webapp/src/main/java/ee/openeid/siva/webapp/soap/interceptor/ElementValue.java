@@ -0,0 +1,110 @@
+/*
+ * Copyright 2019 Riigi Infosüsteemide Amet
+ *
+ * Licensed under the EUPL, Version 1.1 or – as soon they will be approved by
+ * the European Commission - subsequent versions of the EUPL (the "Licence");
+ * You may not use this work except in compliance with the Licence.
+ * You may obtain a copy of the Licence at:
+ *
+ * https://joinup.ec.europa.eu/software/page/eupl
+ *
+ * Unless required by applicable law or agreed to in writing, software distributed under the Licence is
+ * distributed on an "AS IS" basis,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the Licence for the specific language governing permissions and limitations under the Licence.
+ */
+
+package ee.openeid.siva.webapp.soap.interceptor;
+
+import org.apache.commons.codec.binary.Base64;
+
+/**
+ * Text content of a request element, collected while the request body is being read.
+ * Large Base64 content is not retained, only its length and whether it is blank or valid Base64.
+ */
+class ElementValue {
+
+    private final boolean retainText;
+    private final boolean upperCase;
+    private final StringBuilder text;
+    private long length;
+    private boolean blank = true;
+    private boolean base64 = true;
+    private boolean attachment;
+
+    private ElementValue(boolean retainText, boolean upperCase) {
+        this.retainText = retainText;
+        this.upperCase = upperCase;
+        this.text = retainText ? new StringBuilder() : null;
+    }
+
+    static ElementValue text() {
+        return new ElementValue(true, false);
+    }
+
+    /**
+     * Text that is converted to upper-case before it is bound to the request object.
+     */
+    static ElementValue upperCaseText() {
+        return new ElementValue(true, true);
+    }
+
+    static ElementValue content() {
+        return new ElementValue(false, false);
+    }
+
+    boolean isUpperCase() {
+        return upperCase;
+    }
+
+    void append(char[] characters, int start, int count) {
+        for (int i = start; i < start + count; i++) {
+            char character = characters[i];
+            blank &= Character.isWhitespace(character);
+            base64 &= isBase64(character);
+        }
+        length += count;
+        if (retainText) {
+            text.append(characters, start, count);
+        }
+    }
+
+    /**
+     * Marks the content as an MTOM attachment, which is referenced by a <code>xop:Include</code> element instead of
+     * being inlined as Base64 text.
+     */
+    void markAttachment() {
+        attachment = true;
+    }
+
+    boolean isAttachment() {
+        return attachment;
+    }
+
+    String getText() {
+        if (!retainText) {
+            throw new IllegalStateException("Element text is not retained");
+        }
+        return text.toString();
+    }
+
+    long getLength() {
+        return length;
+    }
+
+    boolean isBlank() {
+        return blank;
+    }
+
+    /**
+     * Same as {@link Base64#isBase64(String)}, which accepts Base64 alphabet characters and whitespace.
+     */
+    boolean isBase64() {
+        return base64;
+    }
+
+    private static boolean isBase64(char character) {
+        return character < 0x80 && (Base64.isBase64((byte) character)
+                || character == ' ' || character == '\n' || character == '\r' || character == '\t');
+    }
+}
@@ -0,0 +1,45 @@
+/*
+ * Copyright 2019 Riigi Infosüsteemide Amet
+ *
+ * Licensed under the EUPL, Version 1.1 or – as soon they will be approved by
+ * the European Commission - subsequent versions of the EUPL (the "Licence");
+ * You may not use this work except in compliance with the Licence.
+ * You may obtain a copy of the Licence at:
+ *
+ * https://joinup.ec.europa.eu/software/page/eupl
+ *
+ * Unless required by applicable law or agreed to in writing, software distributed under the Licence is
+ * distributed on an "AS IS" basis,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the Licence for the specific language governing permissions and limitations under the Licence.
+ */
+
+package ee.openeid.siva.webapp.soap.interceptor;
+
+import org.apache.cxf.binding.soap.SoapMessage;
+import org.apache.cxf.binding.soap.interceptor.AbstractSoapInterceptor;
+import org.apache.cxf.message.Message;
+import org.apache.cxf.phase.Phase;
+
+/**
+ * Sends the response as an MTOM message only when the request was sent as an MTOM message,
+ * so the clients inlining Base64 content keep receiving plain SOAP responses.
+ */
+public class MtomResponseInterceptor extends AbstractSoapInterceptor {
+
+    private static final String XOP_CONTENT_TYPE = "application/xop+xml";
+
+    public MtomResponseInterceptor() {
+        super(Phase.PRE_LOGICAL);
+    }
+
+    @Override
+    public void handleMessage(SoapMessage message) {
+        message.put(Message.MTOM_ENABLED, isMtomRequest(message.getExchange().getInMessage()));
+    }
+
+    private boolean isMtomRequest(Message request) {
+        Object contentType = request == null ? null : request.get(Message.CONTENT_TYPE);
+        return contentType != null && contentType.toString().toLowerCase().contains(XOP_CONTENT_TYPE);
+    }
+}
@@ -32,20 +32,22 @@ import javax.xml.soap.SOAPBody;
 import javax.xml.soap.SOAPElement;
 import javax.xml.soap.SOAPException;
 import javax.xml.soap.SOAPMessage;
-import javax.xml.transform.OutputKeys;
-import javax.xml.transform.Transformer;
+import javax.xml.transform.Templates;
+import javax.xml.transform.TransformerConfigurationException;
 import javax.xml.transform.TransformerException;
 import javax.xml.transform.TransformerFactory;
 import javax.xml.transform.dom.DOMSource;
 import javax.xml.transform.stream.StreamResult;
-import java.io.IOException;
-import java.io.StringWriter;
+import javax.xml.transform.stream.StreamSource;
+import java.io.ByteArrayOutputStream;
+import java.io.StringReader;
 
 /**
  * Alters the SOAP response by creating a signature from the existing response's SOAP body and adding the signature
  * into the SOAP body. {@link javax.xml.soap.SOAPMessage} is used in order to achieve the described behaviour.
  * This means that {@link org.apache.cxf.binding.soap.saaj.SAAJOutInterceptor SAAJOutInterceptor} needs to be added into the outbound interceptor chain
- * otherwise {@link javax.xml.soap.SOAPMessage} never will be created
+ * otherwise {@link javax.xml.soap.SOAPMessage} never will be created. The requested report type is read from the exchange,
+ * where it is put by the {@link AbstractRequestValidationInterceptor request validation interceptor}.
  */
 @Component("SoapReportSignatureInterceptor")
 public class ReportSignatureInterceptor extends AbstractSoapInterceptor {
@@ -58,6 +60,8 @@ public class ReportSignatureInterceptor extends AbstractSoapInterceptor {
     @Autowired
     private ReportConfigurationProperties properties;
 
+    private final ValidationReportWriter validationReportWriter = new ValidationReportWriter();
+
     public ReportSignatureInterceptor() {
         super(Phase.POST_PROTOCOL);
     }
@@ -69,8 +73,7 @@ public class ReportSignatureInterceptor extends AbstractSoapInterceptor {
             try {
                 if (soapMessage != null) {
                     SOAPBody responseBody = soapMessage.getSOAPPart().getEnvelope().getBody();
-                    SOAPBody requestBody = message.getExchange().getInMessage().getContent(SOAPMessage.class).getSOAPPart().getEnvelope().getBody();
-                    if (reportTypeIsDetailed(requestBody)) {
+                    if (reportTypeIsDetailed(message)) {
                         LOGGER.debug("Starting to create report signature");
                         byte[] validationReportBytes = getValidationReportContent(responseBody);
                         byte[] validationReportSignature = signatureService.getSignature(validationReportBytes, "validationReport.xml", "application/xml");
@@ -84,21 +87,13 @@ public class ReportSignatureInterceptor extends AbstractSoapInterceptor {
         }
     }
 
-    private boolean reportTypeIsDetailed(SOAPBody soapBody) {
-        Node reportTypeNode = soapBody.getElementsByTagName("ReportType").item(0);
-        reportTypeNode = reportTypeNode == null ? null : reportTypeNode.getFirstChild();
-        return reportTypeNode != null && "Detailed".equals(reportTypeNode.getNodeValue());
+    private boolean reportTypeIsDetailed(SoapMessage message) {
+        return "Detailed".equals(message.getExchange().get(AbstractRequestValidationInterceptor.REPORT_TYPE_KEY));
     }
 
-    private byte[] getValidationReportContent(SOAPBody soapBody) throws IOException, SOAPException, TransformerException {
+    private byte[] getValidationReportContent(SOAPBody soapBody) throws TransformerException {
         Node validationReportNode = soapBody.getFirstChild().getFirstChild();
-        DOMSource source = new DOMSource(validationReportNode);
-        StringWriter stringWriter = new StringWriter();
-        Transformer transformer = TransformerFactory.newInstance().newTransformer();
-        transformer.setOutputProperty(OutputKeys.OMIT_XML_DECLARATION, "yes");
-        transformer.transform(source, new StreamResult(stringWriter));
-        String soapBodyString = stringWriter.toString();
-        return soapBodyString.getBytes();
+        return validationReportWriter.write(validationReportNode);
     }
 
     private void addValidationReportSignature(SOAPBody soapBody, byte[] validationReportSignature) throws SOAPException {
@@ -115,4 +110,35 @@ public class ReportSignatureInterceptor extends AbstractSoapInterceptor {
         this.properties = properties;
     }
 
+    /**
+     * Serializes the validation report into UTF-8 bytes. The identity stylesheet is compiled once into thread-safe
+     * {@link Templates}, which hand out a new transformer for every report. The output buffer is sized from the
+     * previous report, so it is rarely grown and not retained between reports.
+     */
+    private static class ValidationReportWriter {
+
+        private static final String IDENTITY_STYLESHEET = "<xsl:stylesheet version=\"1.0\" xmlns:xsl=\"http://www.w3.org/1999/XSL/Transform\">"
+                + "<xsl:output method=\"xml\" omit-xml-declaration=\"yes\" encoding=\"UTF-8\"/>"
+                + "<xsl:template match=\"@*|node()\"><xsl:copy><xsl:apply-templates select=\"@*|node()\"/></xsl:copy></xsl:template>"
+                + "</xsl:stylesheet>";
+        private static final int MIN_BUFFER_SIZE = 8 * 1024;
+
+        private final Templates templates;
+        private volatile int lastReportSize = MIN_BUFFER_SIZE;
+
+        ValidationReportWriter() {
+            try {
+                templates = TransformerFactory.newInstance().newTemplates(new StreamSource(new StringReader(IDENTITY_STYLESHEET)));
+            } catch (TransformerConfigurationException e) {
+                throw new IllegalStateException("Failed to create validation report transformer", e);
+            }
+        }
+
+        byte[] write(Node validationReportNode) throws TransformerException {
+            ByteArrayOutputStream buffer = new ByteArrayOutputStream(lastReportSize);
+            templates.newTransformer().transform(new DOMSource(validationReportNode), new StreamResult(buffer));
+            lastReportSize = Math.max(MIN_BUFFER_SIZE, buffer.size());
+            return buffer.toByteArray();
+        }
+    }
 }
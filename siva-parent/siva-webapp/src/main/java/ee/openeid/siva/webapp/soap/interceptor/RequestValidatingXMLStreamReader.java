@@ -0,0 +1,183 @@
+/*
+ * Copyright 2019 Riigi Infosüsteemide Amet
+ *
+ * Licensed under the EUPL, Version 1.1 or – as soon they will be approved by
+ * the European Commission - subsequent versions of the EUPL (the "Licence");
+ * You may not use this work except in compliance with the Licence.
+ * You may obtain a copy of the Licence at:
+ *
+ * https://joinup.ec.europa.eu/software/page/eupl
+ *
+ * Unless required by applicable law or agreed to in writing, software distributed under the Licence is
+ * distributed on an "AS IS" basis,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the Licence for the specific language governing permissions and limitations under the Licence.
+ */
+
+package ee.openeid.siva.webapp.soap.interceptor;
+
+import javax.xml.stream.XMLStreamConstants;
+import javax.xml.stream.XMLStreamException;
+import javax.xml.stream.XMLStreamReader;
+import javax.xml.stream.util.StreamReaderDelegate;
+
+/**
+ * Passes the SOAP body events to a {@link AbstractRequestValidationInterceptor.RequestValidator} while
+ * the request is being unmarshalled, so no DOM of the request has to be built for validation.
+ */
+class RequestValidatingXMLStreamReader extends StreamReaderDelegate {
+
+    private static final String XOP_NAMESPACE = "http://www.w3.org/2004/08/xop/include";
+
+    private final AbstractRequestValidationInterceptor.RequestValidator validator;
+    private final ElementPath path = new ElementPath();
+    private ElementValue value;
+    private int valueDepth;
+    private char[] replacedText;
+    private boolean finished;
+
+    RequestValidatingXMLStreamReader(XMLStreamReader reader, AbstractRequestValidationInterceptor.RequestValidator validator) {
+        super(reader);
+        this.validator = validator;
+        if (reader.getEventType() == START_ELEMENT) {
+            startElement();
+        }
+    }
+
+    @Override
+    public int next() throws XMLStreamException {
+        replacedText = null;
+        int event = super.next();
+        if (!finished) {
+            handleEvent(event);
+        }
+        return event;
+    }
+
+    @Override
+    public int nextTag() throws XMLStreamException {
+        int event = next();
+        while ((event == CHARACTERS || event == CDATA) && isWhiteSpace()
+                || event == SPACE || event == PROCESSING_INSTRUCTION || event == COMMENT) {
+            event = next();
+        }
+        if (event != START_ELEMENT && event != END_ELEMENT) {
+            throw new XMLStreamException("Expected start or end tag", getLocation());
+        }
+        return event;
+    }
+
+    @Override
+    public String getElementText() throws XMLStreamException {
+        if (getEventType() != START_ELEMENT) {
+            throw new XMLStreamException("Element text can only be read from a start tag", getLocation());
+        }
+        StringBuilder text = new StringBuilder();
+        int event = next();
+        while (event != END_ELEMENT) {
+            if (event == CHARACTERS || event == CDATA || event == SPACE || event == ENTITY_REFERENCE) {
+                text.append(getText());
+            } else if (event != PROCESSING_INSTRUCTION && event != COMMENT) {
+                throw new XMLStreamException("Unexpected event while reading element text", getLocation());
+            }
+            event = next();
+        }
+        return text.toString();
+    }
+
+    @Override
+    public String getText() {
+        return replacedText == null ? super.getText() : new String(replacedText);
+    }
+
+    @Override
+    public char[] getTextCharacters() {
+        return replacedText == null ? super.getTextCharacters() : replacedText;
+    }
+
+    @Override
+    public int getTextCharacters(int sourceStart, char[] target, int targetStart, int length) throws XMLStreamException {
+        if (replacedText == null) {
+            return super.getTextCharacters(sourceStart, target, targetStart, length);
+        }
+        int count = Math.max(0, Math.min(length, replacedText.length - sourceStart));
+        System.arraycopy(replacedText, sourceStart, target, targetStart, count);
+        return count;
+    }
+
+    @Override
+    public int getTextStart() {
+        return replacedText == null ? super.getTextStart() : 0;
+    }
+
+    @Override
+    public int getTextLength() {
+        return replacedText == null ? super.getTextLength() : replacedText.length;
+    }
+
+    private void handleEvent(int event) {
+        switch (event) {
+            case XMLStreamConstants.START_ELEMENT:
+                startElement();
+                break;
+            case XMLStreamConstants.END_ELEMENT:
+                endElement();
+                break;
+            case XMLStreamConstants.CHARACTERS:
+            case XMLStreamConstants.CDATA:
+            case XMLStreamConstants.SPACE:
+                characters();
+                break;
+            default:
+                break;
+        }
+    }
+
+    private void startElement() {
+        if (value != null && path.getDepth() == valueDepth && isXopInclude()) {
+            value.markAttachment();
+        }
+        path.push(getLocalName());
+        if (value == null) {
+            value = validator.startElement(path);
+            valueDepth = path.getDepth();
+        }
+    }
+
+    private boolean isXopInclude() {
+        return "Include".equals(getLocalName()) && XOP_NAMESPACE.equals(getNamespaceURI());
+    }
+
+    private void characters() {
+        if (value == null || path.getDepth() != valueDepth) {
+            return;
+        }
+        if (value.isUpperCase()) {
+            replacedText = new String(super.getTextCharacters(), super.getTextStart(), super.getTextLength()).toUpperCase().toCharArray();
+            value.append(replacedText, 0, replacedText.length);
+        } else {
+            value.append(super.getTextCharacters(), super.getTextStart(), super.getTextLength());
+        }
+    }
+
+    private void endElement() {
+        if (path.getDepth() == 0) {
+            finish();
+            return;
+        }
+        if (value != null && path.getDepth() == valueDepth) {
+            ElementValue elementValue = value;
+            value = null;
+            validator.endElement(path, elementValue);
+        }
+        path.pop();
+        if (path.getDepth() == 0) {
+            finish();
+        }
+    }
+
+    private void finish() {
+        finished = true;
+        validator.endRequest();
+    }
+}
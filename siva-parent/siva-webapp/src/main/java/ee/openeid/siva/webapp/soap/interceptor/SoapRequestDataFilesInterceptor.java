@@ -17,39 +17,60 @@
 package ee.openeid.siva.webapp.soap.interceptor;
 
 import ee.openeid.siva.proxy.document.DocumentType;
-import org.apache.commons.codec.binary.Base64;
 import org.apache.commons.io.FilenameUtils;
-import org.apache.commons.lang3.StringUtils;
-import org.w3c.dom.Node;
-
-import javax.xml.soap.SOAPBody;
+import org.apache.cxf.message.Exchange;
 
 public class SoapRequestDataFilesInterceptor extends AbstractRequestValidationInterceptor {
 
     @Override
-    void validateRequestBody(SOAPBody body) {
-        validateDocumentElement(body);
-        validateDocumentTypeElement(body);
+    RequestValidator createRequestValidator(Exchange exchange) {
+        return new DataFilesRequestValidator(exchange);
     }
 
-    private void validateDocumentElement(SOAPBody body) {
-        String documentValue = getElementValueFromBody(body, "Document");
-        if (StringUtils.isBlank(documentValue) || !Base64.isBase64(documentValue)) {
+    private class DataFilesRequestValidator extends RequestValidator {
+
+        private ElementValue document;
+        private ElementValue filename;
+
+        DataFilesRequestValidator(Exchange exchange) {
+            super(exchange);
+        }
+
+        @Override
+        ElementValue startElement(ElementPath path) {
+            if (document == null && "Document".equals(path.getLocalName())) {
+                return ElementValue.content();
+            } else if (filename == null && "Filename".equals(path.getLocalName())) {
+                return ElementValue.text();
+            }
+            return null;
+        }
+
+        @Override
+        void endElement(ElementPath path, ElementValue value) {
+            if ("Document".equals(path.getLocalName())) {
+                document = value;
+            } else {
+                filename = value;
+            }
+        }
+
+        @Override
+        void endRequest() {
+            validateDocumentElement(document);
+            validateDocumentTypeElement(filename == null ? "" : filename.getText());
+        }
+    }
+
+    private void validateDocumentElement(ElementValue documentValue) {
+        if (documentValue == null || !documentValue.isAttachment() && (documentValue.isBlank() || !documentValue.isBase64())) {
             throwFault(errorMessage("validation.error.message.base64"));
         }
     }
 
-    private void validateDocumentTypeElement(SOAPBody body) {
-        String filename = getElementValueFromBody(body, "Filename");
+    private void validateDocumentTypeElement(String filename) {
         if (!DocumentType.DDOC.name().equals(FilenameUtils.getExtension(filename).toUpperCase())) {
             throwFault("Invalid file name. Can only return data files for DDOC type containers.");
         }
     }
-
-    @Override
-    String getElementValueFromBody(SOAPBody body, String elementName) {
-        Node elementNode = body.getElementsByTagName(elementName).item(0);
-        elementNode = elementNode == null ? null : elementNode.getFirstChild();
-        return elementNode == null ? "" : elementNode.getNodeValue();
-    }
 }
@@ -16,101 +16,85 @@
 
 package ee.openeid.siva.webapp.soap.interceptor;
 
-import org.apache.commons.codec.binary.Base64;
 import org.apache.commons.lang3.StringUtils;
-import org.w3c.dom.Node;
-import org.w3c.dom.NodeList;
-
-import javax.xml.soap.SOAPBody;
+import org.apache.cxf.message.Exchange;
 
 public class SoapRequestHashcodeValidationInterceptor extends AbstractRequestValidationInterceptor {
 
     private static final int MAX_HASH_LENGTH = 1000;
 
     @Override
-    void validateRequestBody(SOAPBody body) {
-        validateSignatureFiles(body);
-        overrideReportType(body);
+    RequestValidator createRequestValidator(Exchange exchange) {
+        return new HashcodeRequestValidator(exchange);
     }
 
-    private void validateSignatureFiles(SOAPBody body) {
+    private class HashcodeRequestValidator extends RequestValidator {
 
-        NodeList signaturesFiles = body.getElementsByTagName("SignatureFiles");
-        if (signaturesFiles != null) {
-            for (int i = 0; i < signaturesFiles.getLength(); i++) {
-                Node signatureFilesChildNode = signaturesFiles.item(i);
-                if (1 == signatureFilesChildNode.getNodeType()) {
-                    NodeList signatureFile = signatureFilesChildNode.getChildNodes();
-                    if (signatureFile != null) {
-                        for (int j = 0; j < signatureFile.getLength(); j++) {
-                            Node signatureFileChildNode = signatureFile.item(j);
-                            if (1 == signatureFileChildNode.getNodeType()) {
-                                parseAndValidateSignatureFile(signatureFileChildNode.getChildNodes());
-                            }
-                        }
-                    }
-                }
-            }
-        }
-    }
+        private boolean reportTypeFound;
 
-    private void parseAndValidateSignatureFile(NodeList signatureFileNodes) {
-        for (int i = 0; i < signatureFileNodes.getLength(); i++) {
-            Node node = signatureFileNodes.item(i);
-            if (1 == node.getNodeType()) {
-                String localName = node.getLocalName();
-                if (localName.equals("Signature")) {
-                    validateSignature(node.getTextContent());
-                } else if (localName.equals("DataFiles")) {
-                    validateDataFiles(node);
-                }
-            }
+        HashcodeRequestValidator(Exchange exchange) {
+            super(exchange);
         }
-    }
 
-    private void validateDataFiles(Node dataFiles) {
-        if (dataFiles != null) {
-            NodeList dataFileChildNodes = dataFiles.getChildNodes();
-            for (int i = 0; i < dataFileChildNodes.getLength(); i++) {
-                Node dataFileChildNode = dataFileChildNodes.item(i);
-                if (1 == dataFileChildNode.getNodeType()) {
-                    parseAndValidateDataFile(dataFileChildNode.getChildNodes());
-                }
+        /*
+            ReportType and Datafile.HashAlgo values are converted to upper-case while they are read to make the parameters
+            case-insensitive. Because WSDL validated enumeration values can only be case-sensitive, and ReportType and
+            HashAlgo values are defined as upper-case.
+         */
+        @Override
+        ElementValue startElement(ElementPath path) {
+            if (path.endsWith("SignatureFiles", null, "Signature")) {
+                return ElementValue.content();
+            } else if (path.endsWith("SignatureFiles", null, "DataFiles", null, "HashAlgo")) {
+                return ElementValue.upperCaseText();
+            } else if (path.endsWith("SignatureFiles", null, "DataFiles", null, "Hash")
+                    || path.endsWith("SignatureFiles", null, "DataFiles", null, "Filename")) {
+                return ElementValue.content();
+            } else if (!reportTypeFound && "ReportType".equals(path.getLocalName())) {
+                reportTypeFound = true;
+                return ElementValue.upperCaseText();
             }
+            return null;
         }
-    }
 
-    private void parseAndValidateDataFile(NodeList dataFileNodes) {
-        for (int i = 0; i < dataFileNodes.getLength(); i++) {
-            Node node = dataFileNodes.item(i);
-            if (1 == node.getNodeType()) {
-                String localName = node.getLocalName();
-                if (localName.equals("HashAlgo")) {
-                    validateDataFileHashAlgo(node.getTextContent());
-                    overrideDataFileHashAlgorithm(node);
-                } else if (localName.equals("Hash")) {
-                    validateDataFileHash(node.getTextContent());
-                } else if (localName.equals("Filename")) {
-                    validateDataFileName(node.getTextContent());
-                }
+        @Override
+        void endElement(ElementPath path, ElementValue value) {
+            switch (path.getLocalName()) {
+                case "Signature":
+                    validateSignature(value);
+                    break;
+                case "HashAlgo":
+                    validateDataFileHashAlgo(value.getText());
+                    break;
+                case "Hash":
+                    validateDataFileHash(value);
+                    break;
+                case "Filename":
+                    validateDataFileName(value);
+                    break;
+                case "ReportType":
+                    putReportType(value.getText());
+                    break;
+                default:
+                    break;
             }
         }
     }
 
-    private void validateSignature(String hash) {
-        if (StringUtils.isNotBlank(hash) && !Base64.isBase64(hash)) {
+    private void validateSignature(ElementValue signature) {
+        if (!signature.isBlank() && !signature.isBase64()) {
             throwFault(errorMessage("validation.error.message.signatureFile.signature.invalidBase64"));
         }
     }
 
-    private void validateDataFileHash(String hash) {
-        if (StringUtils.isNotBlank(hash) && (!Base64.isBase64(hash) || hash.length() > MAX_HASH_LENGTH)) {
+    private void validateDataFileHash(ElementValue hash) {
+        if (!hash.isBlank() && (!hash.isBase64() || hash.getLength() > MAX_HASH_LENGTH)) {
             throwFault(errorMessage("validation.error.message.base64"));
         }
     }
 
-    private void validateDataFileName(String filename) {
-        if (StringUtils.isBlank(filename)) {
+    private void validateDataFileName(ElementValue filename) {
+        if (filename.isBlank()) {
             throwFault(errorMessage("validation.error.message.dataFile.filename.format"));
         }
     }
@@ -120,27 +104,4 @@ public class SoapRequestHashcodeValidationInterceptor extends AbstractRequestVal
             throwFault(errorMessage("validation.error.message.hashAlgo"));
         }
     }
-
-
-    /*
-        Override ReportType value to upper-case to make the parameter case-insensitive.
-        Because WSDL validated enumeration values can only be case-sensitive, and ReportType values are defined as upper-case.
-     */
-
-    private void overrideReportType(SOAPBody body) {
-        String reportType = getElementValueFromBody(body, "ReportType");
-        if (StringUtils.isNotBlank(reportType)) {
-            Node reportTypeNode = body.getElementsByTagName("ReportType").item(0);
-            changeElementValue(reportTypeNode, reportType.toUpperCase());
-        }
-    }
-    /*
-        Override Datafile.HashAlgo value to upper-case to make the parameter case-insensitive.
-        Because WSDL validated enumeration values can only be case-sensitive, and HashAlgo values are defined as upper-case.
-     */
-
-    private void overrideDataFileHashAlgorithm(Node hashAlgorithmNode) {
-        String hashAlgorithm = hashAlgorithmNode.getTextContent();
-        changeElementValue(hashAlgorithmNode, hashAlgorithm.toUpperCase());
-    }
 }
@@ -16,12 +16,14 @@
 
 package ee.openeid.siva.webapp.soap.interceptor;
 
+import ee.openeid.siva.validation.document.ValidationLevel;
 import ee.openeid.siva.webapp.request.validation.annotations.ValidSignaturePolicyPattern;
 import ee.openeid.siva.webapp.soap.DocumentType;
-import org.apache.commons.codec.binary.Base64;
 import org.apache.commons.lang3.StringUtils;
+import org.apache.cxf.message.Exchange;
 
-import javax.xml.soap.SOAPBody;
+import java.util.HashMap;
+import java.util.Map;
 import java.util.regex.Pattern;
 
 public class SoapRequestValidationInterceptor extends AbstractRequestValidationInterceptor {
@@ -31,41 +33,103 @@ public class SoapRequestValidationInterceptor extends AbstractRequestValidationI
     private static final Pattern SIGNATURE_POLICY_PATTERN = Pattern.compile(ValidSignaturePolicyPattern.PATTERN);
 
     @Override
-    void validateRequestBody(SOAPBody body) {
-        validateDocumentElement(body);
-        validateFilenameElement(body);
-        validateDocumentTypeElement(body);
-        validateSignaturePolicyElement(body);
+    RequestValidator createRequestValidator(Exchange exchange) {
+        return new ValidationRequestValidator(exchange);
     }
 
-    private void validateDocumentElement(SOAPBody body) {
-        String documentValue = getElementValueFromBody(body, "Document");
-        if (StringUtils.isBlank(documentValue) || !Base64.isBase64(documentValue)) {
+    private class ValidationRequestValidator extends RequestValidator {
+
+        private final Map<String, ElementValue> values = new HashMap<>();
+
+        ValidationRequestValidator(Exchange exchange) {
+            super(exchange);
+        }
+
+        @Override
+        ElementValue startElement(ElementPath path) {
+            String localName = path.getLocalName();
+            if (values.containsKey(localName)) {
+                return null;
+            }
+            switch (localName) {
+                case "Document":
+                    return ElementValue.content();
+                case "Filename":
+                case "DocumentType":
+                case "SignaturePolicy":
+                case "ReportType":
+                case "ValidationLevel":
+                    return ElementValue.text();
+                default:
+                    return null;
+            }
+        }
+
+        @Override
+        void endElement(ElementPath path, ElementValue value) {
+            values.put(path.getLocalName(), value);
+            if ("ReportType".equals(path.getLocalName())) {
+                putReportType(value.getText());
+            }
+        }
+
+        @Override
+        void endRequest() {
+            validateDocumentElement(values.get("Document"));
+            validateFilenameElement(getText("Filename"));
+            validateDocumentTypeElement(getText("DocumentType"));
+            validateSignaturePolicyElement(getText("SignaturePolicy"));
+            validateValidationLevelElement(getText("ValidationLevel"));
+        }
+
+        private String getText(String localName) {
+            ElementValue value = values.get(localName);
+            return value == null ? null : value.getText();
+        }
+    }
+
+    private void validateDocumentElement(ElementValue document) {
+        if (document == null || !document.isAttachment() && (document.isBlank() || !document.isBase64())) {
             throwFault(errorMessage("validation.error.message.base64"));
         }
     }
 
-    private void validateFilenameElement(SOAPBody body) {
-        String filenameValue = getElementValueFromBody(body, "Filename");
+    private void validateFilenameElement(String filenameValue) {
         if (StringUtils.isBlank(filenameValue) || filenameValue.length() > MAX_FILENAME_LENGTH || filenameValue.length() < 1) {
             throwFault(errorMessage("validation.error.message.filename"));
         }
     }
 
-    private void validateDocumentTypeElement(SOAPBody body) {
-        String documentValue = getElementValueFromBody(body, "DocumentType");
+    private void validateDocumentTypeElement(String documentValue) {
         if (!isValidDocumentType(documentValue)) {
             throwFault(errorMessage("validation.error.message.documentType"));
         }
     }
 
-    private void validateSignaturePolicyElement(SOAPBody body) {
-        String signaturePolicyValue = getElementValueFromBody(body, "SignaturePolicy");
+    private void validateSignaturePolicyElement(String signaturePolicyValue) {
         if (signaturePolicyValue != null && (!SIGNATURE_POLICY_PATTERN.matcher(signaturePolicyValue).matches() || signaturePolicyValue.length() > MAX_POLICY_LENGTH || signaturePolicyValue.length() < 1)) {
             throwFault(errorMessage("validation.error.message.signaturePolicy"));
         }
     }
 
+    private void validateValidationLevelElement(String validationLevelValue) {
+        if (!isValidValidationLevel(validationLevelValue)) {
+            throwFault(errorMessage("validation.error.message.validationLevel"));
+        }
+    }
+
+    private boolean isValidValidationLevel(String inputValidationLevel) {
+        if (inputValidationLevel == null) {
+            return true;
+        }
+        for (ValidationLevel validationLevel : ValidationLevel.values()) {
+            if (validationLevel.name().equalsIgnoreCase(inputValidationLevel)) {
+                return true;
+            }
+        }
+        return false;
+    }
+
     private boolean isValidDocumentType(String inputDocumentType) {
         if (inputDocumentType == null) {
             return true;
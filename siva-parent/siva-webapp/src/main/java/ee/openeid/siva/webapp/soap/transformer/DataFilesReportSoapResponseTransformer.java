@@ -42,7 +42,9 @@ public class DataFilesReportSoapResponseTransformer {
 
     private DataFile mapDataFile(DataFileData dataFileData) {
         DataFile dataFile = new DataFile();
-        dataFile.setBase64(dataFileData.getBase64());
+        dataFile.setBase64(dataFileData.getContent() != null ?
+                DataHandlerUtils.fromByteArray(dataFileData.getContent()) :
+                DataHandlerUtils.fromBase64(dataFileData.getBase64()));
         dataFile.setFilename(dataFileData.getFilename());
         dataFile.setMimeType(dataFileData.getMimeType());
         dataFile.setSize(dataFileData.getSize());
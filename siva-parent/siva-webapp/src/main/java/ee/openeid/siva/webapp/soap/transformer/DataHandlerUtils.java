@@ -0,0 +1,125 @@
+/*
+ * Copyright 2019 Riigi Infosüsteemide Amet
+ *
+ * Licensed under the EUPL, Version 1.1 or – as soon they will be approved by
+ * the European Commission - subsequent versions of the EUPL (the "Licence");
+ * You may not use this work except in compliance with the Licence.
+ * You may obtain a copy of the Licence at:
+ *
+ * https://joinup.ec.europa.eu/software/page/eupl
+ *
+ * Unless required by applicable law or agreed to in writing, software distributed under the Licence is
+ * distributed on an "AS IS" basis,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the Licence for the specific language governing permissions and limitations under the Licence.
+ */
+
+package ee.openeid.siva.webapp.soap.transformer;
+
+import org.apache.commons.codec.binary.Base64InputStream;
+import org.apache.commons.io.IOUtils;
+import org.apache.commons.io.input.CharSequenceInputStream;
+
+import javax.activation.DataHandler;
+import javax.activation.DataSource;
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.io.UncheckedIOException;
+import java.nio.charset.StandardCharsets;
+
+/**
+ * Conversions between the binary content of SOAP messages, which is either inlined as Base64 text or sent as
+ * an MTOM attachment, and the document bytes of the validation services.
+ */
+public final class DataHandlerUtils {
+
+    private static final String OCTET_STREAM = "application/octet-stream";
+
+    private DataHandlerUtils() {
+    }
+
+    public static byte[] toByteArray(DataHandler dataHandler) {
+        if (dataHandler == null) {
+            return null;
+        }
+        try (InputStream inputStream = dataHandler.getInputStream()) {
+            return IOUtils.toByteArray(inputStream);
+        } catch (IOException e) {
+            throw new UncheckedIOException("Failed to read SOAP message content", e);
+        }
+    }
+
+    /**
+     * Wraps content that is already held in memory, so it is written without an intermediate Base64 copy.
+     */
+    public static DataHandler fromByteArray(byte[] content) {
+        return content == null ? null : new DataHandler(new ByteArrayDataSource(content));
+    }
+
+    /**
+     * Wraps Base64 encoded content into a data handler that decodes the content only when it is written.
+     */
+    public static DataHandler fromBase64(String base64) {
+        return base64 == null ? null : new DataHandler(new Base64DataSource(base64));
+    }
+
+    private static class ByteArrayDataSource implements DataSource {
+
+        private final byte[] content;
+
+        ByteArrayDataSource(byte[] content) {
+            this.content = content;
+        }
+
+        @Override
+        public InputStream getInputStream() {
+            return new ByteArrayInputStream(content);
+        }
+
+        @Override
+        public OutputStream getOutputStream() throws IOException {
+            throw new IOException("Data file content is read-only");
+        }
+
+        @Override
+        public String getContentType() {
+            return OCTET_STREAM;
+        }
+
+        @Override
+        public String getName() {
+            return null;
+        }
+    }
+
+    private static class Base64DataSource implements DataSource {
+
+        private final String base64;
+
+        Base64DataSource(String base64) {
+            this.base64 = base64;
+        }
+
+        @Override
+        public InputStream getInputStream() {
+            return new Base64InputStream(new CharSequenceInputStream(base64, StandardCharsets.US_ASCII));
+        }
+
+        @Override
+        public OutputStream getOutputStream() throws IOException {
+            throw new IOException("Base64 content is read-only");
+        }
+
+        @Override
+        public String getContentType() {
+            return OCTET_STREAM;
+        }
+
+        @Override
+        public String getName() {
+            return null;
+        }
+    }
+}
@@ -18,7 +18,6 @@ package ee.openeid.siva.webapp.soap.transformer;
 
 import ee.openeid.siva.proxy.document.ProxyDocument;
 import ee.openeid.siva.webapp.soap.SoapDataFilesRequest;
-import org.apache.commons.codec.binary.Base64;
 import org.springframework.stereotype.Component;
 
 @Component
@@ -27,7 +26,7 @@ public class SoapDataFilesRequestToProxyDocumentTransformer {
     public ProxyDocument transform(SoapDataFilesRequest dataFilesRequest) {
         ProxyDocument proxyDocument = new ProxyDocument();
         proxyDocument.setName(dataFilesRequest.getFilename());
-        proxyDocument.setBytes(Base64.decodeBase64(dataFilesRequest.getDocument()));
+        proxyDocument.setBytes(DataHandlerUtils.toByteArray(dataFilesRequest.getDocument()));
         return proxyDocument;
     }
 
@@ -19,8 +19,9 @@ package ee.openeid.siva.webapp.soap.transformer;
 import ee.openeid.siva.proxy.document.ProxyDocument;
 import ee.openeid.siva.proxy.document.ReportType;
 import ee.openeid.siva.proxy.document.typeresolver.DocumentTypeResolver;
+import ee.openeid.siva.validation.document.ValidationLevel;
 import ee.openeid.siva.webapp.soap.SoapValidationRequest;
-import org.apache.commons.codec.binary.Base64;
+import org.apache.commons.lang3.StringUtils;
 import org.springframework.stereotype.Component;
 
 @Component
@@ -33,8 +34,10 @@ public class SoapValidationRequestToProxyDocumentTransformer {
             proxyDocument.setDocumentType(DocumentTypeResolver.documentTypeFromString(validationRequest.getDocumentType().name()));
         if (validationRequest.getReportType() != null)
             proxyDocument.setReportType(ReportType.reportTypeFromString(validationRequest.getReportType()));
-        proxyDocument.setBytes(Base64.decodeBase64(validationRequest.getDocument()));
+        proxyDocument.setBytes(DataHandlerUtils.toByteArray(validationRequest.getDocument()));
         proxyDocument.setSignaturePolicy(validationRequest.getSignaturePolicy());
+        if (validationRequest.getValidationLevel() != null)
+            proxyDocument.setValidationLevel(ValidationLevel.valueOf(StringUtils.upperCase(validationRequest.getValidationLevel())));
         return proxyDocument;
     }
 
@@ -0,0 +1,525 @@
+/*
+ * Copyright 2019 Riigi Infosüsteemide Amet
+ *
+ * Licensed under the EUPL, Version 1.1 or – as soon they will be approved by
+ * the European Commission - subsequent versions of the EUPL (the "Licence");
+ * You may not use this work except in compliance with the Licence.
+ * You may obtain a copy of the Licence at:
+ *
+ * https://joinup.ec.europa.eu/software/page/eupl
+ *
+ * Unless required by applicable law or agreed to in writing, software distributed under the Licence is
+ * distributed on an "AS IS" basis,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the Licence for the specific language governing permissions and limitations under the Licence.
+ */
+
+package ee.openeid.siva.webapp.soap.transformer.report;
+
+import eu.europa.esig.dss.jaxb.detailedreport.XmlBasicBuildingBlocks;
+import eu.europa.esig.dss.jaxb.detailedreport.XmlCV;
+import eu.europa.esig.dss.jaxb.detailedreport.XmlCertificate;
+import eu.europa.esig.dss.jaxb.detailedreport.XmlCertificateChain;
+import eu.europa.esig.dss.jaxb.detailedreport.XmlChainItem;
+import eu.europa.esig.dss.jaxb.detailedreport.XmlConclusion;
+import eu.europa.esig.dss.jaxb.detailedreport.XmlConstraint;
+import eu.europa.esig.dss.jaxb.detailedreport.XmlFC;
+import eu.europa.esig.dss.jaxb.detailedreport.XmlISC;
+import eu.europa.esig.dss.jaxb.detailedreport.XmlName;
+import eu.europa.esig.dss.jaxb.detailedreport.XmlPCV;
+import eu.europa.esig.dss.jaxb.detailedreport.XmlPSV;
+import eu.europa.esig.dss.jaxb.detailedreport.XmlRFC;
+import eu.europa.esig.dss.jaxb.detailedreport.XmlSAV;
+import eu.europa.esig.dss.jaxb.detailedreport.XmlSignature;
+import eu.europa.esig.dss.jaxb.detailedreport.XmlStatus;
+import eu.europa.esig.dss.jaxb.detailedreport.XmlSubXCV;
+import eu.europa.esig.dss.jaxb.detailedreport.XmlTLAnalysis;
+import eu.europa.esig.dss.jaxb.detailedreport.XmlVCI;
+import eu.europa.esig.dss.jaxb.detailedreport.XmlVTS;
+import eu.europa.esig.dss.jaxb.detailedreport.XmlValidationCertificateQualification;
+import eu.europa.esig.dss.jaxb.detailedreport.XmlValidationProcessArchivalData;
+import eu.europa.esig.dss.jaxb.detailedreport.XmlValidationProcessBasicSignatures;
+import eu.europa.esig.dss.jaxb.detailedreport.XmlValidationProcessLongTermData;
+import eu.europa.esig.dss.jaxb.detailedreport.XmlValidationProcessTimestamps;
+import eu.europa.esig.dss.jaxb.detailedreport.XmlValidationSignatureQualification;
+import eu.europa.esig.dss.jaxb.detailedreport.XmlXCV;
+import eu.europa.esig.dss.jaxb.parsers.CertificateQualificationParser;
+import eu.europa.esig.dss.jaxb.parsers.ContextParser;
+import eu.europa.esig.dss.jaxb.parsers.DateParser;
+import eu.europa.esig.dss.jaxb.parsers.IndicationParser;
+import eu.europa.esig.dss.jaxb.parsers.SignatureQualificationParser;
+import eu.europa.esig.dss.jaxb.parsers.SubIndicationParser;
+import eu.europa.esig.dss.jaxb.parsers.ValidationTimeParser;
+import eu.europa.esig.dss.validation.detailed_report.BasicBuildingBlocks;
+import eu.europa.esig.dss.validation.detailed_report.CV;
+import eu.europa.esig.dss.validation.detailed_report.Certificate;
+import eu.europa.esig.dss.validation.detailed_report.CertificateChain;
+import eu.europa.esig.dss.validation.detailed_report.CertificateQualification;
+import eu.europa.esig.dss.validation.detailed_report.Conclusion;
+import eu.europa.esig.dss.validation.detailed_report.Constraint;
+import eu.europa.esig.dss.validation.detailed_report.Context;
+import eu.europa.esig.dss.validation.detailed_report.FC;
+import eu.europa.esig.dss.validation.detailed_report.ISC;
+import eu.europa.esig.dss.validation.detailed_report.Indication;
+import eu.europa.esig.dss.validation.detailed_report.Name;
+import eu.europa.esig.dss.validation.detailed_report.PCV;
+import eu.europa.esig.dss.validation.detailed_report.PSV;
+import eu.europa.esig.dss.validation.detailed_report.RFC;
+import eu.europa.esig.dss.validation.detailed_report.SAV;
+import eu.europa.esig.dss.validation.detailed_report.Signature;
+import eu.europa.esig.dss.validation.detailed_report.SignatureQualification;
+import eu.europa.esig.dss.validation.detailed_report.Status;
+import eu.europa.esig.dss.validation.detailed_report.SubIndication;
+import eu.europa.esig.dss.validation.detailed_report.SubXCV;
+import eu.europa.esig.dss.validation.detailed_report.TLAnalysis;
+import eu.europa.esig.dss.validation.detailed_report.VCI;
+import eu.europa.esig.dss.validation.detailed_report.VTS;
+import eu.europa.esig.dss.validation.detailed_report.ValidationCertificateQualification;
+import eu.europa.esig.dss.validation.detailed_report.ValidationProcessArchivalData;
+import eu.europa.esig.dss.validation.detailed_report.ValidationProcessBasicSignatures;
+import eu.europa.esig.dss.validation.detailed_report.ValidationProcessLongTermData;
+import eu.europa.esig.dss.validation.detailed_report.ValidationProcessTimestamps;
+import eu.europa.esig.dss.validation.detailed_report.ValidationSignatureQualification;
+import eu.europa.esig.dss.validation.detailed_report.ValidationTime;
+import eu.europa.esig.dss.validation.detailed_report.XCV;
+import java.util.Date;
+
+import static ee.openeid.siva.webapp.soap.transformer.report.ReportTransformer.enumValue;
+import static ee.openeid.siva.webapp.soap.transformer.report.ReportTransformer.newXMLGregorianCalendar;
+
+/**
+ * Copies DSS detailed report JAXB objects field by field into the classes generated from
+ * <code>DetailedReport.xsd</code>. Both class sets are bound to the same schema, so every
+ * element and attribute maps one-to-one; values are converted exactly as a marshal/unmarshal
+ * round-trip would convert them. DSS list getters never return
+ * <code>null</code>, so list wrapper elements are always created.
+ */
+final class DetailedReportMapper {
+
+    private DetailedReportMapper() {
+    }
+
+    static eu.europa.esig.dss.validation.detailed_report.DetailedReport map(eu.europa.esig.dss.jaxb.detailedreport.DetailedReport source) {
+        if (source == null) {
+            return null;
+        }
+        eu.europa.esig.dss.validation.detailed_report.DetailedReport target = new eu.europa.esig.dss.validation.detailed_report.DetailedReport();
+        for (XmlSignature item : source.getSignatures()) {
+            target.getSignatures().add(map(item));
+        }
+        target.setCertificate(map(source.getCertificate()));
+        for (XmlBasicBuildingBlocks item : source.getBasicBuildingBlocks()) {
+            target.getBasicBuildingBlocks().add(map(item));
+        }
+        for (XmlTLAnalysis item : source.getTLAnalysis()) {
+            target.getTLAnalysis().add(map(item));
+        }
+        return target;
+    }
+
+    static Signature map(XmlSignature source) {
+        if (source == null) {
+            return null;
+        }
+        Signature target = new Signature();
+        target.setValidationProcessBasicSignatures(map(source.getValidationProcessBasicSignatures()));
+        for (XmlValidationProcessTimestamps item : source.getValidationProcessTimestamps()) {
+            target.getValidationProcessTimestamps().add(map(item));
+        }
+        target.setValidationProcessLongTermData(map(source.getValidationProcessLongTermData()));
+        target.setValidationProcessArchivalData(map(source.getValidationProcessArchivalData()));
+        target.setValidationSignatureQualification(map(source.getValidationSignatureQualification()));
+        target.setId(source.getId());
+        target.setCounterSignature(source.isCounterSignature());
+        return target;
+    }
+
+    static Certificate map(XmlCertificate source) {
+        if (source == null) {
+            return null;
+        }
+        Certificate target = new Certificate();
+        for (XmlConstraint item : source.getConstraint()) {
+            target.getConstraint().add(map(item));
+        }
+        target.setConclusion(map(source.getConclusion()));
+        for (XmlValidationCertificateQualification item : source.getValidationCertificateQualification()) {
+            target.getValidationCertificateQualification().add(map(item));
+        }
+        return target;
+    }
+
+    static BasicBuildingBlocks map(XmlBasicBuildingBlocks source) {
+        if (source == null) {
+            return null;
+        }
+        BasicBuildingBlocks target = new BasicBuildingBlocks();
+        target.setFC(map(source.getFC()));
+        target.setISC(map(source.getISC()));
+        target.setVCI(map(source.getVCI()));
+        target.setCV(map(source.getCV()));
+        target.setSAV(map(source.getSAV()));
+        target.setXCV(map(source.getXCV()));
+        target.setPSV(map(source.getPSV()));
+        target.setPCV(map(source.getPCV()));
+        target.setVTS(map(source.getVTS()));
+        target.setCertificateChain(map(source.getCertificateChain()));
+        target.setConclusion(map(source.getConclusion()));
+        target.setId(source.getId());
+        eu.europa.esig.dss.validation.policy.Context type = source.getType();
+        if (type != null) {
+            target.setType(enumValue(Context::fromValue, ContextParser.print(type)));
+        }
+        return target;
+    }
+
+    static TLAnalysis map(XmlTLAnalysis source) {
+        if (source == null) {
+            return null;
+        }
+        TLAnalysis target = new TLAnalysis();
+        for (XmlConstraint item : source.getConstraint()) {
+            target.getConstraint().add(map(item));
+        }
+        target.setConclusion(map(source.getConclusion()));
+        target.setCountryCode(source.getCountryCode());
+        return target;
+    }
+
+    static ValidationProcessBasicSignatures map(XmlValidationProcessBasicSignatures source) {
+        if (source == null) {
+            return null;
+        }
+        ValidationProcessBasicSignatures target = new ValidationProcessBasicSignatures();
+        for (XmlConstraint item : source.getConstraint()) {
+            target.getConstraint().add(map(item));
+        }
+        target.setConclusion(map(source.getConclusion()));
+        Date bestSignatureTime = source.getBestSignatureTime();
+        if (bestSignatureTime != null) {
+            target.setBestSignatureTime(newXMLGregorianCalendar(DateParser.print(bestSignatureTime)));
+        }
+        return target;
+    }
+
+    static ValidationProcessTimestamps map(XmlValidationProcessTimestamps source) {
+        if (source == null) {
+            return null;
+        }
+        ValidationProcessTimestamps target = new ValidationProcessTimestamps();
+        for (XmlConstraint item : source.getConstraint()) {
+            target.getConstraint().add(map(item));
+        }
+        target.setConclusion(map(source.getConclusion()));
+        target.setId(source.getId());
+        target.setType(source.getType());
+        Date productionTime = source.getProductionTime();
+        if (productionTime != null) {
+            target.setProductionTime(newXMLGregorianCalendar(DateParser.print(productionTime)));
+        }
+        return target;
+    }
+
+    static ValidationProcessLongTermData map(XmlValidationProcessLongTermData source) {
+        if (source == null) {
+            return null;
+        }
+        ValidationProcessLongTermData target = new ValidationProcessLongTermData();
+        for (XmlConstraint item : source.getConstraint()) {
+            target.getConstraint().add(map(item));
+        }
+        target.setConclusion(map(source.getConclusion()));
+        Date bestSignatureTime = source.getBestSignatureTime();
+        if (bestSignatureTime != null) {
+            target.setBestSignatureTime(newXMLGregorianCalendar(DateParser.print(bestSignatureTime)));
+        }
+        return target;
+    }
+
+    static ValidationProcessArchivalData map(XmlValidationProcessArchivalData source) {
+        if (source == null) {
+            return null;
+        }
+        ValidationProcessArchivalData target = new ValidationProcessArchivalData();
+        for (XmlConstraint item : source.getConstraint()) {
+            target.getConstraint().add(map(item));
+        }
+        target.setConclusion(map(source.getConclusion()));
+        Date bestSignatureTime = source.getBestSignatureTime();
+        if (bestSignatureTime != null) {
+            target.setBestSignatureTime(newXMLGregorianCalendar(DateParser.print(bestSignatureTime)));
+        }
+        return target;
+    }
+
+    static ValidationSignatureQualification map(XmlValidationSignatureQualification source) {
+        if (source == null) {
+            return null;
+        }
+        ValidationSignatureQualification target = new ValidationSignatureQualification();
+        for (XmlConstraint item : source.getConstraint()) {
+            target.getConstraint().add(map(item));
+        }
+        target.setConclusion(map(source.getConclusion()));
+        for (XmlValidationCertificateQualification item : source.getValidationCertificateQualification()) {
+            target.getValidationCertificateQualification().add(map(item));
+        }
+        target.setId(source.getId());
+        eu.europa.esig.dss.validation.SignatureQualification signatureQualification = source.getSignatureQualification();
+        if (signatureQualification != null) {
+            target.setSignatureQualification(enumValue(SignatureQualification::fromValue, SignatureQualificationParser.print(signatureQualification)));
+        }
+        return target;
+    }
+
+    static Constraint map(XmlConstraint source) {
+        if (source == null) {
+            return null;
+        }
+        Constraint target = new Constraint();
+        target.setName(map(source.getName()));
+        XmlStatus status = source.getStatus();
+        if (status != null) {
+            target.setStatus(enumValue(Status::fromValue, status.value()));
+        }
+        target.setError(map(source.getError()));
+        target.setWarning(map(source.getWarning()));
+        target.setInfo(map(source.getInfo()));
+        target.setAdditionalInfo(source.getAdditionalInfo());
+        target.setId(source.getId());
+        return target;
+    }
+
+    static Conclusion map(XmlConclusion source) {
+        if (source == null) {
+            return null;
+        }
+        Conclusion target = new Conclusion();
+        eu.europa.esig.dss.validation.policy.rules.Indication indication = source.getIndication();
+        if (indication != null) {
+            target.setIndication(enumValue(Indication::fromValue, IndicationParser.print(indication)));
+        }
+        eu.europa.esig.dss.validation.policy.rules.SubIndication subIndication = source.getSubIndication();
+        if (subIndication != null) {
+            target.setSubIndication(enumValue(SubIndication::fromValue, SubIndicationParser.print(subIndication)));
+        }
+        for (XmlName item : source.getErrors()) {
+            target.getErrors().add(map(item));
+        }
+        for (XmlName item : source.getWarnings()) {
+            target.getWarnings().add(map(item));
+        }
+        for (XmlName item : source.getInfos()) {
+            target.getInfos().add(map(item));
+        }
+        return target;
+    }
+
+    static ValidationCertificateQualification map(XmlValidationCertificateQualification source) {
+        if (source == null) {
+            return null;
+        }
+        ValidationCertificateQualification target = new ValidationCertificateQualification();
+        for (XmlConstraint item : source.getConstraint()) {
+            target.getConstraint().add(map(item));
+        }
+        target.setConclusion(map(source.getConclusion()));
+        target.setId(source.getId());
+        Date dateTime = source.getDateTime();
+        if (dateTime != null) {
+            target.setDateTime(newXMLGregorianCalendar(DateParser.print(dateTime)));
+        }
+        eu.europa.esig.dss.validation.ValidationTime validationTime = source.getValidationTime();
+        if (validationTime != null) {
+            target.setValidationTime(enumValue(ValidationTime::fromValue, ValidationTimeParser.print(validationTime)));
+        }
+        eu.europa.esig.dss.validation.CertificateQualification certificateQualification = source.getCertificateQualification();
+        if (certificateQualification != null) {
+            target.setCertificateQualification(enumValue(CertificateQualification::fromValue, CertificateQualificationParser.print(certificateQualification)));
+        }
+        return target;
+    }
+
+    static FC map(XmlFC source) {
+        if (source == null) {
+            return null;
+        }
+        FC target = new FC();
+        for (XmlConstraint item : source.getConstraint()) {
+            target.getConstraint().add(map(item));
+        }
+        target.setConclusion(map(source.getConclusion()));
+        return target;
+    }
+
+    static ISC map(XmlISC source) {
+        if (source == null) {
+            return null;
+        }
+        ISC target = new ISC();
+        for (XmlConstraint item : source.getConstraint()) {
+            target.getConstraint().add(map(item));
+        }
+        target.setConclusion(map(source.getConclusion()));
+        target.setCertificateChain(map(source.getCertificateChain()));
+        return target;
+    }
+
+    static VCI map(XmlVCI source) {
+        if (source == null) {
+            return null;
+        }
+        VCI target = new VCI();
+        for (XmlConstraint item : source.getConstraint()) {
+            target.getConstraint().add(map(item));
+        }
+        target.setConclusion(map(source.getConclusion()));
+        return target;
+    }
+
+    static CV map(XmlCV source) {
+        if (source == null) {
+            return null;
+        }
+        CV target = new CV();
+        for (XmlConstraint item : source.getConstraint()) {
+            target.getConstraint().add(map(item));
+        }
+        target.setConclusion(map(source.getConclusion()));
+        return target;
+    }
+
+    static SAV map(XmlSAV source) {
+        if (source == null) {
+            return null;
+        }
+        SAV target = new SAV();
+        for (XmlConstraint item : source.getConstraint()) {
+            target.getConstraint().add(map(item));
+        }
+        target.setConclusion(map(source.getConclusion()));
+        return target;
+    }
+
+    static XCV map(XmlXCV source) {
+        if (source == null) {
+            return null;
+        }
+        XCV target = new XCV();
+        for (XmlConstraint item : source.getConstraint()) {
+            target.getConstraint().add(map(item));
+        }
+        target.setConclusion(map(source.getConclusion()));
+        for (XmlSubXCV item : source.getSubXCV()) {
+            target.getSubXCV().add(map(item));
+        }
+        return target;
+    }
+
+    static PSV map(XmlPSV source) {
+        if (source == null) {
+            return null;
+        }
+        PSV target = new PSV();
+        for (XmlConstraint item : source.getConstraint()) {
+            target.getConstraint().add(map(item));
+        }
+        target.setConclusion(map(source.getConclusion()));
+        Date controlTime = source.getControlTime();
+        if (controlTime != null) {
+            target.setControlTime(newXMLGregorianCalendar(DateParser.print(controlTime)));
+        }
+        return target;
+    }
+
+    static PCV map(XmlPCV source) {
+        if (source == null) {
+            return null;
+        }
+        PCV target = new PCV();
+        for (XmlConstraint item : source.getConstraint()) {
+            target.getConstraint().add(map(item));
+        }
+        target.setConclusion(map(source.getConclusion()));
+        Date controlTime = source.getControlTime();
+        if (controlTime != null) {
+            target.setControlTime(newXMLGregorianCalendar(DateParser.print(controlTime)));
+        }
+        return target;
+    }
+
+    static VTS map(XmlVTS source) {
+        if (source == null) {
+            return null;
+        }
+        VTS target = new VTS();
+        for (XmlConstraint item : source.getConstraint()) {
+            target.getConstraint().add(map(item));
+        }
+        target.setConclusion(map(source.getConclusion()));
+        Date controlTime = source.getControlTime();
+        if (controlTime != null) {
+            target.setControlTime(newXMLGregorianCalendar(DateParser.print(controlTime)));
+        }
+        return target;
+    }
+
+    static CertificateChain map(XmlCertificateChain source) {
+        if (source == null) {
+            return null;
+        }
+        CertificateChain target = new CertificateChain();
+        for (XmlChainItem item : source.getChainItem()) {
+            target.getChainItem().add(map(item));
+        }
+        return target;
+    }
+
+    static Name map(XmlName source) {
+        if (source == null) {
+            return null;
+        }
+        Name target = new Name();
+        target.setValue(source.getValue());
+        target.setNameId(source.getNameId());
+        return target;
+    }
+
+    static SubXCV map(XmlSubXCV source) {
+        if (source == null) {
+            return null;
+        }
+        SubXCV target = new SubXCV();
+        for (XmlConstraint item : source.getConstraint()) {
+            target.getConstraint().add(map(item));
+        }
+        target.setConclusion(map(source.getConclusion()));
+        target.setRFC(map(source.getRFC()));
+        target.setId(source.getId());
+        target.setTrustAnchor(source.isTrustAnchor());
+        return target;
+    }
+
+    static CertificateChain.ChainItem map(XmlChainItem source) {
+        if (source == null) {
+            return null;
+        }
+        CertificateChain.ChainItem target = new CertificateChain.ChainItem();
+        target.setSource(source.getSource());
+        target.setId(source.getId());
+        return target;
+    }
+
+    static RFC map(XmlRFC source) {
+        if (source == null) {
+            return null;
+        }
+        RFC target = new RFC();
+        for (XmlConstraint item : source.getConstraint()) {
+            target.getConstraint().add(map(item));
+        }
+        target.setConclusion(map(source.getConclusion()));
+        target.setId(source.getId());
+        return target;
+    }
+}
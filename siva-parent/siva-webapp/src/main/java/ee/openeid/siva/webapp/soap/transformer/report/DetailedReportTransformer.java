@@ -23,10 +23,9 @@ public class DetailedReportTransformer
             ee.openeid.siva.webapp.soap.response.DetailedReport
         > {
 
-    private static final String EU_DETAILED_REPORT_PACKAGE = "eu.europa.esig.dss.validation.detailed_report";
-
-    public DetailedReportTransformer() {
-        super(eu.europa.esig.dss.jaxb.detailedreport.DetailedReport.class, EU_DETAILED_REPORT_PACKAGE);
+    @Override
+    eu.europa.esig.dss.validation.detailed_report.DetailedReport mapReport(eu.europa.esig.dss.jaxb.detailedreport.DetailedReport report) {
+        return DetailedReportMapper.map(report);
     }
 
     @Override
@@ -34,7 +33,7 @@ public class DetailedReportTransformer
         ee.openeid.siva.webapp.soap.response.DetailedReport detailedReport = new ee.openeid.siva.webapp.soap.response.DetailedReport();
         detailedReport.getTLAnalysis().addAll(dssDetailReport.getTLAnalysis());
         detailedReport.getSignatures().addAll(dssDetailReport.getSignatures());
-        detailedReport.setCertificate(detailedReport.getCertificate());
+        detailedReport.setCertificate(dssDetailReport.getCertificate());
         detailedReport.getBasicBuildingBlocks().addAll(dssDetailReport.getBasicBuildingBlocks());
         return detailedReport;
     }
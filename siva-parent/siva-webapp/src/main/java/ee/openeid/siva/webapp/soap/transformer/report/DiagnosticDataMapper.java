@@ -0,0 +1,746 @@
+/*
+ * Copyright 2019 Riigi Infosüsteemide Amet
+ *
+ * Licensed under the EUPL, Version 1.1 or – as soon they will be approved by
+ * the European Commission - subsequent versions of the EUPL (the "Licence");
+ * You may not use this work except in compliance with the Licence.
+ * You may obtain a copy of the Licence at:
+ *
+ * https://joinup.ec.europa.eu/software/page/eupl
+ *
+ * Unless required by applicable law or agreed to in writing, software distributed under the Licence is
+ * distributed on an "AS IS" basis,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the Licence for the specific language governing permissions and limitations under the Licence.
+ */
+
+package ee.openeid.siva.webapp.soap.transformer.report;
+
+import ee.openeid.siva.webapp.soap.response.DiagnosticData;
+import eu.europa.esig.dss.jaxb.diagnostic.XmlBasicSignature;
+import eu.europa.esig.dss.jaxb.diagnostic.XmlCertificate;
+import eu.europa.esig.dss.jaxb.diagnostic.XmlCertificatePolicy;
+import eu.europa.esig.dss.jaxb.diagnostic.XmlCertifiedRole;
+import eu.europa.esig.dss.jaxb.diagnostic.XmlChainItem;
+import eu.europa.esig.dss.jaxb.diagnostic.XmlContainerInfo;
+import eu.europa.esig.dss.jaxb.diagnostic.XmlDigestAlgoAndValue;
+import eu.europa.esig.dss.jaxb.diagnostic.XmlDigestMatcher;
+import eu.europa.esig.dss.jaxb.diagnostic.XmlDistinguishedName;
+import eu.europa.esig.dss.jaxb.diagnostic.XmlManifestFile;
+import eu.europa.esig.dss.jaxb.diagnostic.XmlOID;
+import eu.europa.esig.dss.jaxb.diagnostic.XmlPolicy;
+import eu.europa.esig.dss.jaxb.diagnostic.XmlRevocation;
+import eu.europa.esig.dss.jaxb.diagnostic.XmlSignature;
+import eu.europa.esig.dss.jaxb.diagnostic.XmlSignatureProductionPlace;
+import eu.europa.esig.dss.jaxb.diagnostic.XmlSignatureScope;
+import eu.europa.esig.dss.jaxb.diagnostic.XmlSigningCertificate;
+import eu.europa.esig.dss.jaxb.diagnostic.XmlStructuralValidation;
+import eu.europa.esig.dss.jaxb.diagnostic.XmlTimestamp;
+import eu.europa.esig.dss.jaxb.diagnostic.XmlTimestampedObject;
+import eu.europa.esig.dss.jaxb.diagnostic.XmlTrustedList;
+import eu.europa.esig.dss.jaxb.diagnostic.XmlTrustedService;
+import eu.europa.esig.dss.jaxb.diagnostic.XmlTrustedServiceProvider;
+import eu.europa.esig.dss.jaxb.parsers.DateParser;
+import eu.europa.esig.dss.jaxb.parsers.DigestMatcherTypeParser;
+import eu.europa.esig.dss.jaxb.parsers.SignatureScopeTypeParser;
+import eu.europa.esig.dss.jaxb.parsers.TimestampedObjectTypeParser;
+import eu.europa.esig.dss.validation.SignatureScopeType;
+import eu.europa.esig.dss.validation.diagnostic.BasicSignature;
+import eu.europa.esig.dss.validation.diagnostic.Certificate;
+import eu.europa.esig.dss.validation.diagnostic.CertificateChain;
+import eu.europa.esig.dss.validation.diagnostic.CertificatePolicy;
+import eu.europa.esig.dss.validation.diagnostic.CertifiedRole;
+import eu.europa.esig.dss.validation.diagnostic.ContainerInfo;
+import eu.europa.esig.dss.validation.diagnostic.DigestAlgoAndValue;
+import eu.europa.esig.dss.validation.diagnostic.DigestAlgoAndValues;
+import eu.europa.esig.dss.validation.diagnostic.DigestMatcher;
+import eu.europa.esig.dss.validation.diagnostic.DigestMatcherType;
+import eu.europa.esig.dss.validation.diagnostic.DistinguishedName;
+import eu.europa.esig.dss.validation.diagnostic.ManifestFile;
+import eu.europa.esig.dss.validation.diagnostic.OID;
+import eu.europa.esig.dss.validation.diagnostic.Policy;
+import eu.europa.esig.dss.validation.diagnostic.Revocation;
+import eu.europa.esig.dss.validation.diagnostic.ScopeType;
+import eu.europa.esig.dss.validation.diagnostic.Signature;
+import eu.europa.esig.dss.validation.diagnostic.SignatureProductionPlace;
+import eu.europa.esig.dss.validation.diagnostic.SignatureScope;
+import eu.europa.esig.dss.validation.diagnostic.SigningCertificate;
+import eu.europa.esig.dss.validation.diagnostic.StructuralValidation;
+import eu.europa.esig.dss.validation.diagnostic.Timestamp;
+import eu.europa.esig.dss.validation.diagnostic.TimestampedObject;
+import eu.europa.esig.dss.validation.diagnostic.TimestampedObjectType;
+import eu.europa.esig.dss.validation.diagnostic.TimestampedObjects;
+import eu.europa.esig.dss.validation.diagnostic.TrustedList;
+import eu.europa.esig.dss.validation.diagnostic.TrustedService;
+import eu.europa.esig.dss.validation.diagnostic.TrustedServiceProvider;
+import java.lang.reflect.Field;
+import java.util.Date;
+
+import static ee.openeid.siva.webapp.soap.transformer.report.ReportTransformer.enumValue;
+import static ee.openeid.siva.webapp.soap.transformer.report.ReportTransformer.isSet;
+import static ee.openeid.siva.webapp.soap.transformer.report.ReportTransformer.listField;
+import static ee.openeid.siva.webapp.soap.transformer.report.ReportTransformer.newXMLGregorianCalendar;
+
+/**
+ * Copies DSS diagnostic data JAXB objects field by field into the classes generated from
+ * <code>DiagnosticData.xsd</code>. Both class sets are bound to the same schema, so every
+ * element and attribute maps one-to-one; values are converted exactly as a marshal/unmarshal
+ * round-trip would convert them. A list wrapper element is created only when the DSS list
+ * has been set, as JAXB leaves out the wrapper of a <code>null</code> list.
+ */
+final class DiagnosticDataMapper {
+
+    private static final Field DIAGNOSTIC_DATA_SIGNATURES = listField(eu.europa.esig.dss.jaxb.diagnostic.DiagnosticData.class, "signatures");
+    private static final Field DIAGNOSTIC_DATA_USED_CERTIFICATES = listField(eu.europa.esig.dss.jaxb.diagnostic.DiagnosticData.class, "usedCertificates");
+    private static final Field DIAGNOSTIC_DATA_TRUSTED_LISTS = listField(eu.europa.esig.dss.jaxb.diagnostic.DiagnosticData.class, "trustedLists");
+    private static final Field CONTAINER_INFO_MANIFEST_FILES = listField(XmlContainerInfo.class, "manifestFiles");
+    private static final Field CONTAINER_INFO_CONTENT_FILES = listField(XmlContainerInfo.class, "contentFiles");
+    private static final Field SIGNATURE_DIGEST_MATCHERS = listField(XmlSignature.class, "digestMatchers");
+    private static final Field SIGNATURE_CERTIFICATE_CHAIN = listField(XmlSignature.class, "certificateChain");
+    private static final Field SIGNATURE_COMMITMENT_TYPE_INDICATION = listField(XmlSignature.class, "commitmentTypeIndication");
+    private static final Field SIGNATURE_CLAIMED_ROLES = listField(XmlSignature.class, "claimedRoles");
+    private static final Field SIGNATURE_TIMESTAMPS = listField(XmlSignature.class, "timestamps");
+    private static final Field SIGNATURE_SIGNATURE_SCOPES = listField(XmlSignature.class, "signatureScopes");
+    private static final Field CERTIFICATE_AUTHORITY_INFORMATION_ACCESS_URLS = listField(XmlCertificate.class, "authorityInformationAccessUrls");
+    private static final Field CERTIFICATE_CRL_DISTRIBUTION_POINTS = listField(XmlCertificate.class, "crlDistributionPoints");
+    private static final Field CERTIFICATE_OCSP_ACCESS_URLS = listField(XmlCertificate.class, "ocspAccessUrls");
+    private static final Field CERTIFICATE_DIGEST_ALGO_AND_VALUES = listField(XmlCertificate.class, "digestAlgoAndValues");
+    private static final Field CERTIFICATE_KEY_USAGE_BITS = listField(XmlCertificate.class, "keyUsageBits");
+    private static final Field CERTIFICATE_EXTENDED_KEY_USAGES = listField(XmlCertificate.class, "extendedKeyUsages");
+    private static final Field CERTIFICATE_CERTIFICATE_CHAIN = listField(XmlCertificate.class, "certificateChain");
+    private static final Field CERTIFICATE_CERTIFICATE_POLICIES = listField(XmlCertificate.class, "certificatePolicies");
+    private static final Field CERTIFICATE_QC_STATEMENT_IDS = listField(XmlCertificate.class, "qcStatementIds");
+    private static final Field CERTIFICATE_QC_TYPES = listField(XmlCertificate.class, "qcTypes");
+    private static final Field CERTIFICATE_TRUSTED_SERVICE_PROVIDERS = listField(XmlCertificate.class, "trustedServiceProviders");
+    private static final Field CERTIFICATE_REVOCATIONS = listField(XmlCertificate.class, "revocations");
+    private static final Field MANIFEST_FILE_ENTRIES = listField(XmlManifestFile.class, "entries");
+    private static final Field TIMESTAMP_CERTIFICATE_CHAIN = listField(XmlTimestamp.class, "certificateChain");
+    private static final Field TIMESTAMP_TIMESTAMPED_OBJECTS = listField(XmlTimestamp.class, "timestampedObjects");
+    private static final Field TRUSTED_SERVICE_PROVIDER_TRUSTED_SERVICES = listField(XmlTrustedServiceProvider.class, "trustedServices");
+    private static final Field REVOCATION_DIGEST_ALGO_AND_VALUES = listField(XmlRevocation.class, "digestAlgoAndValues");
+    private static final Field REVOCATION_CERTIFICATE_CHAIN = listField(XmlRevocation.class, "certificateChain");
+    private static final Field TRUSTED_SERVICE_CAPTURED_QUALIFIERS = listField(XmlTrustedService.class, "capturedQualifiers");
+    private static final Field TRUSTED_SERVICE_ADDITIONAL_SERVICE_INFO_URIS = listField(XmlTrustedService.class, "additionalServiceInfoUris");
+    private static final Field TRUSTED_SERVICE_SERVICE_SUPPLY_POINTS = listField(XmlTrustedService.class, "serviceSupplyPoints");
+
+    private DiagnosticDataMapper() {
+    }
+
+    static eu.europa.esig.dss.validation.diagnostic.DiagnosticData map(eu.europa.esig.dss.jaxb.diagnostic.DiagnosticData source) {
+        if (source == null) {
+            return null;
+        }
+        eu.europa.esig.dss.validation.diagnostic.DiagnosticData target = new eu.europa.esig.dss.validation.diagnostic.DiagnosticData();
+        target.setDocumentName(source.getDocumentName());
+        Date validationDate = source.getValidationDate();
+        if (validationDate != null) {
+            target.setValidationDate(newXMLGregorianCalendar(DateParser.print(validationDate)));
+        }
+        target.setContainerInfo(map(source.getContainerInfo()));
+        if (isSet(DIAGNOSTIC_DATA_SIGNATURES, source)) {
+            DiagnosticData.Signatures signatures = new DiagnosticData.Signatures();
+            for (XmlSignature item : source.getSignatures()) {
+                signatures.getSignature().add(map(item));
+            }
+            target.setSignatures(signatures);
+        }
+        if (isSet(DIAGNOSTIC_DATA_USED_CERTIFICATES, source)) {
+            DiagnosticData.UsedCertificates usedCertificates = new DiagnosticData.UsedCertificates();
+            for (XmlCertificate item : source.getUsedCertificates()) {
+                usedCertificates.getCertificate().add(map(item));
+            }
+            target.setUsedCertificates(usedCertificates);
+        }
+        if (isSet(DIAGNOSTIC_DATA_TRUSTED_LISTS, source)) {
+            DiagnosticData.TrustedLists trustedLists = new DiagnosticData.TrustedLists();
+            for (XmlTrustedList item : source.getTrustedLists()) {
+                trustedLists.getTrustedList().add(map(item));
+            }
+            target.setTrustedLists(trustedLists);
+        }
+        target.setListOfTrustedLists(map(source.getListOfTrustedLists()));
+        return target;
+    }
+
+    static ContainerInfo map(XmlContainerInfo source) {
+        if (source == null) {
+            return null;
+        }
+        ContainerInfo target = new ContainerInfo();
+        target.setContainerType(source.getContainerType());
+        target.setZipComment(source.getZipComment());
+        target.setMimeTypeFilePresent(source.isMimeTypeFilePresent());
+        target.setMimeTypeContent(source.getMimeTypeContent());
+        if (isSet(CONTAINER_INFO_MANIFEST_FILES, source)) {
+            ContainerInfo.ManifestFiles manifestFiles = new ContainerInfo.ManifestFiles();
+            for (XmlManifestFile item : source.getManifestFiles()) {
+                manifestFiles.getManifestFile().add(map(item));
+            }
+            target.setManifestFiles(manifestFiles);
+        }
+        if (isSet(CONTAINER_INFO_CONTENT_FILES, source)) {
+            ContainerInfo.ContentFiles contentFiles = new ContainerInfo.ContentFiles();
+            contentFiles.getContentFile().addAll(source.getContentFiles());
+            target.setContentFiles(contentFiles);
+        }
+        return target;
+    }
+
+    static Signature map(XmlSignature source) {
+        if (source == null) {
+            return null;
+        }
+        Signature target = new Signature();
+        target.setSignatureFilename(source.getSignatureFilename());
+        target.setParentId(source.getParentId());
+        target.setErrorMessage(source.getErrorMessage());
+        Date dateTime = source.getDateTime();
+        if (dateTime != null) {
+            target.setDateTime(newXMLGregorianCalendar(DateParser.print(dateTime)));
+        }
+        target.setSignatureFormat(source.getSignatureFormat());
+        target.setStructuralValidation(map(source.getStructuralValidation()));
+        if (isSet(SIGNATURE_DIGEST_MATCHERS, source)) {
+            Signature.DigestMatchers digestMatchers = new Signature.DigestMatchers();
+            for (XmlDigestMatcher item : source.getDigestMatchers()) {
+                digestMatchers.getDigestMatcher().add(map(item));
+            }
+            target.setDigestMatchers(digestMatchers);
+        }
+        target.setBasicSignature(map(source.getBasicSignature()));
+        target.setSigningCertificate(map(source.getSigningCertificate()));
+        if (isSet(SIGNATURE_CERTIFICATE_CHAIN, source)) {
+            CertificateChain certificateChain = new CertificateChain();
+            for (XmlChainItem item : source.getCertificateChain()) {
+                certificateChain.getChainItem().add(map(item));
+            }
+            target.setCertificateChain(certificateChain);
+        }
+        target.setContentType(source.getContentType());
+        target.setContentIdentifier(source.getContentIdentifier());
+        target.setContentHints(source.getContentHints());
+        target.setSignatureProductionPlace(map(source.getSignatureProductionPlace()));
+        if (isSet(SIGNATURE_COMMITMENT_TYPE_INDICATION, source)) {
+            Signature.CommitmentTypeIndication commitmentTypeIndication = new Signature.CommitmentTypeIndication();
+            commitmentTypeIndication.getIndication().addAll(source.getCommitmentTypeIndication());
+            target.setCommitmentTypeIndication(commitmentTypeIndication);
+        }
+        if (isSet(SIGNATURE_CLAIMED_ROLES, source)) {
+            Signature.ClaimedRoles claimedRoles = new Signature.ClaimedRoles();
+            claimedRoles.getClaimedRoles().addAll(source.getClaimedRoles());
+            target.setClaimedRoles(claimedRoles);
+        }
+        for (XmlCertifiedRole item : source.getCertifiedRoles()) {
+            target.getCertifiedRoles().add(map(item));
+        }
+        target.setPolicy(map(source.getPolicy()));
+        if (isSet(SIGNATURE_TIMESTAMPS, source)) {
+            Signature.Timestamps timestamps = new Signature.Timestamps();
+            for (XmlTimestamp item : source.getTimestamps()) {
+                timestamps.getTimestamp().add(map(item));
+            }
+            target.setTimestamps(timestamps);
+        }
+        if (isSet(SIGNATURE_SIGNATURE_SCOPES, source)) {
+            Signature.SignatureScopes signatureScopes = new Signature.SignatureScopes();
+            for (XmlSignatureScope item : source.getSignatureScopes()) {
+                signatureScopes.getSignatureScope().add(map(item));
+            }
+            target.setSignatureScopes(signatureScopes);
+        }
+        target.setId(source.getId());
+        target.setCounterSignature(source.isCounterSignature());
+        return target;
+    }
+
+    static Certificate map(XmlCertificate source) {
+        if (source == null) {
+            return null;
+        }
+        Certificate target = new Certificate();
+        for (XmlDistinguishedName item : source.getSubjectDistinguishedName()) {
+            target.getSubjectDistinguishedName().add(map(item));
+        }
+        for (XmlDistinguishedName item : source.getIssuerDistinguishedName()) {
+            target.getIssuerDistinguishedName().add(map(item));
+        }
+        target.setSerialNumber(source.getSerialNumber());
+        target.setCommonName(source.getCommonName());
+        target.setLocality(source.getLocality());
+        target.setState(source.getState());
+        target.setCountryName(source.getCountryName());
+        target.setOrganizationName(source.getOrganizationName());
+        target.setGivenName(source.getGivenName());
+        target.setOrganizationalUnit(source.getOrganizationalUnit());
+        target.setSurname(source.getSurname());
+        target.setPseudonym(source.getPseudonym());
+        target.setEmail(source.getEmail());
+        if (isSet(CERTIFICATE_AUTHORITY_INFORMATION_ACCESS_URLS, source)) {
+            Certificate.AuthorityInformationAccessUrls authorityInformationAccessUrls = new Certificate.AuthorityInformationAccessUrls();
+            authorityInformationAccessUrls.getUrl().addAll(source.getAuthorityInformationAccessUrls());
+            target.setAuthorityInformationAccessUrls(authorityInformationAccessUrls);
+        }
+        if (isSet(CERTIFICATE_CRL_DISTRIBUTION_POINTS, source)) {
+            Certificate.CRLDistributionPoints crlDistributionPoints = new Certificate.CRLDistributionPoints();
+            crlDistributionPoints.getUrl().addAll(source.getCRLDistributionPoints());
+            target.setCRLDistributionPoints(crlDistributionPoints);
+        }
+        if (isSet(CERTIFICATE_OCSP_ACCESS_URLS, source)) {
+            Certificate.OCSPAccessUrls ocspAccessUrls = new Certificate.OCSPAccessUrls();
+            ocspAccessUrls.getUrl().addAll(source.getOCSPAccessUrls());
+            target.setOCSPAccessUrls(ocspAccessUrls);
+        }
+        if (isSet(CERTIFICATE_DIGEST_ALGO_AND_VALUES, source)) {
+            DigestAlgoAndValues digestAlgoAndValues = new DigestAlgoAndValues();
+            for (XmlDigestAlgoAndValue item : source.getDigestAlgoAndValues()) {
+                digestAlgoAndValues.getDigestAlgoAndValue().add(map(item));
+            }
+            target.setDigestAlgoAndValues(digestAlgoAndValues);
+        }
+        Date notAfter = source.getNotAfter();
+        if (notAfter != null) {
+            target.setNotAfter(newXMLGregorianCalendar(DateParser.print(notAfter)));
+        }
+        Date notBefore = source.getNotBefore();
+        if (notBefore != null) {
+            target.setNotBefore(newXMLGregorianCalendar(DateParser.print(notBefore)));
+        }
+        target.setPublicKeySize(source.getPublicKeySize());
+        target.setPublicKeyEncryptionAlgo(source.getPublicKeyEncryptionAlgo());
+        if (isSet(CERTIFICATE_KEY_USAGE_BITS, source)) {
+            Certificate.KeyUsageBits keyUsageBits = new Certificate.KeyUsageBits();
+            keyUsageBits.getKeyUsage().addAll(source.getKeyUsageBits());
+            target.setKeyUsageBits(keyUsageBits);
+        }
+        if (isSet(CERTIFICATE_EXTENDED_KEY_USAGES, source)) {
+            Certificate.ExtendedKeyUsages extendedKeyUsages = new Certificate.ExtendedKeyUsages();
+            for (XmlOID item : source.getExtendedKeyUsages()) {
+                extendedKeyUsages.getOid().add(map(item));
+            }
+            target.setExtendedKeyUsages(extendedKeyUsages);
+        }
+        target.setIdPkixOcspNoCheck(source.isIdPkixOcspNoCheck());
+        target.setBasicSignature(map(source.getBasicSignature()));
+        target.setSigningCertificate(map(source.getSigningCertificate()));
+        if (isSet(CERTIFICATE_CERTIFICATE_CHAIN, source)) {
+            CertificateChain certificateChain = new CertificateChain();
+            for (XmlChainItem item : source.getCertificateChain()) {
+                certificateChain.getChainItem().add(map(item));
+            }
+            target.setCertificateChain(certificateChain);
+        }
+        target.setTrusted(source.isTrusted());
+        target.setSelfSigned(source.isSelfSigned());
+        if (isSet(CERTIFICATE_CERTIFICATE_POLICIES, source)) {
+            Certificate.CertificatePolicies certificatePolicies = new Certificate.CertificatePolicies();
+            for (XmlCertificatePolicy item : source.getCertificatePolicies()) {
+                certificatePolicies.getCertificatePolicy().add(map(item));
+            }
+            target.setCertificatePolicies(certificatePolicies);
+        }
+        if (isSet(CERTIFICATE_QC_STATEMENT_IDS, source)) {
+            Certificate.QCStatementIds qcStatementIds = new Certificate.QCStatementIds();
+            for (XmlOID item : source.getQCStatementIds()) {
+                qcStatementIds.getOid().add(map(item));
+            }
+            target.setQCStatementIds(qcStatementIds);
+        }
+        if (isSet(CERTIFICATE_QC_TYPES, source)) {
+            Certificate.QCTypes qcTypes = new Certificate.QCTypes();
+            for (XmlOID item : source.getQCTypes()) {
+                qcTypes.getOid().add(map(item));
+            }
+            target.setQCTypes(qcTypes);
+        }
+        if (isSet(CERTIFICATE_TRUSTED_SERVICE_PROVIDERS, source)) {
+            Certificate.TrustedServiceProviders trustedServiceProviders = new Certificate.TrustedServiceProviders();
+            for (XmlTrustedServiceProvider item : source.getTrustedServiceProviders()) {
+                trustedServiceProviders.getTrustedServiceProvider().add(map(item));
+            }
+            target.setTrustedServiceProviders(trustedServiceProviders);
+        }
+        if (isSet(CERTIFICATE_REVOCATIONS, source)) {
+            Certificate.Revocations revocations = new Certificate.Revocations();
+            for (XmlRevocation item : source.getRevocations()) {
+                revocations.getRevocation().add(map(item));
+            }
+            target.setRevocations(revocations);
+        }
+        target.setBase64Encoded(source.getBase64Encoded());
+        target.setId(source.getId());
+        return target;
+    }
+
+    static TrustedList map(XmlTrustedList source) {
+        if (source == null) {
+            return null;
+        }
+        TrustedList target = new TrustedList();
+        target.setCountryCode(source.getCountryCode());
+        target.setUrl(source.getUrl());
+        target.setSequenceNumber(source.getSequenceNumber());
+        target.setVersion(source.getVersion());
+        Date lastLoading = source.getLastLoading();
+        if (lastLoading != null) {
+            target.setLastLoading(newXMLGregorianCalendar(DateParser.print(lastLoading)));
+        }
+        Date issueDate = source.getIssueDate();
+        if (issueDate != null) {
+            target.setIssueDate(newXMLGregorianCalendar(DateParser.print(issueDate)));
+        }
+        Date nextUpdate = source.getNextUpdate();
+        if (nextUpdate != null) {
+            target.setNextUpdate(newXMLGregorianCalendar(DateParser.print(nextUpdate)));
+        }
+        target.setWellSigned(source.isWellSigned());
+        return target;
+    }
+
+    static ManifestFile map(XmlManifestFile source) {
+        if (source == null) {
+            return null;
+        }
+        ManifestFile target = new ManifestFile();
+        target.setFilename(source.getFilename());
+        target.setSignatureFilename(source.getSignatureFilename());
+        if (isSet(MANIFEST_FILE_ENTRIES, source)) {
+            ManifestFile.Entries entries = new ManifestFile.Entries();
+            entries.getEntry().addAll(source.getEntries());
+            target.setEntries(entries);
+        }
+        return target;
+    }
+
+    static StructuralValidation map(XmlStructuralValidation source) {
+        if (source == null) {
+            return null;
+        }
+        StructuralValidation target = new StructuralValidation();
+        target.setValid(source.isValid());
+        target.setMessage(source.getMessage());
+        return target;
+    }
+
+    static DigestMatcher map(XmlDigestMatcher source) {
+        if (source == null) {
+            return null;
+        }
+        DigestMatcher target = new DigestMatcher();
+        target.setDigestMethod(source.getDigestMethod());
+        target.setDigestValue(source.getDigestValue());
+        target.setDataFound(source.isDataFound());
+        target.setDataIntact(source.isDataIntact());
+        eu.europa.esig.dss.validation.DigestMatcherType type = source.getType();
+        if (type != null) {
+            target.setType(enumValue(DigestMatcherType::fromValue, DigestMatcherTypeParser.print(type)));
+        }
+        target.setName(source.getName());
+        return target;
+    }
+
+    static BasicSignature map(XmlBasicSignature source) {
+        if (source == null) {
+            return null;
+        }
+        BasicSignature target = new BasicSignature();
+        target.setEncryptionAlgoUsedToSignThisToken(source.getEncryptionAlgoUsedToSignThisToken());
+        target.setKeyLengthUsedToSignThisToken(source.getKeyLengthUsedToSignThisToken());
+        target.setDigestAlgoUsedToSignThisToken(source.getDigestAlgoUsedToSignThisToken());
+        target.setMaskGenerationFunctionUsedToSignThisToken(source.getMaskGenerationFunctionUsedToSignThisToken());
+        target.setSignatureIntact(source.isSignatureIntact());
+        target.setSignatureValid(source.isSignatureValid());
+        return target;
+    }
+
+    static SigningCertificate map(XmlSigningCertificate source) {
+        if (source == null) {
+            return null;
+        }
+        SigningCertificate target = new SigningCertificate();
+        target.setAttributePresent(source.isAttributePresent());
+        target.setDigestValuePresent(source.isDigestValuePresent());
+        target.setDigestValueMatch(source.isDigestValueMatch());
+        target.setIssuerSerialMatch(source.isIssuerSerialMatch());
+        target.setId(source.getId());
+        return target;
+    }
+
+    static CertificateChain.ChainItem map(XmlChainItem source) {
+        if (source == null) {
+            return null;
+        }
+        CertificateChain.ChainItem target = new CertificateChain.ChainItem();
+        target.setSource(source.getSource());
+        target.setId(source.getId());
+        return target;
+    }
+
+    static SignatureProductionPlace map(XmlSignatureProductionPlace source) {
+        if (source == null) {
+            return null;
+        }
+        SignatureProductionPlace target = new SignatureProductionPlace();
+        target.setAddress(source.getAddress());
+        target.setCity(source.getCity());
+        target.setStateOrProvince(source.getStateOrProvince());
+        target.setPostalCode(source.getPostalCode());
+        target.setCountryName(source.getCountryName());
+        return target;
+    }
+
+    static CertifiedRole map(XmlCertifiedRole source) {
+        if (source == null) {
+            return null;
+        }
+        CertifiedRole target = new CertifiedRole();
+        target.setCertifiedRole(source.getCertifiedRole());
+        Date notAfter = source.getNotAfter();
+        if (notAfter != null) {
+            target.setNotAfter(newXMLGregorianCalendar(DateParser.print(notAfter)));
+        }
+        Date notBefore = source.getNotBefore();
+        if (notBefore != null) {
+            target.setNotBefore(newXMLGregorianCalendar(DateParser.print(notBefore)));
+        }
+        target.setCategory(source.getCategory());
+        return target;
+    }
+
+    static Policy map(XmlPolicy source) {
+        if (source == null) {
+            return null;
+        }
+        Policy target = new Policy();
+        target.setId(source.getId());
+        target.setUrl(source.getUrl());
+        target.setNotice(source.getNotice());
+        target.setDigestAlgoAndValue(map(source.getDigestAlgoAndValue()));
+        target.setAsn1Processable(source.isAsn1Processable());
+        target.setIdentified(source.isIdentified());
+        target.setStatus(source.isStatus());
+        target.setProcessingError(source.getProcessingError());
+        target.setDigestAlgorithmsEqual(source.isDigestAlgorithmsEqual());
+        return target;
+    }
+
+    static Timestamp map(XmlTimestamp source) {
+        if (source == null) {
+            return null;
+        }
+        Timestamp target = new Timestamp();
+        Date productionTime = source.getProductionTime();
+        if (productionTime != null) {
+            target.setProductionTime(newXMLGregorianCalendar(DateParser.print(productionTime)));
+        }
+        target.setDigestMatcher(map(source.getDigestMatcher()));
+        target.setBasicSignature(map(source.getBasicSignature()));
+        target.setSigningCertificate(map(source.getSigningCertificate()));
+        if (isSet(TIMESTAMP_CERTIFICATE_CHAIN, source)) {
+            CertificateChain certificateChain = new CertificateChain();
+            for (XmlChainItem item : source.getCertificateChain()) {
+                certificateChain.getChainItem().add(map(item));
+            }
+            target.setCertificateChain(certificateChain);
+        }
+        if (isSet(TIMESTAMP_TIMESTAMPED_OBJECTS, source)) {
+            TimestampedObjects timestampedObjects = new TimestampedObjects();
+            for (XmlTimestampedObject item : source.getTimestampedObjects()) {
+                timestampedObjects.getTimestampedObject().add(map(item));
+            }
+            target.setTimestampedObjects(timestampedObjects);
+        }
+        target.setBase64Encoded(source.getBase64Encoded());
+        target.setId(source.getId());
+        target.setType(source.getType());
+        return target;
+    }
+
+    static SignatureScope map(XmlSignatureScope source) {
+        if (source == null) {
+            return null;
+        }
+        SignatureScope target = new SignatureScope();
+        target.setValue(source.getValue());
+        target.setName(source.getName());
+        SignatureScopeType scope = source.getScope();
+        if (scope != null) {
+            target.setScope(enumValue(ScopeType::fromValue, SignatureScopeTypeParser.print(scope)));
+        }
+        return target;
+    }
+
+    static DistinguishedName map(XmlDistinguishedName source) {
+        if (source == null) {
+            return null;
+        }
+        DistinguishedName target = new DistinguishedName();
+        target.setValue(source.getValue());
+        target.setFormat(source.getFormat());
+        return target;
+    }
+
+    static DigestAlgoAndValue map(XmlDigestAlgoAndValue source) {
+        if (source == null) {
+            return null;
+        }
+        if (source instanceof XmlDigestMatcher) {
+            return map((XmlDigestMatcher) source);
+        }
+        DigestAlgoAndValue target = new DigestAlgoAndValue();
+        target.setDigestMethod(source.getDigestMethod());
+        target.setDigestValue(source.getDigestValue());
+        return target;
+    }
+
+    static OID map(XmlOID source) {
+        if (source == null) {
+            return null;
+        }
+        if (source instanceof XmlCertificatePolicy) {
+            return map((XmlCertificatePolicy) source);
+        }
+        OID target = new OID();
+        target.setValue(source.getValue());
+        target.setDescription(source.getDescription());
+        return target;
+    }
+
+    static CertificatePolicy map(XmlCertificatePolicy source) {
+        if (source == null) {
+            return null;
+        }
+        CertificatePolicy target = new CertificatePolicy();
+        target.setValue(source.getValue());
+        target.setDescription(source.getDescription());
+        target.setCpsUrl(source.getCpsUrl());
+        return target;
+    }
+
+    static TrustedServiceProvider map(XmlTrustedServiceProvider source) {
+        if (source == null) {
+            return null;
+        }
+        TrustedServiceProvider target = new TrustedServiceProvider();
+        target.setTSPName(source.getTSPName());
+        target.setTSPRegistrationIdentifier(source.getTSPRegistrationIdentifier());
+        target.setCountryCode(source.getCountryCode());
+        if (isSet(TRUSTED_SERVICE_PROVIDER_TRUSTED_SERVICES, source)) {
+            TrustedServiceProvider.TrustedServices trustedServices = new TrustedServiceProvider.TrustedServices();
+            for (XmlTrustedService item : source.getTrustedServices()) {
+                trustedServices.getTrustedService().add(map(item));
+            }
+            target.setTrustedServices(trustedServices);
+        }
+        return target;
+    }
+
+    static Revocation map(XmlRevocation source) {
+        if (source == null) {
+            return null;
+        }
+        Revocation target = new Revocation();
+        target.setOrigin(source.getOrigin());
+        target.setSource(source.getSource());
+        target.setSourceAddress(source.getSourceAddress());
+        target.setAvailable(source.isAvailable());
+        target.setStatus(source.isStatus());
+        target.setReason(source.getReason());
+        Date productionDate = source.getProductionDate();
+        if (productionDate != null) {
+            target.setProductionDate(newXMLGregorianCalendar(DateParser.print(productionDate)));
+        }
+        Date thisUpdate = source.getThisUpdate();
+        if (thisUpdate != null) {
+            target.setThisUpdate(newXMLGregorianCalendar(DateParser.print(thisUpdate)));
+        }
+        Date nextUpdate = source.getNextUpdate();
+        if (nextUpdate != null) {
+            target.setNextUpdate(newXMLGregorianCalendar(DateParser.print(nextUpdate)));
+        }
+        Date revocationDate = source.getRevocationDate();
+        if (revocationDate != null) {
+            target.setRevocationDate(newXMLGregorianCalendar(DateParser.print(revocationDate)));
+        }
+        Date expiredCertsOnCRL = source.getExpiredCertsOnCRL();
+        if (expiredCertsOnCRL != null) {
+            target.setExpiredCertsOnCRL(newXMLGregorianCalendar(DateParser.print(expiredCertsOnCRL)));
+        }
+        Date archiveCutOff = source.getArchiveCutOff();
+        if (archiveCutOff != null) {
+            target.setArchiveCutOff(newXMLGregorianCalendar(DateParser.print(archiveCutOff)));
+        }
+        target.setCertHashExtensionPresent(source.isCertHashExtensionPresent());
+        target.setCertHashExtensionMatch(source.isCertHashExtensionMatch());
+        if (isSet(REVOCATION_DIGEST_ALGO_AND_VALUES, source)) {
+            DigestAlgoAndValues digestAlgoAndValues = new DigestAlgoAndValues();
+            for (XmlDigestAlgoAndValue item : source.getDigestAlgoAndValues()) {
+                digestAlgoAndValues.getDigestAlgoAndValue().add(map(item));
+            }
+            target.setDigestAlgoAndValues(digestAlgoAndValues);
+        }
+        target.setBasicSignature(map(source.getBasicSignature()));
+        target.setSigningCertificate(map(source.getSigningCertificate()));
+        if (isSet(REVOCATION_CERTIFICATE_CHAIN, source)) {
+            CertificateChain certificateChain = new CertificateChain();
+            for (XmlChainItem item : source.getCertificateChain()) {
+                certificateChain.getChainItem().add(map(item));
+            }
+            target.setCertificateChain(certificateChain);
+        }
+        target.setBase64Encoded(source.getBase64Encoded());
+        target.setId(source.getId());
+        return target;
+    }
+
+    static TimestampedObject map(XmlTimestampedObject source) {
+        if (source == null) {
+            return null;
+        }
+        TimestampedObject target = new TimestampedObject();
+        target.setDigestAlgoAndValue(map(source.getDigestAlgoAndValue()));
+        target.setId(source.getId());
+        eu.europa.esig.dss.validation.TimestampedObjectType category = source.getCategory();
+        if (category != null) {
+            target.setCategory(enumValue(TimestampedObjectType::fromValue, TimestampedObjectTypeParser.print(category)));
+        }
+        return target;
+    }
+
+    static TrustedService map(XmlTrustedService source) {
+        if (source == null) {
+            return null;
+        }
+        TrustedService target = new TrustedService();
+        target.setServiceName(source.getServiceName());
+        target.setServiceType(source.getServiceType());
+        target.setStatus(source.getStatus());
+        Date startDate = source.getStartDate();
+        if (startDate != null) {
+            target.setStartDate(newXMLGregorianCalendar(DateParser.print(startDate)));
+        }
+        Date endDate = source.getEndDate();
+        if (endDate != null) {
+            target.setEndDate(newXMLGregorianCalendar(DateParser.print(endDate)));
+        }
+        if (isSet(TRUSTED_SERVICE_CAPTURED_QUALIFIERS, source)) {
+            TrustedService.CapturedQualifiers capturedQualifiers = new TrustedService.CapturedQualifiers();
+            capturedQualifiers.getQualifier().addAll(source.getCapturedQualifiers());
+            target.setCapturedQualifiers(capturedQualifiers);
+        }
+        if (isSet(TRUSTED_SERVICE_ADDITIONAL_SERVICE_INFO_URIS, source)) {
+            TrustedService.AdditionalServiceInfoUris additionalServiceInfoUris = new TrustedService.AdditionalServiceInfoUris();
+            additionalServiceInfoUris.getURI().addAll(source.getAdditionalServiceInfoUris());
+            target.setAdditionalServiceInfoUris(additionalServiceInfoUris);
+        }
+        if (isSet(TRUSTED_SERVICE_SERVICE_SUPPLY_POINTS, source)) {
+            TrustedService.ServiceSupplyPoints serviceSupplyPoints = new TrustedService.ServiceSupplyPoints();
+            serviceSupplyPoints.getURI().addAll(source.getServiceSupplyPoints());
+            target.setServiceSupplyPoints(serviceSupplyPoints);
+        }
+        Date expiredCertsRevocationInfo = source.getExpiredCertsRevocationInfo();
+        if (expiredCertsRevocationInfo != null) {
+            target.setExpiredCertsRevocationInfo(newXMLGregorianCalendar(DateParser.print(expiredCertsRevocationInfo)));
+        }
+        return target;
+    }
+}
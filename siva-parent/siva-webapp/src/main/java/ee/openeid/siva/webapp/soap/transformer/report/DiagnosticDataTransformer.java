@@ -23,10 +23,9 @@ public class DiagnosticDataTransformer
             ee.openeid.siva.webapp.soap.response.DiagnosticData
         > {
 
-    private static final String EU_DIAGNOSTIC_DATA_PACKAGE = "eu.europa.esig.dss.validation.diagnostic";
-
-    public DiagnosticDataTransformer() {
-        super(eu.europa.esig.dss.jaxb.diagnostic.DiagnosticData.class, EU_DIAGNOSTIC_DATA_PACKAGE);
+    @Override
+    eu.europa.esig.dss.validation.diagnostic.DiagnosticData mapReport(eu.europa.esig.dss.jaxb.diagnostic.DiagnosticData report) {
+        return DiagnosticDataMapper.map(report);
     }
 
     @Override
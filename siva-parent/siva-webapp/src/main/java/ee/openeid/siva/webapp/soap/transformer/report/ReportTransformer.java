@@ -16,13 +16,11 @@
 
 package ee.openeid.siva.webapp.soap.transformer.report;
 
-import javax.xml.bind.JAXBContext;
-import javax.xml.bind.JAXBElement;
-import javax.xml.bind.JAXBException;
-import javax.xml.bind.Marshaller;
-import javax.xml.bind.Unmarshaller;
-import java.io.StringReader;
-import java.io.StringWriter;
+import javax.xml.datatype.DatatypeConfigurationException;
+import javax.xml.datatype.DatatypeFactory;
+import javax.xml.datatype.XMLGregorianCalendar;
+import java.lang.reflect.Field;
+import java.util.function.Function;
 
 /**
  * Transforms DSS returned report object to service api report object.
@@ -33,40 +31,65 @@ import java.io.StringWriter;
  */
 abstract class ReportTransformer<D, I, F> {
 
-    private final JAXBContext marshallerContext;
-    private final JAXBContext unMarshallerContext;
-
-    ReportTransformer(Class<D> reportTypeClass, String reportClassesPackage) {
-        try {
-            marshallerContext = JAXBContext.newInstance(reportTypeClass);
-            unMarshallerContext = JAXBContext.newInstance(reportClassesPackage);
-        } catch (JAXBException e) {
-            throw new IllegalStateException("Failed to initialize JAXBContext", e);
-        }
-    }
+    /**
+     * {@link DatatypeFactory} implementations are not required to be thread-safe.
+     */
+    private static final ThreadLocal<DatatypeFactory> DATATYPE_FACTORY = ThreadLocal.withInitial(ReportTransformer::createDatatypeFactory);
 
     public F transform(D report) {
         if (report == null) {
             return null;
         }
 
-        return transformReport(unmarshallerReport(report));
+        return transformReport(mapReport(report));
     }
 
+    abstract I mapReport(D report);
+
     abstract F transformReport(I report);
 
-    private I unmarshallerReport(D report) {
+    static XMLGregorianCalendar newXMLGregorianCalendar(String lexicalRepresentation) {
+        return DATATYPE_FACTORY.get().newXMLGregorianCalendar(lexicalRepresentation);
+    }
+
+    /**
+     * JAXB leaves an element unset when its value is not in the enumeration of the SOAP report schema, such as the
+     * certificate qualifications that DSS names differently, so the mappers do the same.
+     */
+    static <E> E enumValue(Function<String, E> fromValue, String value) {
+        try {
+            return fromValue.apply(value);
+        } catch (IllegalArgumentException e) {
+            return null;
+        }
+    }
+
+    /**
+     * DSS list getters create the list on first access, so whether a list was set can only be read from its field.
+     */
+    static Field listField(Class<?> type, String name) {
+        try {
+            Field field = type.getDeclaredField(name);
+            field.setAccessible(true);
+            return field;
+        } catch (NoSuchFieldException e) {
+            throw new IllegalStateException("No list field " + name + " in " + type.getName(), e);
+        }
+    }
+
+    static boolean isSet(Field listField, Object source) {
+        try {
+            return listField.get(source) != null;
+        } catch (IllegalAccessException e) {
+            throw new IllegalStateException("Failed to read list field " + listField.getName(), e);
+        }
+    }
+
+    private static DatatypeFactory createDatatypeFactory() {
         try {
-            Marshaller marshaller = marshallerContext.createMarshaller();
-            marshaller.setProperty(Marshaller.JAXB_FORMATTED_OUTPUT, true);
-            StringWriter writer = new StringWriter();
-            marshaller.marshal(report, writer);
-            String requestString = writer.toString();
-            StringReader reader = new StringReader(requestString);
-            Unmarshaller unmarshaller = unMarshallerContext.createUnmarshaller();
-            return ((JAXBElement<I>) unmarshaller.unmarshal(reader)).getValue();
-        } catch (JAXBException e) {
-            throw new IllegalStateException("Failed to un-marshal report", e);
+            return DatatypeFactory.newInstance();
+        } catch (DatatypeConfigurationException e) {
+            throw new IllegalStateException("Failed to initialize DatatypeFactory", e);
         }
     }
 }
@@ -19,12 +19,12 @@ package ee.openeid.siva.webapp.transformer;
 import ee.openeid.siva.proxy.document.ProxyHashcodeDataSet;
 import ee.openeid.siva.proxy.document.ReportType;
 import ee.openeid.siva.validation.document.Datafile;
+import ee.openeid.siva.validation.document.SignatureFile;
 import ee.openeid.siva.webapp.request.HashcodeValidationRequest;
-import ee.openeid.siva.webapp.request.SignatureFile;
+import ee.openeid.siva.webapp.request.MultipartHashcodeValidationRequest;
 import org.apache.commons.codec.binary.Base64;
 import org.springframework.stereotype.Component;
 
-import java.util.ArrayList;
 import java.util.Collections;
 import java.util.List;
 import java.util.stream.Collectors;
@@ -33,34 +33,42 @@ import java.util.stream.Collectors;
 public class HashcodeValidationRequestToProxyDocumentTransformer {
 
     public ProxyHashcodeDataSet transform(HashcodeValidationRequest hashcodeValidationRequest) {
+        List<SignatureFile> signatureFiles = hashcodeValidationRequest.getSignatureFiles().stream()
+                .map(signatureFile -> createSignatureFile(Base64.decodeBase64(signatureFile.getSignature()), signatureFile.getDatafiles()))
+                .collect(Collectors.toList());
+        return createProxyHashcodeDataSet(hashcodeValidationRequest.getSignaturePolicy(), hashcodeValidationRequest.getReportType(), signatureFiles);
+    }
+
+    public ProxyHashcodeDataSet transform(MultipartHashcodeValidationRequest hashcodeValidationRequest) {
+        List<SignatureFile> signatureFiles = hashcodeValidationRequest.getSignatureFiles().stream()
+                .map(signatureFile -> createSignatureFile(signatureFile.getSignature(), signatureFile.getDatafiles()))
+                .collect(Collectors.toList());
+        return createProxyHashcodeDataSet(hashcodeValidationRequest.getSignaturePolicy(), hashcodeValidationRequest.getReportType(), signatureFiles);
+    }
+
+    private ProxyHashcodeDataSet createProxyHashcodeDataSet(String signaturePolicy, String reportType, List<SignatureFile> signatureFiles) {
         ProxyHashcodeDataSet proxyHashcodeDataSet = new ProxyHashcodeDataSet();
 
-        setReportType(hashcodeValidationRequest, proxyHashcodeDataSet);
-        proxyHashcodeDataSet.setSignaturePolicy(hashcodeValidationRequest.getSignaturePolicy());
-        proxyHashcodeDataSet.setSignatureFiles(mapSignatureFiles(hashcodeValidationRequest.getSignatureFiles()));
+        setReportType(reportType, proxyHashcodeDataSet);
+        proxyHashcodeDataSet.setSignaturePolicy(signaturePolicy);
+        proxyHashcodeDataSet.setSignatureFiles(signatureFiles);
 
         return proxyHashcodeDataSet;
     }
 
-    private void setReportType(HashcodeValidationRequest hashcodeValidationRequest, ProxyHashcodeDataSet proxyHashcodeDataSet) {
-        if (hashcodeValidationRequest.getReportType() != null) {
-            proxyHashcodeDataSet.setReportType(ReportType.reportTypeFromString(hashcodeValidationRequest.getReportType()));
+    private void setReportType(String reportType, ProxyHashcodeDataSet proxyHashcodeDataSet) {
+        if (reportType != null) {
+            proxyHashcodeDataSet.setReportType(ReportType.reportTypeFromString(reportType));
         } else {
             proxyHashcodeDataSet.setReportType(ReportType.SIMPLE);
         }
     }
 
-    private List<ee.openeid.siva.validation.document.SignatureFile> mapSignatureFiles(List<SignatureFile> requestSignatureFiles) {
-        List<ee.openeid.siva.validation.document.SignatureFile> signatureFiles = new ArrayList<>();
-
-        requestSignatureFiles.forEach(requestSignatureFile -> {
-            ee.openeid.siva.validation.document.SignatureFile signatureFile = new ee.openeid.siva.validation.document.SignatureFile();
-            signatureFile.setSignature(Base64.decodeBase64(requestSignatureFile.getSignature()));
-            signatureFile.setDatafiles(mapRequestDatafilesToProxyDocument(requestSignatureFile.getDatafiles()));
-            signatureFiles.add(signatureFile);
-        });
-
-        return signatureFiles;
+    private SignatureFile createSignatureFile(byte[] signature, List<ee.openeid.siva.webapp.request.Datafile> datafiles) {
+        SignatureFile signatureFile = new SignatureFile();
+        signatureFile.setSignature(signature);
+        signatureFile.setDatafiles(mapRequestDatafilesToProxyDocument(datafiles));
+        return signatureFile;
     }
 
     private List<Datafile> mapRequestDatafilesToProxyDocument(List<ee.openeid.siva.webapp.request.Datafile> requestDatafiles) {
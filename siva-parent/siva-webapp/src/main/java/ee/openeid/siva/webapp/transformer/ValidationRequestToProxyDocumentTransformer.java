@@ -19,8 +19,9 @@ package ee.openeid.siva.webapp.transformer;
 import ee.openeid.siva.proxy.document.ProxyDocument;
 import ee.openeid.siva.proxy.document.ReportType;
 import ee.openeid.siva.proxy.document.typeresolver.DocumentTypeResolver;
+import ee.openeid.siva.validation.document.ValidationLevel;
 import ee.openeid.siva.webapp.request.ValidationRequest;
-import org.apache.commons.codec.binary.Base64;
+import org.apache.commons.lang3.StringUtils;
 import org.springframework.stereotype.Component;
 
 @Component
@@ -30,14 +31,21 @@ public class ValidationRequestToProxyDocumentTransformer {
         ProxyDocument proxyDocument = new ProxyDocument();
 
         proxyDocument.setName(validationRequest.getFilename());
-        proxyDocument.setBytes(Base64.decodeBase64(validationRequest.getDocument()));
+        proxyDocument.setBytes(validationRequest.getDocument());
         proxyDocument.setSignaturePolicy(validationRequest.getSignaturePolicy());
 
         setDocumentType(validationRequest, proxyDocument);
         setReportType(validationRequest, proxyDocument);
+        setValidationLevel(validationRequest, proxyDocument);
         return proxyDocument;
     }
 
+    private void setValidationLevel(ValidationRequest validationRequest, ProxyDocument proxyDocument) {
+        if (validationRequest.getValidationLevel() != null) {
+            proxyDocument.setValidationLevel(ValidationLevel.valueOf(StringUtils.upperCase(validationRequest.getValidationLevel())));
+        }
+    }
+
     private void setReportType(ValidationRequest validationRequest, ProxyDocument proxyDocument) {
         if (validationRequest.getReportType() != null) {
             proxyDocument.setReportType(ReportType.reportTypeFromString(validationRequest.getReportType()));
@@ -27,7 +27,7 @@ public class MockValidationRequestBuilder {
 
     public static final String DEFAULT_FILENAME = "filename.pdf";
     public static final String DEFAULT_TYPE = "pdf";
-    public static final String DEFAULT_DOCUMENT = "ABC";
+    public static final byte[] DEFAULT_DOCUMENT = Base64.decodeBase64("ABC");
     public static final String DEFAULT_SIGNATURE_POLICY = null;
     public static final String DEFAULT_REPORT_TYPE = "Simple";
     private MockValidationRequest validationRequest;
@@ -48,6 +48,11 @@ public class MockValidationRequestBuilder {
         return this;
     }
 
+    public MockValidationRequestBuilder withValidationLevel(String validationLevel) {
+        this.validationRequest.validationLevel = validationLevel;
+        return this;
+    }
+
     public MockValidationRequestBuilder withSignaturePolicy(String policy) {
         this.validationRequest.signaturePolicy = policy;
         return this;
@@ -58,13 +63,13 @@ public class MockValidationRequestBuilder {
         return this;
     }
 
-    public MockValidationRequestBuilder withDocument(String document) {
+    public MockValidationRequestBuilder withDocument(byte[] document) {
         this.validationRequest.document = document;
         return this;
     }
 
     public MockValidationRequestBuilder withDocument(Path documentPath) throws IOException {
-        this.validationRequest.document = Base64.encodeBase64String(Files.readAllBytes(documentPath));
+        this.validationRequest.document = Files.readAllBytes(documentPath);
         return this;
     }
 
@@ -74,14 +79,15 @@ public class MockValidationRequestBuilder {
 
     public static class MockValidationRequest implements ValidationRequest {
 
-        private String document = DEFAULT_DOCUMENT;
+        private byte[] document = DEFAULT_DOCUMENT;
         private String filename = DEFAULT_FILENAME;
         private String type = DEFAULT_TYPE;
         private String signaturePolicy = DEFAULT_SIGNATURE_POLICY;
         private String reportType = DEFAULT_REPORT_TYPE;
+        private String validationLevel;
 
         @Override
-        public String getDocument() {
+        public byte[] getDocument() {
             return document;
         }
 
@@ -105,6 +111,11 @@ public class MockValidationRequestBuilder {
             return reportType;
         }
 
+        @Override
+        public String getValidationLevel() {
+            return validationLevel;
+        }
+
         public void setType(String type) {
             this.type = type;
         }
@@ -112,5 +123,9 @@ public class MockValidationRequestBuilder {
         public void setReportType(String reportType) {
             this.reportType = reportType;
         }
+
+        public void setValidationLevel(String validationLevel) {
+            this.validationLevel = validationLevel;
+        }
     }
 }
@@ -23,6 +23,8 @@ import ee.openeid.siva.statistics.StatisticsService;
 import ee.openeid.siva.validation.document.report.SimpleReport;
 import ee.openeid.siva.webapp.request.Datafile;
 import ee.openeid.siva.webapp.request.HashcodeValidationRequest;
+import ee.openeid.siva.webapp.request.MultipartHashcodeValidationRequest;
+import ee.openeid.siva.webapp.request.MultipartSignatureFile;
 import ee.openeid.siva.webapp.request.SignatureFile;
 import ee.openeid.siva.webapp.transformer.HashcodeValidationRequestToProxyDocumentTransformer;
 import org.json.JSONObject;
@@ -32,6 +34,7 @@ import org.junit.runner.RunWith;
 import org.mockito.Mock;
 import org.mockito.runners.MockitoJUnitRunner;
 import org.springframework.http.MediaType;
+import org.springframework.mock.web.MockMultipartFile;
 import org.springframework.test.web.servlet.MockMvc;
 
 import java.util.ArrayList;
@@ -39,6 +42,7 @@ import java.util.Arrays;
 import java.util.List;
 
 import static org.junit.Assert.*;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.fileUpload;
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
 import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
 import static org.springframework.test.web.servlet.setup.MockMvcBuilders.standaloneSetup;
@@ -142,6 +146,40 @@ public class HashcodeValidationControllerTest {
                 .andExpect(status().isBadRequest());
     }
 
+    @Test
+    public void multipartSignatureFilesAreMappedToPOJO() throws Exception {
+        byte[] signature = "<xades/>".getBytes();
+        mockMvc.perform(fileUpload("/validateHashcode")
+                .file(new MockMultipartFile("signatureFiles[0].signature", signature))
+                .param("signatureFiles[0].datafiles[0].filename", "test-name-1")
+                .param("signatureFiles[0].datafiles[0].hashAlgo", "SHA256")
+                .param("signatureFiles[0].datafiles[0].hash", "QVNE")
+                .param("signaturePolicy", "POLv4"))
+                .andExpect(status().isOk());
+        MultipartSignatureFile signatureFile = hashRequestTransformerSpy.multipartValidationRequest.getSignatureFiles().get(0);
+        assertArrayEquals(signature, signatureFile.getSignature());
+        assertEquals(1, signatureFile.getDatafiles().size());
+        assertEquals("test-name-1", signatureFile.getDatafiles().get(0).getFilename());
+        assertEquals("POLv4", hashRequestTransformerSpy.multipartValidationRequest.getSignaturePolicy());
+    }
+
+    @Test
+    public void multipartRequestWithoutSignatureFilesReturnsErroneousResponse() throws Exception {
+        mockMvc.perform(fileUpload("/validateHashcode")
+                .param("signaturePolicy", "POLv4"))
+                .andExpect(status().isBadRequest());
+    }
+
+    @Test
+    public void multipartRequestWithInvalidHashAlgoReturnsErroneousResponse() throws Exception {
+        mockMvc.perform(fileUpload("/validateHashcode")
+                .file(new MockMultipartFile("signatureFiles[0].signature", "<xades/>".getBytes()))
+                .param("signatureFiles[0].datafiles[0].filename", "test")
+                .param("signatureFiles[0].datafiles[0].hashAlgo", "invalid")
+                .param("signatureFiles[0].datafiles[0].hash", "QVNE"))
+                .andExpect(status().isBadRequest());
+    }
+
     private class HashcodeValidationProxySpy extends HashcodeValidationProxy {
         @Override
         public SimpleReport validateRequest(ProxyRequest proxyRequest) {
@@ -152,12 +190,19 @@ public class HashcodeValidationControllerTest {
     private class HashcodeValidationRequestToProxyDocumentTransformerSpy extends HashcodeValidationRequestToProxyDocumentTransformer {
 
         private HashcodeValidationRequest validationRequest;
+        private MultipartHashcodeValidationRequest multipartValidationRequest;
 
         @Override
         public ProxyHashcodeDataSet transform(HashcodeValidationRequest validationRequest) {
             this.validationRequest = validationRequest;
             return super.transform(validationRequest);
         }
+
+        @Override
+        public ProxyHashcodeDataSet transform(MultipartHashcodeValidationRequest validationRequest) {
+            this.multipartValidationRequest = validationRequest;
+            return super.transform(validationRequest);
+        }
     }
 
     private JSONObject hashcodeValidationRequest(List<SignatureFile> signatureFiles) {
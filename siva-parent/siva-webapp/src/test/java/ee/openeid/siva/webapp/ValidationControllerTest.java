@@ -23,6 +23,7 @@ import ee.openeid.siva.statistics.StatisticsService;
 import ee.openeid.siva.validation.document.report.SimpleReport;
 import ee.openeid.siva.webapp.request.ValidationRequest;
 import ee.openeid.siva.webapp.transformer.ValidationRequestToProxyDocumentTransformer;
+import org.apache.commons.codec.binary.Base64;
 import org.json.JSONObject;
 import org.junit.Before;
 import org.junit.Test;
@@ -30,9 +31,12 @@ import org.junit.runner.RunWith;
 import org.mockito.Mock;
 import org.mockito.runners.MockitoJUnitRunner;
 import org.springframework.http.MediaType;
+import org.springframework.mock.web.MockMultipartFile;
 import org.springframework.test.web.servlet.MockMvc;
 
+import static org.junit.Assert.assertArrayEquals;
 import static org.junit.Assert.assertEquals;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.fileUpload;
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
 import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
 import static org.springframework.test.web.servlet.setup.MockMvcBuilders.standaloneSetup;
@@ -62,7 +66,7 @@ public class ValidationControllerTest {
                 .content(validRequest().toString().getBytes())
         );
         assertEquals("filename.asd", transformerSpy.validationRequest.getFilename());
-        assertEquals("QVNE", transformerSpy.validationRequest.getDocument());
+        assertArrayEquals(Base64.decodeBase64("QVNE"), transformerSpy.validationRequest.getDocument());
     }
 
     @Test
@@ -81,6 +85,45 @@ public class ValidationControllerTest {
                 .andExpect(status().isBadRequest());
     }
 
+    @Test
+    public void documentWithoutBase64PaddingIsDecoded() throws Exception {
+        JSONObject request = validRequest();
+        request.put("document", "QVM");
+        mockMvc.perform(post("/validate")
+                .contentType(MediaType.APPLICATION_JSON)
+                .content(request.toString().getBytes()))
+                .andExpect(status().isOk());
+        assertArrayEquals("AS".getBytes(), transformerSpy.validationRequest.getDocument());
+    }
+
+    @Test
+    public void multipartDocumentIsPassedAsBytes() throws Exception {
+        byte[] document = new byte[]{0x50, 0x4b, 0x03, 0x04, (byte) 0xff};
+        mockMvc.perform(fileUpload("/validate")
+                .file(new MockMultipartFile("document", "filename.asd", MediaType.APPLICATION_OCTET_STREAM_VALUE, document))
+                .param("filename", "filename.asd")
+                .param("reportType", "Detailed"))
+                .andExpect(status().isOk());
+        assertArrayEquals(document, transformerSpy.validationRequest.getDocument());
+        assertEquals("filename.asd", transformerSpy.validationRequest.getFilename());
+        assertEquals("Detailed", transformerSpy.validationRequest.getReportType());
+    }
+
+    @Test
+    public void multipartRequestWithoutDocumentReturnsErroneousResponse() throws Exception {
+        mockMvc.perform(fileUpload("/validate")
+                .param("filename", "filename.asd"))
+                .andExpect(status().isBadRequest());
+    }
+
+    @Test
+    public void multipartRequestWithEmptyFilenameReturnsErroneousResponse() throws Exception {
+        mockMvc.perform(fileUpload("/validate")
+                .file(new MockMultipartFile("document", "QVNE".getBytes()))
+                .param("filename", ""))
+                .andExpect(status().isBadRequest());
+    }
+
     @Test
     public void requestWithEmptyDocumentReturnsErroneousResponse() throws Exception {
         mockMvc.perform(post("/validate")
@@ -28,6 +28,7 @@ import ee.openeid.siva.validation.exception.MalformedDocumentException;
 import ee.openeid.siva.validation.exception.MalformedSignatureFileException;
 import ee.openeid.siva.validation.exception.ValidationServiceException;
 import ee.openeid.siva.validation.service.signature.policy.InvalidPolicyException;
+import ee.openeid.siva.validation.service.signature.policy.InvalidValidationLevelException;
 import ee.openeid.siva.webapp.request.Datafile;
 import ee.openeid.siva.webapp.request.SignatureFile;
 import ee.openeid.siva.webapp.transformer.DataFilesRequestToProxyDocumentTransformer;
@@ -46,18 +47,21 @@ import org.springframework.boot.test.context.SpringBootTest;
 import org.springframework.context.MessageSource;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.MediaType;
+import org.springframework.mock.web.MockMultipartFile;
 import org.springframework.test.context.junit4.SpringJUnit4ClassRunner;
 import org.springframework.test.web.servlet.MockMvc;
 import org.springframework.test.web.servlet.MvcResult;
 import org.springframework.test.web.servlet.result.MockMvcResultMatchers;
 import org.springframework.test.web.servlet.setup.MockMvcBuilders;
 
+import java.nio.charset.StandardCharsets;
 import java.util.Arrays;
 import java.util.Collections;
 
 import static org.hamcrest.Matchers.*;
 import static org.mockito.Matchers.any;
 import static org.mockito.Mockito.when;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.fileUpload;
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
 
 @RunWith(SpringJUnit4ClassRunner.class)
@@ -124,6 +128,20 @@ public class ValidationExceptionHandlerTest {
                 .andReturn();
     }
 
+    @Test
+    public void testBindExceptionOnMultipartValidateExceptionHandler() throws Exception {
+        mockMvc.perform(fileUpload(VALIDATE_URL_TEMPLATE)
+                .file(new MockMultipartFile("document", "test".getBytes()))
+                .param("filename", "file.bdoc")
+                .param("reportType", "asd"))
+                .andExpect(MockMvcResultMatchers.status().isBadRequest())
+                .andExpect(MockMvcResultMatchers.content().contentType(MediaType.APPLICATION_JSON_UTF8))
+                .andExpect(MockMvcResultMatchers.jsonPath("$.requestErrors", hasSize(1)))
+                .andExpect(MockMvcResultMatchers.jsonPath("$.requestErrors[0].key", is("reportType")))
+                .andExpect(MockMvcResultMatchers.jsonPath("$.requestErrors[0].message", containsString("Invalid report type")))
+                .andReturn();
+    }
+
     @Test
     public void testMethodArgumentNotValidExceptionOnGetDataFilesExceptionHandler() throws Exception {
         mockMvcDataFiles.perform(post(GET_DATA_FILES_URL_TEMPLATE)
@@ -137,6 +155,29 @@ public class ValidationExceptionHandlerTest {
                 .andReturn();
     }
 
+    @Test
+    public void testInvalidBase64DocumentOnValidationExceptionHandler() throws Exception {
+        JSONObject request = request();
+        request.put("document", "ÖÕ::žšPQ;ÜÜ");
+        MvcResult result = mockMvc.perform(post(VALIDATE_URL_TEMPLATE)
+                .contentType(MediaType.APPLICATION_JSON)
+                .content(request.toString().getBytes(StandardCharsets.UTF_8)))
+                .andExpect(MockMvcResultMatchers.status().isBadRequest())
+                .andReturn();
+
+        String content = result.getResponse().getContentAsString();
+        Assert.assertEquals("{\"requestErrors\":[{\"key\":\"document\",\"message\":\"Document is not encoded in a valid base64 string\"}]}", content);
+    }
+
+    @Test
+    public void testUnreadableJsonIsLeftToDefaultHandling() throws Exception {
+        mockMvc.perform(post(VALIDATE_URL_TEMPLATE)
+                .contentType(MediaType.APPLICATION_JSON)
+                .content("{\"document\":".getBytes()))
+                .andExpect(MockMvcResultMatchers.status().isBadRequest())
+                .andExpect(MockMvcResultMatchers.content().string(""));
+    }
+
     @SuppressWarnings("unchecked")
     @Test
     public void testMalformedDocumentExceptionOnValidationExceptionHandler() throws Exception {
@@ -248,6 +289,20 @@ public class ValidationExceptionHandlerTest {
         Assertions.assertThat(mvcResult.getResponse().getContentAsString()).contains("signaturePolicy");
     }
 
+    @SuppressWarnings("unchecked")
+    @Test
+    public void givenNotAllowedValidationLevelWillReturnErrorJson() throws Exception {
+        when(validationProxy.validate(any(ProxyDocument.class))).thenThrow(InvalidValidationLevelException.class);
+
+        MvcResult mvcResult = mockMvc.perform(post(VALIDATE_URL_TEMPLATE)
+                .contentType(MediaType.APPLICATION_JSON)
+                .content(request().toString().getBytes()))
+                .andExpect(MockMvcResultMatchers.status().isBadRequest())
+                .andReturn();
+
+        Assertions.assertThat(mvcResult.getResponse().getContentAsString()).contains("validationLevel");
+    }
+
     @SuppressWarnings("unchecked")
     @Test
     public void testValidationServiceExceptionOnValidationExceptionHandler() throws Exception {
@@ -19,23 +19,31 @@ package ee.openeid.siva.webapp.interceptor;
 import com.fasterxml.jackson.databind.ObjectMapper;
 import ee.openeid.siva.signature.SignatureService;
 import ee.openeid.siva.validation.document.report.DetailedReport;
+import ee.openeid.siva.validation.document.report.SimpleReport;
 import ee.openeid.siva.validation.document.report.ValidatedDocument;
 import ee.openeid.siva.validation.document.report.ValidationConclusion;
+import ee.openeid.siva.webapp.response.SignedValidationResponse;
 import ee.openeid.siva.webapp.response.ValidationResponse;
 import ee.openeid.siva.validation.configuration.ReportConfigurationProperties;
 import org.apache.commons.codec.binary.Base64;
 import org.junit.Before;
 import org.junit.Test;
 import org.junit.runner.RunWith;
+import org.mockito.ArgumentCaptor;
 import org.mockito.Mock;
 import org.mockito.runners.MockitoJUnitRunner;
 
 import java.io.IOException;
+import java.nio.charset.StandardCharsets;
 import java.util.Date;
 
 import static org.junit.Assert.assertArrayEquals;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertSame;
 import static org.mockito.Matchers.any;
 import static org.mockito.Matchers.anyString;
+import static org.mockito.Matchers.eq;
+import static org.mockito.Mockito.verify;
 import static org.mockito.Mockito.when;
 
 @RunWith(MockitoJUnitRunner.class)
@@ -59,10 +67,29 @@ public class ReportSignatureInterceptorTest {
 
     @Test
     public void test() throws IOException {
-        ValidationResponse validationResponse = (ValidationResponse) reportSignatureInterceptor.beforeBodyWrite(getValidationResponseMock(), null, null, null, null,null);
+        SignedValidationResponse validationResponse = (SignedValidationResponse) reportSignatureInterceptor.beforeBodyWrite(getValidationResponseMock(), null, null, null, null,null);
         assertArrayEquals(getRawSignatureMock(), Base64.decodeBase64(validationResponse.getValidationReportSignature()));
     }
 
+    @Test
+    public void signedReportIsWrittenAsItWasSigned() throws IOException {
+        ValidationResponse validationResponse = getValidationResponseMock();
+        Object signedResponse = reportSignatureInterceptor.beforeBodyWrite(validationResponse, null, null, null, null, null);
+
+        ArgumentCaptor<byte[]> signedBytes = ArgumentCaptor.forClass(byte[].class);
+        verify(signatureService).getSignature(signedBytes.capture(), eq("validationReport.json"), eq("application/json"));
+        String expectedResponse = "{\"validationReport\":" + new String(signedBytes.getValue(), StandardCharsets.UTF_8)
+                + ",\"validationReportSignature\":\"" + Base64.encodeBase64String(getRawSignatureMock()) + "\"}";
+        assertEquals(expectedResponse, new ObjectMapper().writeValueAsString(signedResponse));
+        assertEquals(new ObjectMapper().writeValueAsString(validationResponse.getValidationReport()), new String(signedBytes.getValue(), StandardCharsets.UTF_8));
+    }
+
+    @Test
+    public void simpleReportIsNotSigned() {
+        ValidationResponse validationResponse = new ValidationResponse(new SimpleReport());
+        assertSame(validationResponse, reportSignatureInterceptor.beforeBodyWrite(validationResponse, null, null, null, null, null));
+    }
+
     private ValidationResponse getValidationResponseMock() {
         ValidationResponse validationResponse = new ValidationResponse();
         DetailedReport detailedReport = new DetailedReport();
@@ -0,0 +1,99 @@
+/*
+ * Copyright 2019 Riigi Infosüsteemide Amet
+ *
+ * Licensed under the EUPL, Version 1.1 or – as soon they will be approved by
+ * the European Commission - subsequent versions of the EUPL (the "Licence");
+ * You may not use this work except in compliance with the Licence.
+ * You may obtain a copy of the Licence at:
+ *
+ * https://joinup.ec.europa.eu/software/page/eupl
+ *
+ * Unless required by applicable law or agreed to in writing, software distributed under the Licence is
+ * distributed on an "AS IS" basis,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the Licence for the specific language governing permissions and limitations under the Licence.
+ */
+
+package ee.openeid.siva.webapp.request.deserializer;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import ee.openeid.siva.webapp.request.JSONValidationRequest;
+import org.apache.commons.codec.binary.Base64;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.ExpectedException;
+
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.util.Random;
+
+import static org.junit.Assert.assertArrayEquals;
+import static org.junit.Assert.assertNull;
+
+public class Base64DocumentDeserializerTest {
+
+    private final ObjectMapper objectMapper = new ObjectMapper();
+
+    @Rule
+    public ExpectedException expectedException = ExpectedException.none();
+
+    @Test
+    public void paddedDocumentIsDecoded() throws Exception {
+        assertArrayEquals("ASD".getBytes(), readDocument("QVNE"));
+        assertArrayEquals("AS".getBytes(), readDocument("QVM="));
+    }
+
+    @Test
+    public void documentWithoutPaddingIsDecoded() throws Exception {
+        assertArrayEquals("AS".getBytes(), readDocument("QVM"));
+    }
+
+    @Test
+    public void lineBreaksBetweenEncodedBlocksAreIgnored() throws Exception {
+        byte[] content = new byte[1000];
+        new Random(1).nextBytes(content);
+        String chunked = new String(Base64.encodeBase64Chunked(content), StandardCharsets.US_ASCII);
+
+        assertArrayEquals(content, readDocument(chunked.replace("\r\n", "\\r\\n")));
+    }
+
+    @Test
+    public void largeDocumentIsDecodedFromStream() throws Exception {
+        byte[] content = new byte[3 * 1024 * 1024 + 1];
+        new Random(1).nextBytes(content);
+        String json = "{\"filename\":\"file.bdoc\",\"document\":\"" + Base64.encodeBase64String(content) + "\"}";
+
+        JSONValidationRequest request = objectMapper.readValue(new ByteArrayInputStream(json.getBytes(StandardCharsets.US_ASCII)), JSONValidationRequest.class);
+        assertArrayEquals(content, request.getDocument());
+    }
+
+    @Test
+    public void nullDocumentIsLeftForBeanValidation() throws Exception {
+        JSONValidationRequest request = objectMapper.readValue("{\"document\":null}", JSONValidationRequest.class);
+        assertNull(request.getDocument());
+    }
+
+    @Test
+    public void illegalBase64CharacterThrowsInvalidBase64Exception() throws Exception {
+        expectedException.expect(InvalidBase64Exception.class);
+        readDocument("ÖÕ::žšPQ;ÜÜ");
+    }
+
+    @Test
+    public void misalignedPaddingThrowsInvalidBase64Exception() throws Exception {
+        expectedException.expect(InvalidBase64Exception.class);
+        readDocument("aQVM=");
+    }
+
+    @Test
+    public void nonStringDocumentIsRejected() throws Exception {
+        expectedException.expect(IOException.class);
+        objectMapper.readValue("{\"document\":{}}", JSONValidationRequest.class);
+    }
+
+    private byte[] readDocument(String base64) throws IOException {
+        String json = "{\"document\":\"" + base64 + "\"}";
+        return objectMapper.readValue(json.getBytes(StandardCharsets.UTF_8), JSONValidationRequest.class).getDocument();
+    }
+}
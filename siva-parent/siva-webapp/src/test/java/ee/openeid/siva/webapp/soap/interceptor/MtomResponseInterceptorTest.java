@@ -0,0 +1,65 @@
+/*
+ * Copyright 2019 Riigi Infosüsteemide Amet
+ *
+ * Licensed under the EUPL, Version 1.1 or – as soon they will be approved by
+ * the European Commission - subsequent versions of the EUPL (the "Licence");
+ * You may not use this work except in compliance with the Licence.
+ * You may obtain a copy of the Licence at:
+ *
+ * https://joinup.ec.europa.eu/software/page/eupl
+ *
+ * Unless required by applicable law or agreed to in writing, software distributed under the Licence is
+ * distributed on an "AS IS" basis,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the Licence for the specific language governing permissions and limitations under the Licence.
+ */
+
+package ee.openeid.siva.webapp.soap.interceptor;
+
+import org.apache.cxf.binding.soap.SoapMessage;
+import org.apache.cxf.message.Exchange;
+import org.apache.cxf.message.Message;
+import org.junit.Before;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.mockito.Mock;
+import org.mockito.runners.MockitoJUnitRunner;
+
+import static org.mockito.Mockito.doReturn;
+import static org.mockito.Mockito.verify;
+
+@RunWith(MockitoJUnitRunner.class)
+public class MtomResponseInterceptorTest {
+
+    @Mock
+    private SoapMessage requestMessage;
+
+    @Mock
+    private SoapMessage responseMessage;
+
+    @Mock
+    private Exchange exchange;
+
+    private MtomResponseInterceptor mtomResponseInterceptor = new MtomResponseInterceptor();
+
+    @Before
+    public void setUp() {
+        doReturn(exchange).when(responseMessage).getExchange();
+        doReturn(requestMessage).when(exchange).getInMessage();
+    }
+
+    @Test
+    public void whenRequestIsMtomMessageThenMtomIsEnabledForResponse() {
+        doReturn("multipart/related; type=\"application/xop+xml\"; boundary=\"uuid:123\"; start-info=\"text/xml\"")
+                .when(requestMessage).get(Message.CONTENT_TYPE);
+        mtomResponseInterceptor.handleMessage(responseMessage);
+        verify(responseMessage).put(Message.MTOM_ENABLED, true);
+    }
+
+    @Test
+    public void whenRequestIsPlainSoapMessageThenMtomIsDisabledForResponse() {
+        doReturn("text/xml;charset=UTF-8").when(requestMessage).get(Message.CONTENT_TYPE);
+        mtomResponseInterceptor.handleMessage(responseMessage);
+        verify(responseMessage).put(Message.MTOM_ENABLED, false);
+    }
+}
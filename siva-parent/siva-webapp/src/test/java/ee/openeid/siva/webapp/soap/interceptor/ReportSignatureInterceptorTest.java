@@ -24,6 +24,7 @@ import org.apache.cxf.message.Exchange;
 import org.junit.Before;
 import org.junit.Test;
 import org.junit.runner.RunWith;
+import org.mockito.ArgumentCaptor;
 import org.mockito.Mock;
 import org.mockito.runners.MockitoJUnitRunner;
 
@@ -31,8 +32,11 @@ import javax.xml.soap.MessageFactory;
 import javax.xml.soap.SOAPMessage;
 import java.io.ByteArrayInputStream;
 import java.io.ByteArrayOutputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.List;
 
 import static junit.framework.TestCase.assertFalse;
+import static org.junit.Assert.assertArrayEquals;
 import static org.junit.Assert.assertTrue;
 import static org.mockito.Matchers.*;
 import static org.mockito.Mockito.*;
@@ -43,9 +47,6 @@ public class ReportSignatureInterceptorTest {
     @Mock
     private SoapMessage message;
 
-    @Mock
-    private SoapMessage responseMessage;
-
     @Mock
     private Exchange exchange;
 
@@ -76,6 +77,22 @@ public class ReportSignatureInterceptorTest {
         assertTrue(new String(stream.toByteArray()).contains(Base64.encodeBase64String(getRawSignatureMock())));
     }
 
+    @Test
+    public void signedContentIsValidationReportWithoutXmlDeclaration() throws Exception {
+        mockSoapMessage("Detailed");
+        reportSignatureInterceptor.handleMessage(message);
+        mockSoapMessage("Detailed");
+        reportSignatureInterceptor.handleMessage(message);
+
+        ArgumentCaptor<byte[]> signedContent = ArgumentCaptor.forClass(byte[].class);
+        verify(signatureService, times(2)).getSignature(signedContent.capture(), eq("validationReport.xml"), eq("application/xml"));
+        List<byte[]> signedContents = signedContent.getAllValues();
+        String validationReport = new String(signedContents.get(0), StandardCharsets.UTF_8);
+        assertTrue(validationReport.startsWith("<ns2:ValidationReport"));
+        assertTrue(validationReport.endsWith("</ns2:ValidationReport>"));
+        assertArrayEquals(signedContents.get(0), signedContents.get(1));
+    }
+
     @Test
     public void whenSimpleReportTypeInRequest_thenReportSignatureIsNotAdded() throws Exception {
         mockSoapMessage("Simple");
@@ -106,27 +123,9 @@ public class ReportSignatureInterceptorTest {
         doReturn(responseSoapMessage).when(message).getContent(SOAPMessage.class);
     }
 
-    private void mockSoapRequestMessage(String reportType) throws Exception {
+    private void mockSoapRequestMessage(String reportType) {
         doReturn(exchange).when(message).getExchange();
-        doReturn(responseMessage).when(exchange).getInMessage();
-        SOAPMessage requestSoapMessage = MessageFactory.newInstance("SOAP 1.1 Protocol").createMessage(null, new ByteArrayInputStream(getSoapRequestMessageMock(reportType).getBytes()));
-        doReturn(requestSoapMessage).when(responseMessage).getContent(SOAPMessage.class);
-
-    }
-
-    private String getSoapRequestMessageMock(String reportType) {
-        return "<soapenv:Envelope xmlns:soapenv=\"http://schemas.xmlsoap.org/soap/envelope/\" xmlns:soap=\"http://soap.webapp.siva.openeid.ee/\">" +
-                  "<soapenv:Header/>" +
-                  "<soapenv:Body>" +
-                     "<soap:ValidateDocument>" +
-                        "<soap:ValidationRequest>" +
-                           "<Document>dGVzdA==</Document>" +
-                           "<Filename>test.asice</Filename>" +
-                           "<ReportType>" + reportType + "</ReportType>" +
-                        "</soap:ValidationRequest>" +
-                     "</soap:ValidateDocument>" +
-                  "</soapenv:Body>" +
-               "</soapenv:Envelope>";
+        doReturn(reportType).when(exchange).get(AbstractRequestValidationInterceptor.REPORT_TYPE_KEY);
     }
 
     private String getSoapResponseMessageMock() {
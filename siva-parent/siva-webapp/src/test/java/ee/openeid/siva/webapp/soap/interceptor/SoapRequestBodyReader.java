@@ -0,0 +1,85 @@
+/*
+ * Copyright 2019 Riigi Infosüsteemide Amet
+ *
+ * Licensed under the EUPL, Version 1.1 or – as soon they will be approved by
+ * the European Commission - subsequent versions of the EUPL (the "Licence");
+ * You may not use this work except in compliance with the Licence.
+ * You may obtain a copy of the Licence at:
+ *
+ * https://joinup.ec.europa.eu/software/page/eupl
+ *
+ * Unless required by applicable law or agreed to in writing, software distributed under the Licence is
+ * distributed on an "AS IS" basis,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the Licence for the specific language governing permissions and limitations under the Licence.
+ */
+
+package ee.openeid.siva.webapp.soap.interceptor;
+
+import org.apache.cxf.binding.soap.SoapMessage;
+import org.mockito.ArgumentCaptor;
+
+import javax.xml.stream.XMLInputFactory;
+import javax.xml.stream.XMLStreamException;
+import javax.xml.stream.XMLStreamReader;
+import java.io.StringReader;
+import java.util.HashMap;
+import java.util.Map;
+
+import static org.mockito.Mockito.doReturn;
+import static org.mockito.Mockito.verify;
+
+/**
+ * Reads SOAP request bodies through the request validation interceptors the same way CXF does when
+ * unmarshalling the request.
+ */
+class SoapRequestBodyReader {
+
+    private static final String SOAP_ENVELOPE = "<soapenv:Envelope xmlns:soapenv=\"http://schemas.xmlsoap.org/soap/envelope/\" "
+            + "xmlns:soap=\"http://soap.webapp.siva.openeid.ee/\"><soapenv:Header/><soapenv:Body>%s</soapenv:Body></soapenv:Envelope>";
+
+    private SoapRequestBodyReader() {
+    }
+
+    static final String XOP_INCLUDE = "<xop:Include xmlns:xop=\"http://www.w3.org/2004/08/xop/include\" href=\"cid:document\"/>";
+
+    static String element(String localName, String value) {
+        return value == null ? "<" + localName + "/>" : "<" + localName + ">" + value + "</" + localName + ">";
+    }
+
+    /**
+     * Passes the request body through the interceptor and reads it to the end.
+     *
+     * @return texts of the request elements as seen by the unmarshaller, by element local name
+     */
+    static Map<String, String> readRequest(AbstractRequestValidationInterceptor interceptor, SoapMessage message, String body) throws XMLStreamException {
+        doReturn(bodyReader(body)).when(message).getContent(XMLStreamReader.class);
+        interceptor.handleMessage(message);
+
+        ArgumentCaptor<Object> captor = ArgumentCaptor.forClass(Object.class);
+        verify(message).setContent(org.mockito.Matchers.eq(XMLStreamReader.class), captor.capture());
+        XMLStreamReader reader = (XMLStreamReader) captor.getValue();
+
+        Map<String, String> texts = new HashMap<>();
+        String localName = reader.getLocalName();
+        while (reader.hasNext()) {
+            int event = reader.next();
+            if (event == XMLStreamReader.START_ELEMENT) {
+                localName = reader.getLocalName();
+            } else if (event == XMLStreamReader.CHARACTERS) {
+                String text = new String(reader.getTextCharacters(), reader.getTextStart(), reader.getTextLength());
+                texts.merge(localName, text, String::concat);
+            }
+        }
+        return texts;
+    }
+
+    private static XMLStreamReader bodyReader(String body) throws XMLStreamException {
+        XMLStreamReader reader = XMLInputFactory.newInstance().createXMLStreamReader(new StringReader(String.format(SOAP_ENVELOPE, body)));
+        while (!(reader.isStartElement() && "Body".equals(reader.getLocalName()))) {
+            reader.next();
+        }
+        reader.nextTag();
+        return reader;
+    }
+}
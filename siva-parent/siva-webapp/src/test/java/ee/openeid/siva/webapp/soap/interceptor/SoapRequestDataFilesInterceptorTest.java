@@ -17,23 +17,17 @@
 package ee.openeid.siva.webapp.soap.interceptor;
 
 import org.apache.cxf.binding.soap.SoapMessage;
-import org.apache.cxf.binding.soap.interceptor.SoapInterceptor;
 import org.apache.cxf.interceptor.Fault;
-import org.junit.Before;
 import org.junit.Test;
 import org.junit.runner.RunWith;
-import org.mockito.InjectMocks;
 import org.mockito.Mock;
 import org.mockito.runners.MockitoJUnitRunner;
-import org.w3c.dom.Node;
-import org.w3c.dom.NodeList;
 
-import javax.xml.soap.SOAPBody;
-import javax.xml.soap.SOAPEnvelope;
-import javax.xml.soap.SOAPException;
-import javax.xml.soap.SOAPMessage;
-import javax.xml.soap.SOAPPart;
+import javax.xml.stream.XMLStreamException;
 
+import static ee.openeid.siva.webapp.soap.interceptor.SoapRequestBodyReader.XOP_INCLUDE;
+import static ee.openeid.siva.webapp.soap.interceptor.SoapRequestBodyReader.element;
+import static ee.openeid.siva.webapp.soap.interceptor.SoapRequestBodyReader.readRequest;
 import static org.junit.Assert.*;
 import static org.mockito.Matchers.any;
 import static org.mockito.Mockito.*;
@@ -49,55 +43,43 @@ public class SoapRequestDataFilesInterceptorTest {
 
     @Mock
     private SoapMessage message;
-    @Mock
-    private SOAPMessage soapMessage;
-    @Mock
-    private SOAPPart soapPart;
-    @Mock
-    private SOAPEnvelope envelope;
-    @Mock
-    private SOAPBody body;
-    @Mock
-    private Node documentNode;
-    @Mock
-    private Node documentTypeNode;
 
-    @Mock
-    private SoapInterceptor mockSaajIn;
-
-    @InjectMocks
     private SoapRequestDataFilesInterceptor dataFilesInterceptor = new SoapRequestDataFilesInterceptor();
 
-    @Before
-    public void setUp() {
-        doNothing().when(mockSaajIn).handleMessage(any());
-    }
-
     @Test
     public void whenSoapMessageIsNullThenFaultIsThrownWithInvalidRequestMessage() {
         doReturn(null).when(message).getContent(any());
-        Fault soapFault = handleMessageInInterceptor(message);
+        Fault soapFault = handleMessageInInterceptor(null);
         assertFaultWithExpectedMessage(soapFault, INVALID_REQUEST);
     }
 
     @Test
-    public void whenDocumentTypeIsInvalidThenFaultIsThrownWithInvalidDocumentTypeMessage() throws SOAPException {
-        mockSoapMessage("AABBBAA", "test.bdoc");
-        Fault soapFault = handleMessageInInterceptor(message);
+    public void whenDocumentTypeIsInvalidThenFaultIsThrownWithInvalidDocumentTypeMessage() {
+        Fault soapFault = handleMessageInInterceptor(request("AABBBAA", "test.bdoc"));
+        assertFaultWithExpectedMessage(soapFault, INVALID_FILE_NAME);
+    }
+
+    @Test
+    public void whenFilenameIsMissingThenFaultIsThrownWithInvalidDocumentTypeMessage() {
+        Fault soapFault = handleMessageInInterceptor(request("AABBBAA", null).replace("<Filename/>", ""));
         assertFaultWithExpectedMessage(soapFault, INVALID_FILE_NAME);
     }
 
     @Test
-    public void whenDocumentIsInvalidThenFaultIsThrownWithInvalidDocumentMessage() throws SOAPException {
-        mockSoapMessage("ÖÄÜ", "test.ddoc");
-        Fault soapFault = handleMessageInInterceptor(message);
+    public void whenDocumentIsInvalidThenFaultIsThrownWithInvalidDocumentMessage() {
+        Fault soapFault = handleMessageInInterceptor(request("ÖÄÜ", "test.ddoc"));
         assertFaultWithExpectedMessage(soapFault, INVALID_BASE64);
     }
 
     @Test
-    public void noSoapFaultIsThrownWithValidRequest() throws SOAPException {
-        mockSoapMessage("AABBBAA", "test.ddoc");
-        Fault soapFault = handleMessageInInterceptor(message);
+    public void noSoapFaultIsThrownWithMtomAttachmentDocument() {
+        Fault soapFault = handleMessageInInterceptor(request(XOP_INCLUDE, "test.ddoc"));
+        assertNull(soapFault);
+    }
+
+    @Test
+    public void noSoapFaultIsThrownWithValidRequest() {
+        Fault soapFault = handleMessageInInterceptor(request("AABBBAA", "test.ddoc"));
         assertNull(soapFault);
     }
 
@@ -108,35 +90,24 @@ public class SoapRequestDataFilesInterceptorTest {
         assertEquals(message, soapFault.getMessage());
     }
 
-    private void mockSoapMessage(String document, String filename) throws SOAPException {
-        doReturn(body).when(envelope).getBody();
-        doReturn(envelope).when(soapPart).getEnvelope();
-        doReturn(soapPart).when(soapMessage).getSOAPPart();
-        doReturn(soapMessage).when(message).getContent(SOAPMessage.class);
-        mockDocumentNode(document);
-        mockFilenameNode(filename);
-    }
-
-    private void mockDocumentNode(String document) {
-        mockNode(documentNode, "Document", document);
-    }
-
-    private void mockFilenameNode(String filename) {
-        mockNode(documentTypeNode, "Filename", filename);
-    }
-
-    private void mockNode(Node node, String tagName, String value) {
-        NodeList nodeList = new SoapRequestValidationInterceptorTest.MockNodeList(node);
-        doReturn(node).when(node).getFirstChild();
-        doReturn(value).when(node).getNodeValue();
-        doReturn(nodeList).when(body).getElementsByTagName(tagName);
+    private static String request(String document, String filename) {
+        return "<soap:GetDocumentDataFiles><soap:DataFilesRequest>"
+                + element("Document", document)
+                + element("Filename", filename)
+                + "</soap:DataFilesRequest></soap:GetDocumentDataFiles>";
     }
 
-    private Fault handleMessageInInterceptor(SoapMessage soapMessage) {
+    private Fault handleMessageInInterceptor(String body) {
         try {
-            dataFilesInterceptor.handleMessage(soapMessage);
+            if (body == null) {
+                dataFilesInterceptor.handleMessage(message);
+            } else {
+                readRequest(dataFilesInterceptor, message, body);
+            }
         } catch (Fault soapFault) {
             return soapFault;
+        } catch (XMLStreamException e) {
+            throw new IllegalStateException(e);
         }
         return null;
     }
@@ -0,0 +1,156 @@
+/*
+ * Copyright 2019 Riigi Infosüsteemide Amet
+ *
+ * Licensed under the EUPL, Version 1.1 or – as soon they will be approved by
+ * the European Commission - subsequent versions of the EUPL (the "Licence");
+ * You may not use this work except in compliance with the Licence.
+ * You may obtain a copy of the Licence at:
+ *
+ * https://joinup.ec.europa.eu/software/page/eupl
+ *
+ * Unless required by applicable law or agreed to in writing, software distributed under the Licence is
+ * distributed on an "AS IS" basis,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the Licence for the specific language governing permissions and limitations under the Licence.
+ */
+
+package ee.openeid.siva.webapp.soap.interceptor;
+
+import ee.openeid.siva.proxy.ContainerValidationProxy;
+import ee.openeid.siva.proxy.ProxyRequest;
+import ee.openeid.siva.proxy.document.ProxyDocument;
+import ee.openeid.siva.validation.document.report.SimpleReport;
+import ee.openeid.siva.webapp.soap.SoapValidationRequest;
+import ee.openeid.siva.webapp.soap.impl.ValidationWebServiceImpl;
+import ee.openeid.siva.webapp.soap.response.ValidationReport;
+import ee.openeid.siva.webapp.soap.transformer.SoapValidationRequestToProxyDocumentTransformer;
+import ee.openeid.siva.webapp.soap.transformer.ValidationReportSoapResponseTransformer;
+import org.apache.cxf.Bus;
+import org.apache.cxf.BusFactory;
+import org.apache.cxf.jaxws.EndpointImpl;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+import javax.xml.namespace.QName;
+import javax.xml.transform.Source;
+import javax.xml.transform.stream.StreamSource;
+import javax.xml.ws.Dispatch;
+import javax.xml.ws.Service;
+import javax.xml.ws.soap.SOAPBinding;
+import javax.xml.ws.soap.SOAPFaultException;
+import java.io.StringReader;
+
+import static ee.openeid.siva.webapp.soap.interceptor.SoapRequestBodyReader.element;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.fail;
+import static org.mockito.Matchers.any;
+import static org.mockito.Mockito.doReturn;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.verifyZeroInteractions;
+
+/**
+ * Sends requests through a validation endpoint published on the CXF local transport, so the request validation
+ * faults are checked as they come out of the JAXB unmarshalling of a real endpoint.
+ */
+public class SoapRequestValidationEndpointTest {
+
+    private static final String SIVA_SERVICE_NAMESPACE = "http://soap.webapp.siva.openeid.ee/";
+    private static final QName SERVICE_NAME = new QName(SIVA_SERVICE_NAMESPACE, "ValidationWebServiceService");
+    private static final QName PORT_NAME = new QName(SIVA_SERVICE_NAMESPACE, "ValidationWebServiceImplPort");
+    private static final String ADDRESS = "local://validationWebService";
+    private static final String SOAP_ENVELOPE = "<soapenv:Envelope xmlns:soapenv=\"http://schemas.xmlsoap.org/soap/envelope/\" "
+            + "xmlns:soap=\"http://soap.webapp.siva.openeid.ee/\"><soapenv:Header/><soapenv:Body>%s</soapenv:Body></soapenv:Envelope>";
+
+    private static final String EXPECTED_FAULT_CODE = "Client";
+    private static final String INVALID_BASE64 = "Document is not encoded in a valid base64 string";
+    private static final String INVALID_FILENAME = "Invalid filename";
+    private static final String INVALID_DOCUMENTTYPE = "Invalid document type";
+
+    private ContainerValidationProxy validationProxy = mock(ContainerValidationProxy.class);
+    private Bus bus;
+    private EndpointImpl endpoint;
+
+    @Before
+    public void publishEndpoint() {
+        SoapValidationRequestToProxyDocumentTransformer requestTransformer = mock(SoapValidationRequestToProxyDocumentTransformer.class);
+        ValidationReportSoapResponseTransformer responseTransformer = mock(ValidationReportSoapResponseTransformer.class);
+        doReturn(new ProxyDocument()).when(requestTransformer).transform(any(SoapValidationRequest.class));
+        doReturn(new SimpleReport()).when(validationProxy).validate(any(ProxyRequest.class));
+        doReturn(new ValidationReport()).when(responseTransformer).toSoapResponse(any(SimpleReport.class));
+
+        ValidationWebServiceImpl validationWebService = new ValidationWebServiceImpl();
+        validationWebService.setValidationProxy(validationProxy);
+        validationWebService.setRequestTransformer(requestTransformer);
+        validationWebService.setResponseTransformer(responseTransformer);
+
+        bus = BusFactory.newInstance().createBus();
+        BusFactory.setThreadDefaultBus(bus);
+        endpoint = new EndpointImpl(bus, validationWebService);
+        endpoint.setWsdlLocation("wsdl/siva.wsdl");
+        endpoint.setServiceName(SERVICE_NAME);
+        endpoint.getInInterceptors().add(new SoapRequestValidationInterceptor());
+        endpoint.publish(ADDRESS);
+    }
+
+    @After
+    public void stopEndpoint() {
+        endpoint.stop();
+        bus.shutdown(true);
+        BusFactory.setThreadDefaultBus(null);
+    }
+
+    @Test
+    public void invalidBase64DocumentIsAnsweredWithClientFault() {
+        assertClientFault(request("filename", "ÖÄÜ", "XROAD", "AA"), INVALID_BASE64);
+        verifyZeroInteractions(validationProxy);
+    }
+
+    @Test
+    public void emptyFilenameIsAnsweredWithClientFault() {
+        assertClientFault(request(" ", "c2Q=", "XROAD", "AA"), INVALID_FILENAME);
+        verifyZeroInteractions(validationProxy);
+    }
+
+    @Test
+    public void invalidDocumentTypeIsAnsweredWithClientFault() {
+        assertClientFault(request("filename", "c2Q=", "BDOC", "AA"), INVALID_DOCUMENTTYPE);
+        verifyZeroInteractions(validationProxy);
+    }
+
+    @Test
+    public void validRequestIsPassedToWebService() {
+        createDispatch().invoke(envelope(request("filename", "c2Q=", "XROAD", "AA")));
+        verify(validationProxy).validate(any(ProxyRequest.class));
+    }
+
+    private void assertClientFault(String body, String expectedMessage) {
+        try {
+            createDispatch().invoke(envelope(body));
+            fail("SOAP fault expected");
+        } catch (SOAPFaultException e) {
+            assertEquals(EXPECTED_FAULT_CODE, e.getFault().getFaultCodeAsQName().getLocalPart());
+            assertEquals(expectedMessage, e.getFault().getFaultString());
+        }
+    }
+
+    private Dispatch<Source> createDispatch() {
+        Service service = Service.create(SERVICE_NAME);
+        service.addPort(PORT_NAME, SOAPBinding.SOAP11HTTP_BINDING, ADDRESS);
+        return service.createDispatch(PORT_NAME, Source.class, Service.Mode.MESSAGE);
+    }
+
+    private static Source envelope(String body) {
+        return new StreamSource(new StringReader(String.format(SOAP_ENVELOPE, body)));
+    }
+
+    private static String request(String filename, String document, String documentType, String policy) {
+        return "<soap:ValidateDocument><soap:ValidationRequest>"
+                + element("Document", document)
+                + element("Filename", filename)
+                + element("DocumentType", documentType)
+                + element("SignaturePolicy", policy)
+                + "</soap:ValidationRequest></soap:ValidateDocument>";
+    }
+}
@@ -18,30 +18,25 @@ package ee.openeid.siva.webapp.soap.interceptor;
 
 import ee.openeid.siva.proxy.document.DocumentType;
 import org.apache.cxf.binding.soap.SoapMessage;
-import org.apache.cxf.binding.soap.interceptor.SoapInterceptor;
 import org.apache.cxf.interceptor.Fault;
-import org.junit.Before;
+import org.apache.cxf.message.Exchange;
 import org.junit.Test;
 import org.junit.runner.RunWith;
-import org.mockito.InjectMocks;
 import org.mockito.Mock;
 import org.mockito.runners.MockitoJUnitRunner;
-import org.w3c.dom.Node;
-import org.w3c.dom.NodeList;
 
-import javax.xml.soap.SOAPBody;
-import javax.xml.soap.SOAPEnvelope;
-import javax.xml.soap.SOAPException;
-import javax.xml.soap.SOAPMessage;
-import javax.xml.soap.SOAPPart;
+import javax.xml.stream.XMLStreamException;
 
+import static ee.openeid.siva.webapp.soap.interceptor.SoapRequestBodyReader.XOP_INCLUDE;
+import static ee.openeid.siva.webapp.soap.interceptor.SoapRequestBodyReader.element;
+import static ee.openeid.siva.webapp.soap.interceptor.SoapRequestBodyReader.readRequest;
 import static org.junit.Assert.assertEquals;
 import static org.junit.Assert.assertNotNull;
 import static org.junit.Assert.assertNull;
 import static org.junit.Assert.assertTrue;
 import static org.mockito.Matchers.any;
-import static org.mockito.Mockito.doNothing;
 import static org.mockito.Mockito.doReturn;
+import static org.mockito.Mockito.verify;
 
 @RunWith(MockitoJUnitRunner.class)
 public class SoapRequestValidationInterceptorTest {
@@ -50,104 +45,119 @@ public class SoapRequestValidationInterceptorTest {
     private static final int EXPECTED_STATUS_CODE = 400;
     private static final String EXPECTED_FAULT_CODE = "Client";
     private static final String INVALID_BASE64 = "Document is not encoded in a valid base64 string";
+    private static final String INVALID_FILENAME = "Invalid filename";
     private static final String INVALID_POLICY = "Invalid signature policy";
     private static final String INVALID_DOCUMENTTYPE = "Invalid document type";
+    private static final String INVALID_VALIDATION_LEVEL = "Invalid validation level";
 
     @Mock
     private SoapMessage message;
-    @Mock
-    private SOAPMessage soapMessage;
-    @Mock
-    private SOAPPart soapPart;
-    @Mock
-    private SOAPEnvelope envelope;
-    @Mock
-    private SOAPBody body;
-    @Mock
-    private Node filenameNode;
-    @Mock
-    private Node documentNode;
-    @Mock
-    private Node documentTypeNode;
-    @Mock
-    private Node policyNode;
-    private NodeList filenameNodeList;
-    private NodeList documentNodeList;
-    private NodeList documentTypeNodeList;
-    private NodeList policyNodeList;
 
     @Mock
-    private SoapInterceptor mockSaajIn;
+    private Exchange exchange;
 
-    @InjectMocks
     private SoapRequestValidationInterceptor validationInterceptor = new SoapRequestValidationInterceptor();
 
-    @Before
-    public void setUp() {
-        doNothing().when(mockSaajIn).handleMessage(any());
-    }
-
     @Test
     public void whenSoapMessageIsNullThenFaultIsThrownWithInvalidRequestMessage() {
-        mockNullReturningSoapMessage();
-        Fault soapFault = handleMessageInInterceptor(message);
+        doReturn(null).when(message).getContent(any());
+        Fault soapFault = handleMessageInInterceptor(null);
         assertFaultWithExpectedMessage(soapFault, INVALID_REQUEST);
     }
 
     @Test
-    public void whenDocumentIsInvalidThenFaultIsThrownWithInvalidDocumentMessage() throws SOAPException {
-        mockSoapMessage("filename", "ÖÄÜ", "BDOC", "AA");
-        Fault soapFault = handleMessageInInterceptor(message);
+    public void whenDocumentIsInvalidThenFaultIsThrownWithInvalidDocumentMessage() {
+        Fault soapFault = handleMessageInInterceptor(request("filename", "ÖÄÜ", "BDOC", "AA"));
         assertFaultWithExpectedMessage(soapFault, INVALID_BASE64);
     }
 
     @Test
-    public void whenDocumentTypeIsInvalidThenFaultIsThrownWithInvalidPolicyMessage() throws SOAPException {
-        mockSoapMessage("filename", "AABBBAA", "BLAH", ";:::;;");
-        Fault soapFault = handleMessageInInterceptor(message);
+    public void whenDocumentIsMissingThenFaultIsThrownWithInvalidDocumentMessage() {
+        Fault soapFault = handleMessageInInterceptor(request("filename", null, "XROAD", "AA").replace("<Document/>", ""));
+        assertFaultWithExpectedMessage(soapFault, INVALID_BASE64);
+    }
+
+    @Test
+    public void whenFilenameIsEmptyThenFaultIsThrownWithInvalidFilenameMessage() {
+        Fault soapFault = handleMessageInInterceptor(request(" ", "c2Q=", "XROAD", "AA"));
+        assertFaultWithExpectedMessage(soapFault, INVALID_FILENAME);
+    }
+
+    @Test
+    public void whenDocumentTypeIsInvalidThenFaultIsThrownWithInvalidPolicyMessage() {
+        Fault soapFault = handleMessageInInterceptor(request("filename", "AABBBAA", "BLAH", ";:::;;"));
         assertFaultWithExpectedMessage(soapFault, INVALID_DOCUMENTTYPE);
     }
 
     @Test
-    public void whenPolicyIsInvalidThenFaultIsThrownWithInvalidPolicyMessage() throws SOAPException {
-        mockSoapMessage("filename", "AABBBAA", "XROAD", ";:::;;");
-        Fault soapFault = handleMessageInInterceptor(message);
+    public void whenPolicyIsInvalidThenFaultIsThrownWithInvalidPolicyMessage() {
+        Fault soapFault = handleMessageInInterceptor(request("filename", "AABBBAA", "XROAD", ";:::;;"));
         assertFaultWithExpectedMessage(soapFault, INVALID_POLICY);
     }
 
     @Test
-    public void noSoapFaultIsThrownWithValidRequest() throws SOAPException {
-        mockSoapMessage("filename", "c2Q=", "XROAD", "AA");
-        Fault soapFault = handleMessageInInterceptor(message);
+    public void noSoapFaultIsThrownWithValidRequest() {
+        Fault soapFault = handleMessageInInterceptor(request("filename", "c2Q=", "XROAD", "AA"));
+        assertNull(soapFault);
+    }
+
+    @Test
+    public void noSoapFaultIsThrownWithMtomAttachmentDocument() {
+        Fault soapFault = handleMessageInInterceptor(request("filename", XOP_INCLUDE, "XROAD", "AA"));
         assertNull(soapFault);
     }
 
     @Test
-    public void documentTypeBDOCThrowsInvalidDocumentTypeFault() throws SOAPException {
-        mockSoapMessage("filename", "c2Q=", DocumentType.BDOC.name(), "AA");
-        Fault soapFault = handleMessageInInterceptor(message);
+    public void documentTypeBDOCThrowsInvalidDocumentTypeFault() {
+        Fault soapFault = handleMessageInInterceptor(request("filename", "c2Q=", DocumentType.BDOC.name(), "AA"));
         assertFaultWithExpectedMessage(soapFault, INVALID_DOCUMENTTYPE);
     }
 
     @Test
-    public void documentTypeDDOCThrowsInvalidDocumentTypeFault() throws SOAPException {
-        mockSoapMessage("filename", "c2Q=", DocumentType.DDOC.name(), "AA");
-        Fault soapFault = handleMessageInInterceptor(message);
+    public void documentTypeDDOCThrowsInvalidDocumentTypeFault() {
+        Fault soapFault = handleMessageInInterceptor(request("filename", "c2Q=", DocumentType.DDOC.name(), "AA"));
         assertFaultWithExpectedMessage(soapFault, INVALID_DOCUMENTTYPE);
     }
 
     @Test
-    public void documentTypePDFThrowsInvalidDocumentTypeFault() throws SOAPException {
-        mockSoapMessage("filename", "c2Q=", DocumentType.PDF.name(), "AA");
-        Fault soapFault = handleMessageInInterceptor(message);
+    public void documentTypePDFThrowsInvalidDocumentTypeFault() {
+        Fault soapFault = handleMessageInInterceptor(request("filename", "c2Q=", DocumentType.PDF.name(), "AA"));
         assertFaultWithExpectedMessage(soapFault, INVALID_DOCUMENTTYPE);
     }
 
-    private Fault handleMessageInInterceptor(SoapMessage soapMessage) {
+    @Test
+    public void whenValidationLevelIsInvalidThenFaultIsThrownWithInvalidValidationLevelMessage() {
+        Fault soapFault = handleMessageInInterceptor(request("filename", "c2Q=", "XROAD", "AA")
+                .replace("</soap:ValidationRequest>", element("ValidationLevel", "QUICK") + "</soap:ValidationRequest>"));
+        assertFaultWithExpectedMessage(soapFault, INVALID_VALIDATION_LEVEL);
+    }
+
+    @Test
+    public void noSoapFaultIsThrownWithValidValidationLevel() {
+        Fault soapFault = handleMessageInInterceptor(request("filename", "c2Q=", "XROAD", "AA")
+                .replace("</soap:ValidationRequest>", element("ValidationLevel", "basic_signatures") + "</soap:ValidationRequest>"));
+        assertNull(soapFault);
+    }
+
+    @Test
+    public void requestedReportTypeIsPutIntoExchange() throws XMLStreamException {
+        doReturn(exchange).when(message).getExchange();
+        readRequest(validationInterceptor, message, request("filename", "c2Q=", "XROAD", "AA")
+                .replace("</soap:ValidationRequest>", element("ReportType", "Detailed") + "</soap:ValidationRequest>"));
+        verify(exchange).put(AbstractRequestValidationInterceptor.REPORT_TYPE_KEY, "Detailed");
+    }
+
+    private Fault handleMessageInInterceptor(String body) {
         try {
-            validationInterceptor.handleMessage(soapMessage);
+            if (body == null) {
+                validationInterceptor.handleMessage(message);
+            } else {
+                readRequest(validationInterceptor, message, body);
+            }
         } catch (Fault soapFault) {
             return soapFault;
+        } catch (XMLStreamException e) {
+            throw new IllegalStateException(e);
         }
         return null;
     }
@@ -159,56 +169,12 @@ public class SoapRequestValidationInterceptorTest {
         assertEquals(message, soapFault.getMessage());
     }
 
-    private void mockNullReturningSoapMessage() {
-        doReturn(null).when(message).getContent(any());
-    }
-
-    private void mockSoapMessage(String filename, String document, String documentType, String policy) throws SOAPException {
-        doReturn(body).when(envelope).getBody();
-        doReturn(envelope).when(soapPart).getEnvelope();
-        doReturn(soapPart).when(soapMessage).getSOAPPart();
-        doReturn(soapMessage).when(message).getContent(SOAPMessage.class);
-        mockFilenameNode(filename);
-        mockDocumentNode(document);
-        mockDocumentTypeNode(documentType);
-        mockPolicyNode(policy);
-    }
-
-    private void mockDocumentNode(String document) {
-        mockNode(documentNode, documentNodeList, "Document", document);
-    }
-
-    private void mockFilenameNode(String filename) {
-        mockNode(filenameNode, filenameNodeList, "Filename", filename);
-    }
-
-    private void mockDocumentTypeNode(String documentType) {
-        mockNode(documentTypeNode, documentTypeNodeList, "DocumentType", documentType);
-    }
-
-    private void mockPolicyNode(String policy) {
-        mockNode(policyNode, policyNodeList, "SignaturePolicy", policy);
-    }
-
-    private void mockNode(Node node, NodeList nodeList, String tagName, String value) {
-        nodeList = new MockNodeList(node);
-        doReturn(node).when(node).getFirstChild();
-        doReturn(value).when(node).getNodeValue();
-        doReturn(nodeList).when(body).getElementsByTagName(tagName);
-    }
-
-    static class MockNodeList implements NodeList {
-        Node node;
-        MockNodeList(Node node) {
-            this.node = node;
-        }
-        @Override
-        public Node item(int index) {
-            return node;
-        }
-        @Override
-        public int getLength() {
-            return 1;
-        }
+    private static String request(String filename, String document, String documentType, String policy) {
+        return "<soap:ValidateDocument><soap:ValidationRequest>"
+                + element("Document", document)
+                + element("Filename", filename)
+                + element("DocumentType", documentType)
+                + element("SignaturePolicy", policy)
+                + "</soap:ValidationRequest></soap:ValidateDocument>";
     }
 }
@@ -17,11 +17,14 @@
 package ee.openeid.siva.webapp.soap.transformer;
 
 import ee.openeid.siva.webapp.soap.DataFilesReport;
+import org.apache.commons.codec.binary.Base64;
 import org.junit.Test;
 
+import java.nio.charset.StandardCharsets;
 import java.util.ArrayList;
 import java.util.List;
 
+import static org.junit.Assert.assertArrayEquals;
 import static org.junit.Assert.assertEquals;
 
 public class DataFilesReportSoapResponseTransformerTest {
@@ -33,12 +36,25 @@ public class DataFilesReportSoapResponseTransformerTest {
         ee.openeid.siva.validation.document.report.DataFilesReport dataFilesReport = createMockedDataFilesReport();
         DataFilesReport responseReport = transformer.toSoapResponse(dataFilesReport);
 
-        assertEquals(dataFilesReport.getDataFiles().get(0).getBase64(), responseReport.getDataFiles().getDataFile().get(0).getBase64());
+        assertEquals(dataFilesReport.getDataFiles().get(0).getBase64(), Base64.encodeBase64String(DataHandlerUtils.toByteArray(responseReport.getDataFiles().getDataFile().get(0).getBase64())));
         assertEquals(dataFilesReport.getDataFiles().get(0).getFilename(), responseReport.getDataFiles().getDataFile().get(0).getFilename());
         assertEquals(dataFilesReport.getDataFiles().get(0).getMimeType(), responseReport.getDataFiles().getDataFile().get(0).getMimeType());
         assertEquals(dataFilesReport.getDataFiles().get(0).getSize(), responseReport.getDataFiles().getDataFile().get(0).getSize());
     }
 
+    @Test
+    public void dataFileContentIsWrittenWithoutBase64Encoding() {
+        ee.openeid.siva.validation.document.report.DataFilesReport dataFilesReport = createMockedDataFilesReport();
+        byte[] content = "DigiDoc is a".getBytes(StandardCharsets.US_ASCII);
+        dataFilesReport.getDataFiles().get(0).setBase64(null);
+        dataFilesReport.getDataFiles().get(0).setContent(content);
+
+        DataFilesReport responseReport = transformer.toSoapResponse(dataFilesReport);
+
+        assertArrayEquals(content, DataHandlerUtils.toByteArray(responseReport.getDataFiles().getDataFile().get(0).getBase64()));
+        assertEquals("RGlnaURvYyBpcyBh", dataFilesReport.getDataFiles().get(0).getBase64());
+    }
+
     private ee.openeid.siva.validation.document.report.DataFilesReport createMockedDataFilesReport() {
         ee.openeid.siva.validation.document.report.DataFilesReport report = new ee.openeid.siva.validation.document.report.DataFilesReport();
         report.setDataFiles(createMockedDataFiles());
@@ -51,7 +67,7 @@ public class DataFilesReportSoapResponseTransformerTest {
         dataFile.setSize(1);
         dataFile.setMimeType("text/plain");
         dataFile.setFilename("readme");
-        dataFile.setBase64("RGlnaURvYyBpcyB");
+        dataFile.setBase64("RGlnaURvYyBpcyBh");
         dataFiles.add(dataFile);
         return dataFiles;
     }
@@ -30,7 +30,7 @@ public class SoapDataFilesRequestToProxyDocumentTransformerTest {
     public void contentIsCorrectlyTransformedToBytes() {
         String documentContent = "ZmlsZWNvbnRlbnQ=";
         SoapDataFilesRequest dataFilesRequest = createSoapDataFilesRequest(documentContent, "test.ddoc");
-        assertEquals(dataFilesRequest.getDocument(), Base64.encodeBase64String(transformer.transform(dataFilesRequest).getBytes()));
+        assertEquals(documentContent, Base64.encodeBase64String(transformer.transform(dataFilesRequest).getBytes()));
     }
 
     @Test
@@ -59,7 +59,7 @@ public class SoapDataFilesRequestToProxyDocumentTransformerTest {
 
     private SoapDataFilesRequest createSoapDataFilesRequest(String document, String filename) {
         SoapDataFilesRequest dataFilesRequest = new SoapDataFilesRequest();
-        dataFilesRequest.setDocument(document);
+        dataFilesRequest.setDocument(DataHandlerUtils.fromBase64(document));
         dataFilesRequest.setFilename(filename);
         return dataFilesRequest;
     }
@@ -24,7 +24,15 @@ import org.apache.commons.codec.binary.Base64;
 import org.junit.Rule;
 import org.junit.Test;
 import org.junit.rules.ExpectedException;
+import org.junit.rules.TemporaryFolder;
 
+import javax.activation.DataHandler;
+import javax.activation.FileDataSource;
+import java.io.File;
+import java.io.IOException;
+import java.nio.file.Files;
+
+import static org.junit.Assert.assertArrayEquals;
 import static org.junit.Assert.assertEquals;
 
 public class SoapValidationRequestToProxyDocumentTransformerTest {
@@ -32,13 +40,26 @@ public class SoapValidationRequestToProxyDocumentTransformerTest {
     @Rule
     public ExpectedException exception = ExpectedException.none();
 
+    @Rule
+    public TemporaryFolder temporaryFolder = new TemporaryFolder();
+
     private SoapValidationRequestToProxyDocumentTransformer transformer = new SoapValidationRequestToProxyDocumentTransformer();
 
     @Test
     public void contentIsCorrectlyTransformedToBytes() {
         String documentContent = "ZmlsZWNvbnRlbnQ=";
         SoapValidationRequest validationRequest = createSoapValidationRequest(documentContent, DocumentType.XROAD, "file.bdoc", "some policy");
-        assertEquals(validationRequest.getDocument(), Base64.encodeBase64String(transformer.transform(validationRequest).getBytes()));
+        assertEquals(documentContent, Base64.encodeBase64String(transformer.transform(validationRequest).getBytes()));
+    }
+
+    @Test
+    public void attachmentContentIsCorrectlyTransformedToBytes() throws IOException {
+        byte[] content = "filecontent".getBytes();
+        File attachment = temporaryFolder.newFile();
+        Files.write(attachment.toPath(), content);
+        SoapValidationRequest validationRequest = createSoapValidationRequest("Ymxh", DocumentType.XROAD, "file.bdoc", "some policy");
+        validationRequest.setDocument(new DataHandler(new FileDataSource(attachment)));
+        assertArrayEquals(content, transformer.transform(validationRequest).getBytes());
     }
 
     @Test
@@ -90,7 +111,7 @@ public class SoapValidationRequestToProxyDocumentTransformerTest {
 
     private SoapValidationRequest createSoapValidationRequest(String document, DocumentType docType, String filename, String signaturePolicy) {
         SoapValidationRequest validationRequest = new SoapValidationRequest();
-        validationRequest.setDocument(document);
+        validationRequest.setDocument(DataHandlerUtils.fromBase64(document));
         validationRequest.setDocumentType(docType);
         validationRequest.setFilename(filename);
         validationRequest.setSignaturePolicy(signaturePolicy);
@@ -0,0 +1,194 @@
+/*
+ * Copyright 2019 Riigi Infosüsteemide Amet
+ *
+ * Licensed under the EUPL, Version 1.1 or – as soon they will be approved by
+ * the European Commission - subsequent versions of the EUPL (the "Licence");
+ * You may not use this work except in compliance with the Licence.
+ * You may obtain a copy of the Licence at:
+ *
+ * https://joinup.ec.europa.eu/software/page/eupl
+ *
+ * Unless required by applicable law or agreed to in writing, software distributed under the Licence is
+ * distributed on an "AS IS" basis,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the Licence for the specific language governing permissions and limitations under the Licence.
+ */
+
+package ee.openeid.siva.webapp.soap.transformer.report;
+
+import eu.europa.esig.dss.jaxb.detailedreport.DetailedReport;
+import eu.europa.esig.dss.jaxb.detailedreport.XmlCertificate;
+import eu.europa.esig.dss.jaxb.detailedreport.XmlConclusion;
+import eu.europa.esig.dss.jaxb.diagnostic.DiagnosticData;
+import eu.europa.esig.dss.validation.policy.rules.Indication;
+import org.junit.Test;
+
+import javax.xml.bind.JAXBContext;
+import javax.xml.bind.JAXBElement;
+import javax.xml.bind.Marshaller;
+import javax.xml.namespace.QName;
+import java.io.StringReader;
+import java.io.StringWriter;
+import java.lang.reflect.Field;
+import java.lang.reflect.Modifier;
+import java.lang.reflect.ParameterizedType;
+import java.lang.reflect.Type;
+import java.math.BigInteger;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Date;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+public class ReportMapperTest {
+
+    private static final String DETAILED_REPORT_NAMESPACE = "http://dss.esig.europa.eu/validation/detailed-report";
+    private static final String DIAGNOSTIC_DATA_NAMESPACE = "http://dss.esig.europa.eu/validation/diagnostic";
+
+    @Test
+    public void mappedDetailedReportEqualsJaxbRoundTrip() throws Exception {
+        DetailedReport report = unmarshal(DetailedReport.class, "/dss-reports/asice-detailed-report.xml");
+        JAXBContext context = JAXBContext.newInstance("eu.europa.esig.dss.validation.detailed_report");
+
+        String expected = marshal(context, DETAILED_REPORT_NAMESPACE, "DetailedReport", roundTrip(report, context));
+        String actual = marshal(context, DETAILED_REPORT_NAMESPACE, "DetailedReport", DetailedReportMapper.map(report));
+        assertEquals(expected, actual);
+    }
+
+    @Test
+    public void mappedDiagnosticDataEqualsJaxbRoundTrip() throws Exception {
+        DiagnosticData diagnosticData = unmarshal(DiagnosticData.class, "/dss-reports/asice-diagnostic-data.xml");
+        JAXBContext context = JAXBContext.newInstance("eu.europa.esig.dss.validation.diagnostic");
+
+        String expected = marshal(context, DIAGNOSTIC_DATA_NAMESPACE, "DiagnosticData", roundTrip(diagnosticData, context));
+        String actual = marshal(context, DIAGNOSTIC_DATA_NAMESPACE, "DiagnosticData", DiagnosticDataMapper.map(diagnosticData));
+        assertEquals(expected, actual);
+    }
+
+    @Test
+    public void diagnosticDataListWrapperIsWrittenOnlyForSetList() throws Exception {
+        eu.europa.esig.dss.jaxb.diagnostic.XmlCertificate certificate = new eu.europa.esig.dss.jaxb.diagnostic.XmlCertificate();
+        certificate.setId("certificate");
+        certificate.setRevocations(new ArrayList<>());
+        DiagnosticData diagnosticData = new DiagnosticData();
+        diagnosticData.getUsedCertificates().add(certificate);
+        JAXBContext context = JAXBContext.newInstance("eu.europa.esig.dss.validation.diagnostic");
+
+        String expected = marshal(context, DIAGNOSTIC_DATA_NAMESPACE, "DiagnosticData", roundTrip(diagnosticData, context));
+        String actual = marshal(context, DIAGNOSTIC_DATA_NAMESPACE, "DiagnosticData", DiagnosticDataMapper.map(diagnosticData));
+        assertEquals(expected, actual);
+        assertTrue(actual.contains("<Revocations/>"));
+        assertFalse(actual.contains("TrustedServiceProviders"));
+    }
+
+    @Test
+    public void everyDetailedReportFieldIsMapped() throws Exception {
+        DetailedReport report = populate(DetailedReport.class, new HashSet<>());
+        JAXBContext context = JAXBContext.newInstance("eu.europa.esig.dss.validation.detailed_report");
+
+        String expected = marshal(context, DETAILED_REPORT_NAMESPACE, "DetailedReport", roundTrip(report, context));
+        String actual = marshal(context, DETAILED_REPORT_NAMESPACE, "DetailedReport", DetailedReportMapper.map(report));
+        assertEquals(expected, actual);
+    }
+
+    @Test
+    public void everyDiagnosticDataFieldIsMapped() throws Exception {
+        DiagnosticData diagnosticData = populate(DiagnosticData.class, new HashSet<>());
+        JAXBContext context = JAXBContext.newInstance("eu.europa.esig.dss.validation.diagnostic");
+
+        String expected = marshal(context, DIAGNOSTIC_DATA_NAMESPACE, "DiagnosticData", roundTrip(diagnosticData, context));
+        String actual = marshal(context, DIAGNOSTIC_DATA_NAMESPACE, "DiagnosticData", DiagnosticDataMapper.map(diagnosticData));
+        assertEquals(expected, actual);
+    }
+
+    @Test
+    public void detailedReportCertificateIsTransformed() {
+        XmlConclusion conclusion = new XmlConclusion();
+        conclusion.setIndication(Indication.PASSED);
+        XmlCertificate certificate = new XmlCertificate();
+        certificate.setConclusion(conclusion);
+        DetailedReport report = new DetailedReport();
+        report.setCertificate(certificate);
+
+        ee.openeid.siva.webapp.soap.response.DetailedReport transformed = new DetailedReportTransformer().transform(report);
+        assertEquals(eu.europa.esig.dss.validation.detailed_report.Indication.PASSED, transformed.getCertificate().getConclusion().getIndication());
+    }
+
+    private static <T> T unmarshal(Class<T> type, String resource) throws Exception {
+        return type.cast(JAXBContext.newInstance(type).createUnmarshaller().unmarshal(ReportMapperTest.class.getResource(resource)));
+    }
+
+    private static Object roundTrip(Object report, JAXBContext targetContext) throws Exception {
+        StringWriter writer = new StringWriter();
+        JAXBContext.newInstance(report.getClass()).createMarshaller().marshal(report, writer);
+        return ((JAXBElement<?>) targetContext.createUnmarshaller().unmarshal(new StringReader(writer.toString()))).getValue();
+    }
+
+    @SuppressWarnings("unchecked")
+    private static String marshal(JAXBContext context, String namespace, String rootElement, Object report) throws Exception {
+        Marshaller marshaller = context.createMarshaller();
+        marshaller.setProperty(Marshaller.JAXB_FORMATTED_OUTPUT, true);
+        StringWriter writer = new StringWriter();
+        marshaller.marshal(new JAXBElement<>(new QName(namespace, rootElement), (Class<Object>) report.getClass(), report), writer);
+        return writer.toString();
+    }
+
+    /**
+     * Sets every field of the DSS JAXB class, recursively, so that a field left out of a mapper is missing from the
+     * mapped report. A class that already occurs on the path is left unset to end recursive structures.
+     */
+    private static <T> T populate(Class<T> type, Set<Class<?>> path) throws Exception {
+        T instance = type.newInstance();
+        path.add(type);
+        for (Class<?> declaringClass = type; declaringClass != Object.class; declaringClass = declaringClass.getSuperclass()) {
+            for (Field field : declaringClass.getDeclaredFields()) {
+                if (Modifier.isStatic(field.getModifiers()) || field.isSynthetic()) {
+                    continue;
+                }
+                Object value = createValue(field.getGenericType(), path);
+                if (value != null) {
+                    field.setAccessible(true);
+                    field.set(instance, value);
+                }
+            }
+        }
+        path.remove(type);
+        return instance;
+    }
+
+    private static Object createValue(Type type, Set<Class<?>> path) throws Exception {
+        if (type instanceof ParameterizedType && ((ParameterizedType) type).getRawType() == List.class) {
+            Object item = createValue(((ParameterizedType) type).getActualTypeArguments()[0], path);
+            return item == null ? null : new ArrayList<>(Collections.singletonList(item));
+        }
+        Class<?> valueClass = (Class<?>) type;
+        if (valueClass == String.class) {
+            return "value";
+        } else if (valueClass == Boolean.class || valueClass == boolean.class) {
+            return true;
+        } else if (valueClass == Integer.class || valueClass == int.class) {
+            return 1;
+        } else if (valueClass == Long.class || valueClass == long.class) {
+            return 1L;
+        } else if (valueClass == BigInteger.class) {
+            return BigInteger.ONE;
+        } else if (valueClass == byte[].class) {
+            return new byte[]{1, 2, 3};
+        } else if (valueClass == Date.class) {
+            return new Date(1546300800000L);
+        } else if (valueClass == Indication.class) {
+            // TOTAL_PASSED and TOTAL_FAILED are simple report indications, the detailed report schema does not allow them
+            return Indication.INDETERMINATE;
+        } else if (valueClass.isEnum()) {
+            return valueClass.getEnumConstants()[0];
+        } else if (valueClass.getPackage().getName().startsWith("eu.europa.esig.dss.jaxb")) {
+            return path.contains(valueClass) ? null : populate(valueClass, path);
+        }
+        throw new IllegalArgumentException("Unsupported DSS report field type " + type);
+    }
+}
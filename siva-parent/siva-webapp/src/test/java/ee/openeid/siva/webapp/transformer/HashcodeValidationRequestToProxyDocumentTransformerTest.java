@@ -21,6 +21,8 @@ import ee.openeid.siva.proxy.document.ProxyHashcodeDataSet;
 import ee.openeid.siva.proxy.document.ReportType;
 import ee.openeid.siva.webapp.request.Datafile;
 import ee.openeid.siva.webapp.request.HashcodeValidationRequest;
+import ee.openeid.siva.webapp.request.MultipartHashcodeValidationRequest;
+import ee.openeid.siva.webapp.request.MultipartSignatureFile;
 import ee.openeid.siva.webapp.request.SignatureFile;
 import lombok.Data;
 import org.apache.commons.codec.binary.Base64;
@@ -124,6 +126,27 @@ public class HashcodeValidationRequestToProxyDocumentTransformerTest {
         assertDataFileValues(dataFiles.get(1), datafile2);
     }
 
+    @Test
+    public void multipartSignatureFilesAreTransformedWithoutDecoding() throws URISyntaxException, IOException {
+        Datafile datafile = new Datafile();
+        datafile.setFilename("test.pdf");
+        datafile.setHashAlgo("SHA256");
+        datafile.setHash("IucjUcbRo9Rke0bZLiHcwiIiplP9pSrSPr7LKln1EiI=");
+        MultipartSignatureFile signatureFile = new MultipartSignatureFile();
+        signatureFile.setSignature(Base64.decodeBase64(getSignature()));
+        signatureFile.setDatafiles(Collections.singletonList(datafile));
+        MultipartHashcodeValidationRequest validationRequest = new MultipartHashcodeValidationRequest();
+        validationRequest.setSignatureFiles(Collections.singletonList(signatureFile));
+        validationRequest.setSignaturePolicy("POLv3");
+
+        ProxyHashcodeDataSet proxyDocument = transformer.transform(validationRequest);
+
+        assertSame(signatureFile.getSignature(), proxyDocument.getSignatureFiles().get(0).getSignature());
+        assertDataFileValues(proxyDocument.getSignatureFiles().get(0).getDatafiles().get(0), datafile);
+        assertEquals("POLv3", proxyDocument.getSignaturePolicy());
+        assertSame(ReportType.SIMPLE, proxyDocument.getReportType());
+    }
+
     private void assertDataFileValues(ee.openeid.siva.validation.document.Datafile proxyDataFile, Datafile requestDataFile) {
         assertSame(proxyDataFile.getFilename(), requestDataFile.getFilename());
         assertSame(proxyDataFile.getHash(), requestDataFile.getHash());
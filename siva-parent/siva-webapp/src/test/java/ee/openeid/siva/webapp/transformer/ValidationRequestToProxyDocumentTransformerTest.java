@@ -21,7 +21,7 @@ import ee.openeid.siva.proxy.document.ProxyDocument;
 import ee.openeid.siva.proxy.document.ReportType;
 import ee.openeid.siva.proxy.document.typeresolver.UnsupportedTypeException;
 import ee.openeid.siva.testutils.MockValidationRequestBuilder;
-import org.apache.commons.codec.binary.Base64;
+import ee.openeid.siva.validation.document.ValidationLevel;
 import org.junit.Before;
 import org.junit.Rule;
 import org.junit.Test;
@@ -30,7 +30,9 @@ import org.junit.rules.ExpectedException;
 import java.nio.file.Path;
 import java.nio.file.Paths;
 
+import static org.junit.Assert.assertArrayEquals;
 import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNull;
 
 public class ValidationRequestToProxyDocumentTransformerTest {
 
@@ -97,10 +99,24 @@ public class ValidationRequestToProxyDocumentTransformerTest {
         transformer.transform(validationRequest).getReportType();
     }
 
+    @Test
+    public void validationLevelIsCorrectlyTransformedToValidationLevel() {
+        for (ValidationLevel validationLevel : ValidationLevel.values()) {
+            validationRequest.setValidationLevel(validationLevel.name().toLowerCase());
+            assertEquals(validationLevel, transformer.transform(validationRequest).getValidationLevel());
+        }
+    }
+
+    @Test
+    public void nullValidationLevelIsNotTransformed() {
+        validationRequest.setValidationLevel(null);
+        assertNull(transformer.transform(validationRequest).getValidationLevel());
+    }
+
     @Test
     public void contentIsCorrectlyTransformedToBytes() {
         ProxyDocument proxyDocument = transformer.transform(validationRequest);
-        assertEquals(validationRequest.getDocument(), Base64.encodeBase64String(proxyDocument.getBytes()));
+        assertArrayEquals(validationRequest.getDocument(), proxyDocument.getBytes());
     }
 
     @Test
@@ -24,7 +24,10 @@ import ee.openeid.siva.validation.exception.ValidationServiceException;
 import ee.openeid.siva.validation.service.ValidationService;
 import ee.openeid.siva.validation.service.signature.policy.ConstraintLoadingSignaturePolicyService;
 import ee.openeid.siva.validation.service.signature.policy.InvalidPolicyException;
+import ee.openeid.siva.validation.service.signature.policy.InvalidValidationLevelException;
 import ee.openeid.siva.validation.service.signature.policy.properties.ConstraintDefinedPolicy;
+import ee.openeid.tsl.TSLLoader;
+import ee.openeid.tsl.TSLReloadListener;
 import ee.openeid.tsl.configuration.AlwaysFailingCRLSource;
 import ee.openeid.tsl.configuration.AlwaysFailingOCSPSource;
 import ee.openeid.validation.service.generic.validator.report.GenericValidationReportBuilder;
@@ -32,6 +35,7 @@ import eu.europa.esig.dss.DSSDocument;
 import eu.europa.esig.dss.DSSException;
 import eu.europa.esig.dss.InMemoryDocument;
 import eu.europa.esig.dss.MimeType;
+import eu.europa.esig.dss.client.http.DataLoader;
 import eu.europa.esig.dss.client.http.commons.CommonsDataLoader;
 import eu.europa.esig.dss.tsl.TrustedListsCertificateSource;
 import eu.europa.esig.dss.validation.CommonCertificateVerifier;
@@ -41,6 +45,8 @@ import eu.europa.esig.dss.validation.reports.wrapper.CertificateWrapper;
 import eu.europa.esig.dss.validation.reports.wrapper.DiagnosticData;
 import eu.europa.esig.dss.validation.reports.wrapper.SignatureWrapper;
 import eu.europa.esig.dss.validation.reports.wrapper.TimestampWrapper;
+import eu.europa.esig.dss.x509.crl.CRLSource;
+import eu.europa.esig.dss.x509.ocsp.OCSPSource;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.beans.factory.annotation.Autowired;
@@ -50,12 +56,14 @@ import org.springframework.stereotype.Service;
 import java.util.Collections;
 import java.util.Comparator;
 import java.util.Date;
+import java.util.EnumSet;
 import java.util.List;
+import java.util.Set;
 
 import static org.apache.commons.lang3.time.DateUtils.addMilliseconds;
 
 @Service
-public class GenericValidationService implements ValidationService {
+public class GenericValidationService implements ValidationService, TSLReloadListener {
 
     private static final Logger LOGGER = LoggerFactory.getLogger(GenericValidationService.class);
     private static final ValidationLevel VALIDATION_LEVEL = ValidationLevel.ARCHIVAL_DATA;
@@ -64,9 +72,12 @@ public class GenericValidationService implements ValidationService {
     private static final String REVOCATION_FRESHNESS_FAULT = "The revocation information is not considered as 'fresh'.";
     private static final String CRL_REVOCATION_SOURCE = "CRLToken";
 
-    private TrustedListsCertificateSource trustedListsCertificateSource;
     private ConstraintLoadingSignaturePolicyService signaturePolicyService;
     private ReportConfigurationProperties reportConfigurationProperties;
+    private TSLLoader tslLoader;
+    private final CRLSource crlSource = new AlwaysFailingCRLSource();
+    private final OCSPSource ocspSource = new AlwaysFailingOCSPSource();
+    private final DataLoader dataLoader = new CommonsDataLoader();
 
     private static boolean isInRangeMillis(Date date1, Date date2, int rangeInMillis) {
         Date latestTime = addMilliseconds(date2, rangeInMillis);
@@ -87,8 +98,10 @@ public class GenericValidationService implements ValidationService {
             SignedDocumentValidator validator = createValidatorFromDocument(validationDocument);
 
             final ConstraintDefinedPolicy policy = signaturePolicyService.getPolicy(validationDocument.getSignaturePolicy());
+            final ValidationLevel validationLevel = getValidationLevel(validationDocument, policy);
+            validator.setValidationLevel(validationLevel);
 
-            final eu.europa.esig.dss.validation.reports.Reports reports = validator.validateDocument(policy.getConstraintDataStream());
+            final eu.europa.esig.dss.validation.reports.Reports reports = validator.validateDocument(policy.getDssPolicy());
 
             validateRevocationFreshness(reports);
 
@@ -103,7 +116,7 @@ public class GenericValidationService implements ValidationService {
             }
             final GenericValidationReportBuilder reportBuilder = new GenericValidationReportBuilder(
                     reports,
-                    VALIDATION_LEVEL,
+                    validationLevel,
                     validationDocument,
                     policy,
                     reportConfigurationProperties.isReportSignatureEnabled()
@@ -121,19 +134,46 @@ public class GenericValidationService implements ValidationService {
         }
     }
 
+    /**
+     * Returns the DSS validation level requested for the document. Levels other than {@link ValidationLevel#ARCHIVAL_DATA}
+     * must be allowed by the signature policy.
+     */
+    ValidationLevel getValidationLevel(ValidationDocument validationDocument, ConstraintDefinedPolicy policy) {
+        ee.openeid.siva.validation.document.ValidationLevel validationLevel = validationDocument.getValidationLevel();
+        if (validationLevel == null || validationLevel.name().equals(VALIDATION_LEVEL.name())) {
+            return VALIDATION_LEVEL;
+        }
+        if (!policy.getAllowedValidationLevels().contains(validationLevel)) {
+            Set<ee.openeid.siva.validation.document.ValidationLevel> allowedValidationLevels =
+                    EnumSet.of(ee.openeid.siva.validation.document.ValidationLevel.valueOf(VALIDATION_LEVEL.name()));
+            allowedValidationLevels.addAll(policy.getAllowedValidationLevels());
+            throw new InvalidValidationLevelException(validationLevel, policy.getName(), allowedValidationLevels);
+        }
+        return ValidationLevel.valueOf(validationLevel.name());
+    }
+
     protected SignedDocumentValidator createValidatorFromDocument(final ValidationDocument validationDocument) {
         final DSSDocument dssDocument = createDssDocument(validationDocument);
         SignedDocumentValidator validator = SignedDocumentValidator.fromDocument(dssDocument);
 
-        CommonCertificateVerifier certificateVerifier = new CommonCertificateVerifier(trustedListsCertificateSource,
-                new AlwaysFailingCRLSource(), new AlwaysFailingOCSPSource(), new CommonsDataLoader());
-        LOGGER.info("Certificate pool size: {}", getCertificatePoolSize(certificateVerifier));
-        validator.setCertificateVerifier(certificateVerifier);
-        validator.setValidationLevel(VALIDATION_LEVEL);
+        validator.setCertificateVerifier(createCertificateVerifier());
 
         return validator;
     }
 
+    /**
+     * Creates a certificate verifier on top of the shared revocation sources and data loader, which hold no state.
+     * The verifier itself is not shared, as DSS stores the revocation data found in the validated signatures into it.
+     */
+    CommonCertificateVerifier createCertificateVerifier() {
+        return new CommonCertificateVerifier(tslLoader.getTrustedListSource(), crlSource, ocspSource, dataLoader);
+    }
+
+    @Override
+    public void tslReloaded(long generation, TrustedListsCertificateSource trustedListSource) {
+        LOGGER.info("Certificate pool size: {}", trustedListSource.getCertificatePool().getNumberOfCertificates());
+    }
+
     void validateRevocationFreshness(eu.europa.esig.dss.validation.reports.Reports reports) {
 
         DiagnosticData diagnosticData = reports.getDiagnosticData();
@@ -186,10 +226,6 @@ public class GenericValidationService implements ValidationService {
         return Collections.min(timestamps, Comparator.comparing(TimestampWrapper::getProductionTime));
     }
 
-    private int getCertificatePoolSize(CommonCertificateVerifier certificateVerifier) {
-        return certificateVerifier.getTrustedCertSource().getCertificatePool().getNumberOfCertificates();
-    }
-
     protected RuntimeException constructMalformedDocumentException(RuntimeException cause) {
         return new MalformedDocumentException(cause);
     }
@@ -206,12 +242,13 @@ public class GenericValidationService implements ValidationService {
     }
 
     @Autowired
-    public void setTrustedListsCertificateSource(TrustedListsCertificateSource trustedListsCertificateSource) {
-        this.trustedListsCertificateSource = trustedListsCertificateSource;
+    public void setReportConfigurationProperties(ReportConfigurationProperties reportConfigurationProperties) {
+        this.reportConfigurationProperties = reportConfigurationProperties;
     }
 
     @Autowired
-    public void setReportConfigurationProperties(ReportConfigurationProperties reportConfigurationProperties) {
-        this.reportConfigurationProperties = reportConfigurationProperties;
+    @Qualifier("tslLoader")
+    public void setTslLoader(TSLLoader tslLoader) {
+        this.tslLoader = tslLoader;
     }
 }
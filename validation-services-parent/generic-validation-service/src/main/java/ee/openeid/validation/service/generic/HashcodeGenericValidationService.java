@@ -21,26 +21,113 @@ import ee.openeid.siva.validation.document.ValidationDocument;
 import ee.openeid.siva.validation.document.report.Reports;
 import ee.openeid.siva.validation.document.report.ValidationConclusion;
 import ee.openeid.siva.validation.exception.MalformedSignatureFileException;
+import ee.openeid.siva.validation.exception.ValidationServiceException;
 import ee.openeid.siva.validation.security.SecureSAXParsers;
+import ee.openeid.validation.service.generic.configuration.HashcodeValidationServiceProperties;
 import eu.europa.esig.dss.DSSDocument;
 import eu.europa.esig.dss.DigestAlgorithm;
 import eu.europa.esig.dss.DigestDocument;
 import eu.europa.esig.dss.InMemoryDocument;
 import eu.europa.esig.dss.validation.SignedDocumentValidator;
 import org.apache.commons.collections4.CollectionUtils;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Qualifier;
 import org.springframework.stereotype.Service;
+import org.xml.sax.InputSource;
 
-import javax.xml.parsers.SAXParser;
 import java.io.ByteArrayInputStream;
+import java.util.ArrayList;
+import java.util.Arrays;
 import java.util.List;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Future;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
 import java.util.stream.Collectors;
 
 @Service
 public class HashcodeGenericValidationService extends GenericValidationService {
 
+    private static final Logger LOGGER = LoggerFactory.getLogger(HashcodeGenericValidationService.class);
+
+    private ExecutorService executor;
+    private HashcodeValidationServiceProperties properties;
+
     public Reports validate(List<ValidationDocument> validationDocuments) {
-        List<Reports> reports = validationDocuments.stream().map(validationDocument -> validateDocument(validationDocument)).collect(Collectors.toList());
-        return mergeReportsToOne(reports);
+        int parallelism = properties == null ? 1 : Math.min(validationDocuments.size(), properties.getMaxParallelSignatureFilesPerRequest());
+        if (executor == null || parallelism <= 1) {
+            List<Reports> reports = validationDocuments.stream().map(validationDocument -> validateDocument(validationDocument)).collect(Collectors.toList());
+            return mergeReportsToOne(reports);
+        }
+        return mergeReportsToOne(validateInParallel(validationDocuments, parallelism));
+    }
+
+    /**
+     * Validates signature files with at most {@code parallelism} workers, the calling thread being one of them.
+     * Workers not yet started when the calling thread runs out of files are cancelled, so a saturated pool
+     * degrades to sequential validation. Reports keep the order of {@code validationDocuments} and, as with
+     * sequential validation, the failure of the first failing signature file is rethrown.
+     */
+    private List<Reports> validateInParallel(List<ValidationDocument> validationDocuments, int parallelism) {
+        Reports[] reports = new Reports[validationDocuments.size()];
+        RuntimeException[] failures = new RuntimeException[reports.length];
+        AtomicInteger nextIndex = new AtomicInteger();
+        AtomicInteger firstFailedIndex = new AtomicInteger(reports.length);
+        Runnable worker = () -> {
+            int index;
+            while ((index = nextIndex.getAndIncrement()) < firstFailedIndex.get()) {
+                try {
+                    reports[index] = validateDocument(validationDocuments.get(index));
+                } catch (RuntimeException e) {
+                    failures[index] = e;
+                    firstFailedIndex.accumulateAndGet(index, Math::min);
+                }
+            }
+        };
+
+        List<Future<?>> workers = new ArrayList<>();
+        List<AtomicBoolean> workerStarts = new ArrayList<>();
+        try {
+            for (int i = 1; i < parallelism; i++) {
+                AtomicBoolean started = new AtomicBoolean();
+                workers.add(executor.submit(() -> {
+                    if (started.compareAndSet(false, true)) {
+                        worker.run();
+                    }
+                }));
+                workerStarts.add(started);
+            }
+        } catch (RejectedExecutionException e) {
+            LOGGER.debug("Hashcode validation pool is saturated, validating with {} workers", workers.size() + 1);
+        }
+        worker.run();
+        for (int i = 0; i < workers.size(); i++) {
+            if (workerStarts.get(i).compareAndSet(false, true)) {
+                workers.get(i).cancel(false);
+            } else {
+                awaitWorker(workers.get(i));
+            }
+        }
+
+        if (firstFailedIndex.get() < reports.length) {
+            throw failures[firstFailedIndex.get()];
+        }
+        return Arrays.asList(reports);
+    }
+
+    private void awaitWorker(Future<?> future) {
+        try {
+            future.get();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new ValidationServiceException(getClass().getSimpleName(), e);
+        } catch (ExecutionException e) {
+            throw new ValidationServiceException(getClass().getSimpleName(), e);
+        }
     }
 
     @Override
@@ -60,9 +147,8 @@ public class HashcodeGenericValidationService extends GenericValidationService {
             return null;
         } else {
             try {
-                SAXParser saxParser = SecureSAXParsers.createParser();
                 SignatureXmlHandler handler = new SignatureXmlHandler();
-                saxParser.parse(new ByteArrayInputStream(validationDocument.getBytes()), handler);
+                SecureSAXParsers.parse(new InputSource(new ByteArrayInputStream(validationDocument.getBytes())), handler);
                 return handler.getDatafiles();
             } catch (Exception e) {
                 throw constructMalformedDocumentException(new RuntimeException(e));
@@ -102,6 +188,17 @@ public class HashcodeGenericValidationService extends GenericValidationService {
         return digestDocument;
     }
 
+    @Autowired
+    @Qualifier("hashcodeValidationExecutor")
+    public void setExecutor(ExecutorService executor) {
+        this.executor = executor;
+    }
+
+    @Autowired
+    public void setProperties(HashcodeValidationServiceProperties properties) {
+        this.properties = properties;
+    }
+
     private Reports mergeReportsToOne(List<Reports> reportsList) {
         int signaturesCount = 0;
         int validSignaturesCount = 0;
@@ -20,9 +20,15 @@ import ee.openeid.siva.validation.service.signature.policy.ConstraintLoadingSign
 import org.springframework.boot.context.properties.EnableConfigurationProperties;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
+import org.springframework.scheduling.concurrent.CustomizableThreadFactory;
+
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
 
 @Configuration
-@EnableConfigurationProperties(GenericSignaturePolicyProperties.class)
+@EnableConfigurationProperties({GenericSignaturePolicyProperties.class, HashcodeValidationServiceProperties.class})
 public class GenericValidationServiceConfiguration {
 
     @Bean(name = "GenericPolicyService")
@@ -30,4 +36,13 @@ public class GenericValidationServiceConfiguration {
         return new ConstraintLoadingSignaturePolicyService(properties);
     }
 
+    @Bean(name = "hashcodeValidationExecutor", destroyMethod = "shutdown")
+    public ExecutorService hashcodeValidationExecutor(HashcodeValidationServiceProperties properties) {
+        ThreadPoolExecutor executor = new ThreadPoolExecutor(properties.getThreadPoolSize(), properties.getThreadPoolSize(),
+                60, TimeUnit.SECONDS, new LinkedBlockingQueue<>(properties.getQueueCapacity()),
+                new CustomizableThreadFactory("hashcode-validation-"));
+        executor.allowCoreThreadTimeOut(true);
+        return executor;
+    }
+
 }
@@ -70,8 +70,10 @@ public class GenericValidationReportBuilder {
 
         SimpleReport simpleReport = new SimpleReport(validationConclusion);
         validationConclusion.setValidationLevel(validationLevel.name());
-        DetailedReport detailedReport = new DetailedReport(validationConclusion, dssReports.getDetailedReportJaxb());
-        DiagnosticReport diagnosticReport = new DiagnosticReport(validationConclusion, dssReports.getDiagnosticDataJaxb());
+        DetailedReport detailedReport = isReportRequested(validationDocument, RequestedReport.DETAILED)
+                ? new DetailedReport(validationConclusion, dssReports.getDetailedReportJaxb()) : null;
+        DiagnosticReport diagnosticReport = isReportRequested(validationDocument, RequestedReport.DIAGNOSTIC)
+                ? new DiagnosticReport(validationConclusion, dssReports.getDiagnosticDataJaxb()) : null;
 
         return new Reports(simpleReport, detailedReport, diagnosticReport);
     }
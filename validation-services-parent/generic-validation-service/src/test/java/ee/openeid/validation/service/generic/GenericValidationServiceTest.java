@@ -16,18 +16,30 @@
 
 package ee.openeid.validation.service.generic;
 
+import ee.openeid.siva.validation.document.ValidationDocument;
+import ee.openeid.siva.validation.document.ValidationLevel;
+import ee.openeid.siva.validation.service.signature.policy.InvalidValidationLevelException;
+import ee.openeid.siva.validation.service.signature.policy.properties.ConstraintDefinedPolicy;
+import ee.openeid.tsl.TSLLoader;
 import eu.europa.esig.dss.jaxb.diagnostic.*;
+import eu.europa.esig.dss.tsl.TrustedListsCertificateSource;
+import eu.europa.esig.dss.validation.CommonCertificateVerifier;
 import eu.europa.esig.dss.validation.reports.Reports;
 import org.junit.Assert;
+import org.junit.Before;
 import org.junit.Test;
 import org.junit.runner.RunWith;
 import org.mockito.InjectMocks;
+import org.mockito.Answers;
+import org.mockito.Mock;
+import org.mockito.Mockito;
 import org.mockito.runners.MockitoJUnitRunner;
 
 import java.time.LocalDateTime;
 import java.time.Month;
 import java.time.ZoneId;
 import java.util.ArrayList;
+import java.util.Arrays;
 import java.util.Collections;
 import java.util.Date;
 import java.util.List;
@@ -40,9 +52,68 @@ public class GenericValidationServiceTest {
     private static final String CRL_SOURCE = "CRLToken";
     private static final String OCSP_SOURCE = "OCSPToken";
 
+    @Mock
+    private TSLLoader tslLoader;
+
+    @Mock(answer = Answers.RETURNS_DEEP_STUBS)
+    private TrustedListsCertificateSource trustedListsCertificateSource;
+
     @InjectMocks
     private GenericValidationService genericValidationService;
 
+    @Before
+    public void setUp() {
+        Mockito.when(tslLoader.getTrustedListSource()).thenReturn(trustedListsCertificateSource);
+    }
+
+    @Test
+    public void certificateVerifierSourcesAreShared() {
+        CommonCertificateVerifier firstVerifier = genericValidationService.createCertificateVerifier();
+        CommonCertificateVerifier secondVerifier = genericValidationService.createCertificateVerifier();
+
+        Assert.assertNotSame(firstVerifier, secondVerifier);
+        Assert.assertSame(trustedListsCertificateSource, secondVerifier.getTrustedCertSource());
+        Assert.assertSame(firstVerifier.getCrlSource(), secondVerifier.getCrlSource());
+        Assert.assertSame(firstVerifier.getOcspSource(), secondVerifier.getOcspSource());
+        Assert.assertSame(firstVerifier.getDataLoader(), secondVerifier.getDataLoader());
+        Mockito.verifyZeroInteractions(trustedListsCertificateSource.getCertificatePool());
+    }
+
+    @Test
+    public void certificatePoolSizeIsReadOnTslReload() {
+        genericValidationService.tslReloaded(2, trustedListsCertificateSource);
+
+        Mockito.verify(trustedListsCertificateSource.getCertificatePool()).getNumberOfCertificates();
+    }
+
+    @Test
+    public void archivalDataValidationLevelIsUsedWhenNoneIsRequested() {
+        Assert.assertEquals(eu.europa.esig.dss.validation.executor.ValidationLevel.ARCHIVAL_DATA, genericValidationService.getValidationLevel(validationDocument(null), policy()));
+    }
+
+    @Test
+    public void archivalDataValidationLevelIsAlwaysAllowed() {
+        Assert.assertEquals(eu.europa.esig.dss.validation.executor.ValidationLevel.ARCHIVAL_DATA, genericValidationService.getValidationLevel(validationDocument(ValidationLevel.ARCHIVAL_DATA), policy()));
+    }
+
+    @Test
+    public void requestedValidationLevelIsUsedWhenAllowedByPolicy() {
+        eu.europa.esig.dss.validation.executor.ValidationLevel validationLevel = genericValidationService.getValidationLevel(
+                validationDocument(ValidationLevel.BASIC_SIGNATURES), policy(ValidationLevel.TIMESTAMPS, ValidationLevel.BASIC_SIGNATURES));
+        Assert.assertEquals(eu.europa.esig.dss.validation.executor.ValidationLevel.BASIC_SIGNATURES, validationLevel);
+    }
+
+    @Test
+    public void requestedValidationLevelNotAllowedByPolicyIsRejected() {
+        try {
+            genericValidationService.getValidationLevel(validationDocument(ValidationLevel.BASIC_SIGNATURES), policy(ValidationLevel.LONG_TERM_DATA));
+            Assert.fail("Expected InvalidValidationLevelException");
+        } catch (InvalidValidationLevelException e) {
+            Assert.assertEquals("Validation level BASIC_SIGNATURES is not allowed by signature policy: POLv4; "
+                    + "Allowed validation levels: [LONG_TERM_DATA, ARCHIVAL_DATA]", e.getMessage());
+        }
+    }
+
     @Test
     public void validTimestampAndRevocationDelta() throws Exception {
         Reports reports = getDefaultReport(3, 15, OCSP_SOURCE);
@@ -91,6 +162,19 @@ public class GenericValidationServiceTest {
         Assert.assertTrue(reports.getSimpleReport().getWarnings(SIGNATURE_ID).isEmpty());
     }
 
+    private ValidationDocument validationDocument(ValidationLevel validationLevel) {
+        ValidationDocument validationDocument = new ValidationDocument();
+        validationDocument.setValidationLevel(validationLevel);
+        return validationDocument;
+    }
+
+    private ConstraintDefinedPolicy policy(ValidationLevel... allowedValidationLevels) {
+        ConstraintDefinedPolicy policy = new ConstraintDefinedPolicy();
+        policy.setName("POLv4");
+        policy.setAllowedValidationLevels(Arrays.asList(allowedValidationLevels));
+        return policy;
+    }
+
     public Reports getDefaultReport(int days, int minutes, String source) {
         return new Reports(getDiagnosticDataJaxb(days, minutes, source), null, getSimpleReport());
     }
@@ -0,0 +1,174 @@
+/*
+ * Copyright 2019 Riigi Infosüsteemide Amet
+ *
+ * Licensed under the EUPL, Version 1.1 or – as soon they will be approved by
+ * the European Commission - subsequent versions of the EUPL (the "Licence");
+ * You may not use this work except in compliance with the Licence.
+ * You may obtain a copy of the Licence at:
+ *
+ * https://joinup.ec.europa.eu/software/page/eupl
+ *
+ * Unless required by applicable law or agreed to in writing, software distributed under the Licence is
+ * distributed on an "AS IS" basis,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the Licence for the specific language governing permissions and limitations under the Licence.
+ */
+
+package ee.openeid.validation.service.generic;
+
+import ee.openeid.siva.validation.document.ValidationDocument;
+import ee.openeid.siva.validation.document.report.Reports;
+import ee.openeid.siva.validation.document.report.SignatureValidationData;
+import ee.openeid.siva.validation.document.report.SimpleReport;
+import ee.openeid.siva.validation.document.report.ValidationConclusion;
+import ee.openeid.siva.validation.exception.MalformedSignatureFileException;
+import ee.openeid.validation.service.generic.configuration.HashcodeValidationServiceProperties;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.stream.Collectors;
+import java.util.stream.IntStream;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+import static org.junit.Assert.fail;
+
+public class HashcodeGenericValidationServiceParallelTest {
+
+    private ExecutorService executor;
+    private StubbedHashcodeValidationService validationService;
+    private HashcodeValidationServiceProperties properties;
+
+    @Before
+    public void setUp() {
+        executor = Executors.newFixedThreadPool(8);
+        properties = new HashcodeValidationServiceProperties();
+        properties.setMaxParallelSignatureFilesPerRequest(3);
+        validationService = new StubbedHashcodeValidationService();
+        validationService.setExecutor(executor);
+        validationService.setProperties(properties);
+    }
+
+    @After
+    public void tearDown() {
+        executor.shutdownNow();
+    }
+
+    @Test
+    public void reportsAreMergedInRequestOrder() {
+        Reports reports = validationService.validate(validationDocuments(20));
+
+        ValidationConclusion validationConclusion = reports.getSimpleReport().getValidationConclusion();
+        assertEquals((Integer) 20, validationConclusion.getSignaturesCount());
+        assertEquals((Integer) 10, validationConclusion.getValidSignaturesCount());
+        List<String> signatureIds = validationConclusion.getSignatures().stream().map(SignatureValidationData::getId).collect(Collectors.toList());
+        assertEquals(IntStream.range(0, 20).mapToObj(String::valueOf).collect(Collectors.toList()), signatureIds);
+    }
+
+    @Test
+    public void concurrencyIsCappedPerRequest() {
+        validationService.validate(validationDocuments(20));
+
+        assertTrue(validationService.maxConcurrentValidations.get() <= 3);
+        assertTrue(validationService.threads.size() <= 3);
+    }
+
+    @Test
+    public void singleSignatureFileIsValidatedOnCallingThread() {
+        validationService.validate(validationDocuments(1));
+
+        assertEquals(Collections.singleton(Thread.currentThread().getName()), validationService.threads);
+    }
+
+    @Test
+    public void withoutExecutorSignatureFilesAreValidatedSequentially() {
+        validationService.setExecutor(null);
+        validationService.validate(validationDocuments(5));
+
+        assertEquals(Collections.singleton(Thread.currentThread().getName()), validationService.threads);
+    }
+
+    @Test
+    public void saturatedPoolFallsBackToCallingThread() throws Exception {
+        ExecutorService busyExecutor = Executors.newSingleThreadExecutor();
+        busyExecutor.submit(() -> {
+            TimeUnit.SECONDS.sleep(5);
+            return null;
+        });
+        validationService.setExecutor(busyExecutor);
+
+        Reports reports = validationService.validate(validationDocuments(6));
+
+        assertEquals((Integer) 6, reports.getSimpleReport().getValidationConclusion().getSignaturesCount());
+        assertEquals(Collections.singleton(Thread.currentThread().getName()), validationService.threads);
+        busyExecutor.shutdownNow();
+    }
+
+    @Test
+    public void firstFailingSignatureFileFailureIsRethrown() {
+        validationService.failingIndexes.add(7);
+        validationService.failingIndexes.add(3);
+        try {
+            validationService.validate(validationDocuments(12));
+            fail("Expected validation to fail");
+        } catch (MalformedSignatureFileException e) {
+            assertEquals("3", e.getCause().getMessage());
+        }
+    }
+
+    private List<ValidationDocument> validationDocuments(int count) {
+        List<ValidationDocument> validationDocuments = new ArrayList<>();
+        for (int i = 0; i < count; i++) {
+            ValidationDocument validationDocument = new ValidationDocument();
+            validationDocument.setName(String.valueOf(i));
+            validationDocuments.add(validationDocument);
+        }
+        return validationDocuments;
+    }
+
+    private static class StubbedHashcodeValidationService extends HashcodeGenericValidationService {
+
+        private final AtomicInteger concurrentValidations = new AtomicInteger();
+        private final AtomicInteger maxConcurrentValidations = new AtomicInteger();
+        private final Set<String> threads = ConcurrentHashMap.newKeySet();
+        private final Set<Integer> failingIndexes = ConcurrentHashMap.newKeySet();
+
+        @Override
+        public Reports validateDocument(ValidationDocument validationDocument) {
+            maxConcurrentValidations.accumulateAndGet(concurrentValidations.incrementAndGet(), Math::max);
+            threads.add(Thread.currentThread().getName());
+            try {
+                TimeUnit.MILLISECONDS.sleep(10);
+                int index = Integer.parseInt(validationDocument.getName());
+                if (failingIndexes.contains(index)) {
+                    throw constructMalformedDocumentException(new RuntimeException(validationDocument.getName()));
+                }
+                return reports(index);
+            } catch (InterruptedException e) {
+                throw new IllegalStateException(e);
+            } finally {
+                concurrentValidations.decrementAndGet();
+            }
+        }
+
+        private Reports reports(int index) {
+            SignatureValidationData signature = new SignatureValidationData();
+            signature.setId(String.valueOf(index));
+            ValidationConclusion validationConclusion = new ValidationConclusion();
+            validationConclusion.setSignatures(new ArrayList<>(Collections.singletonList(signature)));
+            validationConclusion.setSignaturesCount(1);
+            validationConclusion.setValidSignaturesCount(index % 2);
+            return new Reports(new SimpleReport(validationConclusion), null, null);
+        }
+    }
+}
@@ -23,8 +23,8 @@ import ee.openeid.siva.validation.document.report.Reports;
 import ee.openeid.siva.validation.document.report.SignatureScope;
 import ee.openeid.siva.validation.document.report.SignatureValidationData;
 import ee.openeid.siva.validation.service.signature.policy.ConstraintLoadingSignaturePolicyService;
+import ee.openeid.tsl.TSLLoader;
 import ee.openeid.validation.service.generic.configuration.GenericSignaturePolicyProperties;
-import eu.europa.esig.dss.tsl.TrustedListsCertificateSource;
 import org.junit.Assert;
 import org.junit.Before;
 import org.junit.Test;
@@ -54,15 +54,14 @@ public class HashcodeGenericValidationServiceTest {
     private ConstraintLoadingSignaturePolicyService signaturePolicyService;
     @Autowired
     private
-    TrustedListsCertificateSource trustedListsCertificateSource;
-    @Autowired
-    private
     GenericSignaturePolicyProperties policySettings;
+    @Autowired
+    private TSLLoader tslLoader;
 
     @Before
     public void setUp() {
         validationService = new HashcodeGenericValidationService();
-        validationService.setTrustedListsCertificateSource(trustedListsCertificateSource);
+        validationService.setTslLoader(tslLoader);
 
         signaturePolicyService = new ConstraintLoadingSignaturePolicyService(policySettings);
         validationService.setSignaturePolicyService(signaturePolicyService);
@@ -66,11 +66,13 @@ public class PDFValidationServiceTest {
     @Autowired
     private
     GenericSignaturePolicyProperties policySettings;
+    @Autowired
+    private TSLLoader tslLoader;
 
     @Before
     public void setUp() {
         validationService = new GenericValidationService();
-        validationService.setTrustedListsCertificateSource(trustedListsCertificateSource);
+        validationService.setTslLoader(tslLoader);
 
         signaturePolicyService = new ConstraintLoadingSignaturePolicyService(policySettings);
         validationService.setSignaturePolicyService(signaturePolicyService);
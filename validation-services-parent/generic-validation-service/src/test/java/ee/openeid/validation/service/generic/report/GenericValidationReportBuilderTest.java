@@ -18,6 +18,7 @@ package ee.openeid.validation.service.generic.report;
 
 import ee.openeid.siva.validation.document.ValidationDocument;
 import ee.openeid.siva.validation.document.report.Reports;
+import ee.openeid.siva.validation.document.report.RequestedReport;
 import ee.openeid.siva.validation.document.report.ValidationConclusion;
 import ee.openeid.siva.validation.service.signature.policy.properties.ConstraintDefinedPolicy;
 import ee.openeid.siva.validation.service.signature.policy.properties.ValidationPolicy;
@@ -73,6 +74,44 @@ public class GenericValidationReportBuilderTest {
         Assert.assertEquals("INDETERMINATE", reports.getSimpleReport().getValidationConclusion().getSignatures().get(0).getIndication());
     }
 
+    @Test
+    public void onlySimpleReportIsBuiltWhenSimpleReportRequested() {
+        ValidationDocument validationDocument = getValidationDocument();
+        validationDocument.setRequestedReport(RequestedReport.SIMPLE);
+        Reports reports = new GenericValidationReportBuilder(getDssReports(""), ValidationLevel.ARCHIVAL_DATA, validationDocument, getValidationPolicy(), false).build();
+        Assert.assertNotNull(reports.getSimpleReport());
+        Assert.assertNull(reports.getDetailedReport());
+        Assert.assertNull(reports.getDiagnosticReport());
+    }
+
+    @Test
+    public void detailedReportIsBuiltWhenDetailedReportRequested() {
+        ValidationDocument validationDocument = getValidationDocument();
+        validationDocument.setRequestedReport(RequestedReport.DETAILED);
+        Reports reports = new GenericValidationReportBuilder(getDssReports(""), ValidationLevel.ARCHIVAL_DATA, validationDocument, getValidationPolicy(), false).build();
+        Assert.assertNotNull(reports.getSimpleReport());
+        Assert.assertNotNull(reports.getDetailedReport());
+        Assert.assertNull(reports.getDiagnosticReport());
+    }
+
+    @Test
+    public void diagnosticReportIsBuiltWhenDiagnosticReportRequested() {
+        ValidationDocument validationDocument = getValidationDocument();
+        validationDocument.setRequestedReport(RequestedReport.DIAGNOSTIC);
+        Reports reports = new GenericValidationReportBuilder(getDssReports(""), ValidationLevel.ARCHIVAL_DATA, validationDocument, getValidationPolicy(), false).build();
+        Assert.assertNotNull(reports.getSimpleReport());
+        Assert.assertNull(reports.getDetailedReport());
+        Assert.assertNotNull(reports.getDiagnosticReport());
+    }
+
+    @Test
+    public void allReportsAreBuiltWhenNoReportIsRequested() {
+        Reports reports = new GenericValidationReportBuilder(getDssReports(""), ValidationLevel.ARCHIVAL_DATA, getValidationDocument(), getValidationPolicy(), false).build();
+        Assert.assertNotNull(reports.getSimpleReport());
+        Assert.assertNotNull(reports.getDetailedReport());
+        Assert.assertNotNull(reports.getDiagnosticReport());
+    }
+
     private ValidationDocument getValidationDocument() {
         ValidationDocument validationDocument = new ValidationDocument();
         validationDocument.setName("filename.bdoc");
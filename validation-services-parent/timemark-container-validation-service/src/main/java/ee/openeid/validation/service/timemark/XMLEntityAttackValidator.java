@@ -23,16 +23,22 @@ import org.digidoc4j.ddoc.factory.SignatureInputStream;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.xml.sax.Attributes;
 import org.xml.sax.InputSource;
 import org.xml.sax.SAXException;
+import org.xml.sax.helpers.DefaultHandler;
 
 import javax.xml.parsers.ParserConfigurationException;
-import javax.xml.parsers.SAXParser;
 
 import java.io.ByteArrayInputStream;
 import java.io.IOException;
 import java.io.InputStream;
 
+/**
+ * Rejects DDOC documents declaring a DOCTYPE. Entities can only be declared in the document type declaration,
+ * which must precede the root element, so only the prolog is parsed. The rest of the document is parsed once,
+ * by DigiDoc4J when the container is built.
+ */
 @ConfigurationProperties(prefix = "siva.ddoc.xmlEntityAttack")
 public class XMLEntityAttackValidator {
 
@@ -40,14 +46,26 @@ public class XMLEntityAttackValidator {
 
     protected void validateAgainstXMLEntityAttacks(byte[] xmlContent) {
         try {
-            SAXParser saxParser = SecureSAXParsers.createParser();
             InputStream inputStream = new SignatureInputStream(new ByteArrayInputStream(xmlContent));
 
-            saxParser.getXMLReader().parse(new InputSource(inputStream));
+            SecureSAXParsers.parse(new InputSource(inputStream), new PrologHandler());
+        } catch (RootElementReachedException e) {
+            LOGGER.trace("No document type declaration found before the root element");
         } catch (ParserConfigurationException | SAXException | IOException e) {
             LOGGER.error("Exception when validation document against XML entity attacks: " + e.getMessage(), e);
             throw new MalformedDocumentException(e);
         }
     }
 
+    private static class PrologHandler extends DefaultHandler {
+
+        @Override
+        public void startElement(String uri, String localName, String qName, Attributes attributes) throws SAXException {
+            throw new RootElementReachedException();
+        }
+    }
+
+    private static class RootElementReachedException extends SAXException {
+    }
+
 }
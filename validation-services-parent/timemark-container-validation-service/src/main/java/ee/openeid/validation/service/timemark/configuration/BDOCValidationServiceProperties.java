@@ -23,4 +23,7 @@ import org.springframework.boot.context.properties.ConfigurationProperties;
 @ConfigurationProperties(prefix = "siva.bdoc")
 public class BDOCValidationServiceProperties {
     private String digidoc4JConfigurationFile;
+    private boolean parallelSignatureValidation = false;
+    private int signatureValidationThreadPoolSize = Runtime.getRuntime().availableProcessors();
+    private int signatureValidationQueueCapacity = 100;
 }
@@ -18,6 +18,7 @@ package ee.openeid.validation.service.timemark.configuration;
 
 import eu.europa.esig.dss.tsl.ServiceInfo;
 import eu.europa.esig.dss.tsl.TrustedListsCertificateSource;
+import eu.europa.esig.dss.x509.CertificateToken;
 import lombok.AccessLevel;
 import lombok.NoArgsConstructor;
 import org.digidoc4j.TSLCertificateSource;
@@ -25,6 +26,8 @@ import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
 import java.util.Collections;
+import java.util.List;
+import java.util.Set;
 
 @NoArgsConstructor(access = AccessLevel.PRIVATE)
 public class TSLUtils {
@@ -32,15 +35,13 @@ public class TSLUtils {
     private static final Logger LOGGER = LoggerFactory.getLogger(TSLUtils.class);
 
     public static TSLCertificateSource addCertificatesFromTrustedListSource(TSLCertificateSource tsl, TrustedListsCertificateSource trustedListSource) {
-        trustedListSource.getCertificates().forEach(certToken -> {
-            ServiceInfo serviceInfo = null;
-
-            if (!trustedListSource.getTrustServices(certToken).isEmpty()) {
-                serviceInfo = (ServiceInfo) trustedListSource.getTrustServices(certToken).toArray()[0];
-            }
+        List<CertificateToken> certificates = trustedListSource.getCertificates();
+        certificates.forEach(certToken -> {
+            Set<ServiceInfo> trustServices = trustedListSource.getTrustServices(certToken);
+            ServiceInfo serviceInfo = trustServices.isEmpty() ? null : trustServices.iterator().next();
             tsl.addCertificate(certToken, Collections.singletonList(serviceInfo));
         });
-        LOGGER.debug("{} certificates added to TSL certificate source", trustedListSource.getCertificates().size());
+        LOGGER.debug("{} certificates added to TSL certificate source", certificates.size());
         return tsl;
     }
 }
@@ -29,6 +29,12 @@ import org.springframework.boot.SpringBootConfiguration;
 import org.springframework.boot.autoconfigure.EnableAutoConfiguration;
 import org.springframework.boot.context.properties.EnableConfigurationProperties;
 import org.springframework.context.annotation.Bean;
+import org.springframework.scheduling.concurrent.CustomizableThreadFactory;
+
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
 
 @SpringBootConfiguration
 @EnableAutoConfiguration
@@ -52,7 +58,20 @@ public class TimemarkContainerValidationServiceConfiguration {
     public PolicyConfigurationWrapper policyConfiguration( BDOCSignaturePolicyService bdocSignaturePolicyService, Configuration configuration) {
         configuration.setTslLocation(tslLoaderConfigurationProperties.getUrl());
         ConstraintDefinedPolicy policy = bdocSignaturePolicyService.getPolicy(StringUtils.EMPTY);
-        configuration.setValidationPolicy(bdocSignaturePolicyService.getAbsolutePath(policy.getName()));
+        configuration.setValidationPolicy(bdocSignaturePolicyService.getConstraintLocation(policy));
         return new PolicyConfigurationWrapper(configuration, policy);
     }
+
+    /**
+     * Shared by all BDOC validation requests when parallel signature validation is enabled. When the queue is full,
+     * the requesting thread validates the signature itself.
+     */
+    @Bean(name = "timemarkSignatureValidationExecutor", destroyMethod = "shutdown")
+    public ExecutorService timemarkSignatureValidationExecutor(BDOCValidationServiceProperties properties) {
+        ThreadPoolExecutor executor = new ThreadPoolExecutor(properties.getSignatureValidationThreadPoolSize(), properties.getSignatureValidationThreadPoolSize(),
+                60, TimeUnit.SECONDS, new LinkedBlockingQueue<>(properties.getSignatureValidationQueueCapacity()),
+                new CustomizableThreadFactory("bdoc-signature-validation-"), new ThreadPoolExecutor.CallerRunsPolicy());
+        executor.allowCoreThreadTimeOut(true);
+        return executor;
+    }
 }
@@ -19,7 +19,6 @@ package ee.openeid.validation.service.timemark.report;
 import ee.openeid.siva.validation.document.report.DataFileData;
 import ee.openeid.siva.validation.document.report.DataFilesReport;
 
-import org.apache.commons.codec.binary.Base64;
 import org.digidoc4j.DataFile;
 
 import java.util.Collections;
@@ -56,15 +55,11 @@ public class DDOCDataFilesReportBuilder {
             return null;
         }
         DataFileData dataFileData = new DataFileData();
-        dataFileData.setBase64(getBase64String(dataFile));
+        dataFileData.setContent(dataFile.getBytes());
         dataFileData.setFilename(dataFile.getName());
         dataFileData.setMimeType(dataFile.getMediaType());
         dataFileData.setSize(dataFile.getFileSize());
         return dataFileData;
     }
 
-    private String getBase64String(DataFile dataFile) {
-        return Base64.encodeBase64String(dataFile.getBytes());
-    }
-
 }
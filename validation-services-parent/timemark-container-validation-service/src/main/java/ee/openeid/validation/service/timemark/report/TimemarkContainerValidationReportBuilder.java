@@ -22,6 +22,7 @@ import ee.openeid.siva.validation.document.report.DiagnosticReport;
 import ee.openeid.siva.validation.document.report.Error;
 import ee.openeid.siva.validation.document.report.Info;
 import ee.openeid.siva.validation.document.report.Reports;
+import ee.openeid.siva.validation.document.report.RequestedReport;
 import ee.openeid.siva.validation.document.report.SignatureScope;
 import ee.openeid.siva.validation.document.report.SignatureValidationData;
 import ee.openeid.siva.validation.document.report.SimpleReport;
@@ -46,12 +47,16 @@ import org.digidoc4j.impl.ddoc.DDocContainer;
 import org.slf4j.LoggerFactory;
 
 import java.util.Date;
+import java.util.IdentityHashMap;
 import java.util.List;
+import java.util.Map;
+import java.util.Set;
 import java.util.stream.Collectors;
 
 import static ee.openeid.siva.validation.document.report.builder.ReportBuilderUtils.createReportPolicy;
 import static ee.openeid.siva.validation.document.report.builder.ReportBuilderUtils.emptyWhenNull;
 import static ee.openeid.siva.validation.document.report.builder.ReportBuilderUtils.getValidationTime;
+import static ee.openeid.siva.validation.document.report.builder.ReportBuilderUtils.isReportRequested;
 import static ee.openeid.siva.validation.document.report.builder.ReportBuilderUtils.processSignatureIndications;
 import static org.digidoc4j.X509Cert.SubjectName.CN;
 
@@ -75,6 +80,7 @@ public abstract class TimemarkContainerValidationReportBuilder {
     private ValidationPolicy validationPolicy;
     List<DigiDoc4JException> containerErrors;
     private boolean isReportSignatureEnabled;
+    private final Map<Signature, SignatureValidationResult> signatureValidationResults = new IdentityHashMap<>();
 
     public TimemarkContainerValidationReportBuilder(Container container, ValidationDocument validationDocument, ValidationPolicy validationPolicy, List<DigiDoc4JException> containerErrors, boolean isReportSignatureEnabled) {
         this.container = container;
@@ -108,8 +114,8 @@ public abstract class TimemarkContainerValidationReportBuilder {
             processSignatureIndications(validationConclusion, validationPolicy.getName());
         }
         SimpleReport simpleReport = new SimpleReport(validationConclusion);
-        DetailedReport detailedReport = new DetailedReport(validationConclusion, null);
-        DiagnosticReport diagnosticReport = new DiagnosticReport(validationConclusion, null);
+        DetailedReport detailedReport = isReportRequested(validationDocument, RequestedReport.DETAILED) ? new DetailedReport(validationConclusion, null) : null;
+        DiagnosticReport diagnosticReport = isReportRequested(validationDocument, RequestedReport.DIAGNOSTIC) ? new DiagnosticReport(validationConclusion, null) : null;
         return new Reports(simpleReport, detailedReport, diagnosticReport);
     }
 
@@ -118,10 +124,11 @@ public abstract class TimemarkContainerValidationReportBuilder {
         validationConclusion.setPolicy(createReportPolicy(validationPolicy));
         validationConclusion.setValidationTime(getValidationTime());
 
+        List<Signature> signatures = container.getSignatures();
         validationConclusion.setSignatureForm(getSignatureForm());
-        validationConclusion.setSignaturesCount(container.getSignatures().size());
-        validationConclusion.setValidationWarnings(containerValidationWarnings());
-        validationConclusion.setSignatures(createSignaturesForReport(container));
+        validationConclusion.setSignaturesCount(signatures.size());
+        validationConclusion.setValidationWarnings(containerValidationWarnings(signatures));
+        validationConclusion.setSignatures(createSignaturesForReport(container, signatures));
         validationConclusion.setValidatedDocument(ReportBuilderUtils.createValidatedDocument(isReportSignatureEnabled, validationDocument.getName(), validationDocument.getBytes()));
         validationConclusion.setValidSignaturesCount(
                 validationConclusion.getSignatures()
@@ -132,16 +139,20 @@ public abstract class TimemarkContainerValidationReportBuilder {
         return validationConclusion;
     }
 
-    private List<ValidationWarning> containerValidationWarnings() {
+    private List<ValidationWarning> containerValidationWarnings(List<Signature> signatures) {
         List<ValidationWarning> validationWarnings = containerErrors.stream().map(e -> createValidationWarning(e.getMessage())).collect(Collectors.toList());
-        validationWarnings.removeIf(s -> container.getSignatures().stream().anyMatch(sig -> getErrors(sig).stream().anyMatch(err -> err.getContent().equals(s.getContent()))));
+        Set<String> signatureErrors = signatures.stream()
+                .flatMap(sig -> getErrors(sig).stream())
+                .map(Error::getContent)
+                .collect(Collectors.toSet());
+        validationWarnings.removeIf(s -> signatureErrors.contains(s.getContent()));
         addExtraValidationWarnings(validationWarnings);
         return validationWarnings;
     }
 
-    private List<SignatureValidationData> createSignaturesForReport(Container container) {
+    private List<SignatureValidationData> createSignaturesForReport(Container container, List<Signature> signatures) {
         List<String> dataFilenames = container.getDataFiles().stream().map(DataFile::getName).collect(Collectors.toList());
-        return container.getSignatures().stream().map(sig -> createSignatureValidationData(sig, dataFilenames)).collect(Collectors.toList());
+        return signatures.stream().map(sig -> createSignatureValidationData(sig, dataFilenames)).collect(Collectors.toList());
     }
 
     private SignatureValidationData createSignatureValidationData(Signature signature, List<String> dataFilenames) {
@@ -186,11 +197,14 @@ public abstract class TimemarkContainerValidationReportBuilder {
     }
 
     private eu.europa.esig.dss.validation.reports.SimpleReport getDssSimpleReport(AsicESignature bDocSignature) {
-        return bDocSignature.getDssValidationReport().getReports().getSimpleReport();
+        return getSignatureValidationResult(bDocSignature).getDssSimpleReport();
     }
 
     private SignatureValidationData.Indication getIndication(Signature signature) {
-        ValidationResult validationResult = signature.validateSignature();
+        return getSignatureValidationResult(signature).getIndication();
+    }
+
+    private SignatureValidationData.Indication resolveIndication(Signature signature, ValidationResult validationResult) {
         if (validationResult.isValid()) {
             return SignatureValidationData.Indication.TOTAL_PASSED;
         } else if (signature instanceof AsicESignature && REPORT_INDICATION_INDETERMINATE.equals(getDssSimpleReport((AsicESignature) signature).getIndication(signature.getId()).name())) {
@@ -223,17 +237,15 @@ public abstract class TimemarkContainerValidationReportBuilder {
     }
 
     private List<Warning> getWarnings(Signature signature) {
-        return signature.validateSignature().getWarnings()
-                .stream()
-                .map(TimemarkContainerValidationReportBuilder::mapDigidoc4JWarning)
-                .collect(Collectors.toList());
+        return getSignatureValidationResult(signature).getWarnings();
     }
 
     private List<Error> getErrors(Signature signature) {
-        return signature.validateSignature().getErrors()
-                .stream()
-                .map(TimemarkContainerValidationReportBuilder::mapDigidoc4JException)
-                .collect(Collectors.toList());
+        return getSignatureValidationResult(signature).getErrors();
+    }
+
+    private SignatureValidationResult getSignatureValidationResult(Signature signature) {
+        return signatureValidationResults.computeIfAbsent(signature, SignatureValidationResult::new);
     }
 
     private String getCountryCode(Signature signature) {
@@ -250,4 +262,54 @@ public abstract class TimemarkContainerValidationReportBuilder {
 
     abstract String getSignatureFormat(SignatureProfile profile);
 
+    /**
+     * Validation outcome of a single signature, computed once per report build. Report entries and container
+     * warnings read the same DigiDoc4J validation result, DSS simple report, errors and warnings. Signatures are
+     * looked up by identity, so the container's signatures are fetched once per build.
+     */
+    private class SignatureValidationResult {
+
+        private final Signature signature;
+        private final ValidationResult validationResult;
+        private final List<Error> errors;
+        private final List<Warning> warnings;
+        private eu.europa.esig.dss.validation.reports.SimpleReport dssSimpleReport;
+        private SignatureValidationData.Indication indication;
+
+        SignatureValidationResult(Signature signature) {
+            this.signature = signature;
+            this.validationResult = signature.validateSignature();
+            this.errors = validationResult.getErrors()
+                    .stream()
+                    .map(TimemarkContainerValidationReportBuilder::mapDigidoc4JException)
+                    .collect(Collectors.toList());
+            this.warnings = validationResult.getWarnings()
+                    .stream()
+                    .map(TimemarkContainerValidationReportBuilder::mapDigidoc4JWarning)
+                    .collect(Collectors.toList());
+        }
+
+        List<Error> getErrors() {
+            return errors;
+        }
+
+        List<Warning> getWarnings() {
+            return warnings;
+        }
+
+        eu.europa.esig.dss.validation.reports.SimpleReport getDssSimpleReport() {
+            if (dssSimpleReport == null) {
+                dssSimpleReport = ((AsicESignature) signature).getDssValidationReport().getReports().getSimpleReport();
+            }
+            return dssSimpleReport;
+        }
+
+        SignatureValidationData.Indication getIndication() {
+            if (indication == null) {
+                indication = resolveIndication(signature, validationResult);
+            }
+            return indication;
+        }
+    }
+
 }
@@ -17,18 +17,24 @@
 package ee.openeid.validation.service.timemark.signature.policy;
 
 import ee.openeid.siva.validation.service.signature.policy.InvalidPolicyException;
+import ee.openeid.siva.validation.service.signature.policy.properties.ConstraintDefinedPolicy;
+import ee.openeid.tsl.TSLLoader;
 import ee.openeid.validation.service.timemark.configuration.BDOCSignaturePolicyProperties;
-import eu.europa.esig.dss.tsl.TrustedListsCertificateSource;
+import ee.openeid.validation.service.timemark.configuration.BDOCValidationServiceProperties;
+import ee.openeid.validation.service.timemark.configuration.DDOCValidationServiceProperties;
 import org.apache.commons.lang3.StringUtils;
 import org.digidoc4j.Configuration;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.core.io.ClassPathResource;
 import org.springframework.stereotype.Component;
 
 import javax.annotation.PostConstruct;
 import java.util.Map;
 import java.util.concurrent.ConcurrentSkipListMap;
+import java.util.concurrent.ExecutorService;
 
 @Component
 public class BDOCConfigurationService {
@@ -38,26 +44,57 @@ public class BDOCConfigurationService {
     private PolicyConfigurationWrapper policyConfiguration;
     private BDOCSignaturePolicyProperties properties;
     private BDOCSignaturePolicyService policyService;
-
-    private TrustedListsCertificateSource trustedListSource;
+    private DDOCValidationServiceProperties ddocValidationServiceProperties;
+    private BDOCValidationServiceProperties bdocValidationServiceProperties;
+    private ExecutorService signatureValidationExecutor;
+    private TSLLoader tslLoader;
     private ConfigurationLoader configurationLoader;
 
     @PostConstruct
     protected void loadAllBDOCConfigurations() {
         properties.getAbstractPolicies().forEach(policy -> {
-            Configuration tempConfiguration = policyConfiguration.getConfiguration().copy();
-            tempConfiguration.setValidationPolicy(policyService.getAbsolutePath(policy.getName()));
             LOGGER.info("Adding BDOC validation policy: {}", policy.getName());
-            policyList.putIfAbsent(policy.getName(), new PolicyConfigurationWrapper(tempConfiguration, policy));
+            policyList.putIfAbsent(policy.getName(), createPolicyConfiguration(policyService.getPolicy(policy.getName())));
         });
     }
 
     public PolicyConfigurationWrapper loadPolicyConfiguration(String policyName) {
-        PolicyConfigurationWrapper policyConfigurationWrapper = getExistingOrDefaultPolicy(policyName);
-        configurationLoader.reloadTrustedCertificatesIfNecessary(policyConfigurationWrapper.getConfiguration(), trustedListSource);
+        PolicyConfigurationWrapper policyConfigurationWrapper = getCurrentPolicyConfiguration(getExistingOrDefaultPolicy(policyName));
+        configurationLoader.reloadTrustedCertificatesIfNecessary(policyConfigurationWrapper.getConfiguration(), tslLoader.getTrustedListSource());
         return policyConfigurationWrapper;
     }
 
+    private PolicyConfigurationWrapper createPolicyConfiguration(ConstraintDefinedPolicy policy) {
+        String jdigidocConfigurationPath = new ClassPathResource(ddocValidationServiceProperties.getJdigidocConfigurationFile()).getPath();
+        Configuration tempConfiguration = policyConfiguration.getConfiguration().copy();
+        tempConfiguration.setValidationPolicy(policyService.getConstraintLocation(policy));
+        tempConfiguration.loadConfiguration(jdigidocConfigurationPath, true);
+        if (bdocValidationServiceProperties.isParallelSignatureValidation()) {
+            tempConfiguration.setThreadExecutor(signatureValidationExecutor);
+        }
+        return new PolicyConfigurationWrapper(tempConfiguration, policy);
+    }
+
+    /**
+     * The policy service replaces a policy whose file has changed, in which case the policy configuration is
+     * rebuilt for the replacing policy before it is used.
+     */
+    private PolicyConfigurationWrapper getCurrentPolicyConfiguration(PolicyConfigurationWrapper policyConfigurationWrapper) {
+        ConstraintDefinedPolicy policy = policyService.getPolicy(policyConfigurationWrapper.getPolicy().getName());
+        return policy == policyConfigurationWrapper.getPolicy() ? policyConfigurationWrapper : reloadPolicyConfiguration(policy);
+    }
+
+    private synchronized PolicyConfigurationWrapper reloadPolicyConfiguration(ConstraintDefinedPolicy policy) {
+        PolicyConfigurationWrapper loadedPolicyConfiguration = policyList.get(policy.getName());
+        if (loadedPolicyConfiguration.getPolicy() == policy) {
+            return loadedPolicyConfiguration;
+        }
+        LOGGER.info("Reloading BDOC validation policy: {}", policy.getName());
+        PolicyConfigurationWrapper reloadedPolicyConfiguration = createPolicyConfiguration(policy);
+        policyList.put(policy.getName(), reloadedPolicyConfiguration);
+        return reloadedPolicyConfiguration;
+    }
+
     private PolicyConfigurationWrapper getExistingOrDefaultPolicy(String policyName) {
         return StringUtils.isEmpty(policyName) ?
                 loadExistingPolicy(properties.getDefaultPolicy()) :
@@ -86,13 +123,30 @@ public class BDOCConfigurationService {
         this.properties = properties;
     }
 
+    @Autowired
+    public void setDdocValidationServiceProperties(DDOCValidationServiceProperties ddocValidationServiceProperties) {
+        this.ddocValidationServiceProperties = ddocValidationServiceProperties;
+    }
+
+    @Autowired
+    public void setBdocValidationServiceProperties(BDOCValidationServiceProperties bdocValidationServiceProperties) {
+        this.bdocValidationServiceProperties = bdocValidationServiceProperties;
+    }
+
+    @Autowired
+    @Qualifier("timemarkSignatureValidationExecutor")
+    public void setSignatureValidationExecutor(ExecutorService signatureValidationExecutor) {
+        this.signatureValidationExecutor = signatureValidationExecutor;
+    }
+
     @Autowired
     public void setConfigurationLoader(ConfigurationLoader configurationLoader) {
         this.configurationLoader = configurationLoader;
     }
 
     @Autowired
-    public void setTrustedListSource(TrustedListsCertificateSource trustedListSource) {
-        this.trustedListSource = trustedListSource;
+    @Qualifier("tslLoader")
+    public void setTslLoader(TSLLoader tslLoader) {
+        this.tslLoader = tslLoader;
     }
 }
@@ -19,49 +19,33 @@ package ee.openeid.validation.service.timemark.signature.policy;
 import ee.openeid.siva.validation.service.signature.policy.ConstraintLoadingSignaturePolicyService;
 import ee.openeid.siva.validation.service.signature.policy.properties.ConstraintDefinedPolicy;
 
-import org.apache.commons.io.IOUtils;
-import org.apache.commons.lang3.StringUtils;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.beans.factory.annotation.Qualifier;
 import org.springframework.stereotype.Service;
 
-import java.io.*;
-
 @Service
 public class BDOCSignaturePolicyService {
     private static final Logger LOGGER = LoggerFactory.getLogger(BDOCSignaturePolicyService.class);
     private ConstraintLoadingSignaturePolicyService signaturePolicyService;
 
-    public String getAbsolutePath(String policyName) {
-        LOGGER.debug("creating policy file from path {}", policyName);
-        InputStream inputStream = signaturePolicyService.getPolicy(policyName).getConstraintDataStream();
-        try {
-            File file = File.createTempFile(getTempPolicyName(policyName), ".xml");
-            file.deleteOnExit();
-            OutputStream outputStream = new FileOutputStream(file);
-
-            LOGGER.info("BDOC policy constraints file added: {}", file.getAbsolutePath());
-            IOUtils.copy(inputStream, outputStream);
-
-            outputStream.close();
-            return file.getAbsolutePath();
-        } catch (IOException e) {
-            LOGGER.error("Unable to create temporary file from bdoc policy resource", e);
-            throw new BdocPolicyFileCreationException(e);
-        }
+    /**
+     * Location of the policy constraints for DigiDoc4J: the absolute path of the policy file or the name of the
+     * classpath resource. DigiDoc4J accepts the validation policy only as a location, which it reads the constraints
+     * from on every validation, so the constraints already loaded for the policy can not be handed over.
+     * No copy of the policy is written.
+     */
+    public String getConstraintLocation(ConstraintDefinedPolicy policy) {
+        String constraintPath = policy.getConstraintPath();
+        LOGGER.debug("BDOC policy {} constraints location: {}", policy.getName(), constraintPath);
+        return constraintPath;
     }
 
     public ConstraintDefinedPolicy getPolicy(String policyName) {
         return signaturePolicyService.getPolicy(policyName);
     }
 
-    private String getTempPolicyName(String policyName) {
-        String validPolicyName = StringUtils.isEmpty(policyName) ? "default" : policyName;
-        return "siva-bdoc-" + validPolicyName + "-constraint-";
-    }
-
     @Autowired
     @Qualifier("timemarkPolicyService")
     public void setSignaturePolicyService(ConstraintLoadingSignaturePolicyService signaturePolicyService) {
@@ -1,31 +1,69 @@
 package ee.openeid.validation.service.timemark.signature.policy;
 
+import ee.openeid.tsl.TSLReloadListener;
 import ee.openeid.validation.service.timemark.configuration.TSLUtils;
 import eu.europa.esig.dss.tsl.TrustedListsCertificateSource;
 import org.digidoc4j.Configuration;
 import org.digidoc4j.TSLCertificateSource;
+import org.digidoc4j.impl.asic.tsl.TSLCertificateSourceImpl;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.context.annotation.Profile;
 import org.springframework.stereotype.Component;
 
+/**
+ * Copies the trusted certificates into a DigiDoc4J TSL once per trusted certificates generation, when the
+ * {@link ee.openeid.tsl.TSLLoader} has published a (re)loaded certificate source. Validation requests only swap
+ * the latest copy into their configuration.
+ */
 @Component
 @Profile("test")
-public class CertificateConfigurationLoader implements ConfigurationLoader {
+public class CertificateConfigurationLoader implements ConfigurationLoader, TSLReloadListener {
 
     private static final Logger LOGGER = LoggerFactory.getLogger(CertificateConfigurationLoader.class);
-    private TSLCertificateSource lastCertificateSource;
-    private int trustStoreSize;
+    private static final long UNKNOWN_GENERATION = 0;
+
+    private volatile TrustedCertificates trustedCertificates;
+
+    @Override
+    public synchronized void tslReloaded(long generation, TrustedListsCertificateSource trustedListSource) {
+        TrustedCertificates current = trustedCertificates;
+        if (current == null || current.generation < generation) {
+            trustedCertificates = copyTrustedCertificates(generation, trustedListSource);
+        }
+    }
 
     @Override
     public void reloadTrustedCertificatesIfNecessary(Configuration configuration, TrustedListsCertificateSource trustedListSource) {
-        if (configuration.getTSL().getCertificates().size() != trustedListSource.getCertificates().size() && trustStoreSize != trustedListSource.getCertificates().size()) {
-            trustStoreSize = trustedListSource.getCertificates().size();
-            LOGGER.debug("some or all trusted certificates are not added to D4J configuration, repopulating from cert pool");
-            lastCertificateSource = TSLUtils.addCertificatesFromTrustedListSource(configuration.getTSL(), trustedListSource);
+        TrustedCertificates current = trustedCertificates;
+        if (current == null) {
+            current = initTrustedCertificates(trustedListSource);
+        }
+        configuration.setTSL(current.tsl);
+    }
+
+    private synchronized TrustedCertificates initTrustedCertificates(TrustedListsCertificateSource trustedListSource) {
+        if (trustedCertificates == null) {
+            trustedCertificates = copyTrustedCertificates(UNKNOWN_GENERATION, trustedListSource);
         }
-        configuration.setTSL(lastCertificateSource);
+        return trustedCertificates;
+    }
+
+    private static TrustedCertificates copyTrustedCertificates(long generation, TrustedListsCertificateSource trustedListSource) {
+        LOGGER.debug("Copying trusted certificates generation {} to D4J TSL", generation);
+        TSLCertificateSource tsl = TSLUtils.addCertificatesFromTrustedListSource(new TSLCertificateSourceImpl(), trustedListSource);
+        return new TrustedCertificates(generation, tsl);
     }
 
+    private static class TrustedCertificates {
+
+        private final long generation;
+        private final TSLCertificateSource tsl;
+
+        TrustedCertificates(long generation, TSLCertificateSource tsl) {
+            this.generation = generation;
+            this.tsl = tsl;
+        }
+    }
 
 }
@@ -18,15 +18,14 @@ package ee.openeid.validation.service.timemark.signature.policy;
 
 import lombok.AllArgsConstructor;
 import lombok.Getter;
-import lombok.Setter;
 
 import ee.openeid.siva.validation.service.signature.policy.properties.ConstraintDefinedPolicy;
 
 import org.digidoc4j.Configuration;
 
-@Getter @Setter
+@Getter
 @AllArgsConstructor
 public class PolicyConfigurationWrapper {
-    private Configuration configuration;
-    private ConstraintDefinedPolicy policy;
+    private final Configuration configuration;
+    private final ConstraintDefinedPolicy policy;
 }
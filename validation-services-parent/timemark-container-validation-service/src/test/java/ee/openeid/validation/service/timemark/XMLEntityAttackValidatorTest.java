@@ -0,0 +1,57 @@
+/*
+ * Copyright 2019 Riigi Infosüsteemide Amet
+ *
+ * Licensed under the EUPL, Version 1.1 or – as soon they will be approved by
+ * the European Commission - subsequent versions of the EUPL (the "Licence");
+ * You may not use this work except in compliance with the Licence.
+ * You may obtain a copy of the Licence at:
+ *
+ * https://joinup.ec.europa.eu/software/page/eupl
+ *
+ * Unless required by applicable law or agreed to in writing, software distributed under the Licence is
+ * distributed on an "AS IS" basis,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the Licence for the specific language governing permissions and limitations under the Licence.
+ */
+
+
+package ee.openeid.validation.service.timemark;
+
+import ee.openeid.siva.validation.exception.MalformedDocumentException;
+import org.junit.Test;
+
+import java.nio.charset.StandardCharsets;
+
+public class XMLEntityAttackValidatorTest {
+
+    private final XMLEntityAttackValidator validator = new XMLEntityAttackValidator();
+
+    @Test
+    public void documentWithoutDocumentTypeDeclarationIsAccepted() {
+        validator.validateAgainstXMLEntityAttacks(bytes("<?xml version=\"1.0\" encoding=\"UTF-8\"?>\n<!-- comment -->\n<SignedDoc><DataFile/></SignedDoc>"));
+    }
+
+    @Test(expected = MalformedDocumentException.class)
+    public void documentTypeDeclarationIsRejected() {
+        validator.validateAgainstXMLEntityAttacks(bytes("<?xml version=\"1.0\"?><!DOCTYPE SignedDoc PUBLIC \"-//TEST//EN\" \"http://localhost:1234/\"><SignedDoc/>"));
+    }
+
+    @Test(expected = MalformedDocumentException.class)
+    public void entityDeclarationIsRejected() {
+        validator.validateAgainstXMLEntityAttacks(bytes("<?xml version=\"1.0\"?><!DOCTYPE SignedDoc [<!ENTITY lol \"lol\">]><SignedDoc>&lol;</SignedDoc>"));
+    }
+
+    @Test(expected = MalformedDocumentException.class)
+    public void malformedPrologIsRejected() {
+        validator.validateAgainstXMLEntityAttacks(bytes("<?xml version=\"1.0\"?>not xml"));
+    }
+
+    @Test
+    public void contentAfterRootElementStartIsLeftToContainerParsing() {
+        validator.validateAgainstXMLEntityAttacks(bytes("<?xml version=\"1.0\"?><SignedDoc><DataFile></SignedDoc>"));
+    }
+
+    private static byte[] bytes(String xml) {
+        return xml.getBytes(StandardCharsets.UTF_8);
+    }
+}
@@ -0,0 +1,167 @@
+/*
+ * Copyright 2019 Riigi Infosüsteemide Amet
+ *
+ * Licensed under the EUPL, Version 1.1 or – as soon they will be approved by
+ * the European Commission - subsequent versions of the EUPL (the "Licence");
+ * You may not use this work except in compliance with the Licence.
+ * You may obtain a copy of the Licence at:
+ *
+ * https://joinup.ec.europa.eu/software/page/eupl
+ *
+ * Unless required by applicable law or agreed to in writing, software distributed under the Licence is
+ * distributed on an "AS IS" basis,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the Licence for the specific language governing permissions and limitations under the Licence.
+ */
+
+package ee.openeid.validation.service.timemark.report;
+
+import ee.openeid.siva.validation.document.ValidationDocument;
+import ee.openeid.siva.validation.document.report.Reports;
+import ee.openeid.siva.validation.document.report.SignatureScope;
+import ee.openeid.siva.validation.document.report.SignatureValidationData;
+import ee.openeid.siva.validation.document.report.ValidationWarning;
+import ee.openeid.siva.validation.service.signature.policy.properties.ValidationPolicy;
+import org.digidoc4j.Container;
+import org.digidoc4j.Signature;
+import org.digidoc4j.SignatureProfile;
+import org.digidoc4j.ValidationResult;
+import org.digidoc4j.X509Cert;
+import org.digidoc4j.exceptions.DigiDoc4JException;
+import org.junit.Before;
+import org.junit.Test;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.Date;
+import java.util.List;
+import java.util.stream.Collectors;
+
+import static ee.openeid.siva.validation.document.report.SignatureValidationData.Indication.TOTAL_FAILED;
+import static ee.openeid.siva.validation.document.report.SignatureValidationData.Indication.TOTAL_PASSED;
+import static org.junit.Assert.assertEquals;
+import static org.mockito.Matchers.any;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+public class TimemarkContainerValidationReportBuilderTest {
+
+    private Container container;
+    private ValidationDocument validationDocument;
+    private ValidationPolicy validationPolicy;
+
+    @Before
+    public void setUp() {
+        container = mock(Container.class);
+        when(container.getDataFiles()).thenReturn(Collections.emptyList());
+        validationDocument = new ValidationDocument();
+        validationDocument.setName("container.bdoc");
+        validationDocument.setBytes(new byte[]{1});
+        validationPolicy = new ValidationPolicy();
+        validationPolicy.setName("POLv3");
+    }
+
+    @Test
+    public void everySignatureIsValidatedOncePerBuild() {
+        Signature first = mockSignature("S0", false, "S0 error 1", "S0 error 2");
+        Signature second = mockSignature("S1", true);
+        Signature third = mockSignature("S2", false, "S2 error");
+        when(container.getSignatures()).thenAnswer(invocation -> Arrays.asList(first, second, third));
+        List<DigiDoc4JException> containerErrors = exceptions("S0 error 1", "S0 error 2", "S2 error");
+
+        Reports reports = buildReports(containerErrors);
+
+        for (Signature signature : Arrays.asList(first, second, third)) {
+            verify(signature).validateSignature();
+        }
+        List<SignatureValidationData> signatures = reports.getSimpleReport().getValidationConclusion().getSignatures();
+        assertEquals(Arrays.asList(TOTAL_FAILED.toString(), TOTAL_PASSED.toString(), TOTAL_FAILED.toString()),
+                signatures.stream().map(SignatureValidationData::getIndication).collect(Collectors.toList()));
+        assertEquals(2, signatures.get(0).getErrors().size());
+        assertEquals(1, (int) reports.getSimpleReport().getValidationConclusion().getValidSignaturesCount());
+
+        buildReports(containerErrors);
+
+        for (Signature signature : Arrays.asList(first, second, third)) {
+            verify(signature, times(2)).validateSignature();
+        }
+    }
+
+    @Test
+    public void containerWarningsMatchingSignatureErrorsAreRemoved() {
+        Signature first = mockSignature("S0", false, "signature error");
+        Signature second = mockSignature("S1", false, "other signature error");
+        when(container.getSignatures()).thenAnswer(invocation -> Arrays.asList(first, second));
+        List<DigiDoc4JException> containerErrors = exceptions("signature error", "container error", "other signature error", "container error");
+
+        Reports reports = buildReports(containerErrors);
+
+        List<String> warnings = reports.getSimpleReport().getValidationConclusion().getValidationWarnings()
+                .stream()
+                .map(ValidationWarning::getContent)
+                .collect(Collectors.toList());
+        assertEquals(Arrays.asList("container error", "container error"), warnings);
+        verify(first).validateSignature();
+        verify(second).validateSignature();
+    }
+
+    private static Signature mockSignature(String id, boolean valid, String... errors) {
+        ValidationResult validationResult = mock(ValidationResult.class);
+        when(validationResult.isValid()).thenReturn(valid);
+        when(validationResult.getErrors()).thenReturn(exceptions(errors));
+        when(validationResult.getWarnings()).thenReturn(new ArrayList<>());
+
+        X509Cert signingCertificate = mock(X509Cert.class);
+        when(signingCertificate.getSubjectName(any(X509Cert.SubjectName.class))).thenReturn("\"SIGNER," + id + "\"");
+
+        Signature signature = mock(Signature.class);
+        when(signature.getId()).thenReturn(id);
+        when(signature.getProfile()).thenReturn(SignatureProfile.LT_TM);
+        when(signature.getSigningCertificate()).thenReturn(signingCertificate);
+        when(signature.getClaimedSigningTime()).thenReturn(new Date());
+        when(signature.validateSignature()).thenReturn(validationResult);
+        return signature;
+    }
+
+    private Reports buildReports(List<DigiDoc4JException> containerErrors) {
+        return new TestReportBuilder(container, validationDocument, validationPolicy, containerErrors).build();
+    }
+
+    private static List<DigiDoc4JException> exceptions(String... messages) {
+        return Arrays.stream(messages).map(DigiDoc4JException::new).collect(Collectors.toList());
+    }
+
+    private static class TestReportBuilder extends TimemarkContainerValidationReportBuilder {
+
+        TestReportBuilder(Container container, ValidationDocument validationDocument, ValidationPolicy validationPolicy, List<DigiDoc4JException> containerErrors) {
+            super(container, validationDocument, validationPolicy, containerErrors, false);
+        }
+
+        @Override
+        void addExtraValidationWarnings(List<ValidationWarning> validationWarnings) {
+        }
+
+        @Override
+        List<ValidationWarning> getValidationWarningsForUnsignedDataFiles() {
+            return new ArrayList<>();
+        }
+
+        @Override
+        List<SignatureScope> getSignatureScopes(Signature signature, List<String> dataFilenames) {
+            return new ArrayList<>();
+        }
+
+        @Override
+        String getSignatureForm() {
+            return BDOC_SIGNATURE_FORM;
+        }
+
+        @Override
+        String getSignatureFormat(SignatureProfile profile) {
+            return XADES_FORMAT_PREFIX + profile.name();
+        }
+    }
+}
@@ -0,0 +1,174 @@
+/*
+ * Copyright 2019 Riigi Infosüsteemide Amet
+ *
+ * Licensed under the EUPL, Version 1.1 or – as soon they will be approved by
+ * the European Commission - subsequent versions of the EUPL (the "Licence");
+ * You may not use this work except in compliance with the Licence.
+ * You may obtain a copy of the Licence at:
+ *
+ * https://joinup.ec.europa.eu/software/page/eupl
+ *
+ * Unless required by applicable law or agreed to in writing, software distributed under the Licence is
+ * distributed on an "AS IS" basis,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the Licence for the specific language governing permissions and limitations under the Licence.
+ */
+
+
+package ee.openeid.validation.service.timemark.signature.policy;
+
+import ee.openeid.siva.validation.service.signature.policy.properties.ConstraintDefinedPolicy;
+import ee.openeid.tsl.TSLLoader;
+import ee.openeid.validation.service.timemark.configuration.BDOCSignaturePolicyProperties;
+import ee.openeid.validation.service.timemark.configuration.BDOCValidationServiceProperties;
+import ee.openeid.validation.service.timemark.configuration.DDOCValidationServiceProperties;
+import eu.europa.esig.dss.tsl.TrustedListsCertificateSource;
+import org.digidoc4j.Configuration;
+import org.junit.Before;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.mockito.Mock;
+import org.mockito.runners.MockitoJUnitRunner;
+
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.ExecutorService;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNotSame;
+import static org.junit.Assert.assertSame;
+import static org.mockito.Matchers.anyBoolean;
+import static org.mockito.Matchers.anyString;
+import static org.mockito.Matchers.any;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+@RunWith(MockitoJUnitRunner.class)
+public class BDOCConfigurationServiceTest {
+
+    @Mock
+    private Configuration configuration;
+    @Mock
+    private BDOCSignaturePolicyService policyService;
+    @Mock
+    private ConfigurationLoader configurationLoader;
+    @Mock
+    private TrustedListsCertificateSource trustedListSource;
+    @Mock
+    private ExecutorService signatureValidationExecutor;
+    @Mock
+    private TSLLoader tslLoader;
+
+    private final Map<String, ConstraintDefinedPolicy> loadedPolicies = new HashMap<>();
+    private final BDOCValidationServiceProperties bdocValidationServiceProperties = new BDOCValidationServiceProperties();
+    private BDOCConfigurationService configurationService;
+
+    @Before
+    public void setUp() {
+        when(configuration.copy()).thenAnswer(invocation -> mock(Configuration.class));
+        when(tslLoader.getTrustedListSource()).thenReturn(trustedListSource);
+        when(policyService.getConstraintLocation(any(ConstraintDefinedPolicy.class)))
+                .thenAnswer(invocation -> ((ConstraintDefinedPolicy) invocation.getArguments()[0]).getName() + ".xml");
+        when(policyService.getPolicy(anyString())).thenAnswer(invocation -> loadedPolicies.get(invocation.getArguments()[0]));
+        loadedPolicies.put("POLv3", policy("POLv3"));
+        loadedPolicies.put("POLv4", policy("POLv4"));
+
+        BDOCSignaturePolicyProperties properties = new BDOCSignaturePolicyProperties();
+        properties.setPolicies(Arrays.asList(loadedPolicies.get("POLv3"), loadedPolicies.get("POLv4")));
+        properties.setDefaultPolicy("POLv4");
+        properties.init();
+
+        configurationService = new BDOCConfigurationService();
+        configurationService.setConfiguration(new PolicyConfigurationWrapper(configuration, null));
+        configurationService.setPolicyService(policyService);
+        configurationService.setProperties(properties);
+        configurationService.setDdocValidationServiceProperties(new DDOCValidationServiceProperties());
+        configurationService.setBdocValidationServiceProperties(bdocValidationServiceProperties);
+        configurationService.setSignatureValidationExecutor(signatureValidationExecutor);
+        configurationService.setConfigurationLoader(configurationLoader);
+        configurationService.setTslLoader(tslLoader);
+    }
+
+    @Test
+    public void everyPolicyConfigurationIsLoadedOnce() {
+        configurationService.loadAllBDOCConfigurations();
+
+        verify(configuration, times(2)).copy();
+        for (String policyName : Arrays.asList("POLv3", "POLv4")) {
+            PolicyConfigurationWrapper policyConfiguration = configurationService.loadPolicyConfiguration(policyName);
+            assertEquals(policyName, policyConfiguration.getPolicy().getName());
+            verify(policyConfiguration.getConfiguration()).setValidationPolicy(policyName + ".xml");
+            verify(policyConfiguration.getConfiguration()).loadConfiguration(anyString(), anyBoolean());
+        }
+    }
+
+    @Test
+    public void loadingPolicyConfigurationDoesNotReloadIt() {
+        configurationService.loadAllBDOCConfigurations();
+
+        PolicyConfigurationWrapper first = configurationService.loadPolicyConfiguration("POLv4");
+        PolicyConfigurationWrapper second = configurationService.loadPolicyConfiguration("POLv4");
+
+        assertSame(first, second);
+        assertSame(first, configurationService.loadPolicyConfiguration(null));
+        verify(configuration, times(2)).copy();
+        verify(first.getConfiguration()).loadConfiguration(anyString(), anyBoolean());
+        verify(policyService).getConstraintLocation(first.getPolicy());
+    }
+
+    @Test
+    public void reloadedPolicyConfigurationIsRebuiltOnce() {
+        configurationService.loadAllBDOCConfigurations();
+        PolicyConfigurationWrapper loaded = configurationService.loadPolicyConfiguration("POLv4");
+
+        ConstraintDefinedPolicy reloadedPolicy = policy("POLv4");
+        loadedPolicies.put("POLv4", reloadedPolicy);
+        PolicyConfigurationWrapper reloaded = configurationService.loadPolicyConfiguration("POLv4");
+
+        assertNotSame(loaded, reloaded);
+        assertSame(reloadedPolicy, reloaded.getPolicy());
+        assertSame(reloaded, configurationService.loadPolicyConfiguration("POLv4"));
+        verify(configuration, times(3)).copy();
+        verify(reloaded.getConfiguration()).loadConfiguration(anyString(), anyBoolean());
+    }
+
+    @Test
+    public void trustedCertificatesAreReloadedFromRefreshedTrustedListSource() {
+        configurationService.loadAllBDOCConfigurations();
+        TrustedListsCertificateSource refreshedSource = mock(TrustedListsCertificateSource.class);
+
+        PolicyConfigurationWrapper beforeRefresh = configurationService.loadPolicyConfiguration("POLv4");
+        when(tslLoader.getTrustedListSource()).thenReturn(refreshedSource);
+        PolicyConfigurationWrapper afterRefresh = configurationService.loadPolicyConfiguration("POLv4");
+
+        verify(configurationLoader).reloadTrustedCertificatesIfNecessary(beforeRefresh.getConfiguration(), trustedListSource);
+        verify(configurationLoader).reloadTrustedCertificatesIfNecessary(afterRefresh.getConfiguration(), refreshedSource);
+    }
+
+    @Test
+    public void signatureValidationExecutorIsSetWhenParallelValidationIsEnabled() {
+        bdocValidationServiceProperties.setParallelSignatureValidation(true);
+        configurationService.loadAllBDOCConfigurations();
+
+        verify(configurationService.loadPolicyConfiguration("POLv3").getConfiguration()).setThreadExecutor(signatureValidationExecutor);
+        verify(configurationService.loadPolicyConfiguration("POLv4").getConfiguration()).setThreadExecutor(signatureValidationExecutor);
+    }
+
+    @Test
+    public void signatureValidationExecutorIsNotSetByDefault() {
+        configurationService.loadAllBDOCConfigurations();
+
+        verify(configurationService.loadPolicyConfiguration("POLv3").getConfiguration(), never()).setThreadExecutor(any(ExecutorService.class));
+        verify(configurationService.loadPolicyConfiguration("POLv4").getConfiguration(), never()).setThreadExecutor(any(ExecutorService.class));
+    }
+
+    private static ConstraintDefinedPolicy policy(String name) {
+        ConstraintDefinedPolicy policy = new ConstraintDefinedPolicy();
+        policy.setName(name);
+        return policy;
+    }
+}
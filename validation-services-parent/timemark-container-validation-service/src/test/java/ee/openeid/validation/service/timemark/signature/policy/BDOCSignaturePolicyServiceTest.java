@@ -16,30 +16,24 @@
 
 package ee.openeid.validation.service.timemark.signature.policy;
 
+import static org.junit.Assert.assertEquals;
 import static org.mockito.BDDMockito.given;
-import static org.mockito.Matchers.any;
-import static org.mockito.Matchers.anyString;
-import static org.powermock.api.mockito.PowerMockito.mockStatic;
 
 import ee.openeid.siva.validation.service.signature.policy.ConstraintLoadingSignaturePolicyService;
+import ee.openeid.siva.validation.service.signature.policy.InvalidPolicyException;
 import ee.openeid.siva.validation.service.signature.policy.properties.ConstraintDefinedPolicy;
 
-import org.apache.commons.io.IOUtils;
 import org.junit.Before;
 import org.junit.Rule;
 import org.junit.Test;
 import org.junit.rules.ExpectedException;
 import org.junit.runner.RunWith;
 import org.mockito.Mock;
-import org.powermock.core.classloader.annotations.PrepareForTest;
-import org.powermock.modules.junit4.PowerMockRunner;
+import org.mockito.runners.MockitoJUnitRunner;
 
-import java.io.ByteArrayInputStream;
-import java.io.IOException;
-import java.io.InputStream;
-import java.io.OutputStream;
+import java.util.Collections;
 
-@RunWith(PowerMockRunner.class)
+@RunWith(MockitoJUnitRunner.class)
 public class BDOCSignaturePolicyServiceTest {
 
     private BDOCSignaturePolicyService bdocSignaturePolicyService;
@@ -47,9 +41,6 @@ public class BDOCSignaturePolicyServiceTest {
     @Mock
     private ConstraintLoadingSignaturePolicyService signaturePolicyService;
 
-    @Mock
-    private ConstraintDefinedPolicy policy;
-
     @Rule
     public ExpectedException expectedException = ExpectedException.none();
 
@@ -60,13 +51,25 @@ public class BDOCSignaturePolicyServiceTest {
     }
 
     @Test
-    @PrepareForTest(value = {IOUtils.class})
-    public void givenInvalidPolicyWillThrowException() throws Exception {
-        expectedException.expect(BdocPolicyFileCreationException.class);
-        mockStatic(IOUtils.class);
-        given(IOUtils.copy(any(InputStream.class), any(OutputStream.class))).willThrow(new IOException("Copy error"));
-        given(policy.getConstraintDataStream()).willReturn(new ByteArrayInputStream("hello".getBytes()));
-        given(signaturePolicyService.getPolicy(anyString())).willReturn(policy);
-        bdocSignaturePolicyService.getAbsolutePath("random");
+    public void classpathPolicyConstraintsAreLocatedByResourceName() {
+        assertEquals("bdoc_constraint_qes.xml", bdocSignaturePolicyService.getConstraintLocation(policyWithConstraintPath("bdoc_constraint_qes.xml")));
+    }
+
+    @Test
+    public void absolutePathPolicyConstraintsAreLocatedByPolicyFile() {
+        assertEquals("/etc/siva/custom_constraint.xml", bdocSignaturePolicyService.getConstraintLocation(policyWithConstraintPath("/etc/siva/custom_constraint.xml")));
+    }
+
+    @Test
+    public void givenInvalidPolicyWillThrowException() {
+        expectedException.expect(InvalidPolicyException.class);
+        given(signaturePolicyService.getPolicy("random")).willThrow(new InvalidPolicyException("random", Collections.emptySet()));
+        bdocSignaturePolicyService.getPolicy("random");
+    }
+
+    private static ConstraintDefinedPolicy policyWithConstraintPath(String constraintPath) {
+        ConstraintDefinedPolicy policy = new ConstraintDefinedPolicy();
+        policy.setConstraintPath(constraintPath);
+        return policy;
     }
 }
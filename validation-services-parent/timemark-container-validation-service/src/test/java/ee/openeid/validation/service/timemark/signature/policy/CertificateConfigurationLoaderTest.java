@@ -0,0 +1,94 @@
+/*
+ * Copyright 2019 Riigi Infosüsteemide Amet
+ *
+ * Licensed under the EUPL, Version 1.1 or – as soon they will be approved by
+ * the European Commission - subsequent versions of the EUPL (the "Licence");
+ * You may not use this work except in compliance with the Licence.
+ * You may obtain a copy of the Licence at:
+ *
+ * https://joinup.ec.europa.eu/software/page/eupl
+ *
+ * Unless required by applicable law or agreed to in writing, software distributed under the Licence is
+ * distributed on an "AS IS" basis,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the Licence for the specific language governing permissions and limitations under the Licence.
+ */
+
+
+package ee.openeid.validation.service.timemark.signature.policy;
+
+import ee.openeid.tsl.CustomCertificatesLoader;
+import eu.europa.esig.dss.tsl.TrustedListsCertificateSource;
+import org.digidoc4j.Configuration;
+import org.digidoc4j.TSLCertificateSource;
+import org.junit.Before;
+import org.junit.Test;
+import org.mockito.ArgumentCaptor;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNotSame;
+import static org.junit.Assert.assertSame;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+
+public class CertificateConfigurationLoaderTest {
+
+    private final TrustedListsCertificateSource trustedListSource = new TrustedListsCertificateSource();
+    private final CertificateConfigurationLoader configurationLoader = new CertificateConfigurationLoader();
+
+    @Before
+    public void setUp() {
+        new CustomCertificatesLoader().loadExtraCertificates(trustedListSource);
+    }
+
+    @Test
+    public void trustedCertificatesAreCopiedOncePerGeneration() {
+        configurationLoader.tslReloaded(1, trustedListSource);
+        Configuration configuration = mock(Configuration.class);
+
+        configurationLoader.reloadTrustedCertificatesIfNecessary(configuration, trustedListSource);
+        configurationLoader.reloadTrustedCertificatesIfNecessary(configuration, trustedListSource);
+
+        ArgumentCaptor<TSLCertificateSource> tsl = ArgumentCaptor.forClass(TSLCertificateSource.class);
+        verify(configuration, times(2)).setTSL(tsl.capture());
+        assertSame(tsl.getAllValues().get(0), tsl.getAllValues().get(1));
+        assertEquals(trustedListSource.getCertificates(), tsl.getValue().getCertificates());
+    }
+
+    @Test
+    public void newGenerationReplacesCopiedCertificates() {
+        configurationLoader.tslReloaded(1, trustedListSource);
+        TSLCertificateSource firstGeneration = appliedTsl();
+
+        configurationLoader.tslReloaded(2, trustedListSource);
+
+        assertNotSame(firstGeneration, appliedTsl());
+    }
+
+    @Test
+    public void olderGenerationDoesNotReplaceCopiedCertificates() {
+        configurationLoader.tslReloaded(2, trustedListSource);
+        TSLCertificateSource secondGeneration = appliedTsl();
+
+        configurationLoader.tslReloaded(1, trustedListSource);
+
+        assertSame(secondGeneration, appliedTsl());
+    }
+
+    @Test
+    public void certificatesAreCopiedOnFirstRequestWithoutReload() {
+        TSLCertificateSource tsl = appliedTsl();
+
+        assertEquals(trustedListSource.getCertificates(), tsl.getCertificates());
+        assertSame(tsl, appliedTsl());
+    }
+
+    private TSLCertificateSource appliedTsl() {
+        Configuration configuration = mock(Configuration.class);
+        configurationLoader.reloadTrustedCertificatesIfNecessary(configuration, trustedListSource);
+        ArgumentCaptor<TSLCertificateSource> tsl = ArgumentCaptor.forClass(TSLCertificateSource.class);
+        verify(configuration).setTSL(tsl.capture());
+        return tsl.getValue();
+    }
+}
@@ -18,6 +18,7 @@ package ee.openeid.validation.service.timestamptoken;
 
 import ee.openeid.siva.validation.configuration.ReportConfigurationProperties;
 import ee.openeid.siva.validation.document.ValidationDocument;
+import ee.openeid.siva.validation.document.ZipContainer;
 import ee.openeid.siva.validation.document.report.Error;
 import ee.openeid.siva.validation.document.report.Reports;
 import ee.openeid.siva.validation.document.report.TimeStampTokenValidationData;
@@ -29,7 +30,6 @@ import ee.openeid.siva.validation.service.signature.policy.properties.Validation
 import ee.openeid.validation.service.timestamptoken.validator.report.TimeStampTokenValidationReportBuilder;
 import eu.europa.esig.dss.DSSUtils;
 import eu.europa.esig.dss.DigestAlgorithm;
-import eu.europa.esig.dss.InMemoryDocument;
 import org.bouncycastle.asn1.ASN1Encodable;
 import org.bouncycastle.asn1.x500.X500Name;
 import org.bouncycastle.asn1.x500.style.BCStyle;
@@ -48,11 +48,10 @@ import org.springframework.stereotype.Service;
 
 import java.io.ByteArrayInputStream;
 import java.io.IOException;
+import java.security.Security;
 import java.security.cert.Certificate;
 import java.security.cert.CertificateFactory;
 import java.util.*;
-import java.util.zip.ZipEntry;
-import java.util.zip.ZipInputStream;
 
 import static ee.openeid.siva.validation.document.report.builder.ReportBuilderUtils.emptyWhenNull;
 import static ee.openeid.siva.validation.document.report.builder.ReportBuilderUtils.getDateFormatterWithGMTZone;
@@ -69,11 +68,15 @@ public class TimeStampTokenValidationService implements ValidationService {
     private SignaturePolicyService<ValidationPolicy> signaturePolicyService;
     private ReportConfigurationProperties reportConfigurationProperties;
 
+    static {
+        Security.addProvider(new BouncyCastleProvider());
+    }
+
 
     @Override
     public Reports validateDocument(ValidationDocument validationDocument) {
 
-        List<InMemoryDocument> documents = getFilesFromContainer(validationDocument);
+        List<ZipContainer.Entry> documents = getFilesFromContainer(validationDocument);
         validateContainer(documents);
         TimeStampToken timeStampToken = getTimeStamp(documents);
         List<Error> errors = validateTimeStamp(documents, timeStampToken);
@@ -98,7 +101,7 @@ public class TimeStampTokenValidationService implements ValidationService {
         return timeStampTokenValidationData;
     }
 
-    private void validateContainer(List<InMemoryDocument> documents) {
+    private void validateContainer(List<ZipContainer.Entry> documents) {
         documents.removeIf(d -> d.getName().equals(META_INF_FOLDER));
         long dataFileCount = documents.stream()
                 .filter(d -> !d.getName().startsWith(META_INF_FOLDER))
@@ -124,7 +127,7 @@ public class TimeStampTokenValidationService implements ValidationService {
         return path.substring(path.lastIndexOf("/") + 1);
     }
 
-    private TimeStampToken getTimeStamp(List<InMemoryDocument> documents) {
+    private TimeStampToken getTimeStamp(List<ZipContainer.Entry> documents) {
 
         try {
             CMSSignedData cms = new CMSSignedData(documents.stream()
@@ -135,7 +138,7 @@ public class TimeStampTokenValidationService implements ValidationService {
         }
     }
 
-    private List<Error> validateTimeStamp(List<InMemoryDocument> documents, TimeStampToken timeStampToken) {
+    private List<Error> validateTimeStamp(List<ZipContainer.Entry> documents, TimeStampToken timeStampToken) {
         List<Error> errors = new ArrayList<>();
         boolean isSignatureValid = isSignatureValid(timeStampToken);
         if (!isSignatureValid) {
@@ -195,18 +198,11 @@ public class TimeStampTokenValidationService implements ValidationService {
         return Arrays.equals(timeStampToken.getTimeStampInfo().getMessageImprintDigest(), digestValue);
     }
 
-    private List<InMemoryDocument> getFilesFromContainer(ValidationDocument validationDocument) {
-        List<InMemoryDocument> documents = new ArrayList<>();
-        try (ZipInputStream zipStream = new ZipInputStream(new ByteArrayInputStream(validationDocument.getBytes()));) {
-
-            ZipEntry entry;
-            while ((entry = zipStream.getNextEntry()) != null) {
-                documents.add(new InMemoryDocument(zipStream, entry.getName()));
-            }
-        } catch (IOException e) {
-            throw new MalformedDocumentException(e);
-        }
-        return documents;
+    private List<ZipContainer.Entry> getFilesFromContainer(ValidationDocument validationDocument) {
+        ZipContainer zipContainer = validationDocument.getZipContainer() != null
+                ? validationDocument.getZipContainer()
+                : ZipContainer.read(validationDocument.getBytes());
+        return new ArrayList<>(zipContainer.getEntries());
     }
 
     @Autowired
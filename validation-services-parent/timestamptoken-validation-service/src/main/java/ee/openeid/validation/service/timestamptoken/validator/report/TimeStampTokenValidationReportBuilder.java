@@ -20,6 +20,7 @@ import ee.openeid.siva.validation.document.ValidationDocument;
 import ee.openeid.siva.validation.document.report.DetailedReport;
 import ee.openeid.siva.validation.document.report.DiagnosticReport;
 import ee.openeid.siva.validation.document.report.Reports;
+import ee.openeid.siva.validation.document.report.RequestedReport;
 import ee.openeid.siva.validation.document.report.SimpleReport;
 import ee.openeid.siva.validation.document.report.TimeStampTokenValidationData;
 import ee.openeid.siva.validation.document.report.ValidationConclusion;
@@ -31,6 +32,7 @@ import java.util.List;
 
 import static ee.openeid.siva.validation.document.report.builder.ReportBuilderUtils.createReportPolicy;
 import static ee.openeid.siva.validation.document.report.builder.ReportBuilderUtils.getValidationTime;
+import static ee.openeid.siva.validation.document.report.builder.ReportBuilderUtils.isReportRequested;
 
 public class TimeStampTokenValidationReportBuilder {
 
@@ -51,8 +53,8 @@ public class TimeStampTokenValidationReportBuilder {
     public Reports build() {
         ValidationConclusion validationConclusion = getValidationConclusion();
         SimpleReport simpleReport = new SimpleReport(validationConclusion);
-        DetailedReport detailedReport = new DetailedReport(validationConclusion, null);
-        DiagnosticReport diagnosticReport = new DiagnosticReport(validationConclusion, null);
+        DetailedReport detailedReport = isReportRequested(validationDocument, RequestedReport.DETAILED) ? new DetailedReport(validationConclusion, null) : null;
+        DiagnosticReport diagnosticReport = isReportRequested(validationDocument, RequestedReport.DIAGNOSTIC) ? new DiagnosticReport(validationConclusion, null) : null;
         return new Reports(simpleReport, detailedReport, diagnosticReport);
     }
 
@@ -28,7 +28,15 @@ import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.stereotype.Component;
 
 import javax.annotation.PostConstruct;
+import java.util.Collections;
+import java.util.List;
 
+/**
+ * Loads the trusted lists into a trusted certificate source and publishes it as a numbered generation. The first
+ * generation is loaded into the {@link TrustedListsCertificateSource} bean. Every refresh loads a new certificate
+ * source in the background and publishes it with a single reference swap only when the load succeeded and the
+ * certificate count passes the sanity threshold, otherwise the previous generation stays active.
+ */
 @Component("tslLoader")
 public class TSLLoader {
 
@@ -39,6 +47,10 @@ public class TSLLoader {
     private TSLLoaderConfigurationProperties configurationProperties;
     private TrustedListsCertificateSource trustedListSource;
     private KeyStoreCertificateSource keyStoreCertificateSource;
+    private List<TSLReloadListener> reloadListeners = Collections.emptyList();
+    private volatile TrustedCertificates trustedCertificates;
+    private volatile long lastRefreshDuration;
+    private volatile boolean lastRefreshFailed;
 
     @PostConstruct
     public void init() {
@@ -49,9 +61,6 @@ public class TSLLoader {
     private void initTslValidationJob() {
         tslValidationJob = tslValidationJobFactory.createValidationJob();
         tslValidationJob.setDataLoader(new CommonsDataLoader());
-        TSLRepository tslRepository = new TSLRepository();
-        tslRepository.setTrustedListsCertificateSource(trustedListSource);
-        tslValidationJob.setRepository(tslRepository);
         tslValidationJob.setLotlUrl(configurationProperties.getUrl());
         tslValidationJob.setLotlCode(configurationProperties.getCode());
         tslValidationJob.setOjContentKeyStore(keyStoreCertificateSource);
@@ -62,18 +71,103 @@ public class TSLLoader {
         tslValidationJob.setCheckTSLSignatures(true);
     }
 
-    void loadTSL() {
+    synchronized void loadTSL() {
+        long start = System.currentTimeMillis();
+        TrustedCertificates active = trustedCertificates;
+        try {
+            TrustedListsCertificateSource loadedSource = active == null ? trustedListSource : new TrustedListsCertificateSource();
+            TSLRepository loadedRepository = load(loadedSource);
+            if (active != null) {
+                verifyCertificateCount(loadedSource, active);
+            }
+            publish(new TrustedCertificates(active == null ? 1 : active.generation + 1, loadedSource, loadedRepository));
+            lastRefreshFailed = false;
+        } catch (RuntimeException e) {
+            if (active == null) {
+                throw e;
+            }
+            lastRefreshFailed = true;
+            tslValidationJob.setRepository(active.repository);
+            LOGGER.error("TSL refresh failed, keeping trusted certificates generation {}", active.generation, e);
+        } finally {
+            lastRefreshDuration = System.currentTimeMillis() - start;
+        }
+    }
+
+    private TSLRepository load(TrustedListsCertificateSource loadedSource) {
+        TSLRepository tslRepository = new TSLRepository();
+        tslRepository.setTrustedListsCertificateSource(loadedSource);
+        tslValidationJob.setRepository(tslRepository);
         if (configurationProperties.isLoadFromCache()) {
             LOGGER.info("Loading TSL from cache");
             tslValidationJob.initRepository();
-            certificatesLoader.loadExtraCertificates(trustedListSource);
+            certificatesLoader.loadExtraCertificates(loadedSource);
             LOGGER.info("Finished loading TSL from cache");
         } else {
             LOGGER.info("Loading TSL over the network");
             tslValidationJob.refresh();
-            certificatesLoader.loadExtraCertificates(trustedListSource);
+            certificatesLoader.loadExtraCertificates(loadedSource);
             LOGGER.info("Finished loading TSL over the network");
         }
+        return tslRepository;
+    }
+
+    private void verifyCertificateCount(TrustedListsCertificateSource loadedSource, TrustedCertificates active) {
+        int loadedCount = loadedSource.getNumberOfCertificates();
+        int activeCount = active.trustedListSource.getNumberOfCertificates();
+        if (loadedCount == 0 || loadedCount < activeCount * configurationProperties.getRefreshCertificateCountThreshold()) {
+            throw new IllegalStateException("Refreshed TSL contains " + loadedCount + " trusted certificates, generation "
+                    + active.generation + " contains " + activeCount);
+        }
+    }
+
+    private void publish(TrustedCertificates loaded) {
+        trustedCertificates = loaded;
+        LOGGER.info("Trusted certificates generation: {}", loaded.generation);
+        for (TSLReloadListener listener : reloadListeners) {
+            try {
+                listener.tslReloaded(loaded.generation, loaded.trustedListSource);
+            } catch (RuntimeException e) {
+                LOGGER.error("Failed to apply trusted certificates generation {}", loaded.generation, e);
+            }
+        }
+    }
+
+    /**
+     * Trusted certificates generation, incremented every time a (re)loaded trusted list is published.
+     */
+    public long getGeneration() {
+        TrustedCertificates active = trustedCertificates;
+        return active == null ? 0 : active.generation;
+    }
+
+    /**
+     * Certificate source of the active generation. Requests should read it once and use the returned source
+     * throughout, as a refresh may publish a new one at any time.
+     */
+    public TrustedListsCertificateSource getTrustedListSource() {
+        TrustedCertificates active = trustedCertificates;
+        return active == null ? trustedListSource : active.trustedListSource;
+    }
+
+    public int getTrustedCertificateCount() {
+        return getTrustedListSource().getNumberOfCertificates();
+    }
+
+    /**
+     * Milliseconds since the active generation was published.
+     */
+    public long getGenerationAge() {
+        TrustedCertificates active = trustedCertificates;
+        return active == null ? 0 : System.currentTimeMillis() - active.loadedAt;
+    }
+
+    public long getLastRefreshDuration() {
+        return lastRefreshDuration;
+    }
+
+    public boolean isLastRefreshFailed() {
+        return lastRefreshFailed;
     }
 
     @Autowired
@@ -96,8 +190,27 @@ public class TSLLoader {
         this.trustedListSource = trustedListSource;
     }
 
+    @Autowired(required = false)
+    public void setReloadListeners(List<TSLReloadListener> reloadListeners) {
+        this.reloadListeners = reloadListeners;
+    }
+
     @Autowired
     public void setCertificatesLoader(CertificatesLoader certificatesLoader) {
         this.certificatesLoader = certificatesLoader;
     }
+
+    private static class TrustedCertificates {
+
+        private final long generation;
+        private final TrustedListsCertificateSource trustedListSource;
+        private final TSLRepository repository;
+        private final long loadedAt = System.currentTimeMillis();
+
+        TrustedCertificates(long generation, TrustedListsCertificateSource trustedListSource, TSLRepository repository) {
+            this.generation = generation;
+            this.trustedListSource = trustedListSource;
+            this.repository = repository;
+        }
+    }
 }
@@ -31,5 +31,6 @@ public class TSLLoaderConfigurationProperties {
     private String lotlRootSchemeInfoUri = "https://ec.europa.eu/information_society/policy/esignature/trusted-list/tl.html";
     private String code = "EU";
     private String schedulerCron = "0 0 3 * * ?";
+    private double refreshCertificateCountThreshold = 0.8;
     private List<String> trustedTerritories =   Arrays.asList("AT", "BE", "BG", "CY", "CZ", "DE", "DK", "EE", "ES", "FI", "FR", "GR", "HU", "HR", "IE", "IS", "IT", "LT", "LU", "LV", "LI", "MT", "NO", "NL", "PL", "PT", "RO", "SE", "SI", "SK", "UK");
 }
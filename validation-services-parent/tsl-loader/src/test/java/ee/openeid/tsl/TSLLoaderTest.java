@@ -23,6 +23,7 @@ import eu.europa.esig.dss.x509.KeyStoreCertificateSource;
 import org.junit.Before;
 import org.junit.Test;
 import org.junit.runner.RunWith;
+import org.mockito.ArgumentCaptor;
 import org.mockito.InjectMocks;
 import org.mockito.Mock;
 import org.mockito.runners.MockitoJUnitRunner;
@@ -30,6 +31,11 @@ import org.mockito.runners.MockitoJUnitRunner;
 import java.util.Arrays;
 import java.util.List;
 
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNotSame;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.assertTrue;
 import static org.mockito.Mockito.*;
 
 @RunWith(MockitoJUnitRunner.class)
@@ -60,6 +66,10 @@ public class TSLLoaderTest {
         when(tslValidationJobFactory.createValidationJob()).thenReturn(tslValidationJob);
         doNothing().when(tslValidationJob).initRepository();
         doNothing().when(tslValidationJob).refresh();
+        doAnswer(invocation -> {
+            new CustomCertificatesLoader().loadExtraCertificates((TrustedListsCertificateSource) invocation.getArguments()[0]);
+            return null;
+        }).when(certificatesLoader).loadExtraCertificates(any(TrustedListsCertificateSource.class));
     }
 
     private void initCacheLoadingConfigurationProperties() {
@@ -80,6 +90,7 @@ public class TSLLoaderTest {
         props.setLotlRootSchemeInfoUri(TSL_INFO_URL);
         props.setLoadFromCache(loadFromCache);
         props.setTrustedTerritories(DEFAULT_TRUSTED_TERRITORIES);
+        props.setRefreshCertificateCountThreshold(0.8);
         return props;
     }
 
@@ -109,4 +120,84 @@ public class TSLLoaderTest {
         initCacheLoadingConfigurationProperties();
         verify(tslValidationJob).setFilterTerritories(DEFAULT_TRUSTED_TERRITORIES);
     }
+
+    @Test
+    public void everyTslLoadShouldIncreaseGeneration() {
+        initCacheLoadingConfigurationProperties();
+        assertEquals(1, tslLoader.getGeneration());
+        tslLoader.loadTSL();
+        assertEquals(2, tslLoader.getGeneration());
+    }
+
+    @Test
+    public void reloadListenersShouldBeNotifiedOfEveryGeneration() {
+        TSLReloadListener failingListener = mock(TSLReloadListener.class);
+        doThrow(new IllegalStateException()).when(failingListener).tslReloaded(anyLong(), any(TrustedListsCertificateSource.class));
+        TSLReloadListener listener = mock(TSLReloadListener.class);
+        tslLoader.setReloadListeners(Arrays.asList(failingListener, listener));
+
+        initCacheLoadingConfigurationProperties();
+        tslLoader.loadTSL();
+
+        verify(listener).tslReloaded(1, trustedListSource);
+        ArgumentCaptor<TrustedListsCertificateSource> refreshedSource = ArgumentCaptor.forClass(TrustedListsCertificateSource.class);
+        verify(listener).tslReloaded(eq(2L), refreshedSource.capture());
+        assertSame(tslLoader.getTrustedListSource(), refreshedSource.getValue());
+    }
+
+    @Test
+    public void firstLoadShouldUseTrustedListSourceBean() {
+        initCacheLoadingConfigurationProperties();
+        assertSame(trustedListSource, tslLoader.getTrustedListSource());
+        verify(certificatesLoader).loadExtraCertificates(trustedListSource);
+    }
+
+    @Test
+    public void refreshShouldPublishNewTrustedListSource() {
+        initCacheLoadingConfigurationProperties();
+        tslLoader.loadTSL();
+
+        TrustedListsCertificateSource refreshedSource = tslLoader.getTrustedListSource();
+        assertNotSame(trustedListSource, refreshedSource);
+        assertEquals(12, refreshedSource.getNumberOfCertificates());
+        assertFalse(tslLoader.isLastRefreshFailed());
+
+        tslLoader.loadTSL();
+        assertNotSame(refreshedSource, tslLoader.getTrustedListSource());
+        assertEquals(3, tslLoader.getGeneration());
+    }
+
+    @Test
+    public void failedRefreshShouldKeepPreviousGeneration() {
+        initOnlineLoadingConfigurationProperties();
+        tslLoader.loadTSL();
+        TrustedListsCertificateSource activeSource = tslLoader.getTrustedListSource();
+        doThrow(new IllegalStateException("LOTL unavailable")).when(tslValidationJob).refresh();
+
+        tslLoader.loadTSL();
+
+        assertEquals(2, tslLoader.getGeneration());
+        assertSame(activeSource, tslLoader.getTrustedListSource());
+        assertTrue(tslLoader.isLastRefreshFailed());
+    }
+
+    @Test
+    public void refreshBelowCertificateCountThresholdShouldBeRejected() {
+        initCacheLoadingConfigurationProperties();
+        tslLoader.loadTSL();
+        TrustedListsCertificateSource activeSource = tslLoader.getTrustedListSource();
+        doNothing().when(certificatesLoader).loadExtraCertificates(any(TrustedListsCertificateSource.class));
+
+        tslLoader.loadTSL();
+
+        assertEquals(2, tslLoader.getGeneration());
+        assertSame(activeSource, tslLoader.getTrustedListSource());
+        assertTrue(tslLoader.isLastRefreshFailed());
+    }
+
+    @Test(expected = IllegalStateException.class)
+    public void failedFirstLoadShouldBeRethrown() {
+        doThrow(new IllegalStateException("LOTL unavailable")).when(tslValidationJob).refresh();
+        initOnlineLoadingConfigurationProperties();
+    }
 }
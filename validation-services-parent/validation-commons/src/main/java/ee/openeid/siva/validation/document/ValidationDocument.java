@@ -16,11 +16,17 @@
 
 package ee.openeid.siva.validation.document;
 
+import com.fasterxml.jackson.annotation.JsonIgnore;
+import ee.openeid.siva.validation.document.report.RequestedReport;
 import lombok.Data;
+import lombok.EqualsAndHashCode;
+import lombok.ToString;
 
 import java.util.List;
 
 @Data
+@EqualsAndHashCode(exclude = "zipContainer")
+@ToString(exclude = "zipContainer")
 public class ValidationDocument {
 
     private byte[] bytes;
@@ -33,4 +39,14 @@ public class ValidationDocument {
 
     private List<Datafile> datafiles;
 
+    private RequestedReport requestedReport;
+
+    private ValidationLevel validationLevel;
+
+    /**
+     * Already parsed view of {@link #bytes} when the document is a ZIP container, shared with the validation service.
+     */
+    @JsonIgnore
+    private ZipContainer zipContainer;
+
 }
@@ -0,0 +1,304 @@
+/*
+ * Copyright 2019 Riigi Infosüsteemide Amet
+ *
+ * Licensed under the EUPL, Version 1.1 or – as soon they will be approved by
+ * the European Commission - subsequent versions of the EUPL (the "Licence");
+ * You may not use this work except in compliance with the Licence.
+ * You may obtain a copy of the Licence at:
+ *
+ * https://joinup.ec.europa.eu/software/page/eupl
+ *
+ * Unless required by applicable law or agreed to in writing, software distributed under the Licence is
+ * distributed on an "AS IS" basis,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the Licence for the specific language governing permissions and limitations under the Licence.
+ */
+
+package ee.openeid.siva.validation.document;
+
+import ee.openeid.siva.validation.exception.MalformedDocumentException;
+
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.Optional;
+import java.util.zip.CRC32;
+import java.util.zip.DataFormatException;
+import java.util.zip.Inflater;
+import java.util.zip.ZipException;
+
+/**
+ * Read-only view of a ZIP container built from its central directory, without inflating any entries.
+ * Entry content is extracted on first access and kept for later use, so each entry is inflated at most once.
+ */
+public final class ZipContainer {
+
+    private static final int LOCAL_FILE_HEADER_SIGNATURE = 0x04034b50;
+    private static final int CENTRAL_DIRECTORY_HEADER_SIGNATURE = 0x02014b50;
+    private static final int END_OF_CENTRAL_DIRECTORY_SIGNATURE = 0x06054b50;
+    private static final int ZIP64_END_OF_CENTRAL_DIRECTORY_SIGNATURE = 0x06064b50;
+    private static final int ZIP64_END_OF_CENTRAL_DIRECTORY_LOCATOR_SIGNATURE = 0x07064b50;
+    private static final int ZIP64_EXTRA_FIELD_ID = 0x0001;
+    private static final int LOCAL_FILE_HEADER_LENGTH = 30;
+    private static final int CENTRAL_DIRECTORY_HEADER_LENGTH = 46;
+    private static final int END_OF_CENTRAL_DIRECTORY_LENGTH = 22;
+    private static final int ZIP64_END_OF_CENTRAL_DIRECTORY_LOCATOR_LENGTH = 20;
+    private static final int MAX_COMMENT_LENGTH = 0xFFFF;
+    private static final int ENCRYPTED_FLAG = 1;
+    private static final int STORED = 0;
+    private static final int DEFLATED = 8;
+    private static final long MAX_DEFLATE_RATIO = 1032;
+    private static final int INFLATE_BUFFER_SIZE = 8192;
+    private static final long ZIP64_MAGIC = 0xFFFFFFFFL;
+
+    private final byte[] bytes;
+    private final ByteBuffer buffer;
+    private final List<Entry> entries;
+
+    private ZipContainer(byte[] bytes) {
+        this.bytes = bytes;
+        buffer = ByteBuffer.wrap(bytes).order(ByteOrder.LITTLE_ENDIAN);
+        entries = Collections.unmodifiableList(readCentralDirectory());
+    }
+
+    /**
+     * @throws MalformedDocumentException when the bytes do not contain a readable ZIP central directory
+     */
+    public static ZipContainer read(byte[] bytes) {
+        return new ZipContainer(bytes);
+    }
+
+    /**
+     * Entries in central directory order, directories included.
+     */
+    public List<Entry> getEntries() {
+        return entries;
+    }
+
+    public Optional<Entry> getEntry(String name) {
+        return entries.stream().filter(entry -> entry.getName().equals(name)).findFirst();
+    }
+
+    private List<Entry> readCentralDirectory() {
+        int endOfCentralDirectory = findEndOfCentralDirectory();
+        long entryCount = unsignedShort(endOfCentralDirectory + 10);
+        long centralDirectoryOffset = unsignedInt(endOfCentralDirectory + 16);
+        if (entryCount == 0xFFFF || centralDirectoryOffset == ZIP64_MAGIC) {
+            int zip64EndOfCentralDirectory = findZip64EndOfCentralDirectory(endOfCentralDirectory);
+            entryCount = buffer.getLong(zip64EndOfCentralDirectory + 32);
+            centralDirectoryOffset = buffer.getLong(zip64EndOfCentralDirectory + 48);
+        }
+
+        List<Entry> centralDirectoryEntries = new ArrayList<>();
+        int position = checkedPosition(centralDirectoryOffset, CENTRAL_DIRECTORY_HEADER_LENGTH);
+        for (long i = 0; i < entryCount; i++) {
+            checkSignature(position, CENTRAL_DIRECTORY_HEADER_SIGNATURE, CENTRAL_DIRECTORY_HEADER_LENGTH);
+            Entry entry = readCentralDirectoryHeader(position);
+            centralDirectoryEntries.add(entry);
+            position = checkedPosition((long) position + CENTRAL_DIRECTORY_HEADER_LENGTH + unsignedShort(position + 28)
+                    + unsignedShort(position + 30) + unsignedShort(position + 32), 0);
+        }
+        return centralDirectoryEntries;
+    }
+
+    private Entry readCentralDirectoryHeader(int position) {
+        int flags = unsignedShort(position + 8);
+        int method = unsignedShort(position + 10);
+        long crc = unsignedInt(position + 16);
+        long compressedSize = unsignedInt(position + 20);
+        long size = unsignedInt(position + 24);
+        int nameLength = unsignedShort(position + 28);
+        int extraLength = unsignedShort(position + 30);
+        long localHeaderOffset = unsignedInt(position + 42);
+        int namePosition = checkedPosition((long) position + CENTRAL_DIRECTORY_HEADER_LENGTH, nameLength + extraLength);
+        String name = new String(bytes, namePosition, nameLength, StandardCharsets.UTF_8);
+
+        int extra = namePosition + nameLength;
+        int extraEnd = extra + extraLength;
+        while (extra + 4 <= extraEnd) {
+            int id = unsignedShort(extra);
+            int length = unsignedShort(extra + 2);
+            int field = extra + 4;
+            if (id == ZIP64_EXTRA_FIELD_ID) {
+                if (size == ZIP64_MAGIC && field + 8 <= extraEnd) {
+                    size = buffer.getLong(field);
+                    field += 8;
+                }
+                if (compressedSize == ZIP64_MAGIC && field + 8 <= extraEnd) {
+                    compressedSize = buffer.getLong(field);
+                    field += 8;
+                }
+                if (localHeaderOffset == ZIP64_MAGIC && field + 8 <= extraEnd) {
+                    localHeaderOffset = buffer.getLong(field);
+                }
+            }
+            extra += 4 + length;
+        }
+        return new Entry(name, flags, method, crc, compressedSize, size, localHeaderOffset);
+    }
+
+    private int findEndOfCentralDirectory() {
+        int lowestPosition = Math.max(0, buffer.limit() - END_OF_CENTRAL_DIRECTORY_LENGTH - MAX_COMMENT_LENGTH);
+        for (int position = buffer.limit() - END_OF_CENTRAL_DIRECTORY_LENGTH; position >= lowestPosition; position--) {
+            if (buffer.getInt(position) == END_OF_CENTRAL_DIRECTORY_SIGNATURE) {
+                return position;
+            }
+        }
+        throw malformed("End of central directory not found");
+    }
+
+    private int findZip64EndOfCentralDirectory(int endOfCentralDirectory) {
+        int locator = endOfCentralDirectory - ZIP64_END_OF_CENTRAL_DIRECTORY_LOCATOR_LENGTH;
+        checkSignature(locator, ZIP64_END_OF_CENTRAL_DIRECTORY_LOCATOR_SIGNATURE, ZIP64_END_OF_CENTRAL_DIRECTORY_LOCATOR_LENGTH);
+        int zip64EndOfCentralDirectory = checkedPosition(buffer.getLong(locator + 8), 56);
+        checkSignature(zip64EndOfCentralDirectory, ZIP64_END_OF_CENTRAL_DIRECTORY_SIGNATURE, 56);
+        return zip64EndOfCentralDirectory;
+    }
+
+    private void checkSignature(int position, int signature, int length) {
+        if (position < 0 || position > buffer.limit() - length || buffer.getInt(position) != signature) {
+            throw malformed("Invalid ZIP record at offset " + position);
+        }
+    }
+
+    private int checkedPosition(long position, long length) {
+        if (position < 0 || length < 0 || position + length > buffer.limit()) {
+            throw malformed("ZIP record out of bounds at offset " + position);
+        }
+        return (int) position;
+    }
+
+    private int unsignedShort(int position) {
+        return buffer.getShort(position) & 0xFFFF;
+    }
+
+    private long unsignedInt(int position) {
+        return buffer.getInt(position) & ZIP64_MAGIC;
+    }
+
+    private static MalformedDocumentException malformed(String message) {
+        return new MalformedDocumentException(new ZipException(message));
+    }
+
+    public final class Entry {
+
+        private final String name;
+        private final int flags;
+        private final int method;
+        private final long crc;
+        private final long compressedSize;
+        private final long size;
+        private final long localHeaderOffset;
+        private byte[] content;
+
+        private Entry(String name, int flags, int method, long crc, long compressedSize, long size, long localHeaderOffset) {
+            this.name = name;
+            this.flags = flags;
+            this.method = method;
+            this.crc = crc;
+            this.compressedSize = compressedSize;
+            this.size = size;
+            this.localHeaderOffset = localHeaderOffset;
+        }
+
+        public String getName() {
+            return name;
+        }
+
+        public boolean isDirectory() {
+            return name.endsWith("/");
+        }
+
+        /**
+         * Uncompressed size as recorded in the central directory.
+         */
+        public long getSize() {
+            return size;
+        }
+
+        /**
+         * Entry content, extracted on first access.
+         *
+         * @throws MalformedDocumentException when the entry can not be extracted
+         */
+        public synchronized byte[] getBytes() {
+            if (content == null) {
+                content = extract();
+            }
+            return content;
+        }
+
+        private byte[] extract() {
+            if ((flags & ENCRYPTED_FLAG) != 0) {
+                throw malformed("Encrypted entry " + name);
+            }
+            checkSignature(checkedPosition(localHeaderOffset, LOCAL_FILE_HEADER_LENGTH), LOCAL_FILE_HEADER_SIGNATURE, LOCAL_FILE_HEADER_LENGTH);
+            int header = (int) localHeaderOffset;
+            int data = checkedPosition((long) header + LOCAL_FILE_HEADER_LENGTH + unsignedShort(header + 26) + unsignedShort(header + 28), 0);
+            checkedPosition(data, compressedSize);
+            if (size > Integer.MAX_VALUE - 8) {
+                throw malformed("Entry too large " + name);
+            }
+
+            byte[] extracted;
+            if (method == STORED) {
+                if (size != compressedSize) {
+                    throw malformed("Invalid stored entry size " + name);
+                }
+                extracted = Arrays.copyOfRange(bytes, data, data + (int) size);
+            } else if (method == DEFLATED) {
+                extracted = inflate(data);
+            } else {
+                throw malformed("Unsupported compression method " + method + " for entry " + name);
+            }
+
+            CRC32 checksum = new CRC32();
+            checksum.update(extracted);
+            if (checksum.getValue() != crc) {
+                throw malformed("Invalid entry CRC " + name);
+            }
+            return extracted;
+        }
+
+        /**
+         * The buffer grows with the inflated data, so a size claimed by the central directory is never allocated
+         * before the entry has actually inflated to it.
+         */
+        private byte[] inflate(int data) {
+            if (size > compressedSize * MAX_DEFLATE_RATIO + 1024) {
+                throw malformed("Invalid deflated entry size " + name);
+            }
+            Inflater inflater = new Inflater(true);
+            try {
+                inflater.setInput(bytes, data, (int) compressedSize);
+                byte[] inflated = new byte[(int) Math.min(size, Math.max(INFLATE_BUFFER_SIZE, compressedSize))];
+                int length = 0;
+                while (!inflater.finished()) {
+                    if (length == inflated.length) {
+                        if (length == size) {
+                            break;
+                        }
+                        inflated = Arrays.copyOf(inflated, (int) Math.min(size, 2L * length));
+                    }
+                    int count = inflater.inflate(inflated, length, inflated.length - length);
+                    if (count == 0 && (inflater.needsInput() || inflater.needsDictionary())) {
+                        break;
+                    }
+                    length += count;
+                }
+                if (length != size || !inflater.finished() && inflater.inflate(new byte[1]) > 0) {
+                    throw malformed("Invalid deflated entry size " + name);
+                }
+                return inflated;
+            } catch (DataFormatException e) {
+                throw new MalformedDocumentException(e);
+            } finally {
+                inflater.end();
+            }
+        }
+    }
+}
@@ -16,12 +16,38 @@
 
 package ee.openeid.siva.validation.document.report;
 
+import com.fasterxml.jackson.annotation.JsonIgnore;
 import lombok.Data;
+import lombok.EqualsAndHashCode;
+import lombok.ToString;
+
+import java.util.Base64;
 
 @Data
+@ToString(exclude = "content")
+@EqualsAndHashCode(exclude = "content")
 public class DataFileData {
     private String base64;
     private String filename;
     private String mimeType;
     private long size;
+
+    /**
+     * Extracted data file content. The SOAP response writes it as is, so the Base64 form is created only when the
+     * JSON response asks for it, and then kept.
+     */
+    @JsonIgnore
+    private byte[] content;
+
+    public String getBase64() {
+        if (base64 == null && content != null) {
+            base64 = Base64.getEncoder().encodeToString(content);
+        }
+        return base64;
+    }
+
+    public void setContent(byte[] content) {
+        this.content = content;
+        this.base64 = null;
+    }
 }
@@ -16,6 +16,7 @@
 
 package ee.openeid.siva.validation.document.report.builder;
 
+import ee.openeid.siva.validation.document.ValidationDocument;
 import ee.openeid.siva.validation.document.report.Error;
 import ee.openeid.siva.validation.document.report.*;
 import ee.openeid.siva.validation.service.signature.policy.properties.ValidationPolicy;
@@ -64,6 +65,11 @@ public final class ReportBuilderUtils {
         return sdf;
     }
 
+    public static boolean isReportRequested(ValidationDocument validationDocument, RequestedReport report) {
+        RequestedReport requestedReport = validationDocument.getRequestedReport();
+        return requestedReport == null || requestedReport == report;
+    }
+
     public static Policy createReportPolicy(ValidationPolicy validationPolicy) {
         Policy reportPolicy = new Policy();
         reportPolicy.setPolicyName(validationPolicy.getName());
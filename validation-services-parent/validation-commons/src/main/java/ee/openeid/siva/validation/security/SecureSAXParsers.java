@@ -16,29 +16,57 @@
 
 package ee.openeid.siva.validation.security;
 
+import org.xml.sax.InputSource;
 import org.xml.sax.SAXException;
 import org.xml.sax.SAXNotRecognizedException;
 import org.xml.sax.SAXNotSupportedException;
+import org.xml.sax.helpers.DefaultHandler;
 
 import javax.xml.parsers.ParserConfigurationException;
 import javax.xml.parsers.SAXParser;
 import javax.xml.parsers.SAXParserFactory;
+import java.io.IOException;
 
+/**
+ * SAX parsers with external entities and DOCTYPE declarations disabled. {@link #parse(InputSource, DefaultHandler)}
+ * reuses a parser confined to the calling thread, which is reset after every document.
+ */
 public final class SecureSAXParsers {
 
-    private static SAXParserFactory factory = null;
+    private static final SAXParserFactory FACTORY = createFactory();
+    private static final ThreadLocal<ThreadConfinedParser> THREAD_CONFINED_PARSER = ThreadLocal.withInitial(ThreadConfinedParser::new);
 
     private SecureSAXParsers() {
     }
 
     public static SAXParser createParser() throws ParserConfigurationException, SAXException {
-        return getFactory().newSAXParser();
+        return FACTORY.newSAXParser();
+    }
+
+    /**
+     * Parses the input with the parser of the calling thread. A parse nested into another parse on the same thread
+     * gets a new parser.
+     */
+    public static void parse(InputSource inputSource, DefaultHandler handler) throws ParserConfigurationException, SAXException, IOException {
+        ThreadConfinedParser threadConfinedParser = THREAD_CONFINED_PARSER.get();
+        if (threadConfinedParser.inUse) {
+            createParser().parse(inputSource, handler);
+            return;
+        }
+        threadConfinedParser.inUse = true;
+        try {
+            threadConfinedParser.getParser().parse(inputSource, handler);
+        } finally {
+            threadConfinedParser.release();
+        }
     }
 
-    private static synchronized SAXParserFactory getFactory() throws SAXNotRecognizedException, SAXNotSupportedException, ParserConfigurationException {
-        if (factory == null) {
-            factory = SAXParserFactory.newInstance();
+    private static SAXParserFactory createFactory() {
+        SAXParserFactory factory = SAXParserFactory.newInstance();
+        try {
             disableExternalEntities(factory);
+        } catch (ParserConfigurationException | SAXNotRecognizedException | SAXNotSupportedException e) {
+            throw new IllegalStateException("Failed to configure secure SAX parser factory", e);
         }
         return factory;
     }
@@ -51,4 +79,26 @@ public final class SecureSAXParsers {
         factory.setXIncludeAware(false);
     }
 
+    private static class ThreadConfinedParser {
+        private SAXParser parser;
+        private boolean inUse;
+
+        SAXParser getParser() throws ParserConfigurationException, SAXException {
+            if (parser == null) {
+                parser = createParser();
+            }
+            return parser;
+        }
+
+        void release() {
+            inUse = false;
+            if (parser != null) {
+                try {
+                    parser.reset();
+                } catch (UnsupportedOperationException e) {
+                    parser = null;
+                }
+            }
+        }
+    }
 }
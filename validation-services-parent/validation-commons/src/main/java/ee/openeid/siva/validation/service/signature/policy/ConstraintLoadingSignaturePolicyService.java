@@ -18,15 +18,37 @@ package ee.openeid.siva.validation.service.signature.policy;
 
 import ee.openeid.siva.validation.service.signature.policy.properties.ConstraintDefinedPolicy;
 import ee.openeid.siva.validation.service.signature.policy.properties.SignaturePolicyProperties;
+import eu.europa.esig.dss.validation.policy.EtsiValidationPolicy;
+import eu.europa.esig.jaxb.policy.ConstraintsParameters;
+import eu.europa.esig.jaxb.policy.ObjectFactory;
 import org.apache.commons.io.IOUtils;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
+import javax.annotation.PostConstruct;
+import javax.xml.bind.JAXBContext;
+import javax.xml.bind.JAXBException;
+import javax.xml.bind.Unmarshaller;
+import javax.xml.validation.Schema;
 import java.io.*;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Set;
+import java.util.stream.Collectors;
 
-public class ConstraintLoadingSignaturePolicyService extends SignaturePolicyService<ConstraintDefinedPolicy> {
+/**
+ * Loads the policy constraints and keeps them parsed into DSS validation policies, so they are not parsed again for
+ * every validation. Once {@link #watchPolicyFiles()} has been called, policies given with an absolute path are
+ * reloaded when their files change.
+ */
+public class ConstraintLoadingSignaturePolicyService extends SignaturePolicyService<ConstraintDefinedPolicy> implements Closeable {
     private static final Logger LOGGER = LoggerFactory.getLogger(ConstraintLoadingSignaturePolicyService.class);
 
+    private PolicyFileWatcher policyFileWatcher;
+
     public ConstraintLoadingSignaturePolicyService(SignaturePolicyProperties<ConstraintDefinedPolicy> signaturePolicyProperties) {
         super(signaturePolicyProperties);
     }
@@ -37,9 +59,7 @@ public class ConstraintLoadingSignaturePolicyService extends SignaturePolicyServ
             LOGGER.info("Loading policy: " + policy);
             try {
                 byte[] policyData = getContentFromPolicyPath(policy.getConstraintPath());
-                InputStream policyDataStream = new ByteArrayInputStream(policyData);
-                validateAgainstSchema(policyDataStream);
-                policy.setConstraintData(policyData);
+                setPolicyData(policy, policyData);
                 ConstraintDefinedPolicy existingPolicyData = getSignaturePolicies().putIfAbsent(policy.getName(), policy);
                 if (existingPolicyData == null) {
                     LOGGER.info("Policy: " + policy + " loaded successfully");
@@ -53,13 +73,86 @@ public class ConstraintLoadingSignaturePolicyService extends SignaturePolicyServ
         loadDefaultPolicy(signaturePolicyProperties);
     }
 
+    /**
+     * Reloads the policies given with an absolute path whose files have changed. A policy that cannot be loaded
+     * is not replaced, the previously loaded policy stays in use.
+     */
+    public synchronized void reloadChangedPolicies() {
+        new ArrayList<>(getSignaturePolicies().values()).stream()
+                .filter(policy -> isAbsolutePath(policy.getConstraintPath()))
+                .forEach(this::reloadPolicyIfChanged);
+    }
+
+    private void reloadPolicyIfChanged(ConstraintDefinedPolicy loadedPolicy) {
+        try {
+            byte[] policyData = Files.readAllBytes(Paths.get(loadedPolicy.getConstraintPath()));
+            if (Arrays.equals(policyData, loadedPolicy.getConstraintData())) {
+                return;
+            }
+            ConstraintDefinedPolicy reloadedPolicy = new ConstraintDefinedPolicy(loadedPolicy);
+            reloadedPolicy.setConstraintPath(loadedPolicy.getConstraintPath());
+            reloadedPolicy.setAllowedValidationLevels(loadedPolicy.getAllowedValidationLevels());
+            setPolicyData(reloadedPolicy, policyData);
+            replacePolicy(loadedPolicy, reloadedPolicy);
+            LOGGER.info("Policy: " + reloadedPolicy + " reloaded successfully");
+        } catch (Exception e) {
+            LOGGER.error("Could not reload policy " + loadedPolicy + ", keeping the previously loaded policy due to: " + e);
+        }
+    }
+
+    private void setPolicyData(ConstraintDefinedPolicy policy, byte[] policyData) throws JAXBException {
+        validateAgainstSchema(new ByteArrayInputStream(policyData));
+        policy.setDssPolicy(createDssPolicy(policyData));
+        policy.setConstraintData(policyData);
+    }
+
     private void validateAgainstSchema(InputStream policyDataStream) {
         PolicySchemaValidator.validate(policyDataStream);
     }
 
+    private static EtsiValidationPolicy createDssPolicy(byte[] policyData) throws JAXBException {
+        Unmarshaller unmarshaller = DssPolicyContext.JAXB_CONTEXT.createUnmarshaller();
+        unmarshaller.setSchema(DssPolicyContext.SCHEMA);
+        return new EtsiValidationPolicy((ConstraintsParameters) unmarshaller.unmarshal(new ByteArrayInputStream(policyData)));
+    }
+
+    /**
+     * Starts watching the directories of the policies given with an absolute path for changes.
+     */
+    @PostConstruct
+    public synchronized void watchPolicyFiles() {
+        if (policyFileWatcher != null) {
+            return;
+        }
+        Set<Path> policyDirectories = getSignaturePolicies().values().stream()
+                .map(ConstraintDefinedPolicy::getConstraintPath)
+                .filter(ConstraintLoadingSignaturePolicyService::isAbsolutePath)
+                .map(policyPath -> Paths.get(policyPath).getParent())
+                .collect(Collectors.toSet());
+        if (policyDirectories.isEmpty()) {
+            return;
+        }
+        try {
+            policyFileWatcher = new PolicyFileWatcher(policyDirectories, this::reloadChangedPolicies);
+        } catch (IOException e) {
+            LOGGER.warn("Policy files are not watched for changes due to: " + e);
+        }
+    }
+
+    private static boolean isAbsolutePath(String policyPath) {
+        return new File(policyPath).isAbsolute();
+    }
+
+    @Override
+    public synchronized void close() throws IOException {
+        if (policyFileWatcher != null) {
+            policyFileWatcher.close();
+        }
+    }
+
     private byte[] getContentFromPolicyPath(String policyPath) throws IOException {
         InputStream policyDataStream = null;
-        if (new File(policyPath).isAbsolute()) {
+        if (isAbsolutePath(policyPath)) {
             LOGGER.info("Reading policy from absolute path: " + policyPath);
             try {
                 policyDataStream = new FileInputStream(new File(policyPath));
@@ -77,4 +170,17 @@ public class ConstraintLoadingSignaturePolicyService extends SignaturePolicyServ
 
         return IOUtils.toByteArray(policyDataStream);
     }
+
+    private static class DssPolicyContext {
+        private static final JAXBContext JAXB_CONTEXT = createJaxbContext();
+        private static final Schema SCHEMA = PolicySchemaValidator.compileSchema("/xsd/policy.xsd");
+
+        private static JAXBContext createJaxbContext() {
+            try {
+                return JAXBContext.newInstance(ObjectFactory.class);
+            } catch (JAXBException e) {
+                throw new IllegalStateException("Failed to create policy JAXB context", e);
+            }
+        }
+    }
 }
@@ -0,0 +1,34 @@
+/*
+ * Copyright 2019 Riigi Infosüsteemide Amet
+ *
+ * Licensed under the EUPL, Version 1.1 or – as soon they will be approved by
+ * the European Commission - subsequent versions of the EUPL (the "Licence");
+ * You may not use this work except in compliance with the Licence.
+ * You may obtain a copy of the Licence at:
+ *
+ * https://joinup.ec.europa.eu/software/page/eupl
+ *
+ * Unless required by applicable law or agreed to in writing, software distributed under the Licence is
+ * distributed on an "AS IS" basis,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the Licence for the specific language governing permissions and limitations under the Licence.
+ */
+
+package ee.openeid.siva.validation.service.signature.policy;
+
+import ee.openeid.siva.validation.document.ValidationLevel;
+
+import java.util.Collection;
+import java.util.Collections;
+
+public class InvalidValidationLevelException extends InvalidPolicyException {
+
+    public InvalidValidationLevelException(ValidationLevel validationLevel, String policyName, Collection<ValidationLevel> allowedValidationLevels) {
+        super("Validation level " + validationLevel + " is not allowed by signature policy: " + policyName + "; Allowed validation levels: " + allowedValidationLevels);
+    }
+
+    public InvalidValidationLevelException(ValidationLevel validationLevel, String documentName) {
+        super("Validation level " + validationLevel + " is not supported for document: " + documentName
+                + "; Allowed validation levels: " + Collections.singletonList(ValidationLevel.ARCHIVAL_DATA));
+    }
+}
@@ -22,11 +22,15 @@ import org.xml.sax.SAXException;
 
 import javax.xml.XMLConstants;
 import javax.xml.transform.stream.StreamSource;
+import javax.xml.validation.Schema;
 import javax.xml.validation.SchemaFactory;
 import javax.xml.validation.Validator;
 import java.io.IOException;
 import java.io.InputStream;
 
+/**
+ * Validates policies against the policy schema. The schema is compiled once, validators are created per call.
+ */
 public final class PolicySchemaValidator {
 
     private static final Logger LOGGER = LoggerFactory.getLogger(PolicySchemaValidator.class);
@@ -35,15 +39,26 @@ public final class PolicySchemaValidator {
     private PolicySchemaValidator() { }
 
     public static void validate(InputStream xmlToValidate) {
-        SchemaFactory schemaFactory = SchemaFactory.newInstance(XMLConstants.W3C_XML_SCHEMA_NS_URI);
-        StreamSource xsdSource = new StreamSource(PolicySchemaValidator.class.getResourceAsStream(XSD_PATH));
         StreamSource xmlSource = new StreamSource(xmlToValidate);
         try {
-            Validator validator = schemaFactory.newSchema(xsdSource).newValidator();
+            Validator validator = SchemaHolder.SCHEMA.newValidator();
             validator.validate(xmlSource);
         } catch (SAXException | IOException e) {
             LOGGER.error("Not a valid policy", e);
             throw new PolicyValidationException(e);
         }
     }
+
+    static Schema compileSchema(String xsdPath) {
+        SchemaFactory schemaFactory = SchemaFactory.newInstance(XMLConstants.W3C_XML_SCHEMA_NS_URI);
+        try (InputStream xsdStream = PolicySchemaValidator.class.getResourceAsStream(xsdPath)) {
+            return schemaFactory.newSchema(new StreamSource(xsdStream));
+        } catch (SAXException | IOException e) {
+            throw new IllegalStateException("Failed to compile policy schema " + xsdPath, e);
+        }
+    }
+
+    private static class SchemaHolder {
+        private static final Schema SCHEMA = compileSchema(XSD_PATH);
+    }
 }
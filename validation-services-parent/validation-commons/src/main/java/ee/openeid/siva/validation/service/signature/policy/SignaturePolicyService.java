@@ -31,8 +31,9 @@ import java.util.TreeMap;
 public class SignaturePolicyService<T extends ValidationPolicy> {
     private static final Logger LOGGER = LoggerFactory.getLogger(SignaturePolicyService.class);
 
-    private T defaultPolicy;
-    private Map<String, T> signaturePolicies = new TreeMap<>(String.CASE_INSENSITIVE_ORDER);
+    private volatile T defaultPolicy;
+    private volatile Map<String, T> signaturePolicies = new TreeMap<>(String.CASE_INSENSITIVE_ORDER);
+    private volatile long generation;
 
     public SignaturePolicyService(SignaturePolicyProperties<T> signaturePolicyProperties) {
         LOGGER.info("Loading signature abstractPolicies for: " + signaturePolicyProperties.getClass().getSimpleName());
@@ -60,6 +61,21 @@ public class SignaturePolicyService<T extends ValidationPolicy> {
         loadDefaultPolicy(signaturePolicyProperties);
     }
 
+    /**
+     * Replaces a loaded policy without blocking the readers. The policies map is copied, so a reader sees
+     * either the previously loaded or the replacing policy.
+     */
+    synchronized void replacePolicy(T loadedPolicy, T replacingPolicy) {
+        Map<String, T> policies = new TreeMap<>(String.CASE_INSENSITIVE_ORDER);
+        policies.putAll(signaturePolicies);
+        policies.put(replacingPolicy.getName(), replacingPolicy);
+        signaturePolicies = policies;
+        if (defaultPolicy == loadedPolicy) {
+            defaultPolicy = replacingPolicy;
+        }
+        generation++;
+    }
+
     void loadDefaultPolicy(SignaturePolicyProperties<T> signaturePolicyProperties) {
         String defaultPolicyName = signaturePolicyProperties.getAbstractDefaultPolicy();
         defaultPolicy = signaturePolicies.get(defaultPolicyName);
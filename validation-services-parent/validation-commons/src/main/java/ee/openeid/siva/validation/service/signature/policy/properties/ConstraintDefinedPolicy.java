@@ -16,6 +16,8 @@
 
 package ee.openeid.siva.validation.service.signature.policy.properties;
 
+import ee.openeid.siva.validation.document.ValidationLevel;
+import eu.europa.esig.dss.validation.policy.EtsiValidationPolicy;
 import lombok.Getter;
 import lombok.NoArgsConstructor;
 import lombok.Setter;
@@ -23,14 +25,18 @@ import lombok.ToString;
 
 import java.io.ByteArrayInputStream;
 import java.io.InputStream;
+import java.util.ArrayList;
+import java.util.List;
 
 @Getter
 @Setter
 @NoArgsConstructor
-@ToString(exclude = "constraintData")
+@ToString(exclude = {"constraintData", "dssPolicy"})
 public class ConstraintDefinedPolicy extends ValidationPolicy {
     private String constraintPath;
     private byte[] constraintData;
+    private EtsiValidationPolicy dssPolicy;
+    private List<ValidationLevel> allowedValidationLevels = new ArrayList<>();
 
     public ConstraintDefinedPolicy(ValidationPolicy validationPolicy) {
         setName(validationPolicy.getName());
@@ -0,0 +1,210 @@
+/*
+ * Copyright 2019 Riigi Infosüsteemide Amet
+ *
+ * Licensed under the EUPL, Version 1.1 or – as soon they will be approved by
+ * the European Commission - subsequent versions of the EUPL (the "Licence");
+ * You may not use this work except in compliance with the Licence.
+ * You may obtain a copy of the Licence at:
+ *
+ * https://joinup.ec.europa.eu/software/page/eupl
+ *
+ * Unless required by applicable law or agreed to in writing, software distributed under the Licence is
+ * distributed on an "AS IS" basis,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the Licence for the specific language governing permissions and limitations under the Licence.
+ */
+
+
+package ee.openeid.siva.validation.document;
+
+import ee.openeid.siva.validation.exception.MalformedDocumentException;
+import com.sun.management.ThreadMXBean;
+import org.junit.Test;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.lang.management.ManagementFactory;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+import java.util.stream.Collectors;
+import java.util.zip.CRC32;
+import java.util.zip.ZipEntry;
+import java.util.zip.ZipInputStream;
+import java.util.zip.ZipOutputStream;
+
+import static org.junit.Assert.assertArrayEquals;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.assertTrue;
+import static org.junit.Assert.fail;
+
+public class ZipContainerTest {
+
+    private static final byte[] MIMETYPE = "application/vnd.etsi.asic-s+zip".getBytes(StandardCharsets.UTF_8);
+    private static final byte[] DATA_FILE = repeat("Test data file content. ", 1000);
+    private static final byte[] TIMESTAMP = {0x30, 0x03, 0x02, 0x01, 0x01};
+
+    @Test
+    public void entriesAreReadFromCentralDirectory() throws IOException {
+        ZipContainer zipContainer = ZipContainer.read(asicsContainer());
+
+        List<String> names = zipContainer.getEntries().stream().map(ZipContainer.Entry::getName).collect(Collectors.toList());
+        assertEquals(namesFromZipInputStream(asicsContainer()), names);
+        assertTrue(zipContainer.getEntry("META-INF/").get().isDirectory());
+        assertEquals(DATA_FILE.length, zipContainer.getEntry("test ÕÄÖÜ.txt").get().getSize());
+        assertFalse(zipContainer.getEntry("missing.txt").isPresent());
+    }
+
+    @Test
+    public void storedAndDeflatedEntriesAreExtracted() throws IOException {
+        ZipContainer zipContainer = ZipContainer.read(asicsContainer());
+
+        assertArrayEquals(MIMETYPE, zipContainer.getEntry("mimetype").get().getBytes());
+        assertArrayEquals(DATA_FILE, zipContainer.getEntry("test ÕÄÖÜ.txt").get().getBytes());
+        assertArrayEquals(TIMESTAMP, zipContainer.getEntry("META-INF/timestamp.tst").get().getBytes());
+        assertArrayEquals(new byte[0], zipContainer.getEntry("META-INF/").get().getBytes());
+    }
+
+    @Test
+    public void entryIsExtractedOnlyOnce() throws IOException {
+        ZipContainer.Entry entry = ZipContainer.read(asicsContainer()).getEntry("test ÕÄÖÜ.txt").get();
+
+        assertSame(entry.getBytes(), entry.getBytes());
+    }
+
+    @Test
+    public void containerWithCommentAndZip64RecordsIsRead() throws IOException {
+        ByteArrayOutputStream outputStream = new ByteArrayOutputStream();
+        try (ZipOutputStream zipStream = new ZipOutputStream(outputStream)) {
+            zipStream.setComment("Container comment");
+            for (int i = 0; i < 0x10000; i++) {
+                zipStream.putNextEntry(new ZipEntry("file" + i));
+                zipStream.write(String.valueOf(i).getBytes(StandardCharsets.UTF_8));
+                zipStream.closeEntry();
+            }
+        }
+
+        ZipContainer zipContainer = ZipContainer.read(outputStream.toByteArray());
+
+        assertEquals(0x10000, zipContainer.getEntries().size());
+        assertEquals("65535", new String(zipContainer.getEntry("file65535").get().getBytes(), StandardCharsets.UTF_8));
+    }
+
+    @Test(expected = MalformedDocumentException.class)
+    public void documentWithoutCentralDirectoryIsRejected() {
+        ZipContainer.read(DATA_FILE);
+    }
+
+    @Test(expected = MalformedDocumentException.class)
+    public void truncatedContainerIsRejected() throws IOException {
+        byte[] container = asicsContainer();
+        byte[] truncated = new byte[container.length - 30];
+        System.arraycopy(container, 30, truncated, 0, truncated.length);
+        ZipContainer.read(truncated).getEntry("mimetype").get().getBytes();
+    }
+
+    @Test(expected = MalformedDocumentException.class)
+    public void corruptedEntryContentIsRejected() throws IOException {
+        byte[] container = asicsContainer();
+        container[indexOf(container, MIMETYPE)] ^= 1;
+        ZipContainer.read(container).getEntry("mimetype").get().getBytes();
+    }
+
+    @Test
+    public void entryClaimingLargerSizeIsRejectedWithoutAllocatingIt() throws IOException {
+        byte[] dataFile = new byte[1024 * 1024];
+        new Random(1).nextBytes(dataFile);
+        ByteArrayOutputStream outputStream = new ByteArrayOutputStream();
+        try (ZipOutputStream zipStream = new ZipOutputStream(outputStream)) {
+            zipStream.putNextEntry(new ZipEntry("mimetype"));
+            zipStream.write(dataFile);
+        }
+        byte[] container = outputStream.toByteArray();
+        ByteBuffer centralDirectoryHeader = ByteBuffer.wrap(container).order(ByteOrder.LITTLE_ENDIAN);
+        int position = lastIndexOf(container, new byte[]{'P', 'K', 1, 2});
+        centralDirectoryHeader.putInt(position + 24, centralDirectoryHeader.getInt(position + 20) * 1000);
+        ZipContainer.Entry entry = ZipContainer.read(container).getEntry("mimetype").get();
+
+        ThreadMXBean threadMXBean = (ThreadMXBean) ManagementFactory.getThreadMXBean();
+        long allocatedBefore = threadMXBean.getThreadAllocatedBytes(Thread.currentThread().getId());
+        try {
+            entry.getBytes();
+            fail("Expected MalformedDocumentException");
+        } catch (MalformedDocumentException e) {
+            assertEquals("Invalid deflated entry size mimetype", e.getCause().getMessage());
+        }
+        long allocated = threadMXBean.getThreadAllocatedBytes(Thread.currentThread().getId()) - allocatedBefore;
+        assertTrue("Allocated " + allocated + " bytes", allocated < 16 * dataFile.length);
+    }
+
+    private static byte[] asicsContainer() throws IOException {
+        ByteArrayOutputStream outputStream = new ByteArrayOutputStream();
+        try (ZipOutputStream zipStream = new ZipOutputStream(outputStream)) {
+            ZipEntry mimetype = new ZipEntry("mimetype");
+            mimetype.setMethod(ZipEntry.STORED);
+            mimetype.setSize(MIMETYPE.length);
+            CRC32 crc = new CRC32();
+            crc.update(MIMETYPE);
+            mimetype.setCrc(crc.getValue());
+            zipStream.putNextEntry(mimetype);
+            zipStream.write(MIMETYPE);
+            zipStream.putNextEntry(new ZipEntry("test ÕÄÖÜ.txt"));
+            zipStream.write(DATA_FILE);
+            zipStream.putNextEntry(new ZipEntry("META-INF/"));
+            zipStream.putNextEntry(new ZipEntry("META-INF/timestamp.tst"));
+            zipStream.write(TIMESTAMP);
+        }
+        return outputStream.toByteArray();
+    }
+
+    private static List<String> namesFromZipInputStream(byte[] container) throws IOException {
+        List<String> names = new ArrayList<>();
+        try (ZipInputStream zipStream = new ZipInputStream(new ByteArrayInputStream(container))) {
+            ZipEntry entry;
+            while ((entry = zipStream.getNextEntry()) != null) {
+                names.add(entry.getName());
+            }
+        }
+        return names;
+    }
+
+    private static int indexOf(byte[] bytes, byte[] part) {
+        outer:
+        for (int i = 0; i <= bytes.length - part.length; i++) {
+            for (int j = 0; j < part.length; j++) {
+                if (bytes[i + j] != part[j]) {
+                    continue outer;
+                }
+            }
+            return i;
+        }
+        throw new IllegalArgumentException();
+    }
+
+    private static int lastIndexOf(byte[] bytes, byte[] part) {
+        outer:
+        for (int i = bytes.length - part.length; i >= 0; i--) {
+            for (int j = 0; j < part.length; j++) {
+                if (bytes[i + j] != part[j]) {
+                    continue outer;
+                }
+            }
+            return i;
+        }
+        throw new IllegalArgumentException();
+    }
+
+    private static byte[] repeat(String value, int times) {
+        StringBuilder builder = new StringBuilder();
+        for (int i = 0; i < times; i++) {
+            builder.append(value);
+        }
+        return builder.toString().getBytes(StandardCharsets.UTF_8);
+    }
+}
@@ -0,0 +1,64 @@
+/*
+ * Copyright 2019 Riigi Infosüsteemide Amet
+ *
+ * Licensed under the EUPL, Version 1.1 or – as soon they will be approved by
+ * the European Commission - subsequent versions of the EUPL (the "Licence");
+ * You may not use this work except in compliance with the Licence.
+ * You may obtain a copy of the Licence at:
+ *
+ * https://joinup.ec.europa.eu/software/page/eupl
+ *
+ * Unless required by applicable law or agreed to in writing, software distributed under the Licence is
+ * distributed on an "AS IS" basis,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the Licence for the specific language governing permissions and limitations under the Licence.
+ */
+
+package ee.openeid.siva.validation.document.report;
+
+import org.junit.Test;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+public class DataFileDataTest {
+
+    @Test
+    public void base64IsEncodedOnceFromContent() {
+        DataFileData dataFile = new DataFileData();
+        dataFile.setContent("DigiDoc is a".getBytes());
+
+        String base64 = dataFile.getBase64();
+        assertThat(base64).isEqualTo("RGlnaURvYyBpcyBh");
+        assertThat(dataFile.getBase64()).isSameAs(base64);
+    }
+
+    @Test
+    public void newContentReplacesEncodedBase64() {
+        DataFileData dataFile = new DataFileData();
+        dataFile.setContent("DigiDoc is a".getBytes());
+        dataFile.getBase64();
+
+        dataFile.setContent("test".getBytes());
+        assertThat(dataFile.getBase64()).isEqualTo("dGVzdA==");
+    }
+
+    @Test
+    public void contentIsLeftOutOfToString() {
+        DataFileData dataFile = new DataFileData();
+        dataFile.setFilename("test.txt");
+        dataFile.setContent(new byte[]{1, 2, 3});
+
+        assertThat(dataFile.toString()).contains("test.txt").doesNotContain("content");
+    }
+
+    @Test
+    public void dataFilesWithSameContentAreEqual() {
+        DataFileData dataFile = new DataFileData();
+        dataFile.setContent("test".getBytes());
+        DataFileData sameDataFile = new DataFileData();
+        sameDataFile.setBase64("dGVzdA==");
+
+        assertThat(dataFile).isEqualTo(sameDataFile);
+        assertThat(dataFile.hashCode()).isEqualTo(sameDataFile.hashCode());
+    }
+}
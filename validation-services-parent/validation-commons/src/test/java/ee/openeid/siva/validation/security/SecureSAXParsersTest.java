@@ -0,0 +1,121 @@
+/*
+ * Copyright 2019 Riigi Infosüsteemide Amet
+ *
+ * Licensed under the EUPL, Version 1.1 or – as soon they will be approved by
+ * the European Commission - subsequent versions of the EUPL (the "Licence");
+ * You may not use this work except in compliance with the Licence.
+ * You may obtain a copy of the Licence at:
+ *
+ * https://joinup.ec.europa.eu/software/page/eupl
+ *
+ * Unless required by applicable law or agreed to in writing, software distributed under the Licence is
+ * distributed on an "AS IS" basis,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the Licence for the specific language governing permissions and limitations under the Licence.
+ */
+
+package ee.openeid.siva.validation.security;
+
+import org.junit.Assert;
+import org.junit.Test;
+import org.xml.sax.Attributes;
+import org.xml.sax.InputSource;
+import org.xml.sax.SAXException;
+import org.xml.sax.SAXParseException;
+import org.xml.sax.helpers.DefaultHandler;
+
+import java.io.StringReader;
+import java.util.ArrayList;
+import java.util.List;
+
+public class SecureSAXParsersTest {
+
+    private static final String XML_ENTITY_ATTACK = "<?xml version=\"1.0\"?>"
+            + "<!DOCTYPE root [<!ENTITY xxe SYSTEM \"file:///etc/passwd\">]>"
+            + "<root>&xxe;</root>";
+
+    @Test
+    public void documentTypeDeclarationIsRejected() throws Exception {
+        assertRejected(XML_ENTITY_ATTACK);
+    }
+
+    @Test
+    public void documentTypeDeclarationIsRejectedByReusedParser() throws Exception {
+        parse("<root/>", new DefaultHandler());
+        assertRejected(XML_ENTITY_ATTACK);
+        assertRejected(XML_ENTITY_ATTACK);
+    }
+
+    @Test
+    public void documentTypeDeclarationIsRejectedByCreatedParser() throws Exception {
+        try {
+            SecureSAXParsers.createParser().parse(new InputSource(new StringReader(XML_ENTITY_ATTACK)), new DefaultHandler());
+            Assert.fail("Expected SAXParseException");
+        } catch (SAXParseException e) {
+            Assert.assertTrue(e.getMessage().contains("DOCTYPE"));
+        }
+    }
+
+    @Test
+    public void parserIsReusedAfterFailedParse() throws Exception {
+        assertRejected("<root>");
+        ElementNameHandler handler = new ElementNameHandler();
+        parse("<root><child/></root>", handler);
+        Assert.assertEquals(2, handler.elementNames.size());
+    }
+
+    @Test
+    public void handlerOfPreviousParseIsNotNotified() throws Exception {
+        ElementNameHandler firstHandler = new ElementNameHandler();
+        parse("<root/>", firstHandler);
+        parse("<root><child/></root>", null);
+        Assert.assertEquals(1, firstHandler.elementNames.size());
+    }
+
+    @Test
+    public void nestedParseOnSameThreadUsesAnotherParser() throws Exception {
+        ElementNameHandler nestedHandler = new ElementNameHandler();
+        ElementNameHandler outerHandler = new ElementNameHandler() {
+            @Override
+            public void startElement(String uri, String localName, String qName, Attributes attributes) throws SAXException {
+                super.startElement(uri, localName, qName, attributes);
+                if ("root".equals(qName)) {
+                    parseUnchecked("<nested/>", nestedHandler);
+                }
+            }
+        };
+        parse("<root><child/></root>", outerHandler);
+        Assert.assertEquals(2, outerHandler.elementNames.size());
+        Assert.assertEquals(1, nestedHandler.elementNames.size());
+    }
+
+    private static void assertRejected(String xml) throws Exception {
+        try {
+            parse(xml, new DefaultHandler());
+            Assert.fail("Expected SAXParseException");
+        } catch (SAXParseException e) {
+            // expected
+        }
+    }
+
+    private static void parse(String xml, DefaultHandler handler) throws Exception {
+        SecureSAXParsers.parse(new InputSource(new StringReader(xml)), handler);
+    }
+
+    private static void parseUnchecked(String xml, DefaultHandler handler) {
+        try {
+            parse(xml, handler);
+        } catch (Exception e) {
+            throw new IllegalStateException(e);
+        }
+    }
+
+    private static class ElementNameHandler extends DefaultHandler {
+        private final List<String> elementNames = new ArrayList<>();
+
+        @Override
+        public void startElement(String uri, String localName, String qName, Attributes attributes) throws SAXException {
+            elementNames.add(qName);
+        }
+    }
+}
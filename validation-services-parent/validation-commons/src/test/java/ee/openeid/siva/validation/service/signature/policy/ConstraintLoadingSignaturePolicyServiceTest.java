@@ -21,11 +21,19 @@ import ee.openeid.siva.validation.service.signature.policy.properties.SignatureP
 import org.junit.Rule;
 import org.junit.Test;
 import org.junit.rules.ExpectedException;
+import org.junit.rules.TemporaryFolder;
 
+import java.io.File;
 import java.io.IOException;
+import java.io.InputStream;
 import java.net.URISyntaxException;
 import java.net.URL;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
 import java.nio.file.Paths;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
 import java.util.ArrayList;
 import java.util.List;
 
@@ -46,6 +54,9 @@ public class ConstraintLoadingSignaturePolicyServiceTest {
     @Rule
     public ExpectedException expectedException = ExpectedException.none();
 
+    @Rule
+    public TemporaryFolder temporaryFolder = new TemporaryFolder();
+
     @Test
     public void whenSignaturePolicesDoNotContainDefaultPolicyThenThrowException() {
         expectedException.expect(DefaultPolicyNotDefinedException.class);
@@ -127,6 +138,82 @@ public class ConstraintLoadingSignaturePolicyServiceTest {
         assertNotNull(signaturePolicyService.getPolicy("pol2"));
     }
 
+    @Test
+    public void loadedPolicyIsParsedIntoDssPolicy() {
+        ConstraintDefinedPolicy pol1 = createValidationPolicy("pol1", VALID_CLASSPATH_CONSTRAINT);
+        ConstraintLoadingSignaturePolicyService signaturePolicyService = createSignaturePolicyService("pol1", pol1);
+        assertNotNull(signaturePolicyService.getPolicy("pol1").getDssPolicy());
+    }
+
+    @Test
+    public void changedPolicyFileIsReloaded() throws IOException {
+        Path policyFile = copyValidConstraintToTemporaryFolder();
+        ConstraintDefinedPolicy pol1 = createValidationPolicy("pol1", policyFile.toString());
+        pol1.setDescription("description");
+        try (ConstraintLoadingSignaturePolicyService signaturePolicyService = createSignaturePolicyService("pol1", pol1)) {
+            appendToFile(policyFile, "<!-- changed -->");
+            signaturePolicyService.reloadChangedPolicies();
+
+            ConstraintDefinedPolicy reloadedPolicy = signaturePolicyService.getPolicy("pol1");
+            assertNotSame(pol1, reloadedPolicy);
+            assertSame(reloadedPolicy, signaturePolicyService.getDefaultPolicy());
+            assertEquals("description", reloadedPolicy.getDescription());
+            assertNotSame(pol1.getDssPolicy(), reloadedPolicy.getDssPolicy());
+            assertArrayEquals(Files.readAllBytes(policyFile), reloadedPolicy.getConstraintData());
+            assertEquals(1, signaturePolicyService.getGeneration());
+        }
+    }
+
+    @Test
+    public void unchangedPolicyFileIsNotReloaded() throws IOException {
+        Path policyFile = copyValidConstraintToTemporaryFolder();
+        ConstraintDefinedPolicy pol1 = createValidationPolicy("pol1", policyFile.toString());
+        try (ConstraintLoadingSignaturePolicyService signaturePolicyService = createSignaturePolicyService("pol1", pol1)) {
+            signaturePolicyService.reloadChangedPolicies();
+            assertSame(pol1, signaturePolicyService.getPolicy("pol1"));
+            assertEquals(0, signaturePolicyService.getGeneration());
+        }
+    }
+
+    @Test
+    public void invalidChangedPolicyFileKeepsPreviouslyLoadedPolicy() throws IOException {
+        Path policyFile = copyValidConstraintToTemporaryFolder();
+        ConstraintDefinedPolicy pol1 = createValidationPolicy("pol1", policyFile.toString());
+        try (ConstraintLoadingSignaturePolicyService signaturePolicyService = createSignaturePolicyService("pol1", pol1)) {
+            Files.copy(Paths.get(INVALID_ABSOLUTE_PATH_CONSTRAINT), policyFile, StandardCopyOption.REPLACE_EXISTING);
+            signaturePolicyService.reloadChangedPolicies();
+            assertSame(pol1, signaturePolicyService.getPolicy("pol1"));
+            assertEquals(0, signaturePolicyService.getGeneration());
+        }
+    }
+
+    @Test
+    public void changedPolicyFileIsReloadedByFileWatcher() throws IOException, InterruptedException {
+        Path policyFile = copyValidConstraintToTemporaryFolder();
+        ConstraintDefinedPolicy pol1 = createValidationPolicy("pol1", policyFile.toString());
+        try (ConstraintLoadingSignaturePolicyService signaturePolicyService = createSignaturePolicyService("pol1", pol1)) {
+            signaturePolicyService.watchPolicyFiles();
+            appendToFile(policyFile, "<!-- changed -->");
+            long deadline = System.currentTimeMillis() + 30_000;
+            while (signaturePolicyService.getGeneration() == 0 && System.currentTimeMillis() < deadline) {
+                Thread.sleep(50);
+            }
+            assertNotSame(pol1, signaturePolicyService.getPolicy("pol1"));
+        }
+    }
+
+    private Path copyValidConstraintToTemporaryFolder() throws IOException {
+        File policyFile = temporaryFolder.newFile("constraint.xml");
+        try (InputStream constraint = getClass().getResourceAsStream("/" + VALID_CLASSPATH_CONSTRAINT)) {
+            Files.copy(constraint, policyFile.toPath(), StandardCopyOption.REPLACE_EXISTING);
+        }
+        return policyFile.toPath();
+    }
+
+    private static void appendToFile(Path file, String content) throws IOException {
+        Files.write(file, content.getBytes(StandardCharsets.UTF_8), StandardOpenOption.APPEND);
+    }
+
     private ConstraintLoadingSignaturePolicyService createSignaturePolicyService(String defaultPolicy, ConstraintDefinedPolicy... policyPaths) {
         List<ConstraintDefinedPolicy> policies = new ArrayList<>();
         stream(policyPaths).forEach(policies::add);